@@ -28,6 +28,8 @@ module org.shredzone.acme4j {
     exports org.shredzone.acme4j.connector;
     exports org.shredzone.acme4j.exception;
     exports org.shredzone.acme4j.provider;
+    exports org.shredzone.acme4j.provider.failover;
+    exports org.shredzone.acme4j.responder;
     exports org.shredzone.acme4j.toolbox;
     exports org.shredzone.acme4j.util;
 
@@ -0,0 +1,242 @@
+/*
+ * acme4j - Java ACME client
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://acme4j.shredzone.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ */
+package org.shredzone.acme4j;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.joining;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.LongSupplier;
+
+import org.shredzone.acme4j.challenge.Challenge;
+
+/**
+ * A {@link PollPolicy} that learns how long it takes until a resource is completed, and
+ * schedules the polls accordingly.
+ * <p>
+ * The completion times are recorded separately for orders, authorizations, and every
+ * challenge type. For example, if http-01 challenges are usually validated after about
+ * 800 ms, the first poll is scheduled after 800 ms, while dns-01 challenges that take
+ * 20 seconds are not polled before that time. As long as there are not enough samples,
+ * a default delay is used.
+ * <p>
+ * The times are also recorded separately for each set of awaited status, so waiting
+ * for an order to become ready and waiting for the certificate to be issued are learned
+ * independently. Only waits that reached an awaited status are recorded. Waits that
+ * ended with {@link Status#INVALID} would skew the samples, and are ignored.
+ * <p>
+ * The total poll rate of all resources using this policy is capped. If the cap is
+ * reached, polls are delayed until a slot is available.
+ * <p>
+ * This class is thread-safe. An instance should not be shared between sessions of
+ * different CAs.
+ *
+ * @since 5.2.0
+ */
+public class AdaptivePollPolicy implements PollPolicy {
+    private static final int SAMPLE_SIZE = 32;
+    private static final int MIN_SAMPLES = 3;
+    private static final double[] QUANTILES = {0.5, 0.75, 0.9, 1.0};
+
+    private final Map<String, Samples> samples = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Long> reservedSlots = new ConcurrentSkipListSet<>();
+    private final Duration defaultDelay;
+    private final Duration minDelay;
+    private final Duration maxDelay;
+    private final long slotNanos;
+    private final LongSupplier clock;
+
+    /**
+     * Creates a new {@link AdaptivePollPolicy} with default settings. It uses
+     * {@link PollableResource#DEFAULT_RETRY_AFTER} as long as there are not enough
+     * samples, never polls more often than every 500 ms or less often than every 30
+     * seconds, and polls at most 10 times per second.
+     */
+    public AdaptivePollPolicy() {
+        this(PollableResource.DEFAULT_RETRY_AFTER, Duration.ofMillis(500L),
+                Duration.ofSeconds(30L), 10.0);
+    }
+
+    /**
+     * Creates a new {@link AdaptivePollPolicy}.
+     *
+     * @param defaultDelay
+     *         Delay to be used if there are not enough samples for a resource type
+     * @param minDelay
+     *         Minimum delay between two polls of the same resource
+     * @param maxDelay
+     *         Maximum delay between two polls of the same resource
+     * @param maxPollsPerSecond
+     *         Maximum number of polls per second, of all resources using this policy
+     */
+    public AdaptivePollPolicy(Duration defaultDelay, Duration minDelay, Duration maxDelay,
+                              double maxPollsPerSecond) {
+        this(defaultDelay, minDelay, maxDelay, maxPollsPerSecond, System::nanoTime);
+    }
+
+    /**
+     * Creates a new {@link AdaptivePollPolicy} with a custom clock. Only for unit tests.
+     */
+    AdaptivePollPolicy(Duration defaultDelay, Duration minDelay, Duration maxDelay,
+                       double maxPollsPerSecond, LongSupplier clock) {
+        this.defaultDelay = requireNonNull(defaultDelay, "defaultDelay");
+        this.minDelay = requireNonNull(minDelay, "minDelay");
+        this.maxDelay = requireNonNull(maxDelay, "maxDelay");
+        this.clock = requireNonNull(clock, "clock");
+        if (minDelay.isNegative() || minDelay.compareTo(maxDelay) > 0) {
+            throw new IllegalArgumentException("minDelay must be between 0 and maxDelay");
+        }
+        if (!(maxPollsPerSecond > 0.0)) {
+            throw new IllegalArgumentException("maxPollsPerSecond must be positive");
+        }
+        this.slotNanos = Math.max(1L, (long) (1_000_000_000.0 / maxPollsPerSecond));
+    }
+
+    @Override
+    public Duration nextPollDelay(PollableResource resource, Set<Status> statusSet,
+            Duration elapsed) {
+        var delay = expectedCompletionTimes(resource, statusSet)
+                .flatMap(times -> times.stream()
+                        .filter(time -> time.compareTo(elapsed) > 0)
+                        .findFirst())
+                .map(time -> time.minus(elapsed))
+                .orElse(defaultDelay);
+
+        if (delay.compareTo(minDelay) < 0) {
+            delay = minDelay;
+        } else if (delay.compareTo(maxDelay) > 0) {
+            delay = maxDelay;
+        }
+
+        return reserveSlot(delay);
+    }
+
+    @Override
+    public void completed(PollableResource resource, Set<Status> statusSet, Status status,
+            Duration elapsed) {
+        if (status == Status.INVALID || !statusSet.contains(status)) {
+            return;
+        }
+        samples.computeIfAbsent(keyOf(resource, statusSet), k -> new Samples())
+                .add(elapsed.toMillis());
+    }
+
+    /**
+     * Returns the expected completion times of the given resource's type, in ascending
+     * order. Each entry represents a quantile of the recorded completion times.
+     *
+     * @param resource
+     *         {@link PollableResource} to get the expected completion times of
+     * @param statusSet
+     *         Set of {@link Status} that is waited for
+     * @return Expected completion times, or empty if there are not enough samples yet
+     */
+    public Optional<List<Duration>> expectedCompletionTimes(PollableResource resource,
+            Set<Status> statusSet) {
+        var s = samples.get(keyOf(resource, statusSet));
+        return s != null ? s.quantiles() : Optional.empty();
+    }
+
+    /**
+     * Reserves a poll slot that is not before the given delay, and respects the maximum
+     * poll rate.
+     *
+     * @param delay
+     *         Desired delay
+     * @return Actual delay until the reserved slot
+     */
+    private Duration reserveSlot(Duration delay) {
+        var now = clock.getAsLong();
+        var nowSlot = Math.floorDiv(now, slotNanos);
+        reservedSlots.headSet(nowSlot).clear();
+
+        var slot = Math.max(nowSlot, ceilDiv(now + delay.toNanos(), slotNanos));
+        while (!reservedSlots.add(slot)) {
+            slot++;
+        }
+
+        return Duration.ofNanos(Math.max(0L, slot * slotNanos - now));
+    }
+
+    /**
+     * Returns the key that is used for recording the samples of the given resource and
+     * the awaited status. {@link Status#INVALID} is not part of the key.
+     */
+    private static String keyOf(PollableResource resource, Set<Status> statusSet) {
+        String type;
+        if (resource instanceof Challenge challenge) {
+            type = "challenge:" + challenge.getType();
+        } else if (resource instanceof Authorization) {
+            type = "authorization";
+        } else if (resource instanceof Order) {
+            type = "order";
+        } else {
+            type = resource.getClass().getName();
+        }
+
+        return statusSet.stream()
+                .filter(status -> status != Status.INVALID)
+                .sorted()
+                .map(Status::name)
+                .collect(joining(",", type + ":", ""));
+    }
+
+    private static long ceilDiv(long x, long y) {
+        return -Math.floorDiv(-x, y);
+    }
+
+    /**
+     * Keeps the latest completion time samples of a resource type.
+     */
+    private static class Samples {
+        private final long[] values = new long[SAMPLE_SIZE];
+        private int count = 0;
+        private int next = 0;
+
+        public synchronized void add(long millis) {
+            values[next] = millis;
+            next = (next + 1) % values.length;
+            count = Math.min(count + 1, values.length);
+        }
+
+        public synchronized Optional<List<Duration>> quantiles() {
+            if (count < MIN_SAMPLES) {
+                return Optional.empty();
+            }
+
+            var sorted = Arrays.copyOf(values, count);
+            Arrays.sort(sorted);
+
+            var result = new Duration[QUANTILES.length];
+            for (var ix = 0; ix < QUANTILES.length; ix++) {
+                var index = (int) Math.ceil(QUANTILES[ix] * count) - 1;
+                result[ix] = Duration.ofMillis(sorted[Math.max(0, index)]);
+            }
+            return Optional.of(List.of(result));
+        }
+    }
+
+    @Override
+    protected final void finalize() {
+        // CT_CONSTRUCTOR_THROW: Prevents finalizer attack
+    }
+
+}
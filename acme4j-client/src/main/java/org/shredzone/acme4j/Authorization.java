@@ -69,6 +69,16 @@ public class Authorization extends AcmeJsonResource implements PollableResource
         return getJSON().get("status").asStatus();
     }
 
+    /**
+     * Returns the {@link PollPolicy} of the {@link Session}.
+     *
+     * @since 5.2.0
+     */
+    @Override
+    public PollPolicy getPollPolicy() {
+        return getSession().getPollPolicy();
+    }
+
     /**
      * Gets the expiry date of the authorization, if set by the server.
      */
@@ -0,0 +1,255 @@
+/*
+ * acme4j - Java ACME client
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://acme4j.shredzone.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ */
+package org.shredzone.acme4j;
+
+import static java.util.Objects.requireNonNull;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.shredzone.acme4j.exception.AcmeException;
+
+/**
+ * Remembers the valid {@link Authorization}s of an account.
+ * <p>
+ * CAs permit to reuse valid authorizations for new orders until they expire. This cache
+ * keeps track of the valid authorizations, so it can be checked locally if an identifier
+ * is already authorized, and challenges only need to be provisioned for the
+ * authorizations that are not valid yet.
+ * <p>
+ * Authorizations are regarded as expired a safety margin before their actual expiry
+ * date, so they won't expire while an order is processed. Authorizations without expiry
+ * date are not cached.
+ * <p>
+ * Each {@link Login} has its own cache, see {@link Login#getAuthorizationCache()}. This
+ * class is thread-safe.
+ *
+ * @since 5.2.0
+ */
+public class AuthorizationCache {
+    private static final Duration DEFAULT_EXPIRY_MARGIN = Duration.ofHours(1L);
+
+    private final Map<Key, Authorization> byIdentifier = new ConcurrentHashMap<>();
+    private final Map<URI, Authorization> byLocation = new ConcurrentHashMap<>();
+    private volatile Duration expiryMargin = DEFAULT_EXPIRY_MARGIN;
+
+    /**
+     * Creates a new, empty {@link AuthorizationCache}.
+     */
+    AuthorizationCache() {
+        // package-private, instances are created by Login
+    }
+
+    /**
+     * Sets the safety margin. Authorizations are regarded as expired if they expire
+     * within this margin. The default is one hour.
+     *
+     * @param expiryMargin
+     *         Safety margin before the expiry date
+     */
+    public void setExpiryMargin(Duration expiryMargin) {
+        requireNonNull(expiryMargin, "expiryMargin");
+        if (expiryMargin.isNegative()) {
+            throw new IllegalArgumentException("expiryMargin must not be negative");
+        }
+        this.expiryMargin = expiryMargin;
+    }
+
+    /**
+     * Returns the current safety margin before the expiry date.
+     */
+    public Duration getExpiryMargin() {
+        return expiryMargin;
+    }
+
+    /**
+     * Records the current state of an {@link Authorization}. Valid authorizations are
+     * added to the cache. Other authorizations (e.g. deactivated or revoked ones) are
+     * removed from the cache.
+     * <p>
+     * The authorization state is fetched from the server if it has not been fetched yet.
+     *
+     * @param authorization
+     *         {@link Authorization} to record
+     */
+    public void record(Authorization authorization) {
+        var key = Key.of(authorization.getIdentifier(), authorization.isWildcard());
+        var location = toUri(authorization.getLocation());
+
+        if (authorization.getStatus() == Status.VALID && isUsable(authorization)) {
+            var previous = byIdentifier.put(key, authorization);
+            if (previous != null && previous != authorization) {
+                byLocation.remove(toUri(previous.getLocation()), previous);
+            }
+            byLocation.put(location, authorization);
+        } else {
+            byLocation.remove(location);
+            byIdentifier.computeIfPresent(key, (k, v) ->
+                    toUri(v.getLocation()).equals(location) ? null : v);
+        }
+    }
+
+    /**
+     * Checks if the given identifier is currently authorized. No request is sent to the
+     * server.
+     *
+     * @param identifier
+     *         {@link Identifier} to check. For wildcard orders, pass the wildcard
+     *         domain (e.g. {@code *.example.org}).
+     * @return {@code true} if there is a valid authorization for this identifier
+     */
+    public boolean isAuthorized(Identifier identifier) {
+        return getAuthorization(identifier).isPresent();
+    }
+
+    /**
+     * Checks if the authorization at the given location is currently valid. No request
+     * is sent to the server.
+     *
+     * @param location
+     *         Location {@link URL} of the {@link Authorization}
+     * @return {@code true} if the authorization is known to be valid
+     */
+    public boolean isAuthorized(URL location) {
+        var cached = byLocation.get(toUri(location));
+        return cached != null && isUsable(cached);
+    }
+
+    /**
+     * Returns the valid {@link Authorization} of the given identifier. No request is
+     * sent to the server.
+     *
+     * @param identifier
+     *         {@link Identifier} to look up. For wildcard orders, pass the wildcard
+     *         domain (e.g. {@code *.example.org}).
+     * @return Valid {@link Authorization}, or empty if there is none
+     */
+    public Optional<Authorization> getAuthorization(Identifier identifier) {
+        var key = Key.of(identifier);
+        var authorization = byIdentifier.get(key);
+        if (authorization == null) {
+            return Optional.empty();
+        }
+        if (!isUsable(authorization)) {
+            byIdentifier.remove(key, authorization);
+            byLocation.remove(toUri(authorization.getLocation()), authorization);
+            return Optional.empty();
+        }
+        return Optional.of(authorization);
+    }
+
+    /**
+     * Returns the authorizations of the given {@link Order} that still need to be
+     * validated, by performing a challenge.
+     * <p>
+     * Authorizations that are known to be valid are skipped without contacting the
+     * server. The state of all other authorizations is fetched and recorded.
+     *
+     * @param order
+     *         {@link Order} to check
+     * @return List of {@link Authorization}s that are not valid yet
+     */
+    public List<Authorization> requiringChallenges(Order order) throws AcmeException {
+        var result = new ArrayList<Authorization>();
+        for (var authorization : order.getAuthorizations()) {
+            if (isAuthorized(authorization.getLocation())) {
+                continue;
+            }
+
+            if (!authorization.isValid()) {
+                authorization.fetch();
+            }
+            record(authorization);
+            if (authorization.getStatus() != Status.VALID) {
+                result.add(authorization);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Removes the authorization of the given identifier from the cache, e.g. because
+     * the server has rejected it.
+     *
+     * @param identifier
+     *         {@link Identifier} to remove
+     */
+    public void invalidate(Identifier identifier) {
+        var authorization = byIdentifier.remove(Key.of(identifier));
+        if (authorization != null) {
+            byLocation.remove(toUri(authorization.getLocation()), authorization);
+        }
+    }
+
+    /**
+     * Removes all authorizations from the cache.
+     */
+    public void clear() {
+        byIdentifier.clear();
+        byLocation.clear();
+    }
+
+    /**
+     * Checks if the {@link Authorization} won't expire within the safety margin.
+     */
+    private boolean isUsable(Authorization authorization) {
+        return authorization.getExpires()
+                .map(expires -> expires.isAfter(Instant.now().plus(expiryMargin)))
+                .orElse(false);
+    }
+
+    /**
+     * Converts the location {@link URL} to a {@link URI}, as {@link URL#equals(Object)}
+     * may resolve the host name.
+     */
+    private static URI toUri(URL location) {
+        try {
+            return location.toURI();
+        } catch (URISyntaxException ex) {
+            throw new IllegalArgumentException("Invalid location " + location, ex);
+        }
+    }
+
+    /**
+     * The cache key of an identifier. Only type and value are regarded, and wildcard
+     * domains are stored separately from the base domain.
+     */
+    private record Key(String type, String value, boolean wildcard) {
+        static Key of(Identifier identifier) {
+            var value = identifier.getValue();
+            if (Identifier.TYPE_DNS.equals(identifier.getType()) && value.startsWith("*.")) {
+                return of(identifier.getType(), value.substring(2), true);
+            }
+            return of(identifier.getType(), value, false);
+        }
+
+        static Key of(Identifier identifier, boolean wildcard) {
+            return of(identifier.getType(), identifier.getValue(), wildcard);
+        }
+
+        private static Key of(String type, String value, boolean wildcard) {
+            return new Key(type, value.toLowerCase(Locale.ENGLISH), wildcard);
+        }
+    }
+
+}
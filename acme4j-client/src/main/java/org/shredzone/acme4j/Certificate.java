@@ -20,6 +20,7 @@ import static java.util.stream.Collectors.toUnmodifiableList;
 import static org.shredzone.acme4j.toolbox.AcmeUtils.getRenewalUniqueIdentifier;
 
 import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serial;
 import java.io.Writer;
 import java.net.MalformedURLException;
@@ -32,6 +33,9 @@ import java.security.cert.X509Certificate;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 import edu.umd.cs.findbugs.annotations.Nullable;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
@@ -41,6 +45,7 @@ import org.shredzone.acme4j.exception.AcmeLazyLoadingException;
 import org.shredzone.acme4j.exception.AcmeNotSupportedException;
 import org.shredzone.acme4j.exception.AcmeProtocolException;
 import org.shredzone.acme4j.toolbox.AcmeUtils;
+import org.shredzone.acme4j.toolbox.CertificateInterner;
 import org.shredzone.acme4j.toolbox.JSONBuilder;
 import org.shredzone.acme4j.toolbox.JoseUtils;
 import org.slf4j.Logger;
@@ -84,6 +89,7 @@ public class Certificate extends AcmeResource {
                 alternates = conn.getLinks("alternate");
                 certChain = conn.readCertificates();
             }
+            getSession().getIssuerChainCache().record(certChain);
         }
     }
 
@@ -172,6 +178,120 @@ public class Certificate extends AcmeResource {
                 .findFirst();
     }
 
+    /**
+     * Finds a {@link Certificate} that was issued by the given issuer name. If this
+     * certificate was not issued by that issuer, all alternate certificates are
+     * downloaded concurrently before they are checked.
+     *
+     * @param issuer
+     *         Issuer name to check against, case-sensitive
+     * @param executor
+     *         {@link Executor} that is used for downloading the alternate certificates
+     * @return Certificate that was issued by that issuer, or {@code empty} if there was
+     * none. See {@link #findCertificate(String)}.
+     * @throws AcmeException
+     *         if an alternate certificate could not be downloaded
+     * @since 5.2.0
+     */
+    public Optional<Certificate> findCertificate(String issuer, Executor executor)
+                throws AcmeException {
+        if (isIssuedBy(issuer)) {
+            return Optional.of(this);
+        }
+        downloadAlternates(executor);
+        return findCertificate(issuer);
+    }
+
+    /**
+     * Returns the certificate chain that was issued by the given issuer name.
+     * <p>
+     * If this certificate was not issued by that issuer, the
+     * {@link Session#getIssuerChainCache()} is consulted first. If another certificate of
+     * the same intermediate has been downloaded with a matching chain before, the chain
+     * is assembled locally. Otherwise the alternate certificates are downloaded one by
+     * one.
+     *
+     * @param issuer
+     *         Issuer name to check against, case-sensitive
+     * @return Certificate chain that was issued by that issuer, starting with the
+     * end-entity certificate, or {@code empty} if there was none.
+     * @since 5.2.0
+     */
+    public Optional<List<X509Certificate>> findCertificateChain(String issuer) {
+        return findCachedCertificateChain(issuer)
+                .or(() -> findCertificate(issuer).map(Certificate::getCertificateChain));
+    }
+
+    /**
+     * Returns the certificate chain that was issued by the given issuer name. If the
+     * chain is neither this certificate's chain nor found in the
+     * {@link Session#getIssuerChainCache()}, all alternate certificates are downloaded
+     * concurrently.
+     *
+     * @param issuer
+     *         Issuer name to check against, case-sensitive
+     * @param executor
+     *         {@link Executor} that is used for downloading the alternate certificates
+     * @return Certificate chain that was issued by that issuer, starting with the
+     * end-entity certificate, or {@code empty} if there was none.
+     * @throws AcmeException
+     *         if an alternate certificate could not be downloaded
+     * @since 5.2.0
+     */
+    public Optional<List<X509Certificate>> findCertificateChain(String issuer, Executor executor)
+                throws AcmeException {
+        var cached = findCachedCertificateChain(issuer);
+        if (cached.isPresent()) {
+            return cached;
+        }
+        return findCertificate(issuer, executor).map(Certificate::getCertificateChain);
+    }
+
+    /**
+     * Downloads all alternate certificates concurrently. Alternate certificates that
+     * have been downloaded already are not downloaded again.
+     * <p>
+     * Usually the alternate certificates are downloaded lazily, one by one. This method
+     * can be used for downloading them in parallel, so the time for fetching all
+     * alternates is about the time of the slowest download.
+     * <p>
+     * Note that the downloads are signed requests. A {@link Session} serializes all
+     * signed requests, because the nonce is locked while a request is signed and sent.
+     * The downloads are only performed concurrently if a
+     * {@link org.shredzone.acme4j.connector.SignerPool} is set to the session.
+     *
+     * @param executor
+     *         {@link Executor} that is used for downloading the alternate certificates
+     * @throws AcmeException
+     *         if an alternate certificate could not be downloaded
+     * @since 5.2.0
+     */
+    public void downloadAlternates(Executor executor) throws AcmeException {
+        requireNonNull(executor, "executor");
+
+        var futures = getAlternateCertificates().stream()
+                .map(alt -> CompletableFuture.runAsync(() -> {
+                    try {
+                        alt.download();
+                    } catch (AcmeException ex) {
+                        throw new CompletionException(ex);
+                    }
+                }, executor))
+                .toArray(CompletableFuture[]::new);
+
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof AcmeException acmeEx) {
+                throw acmeEx;
+            }
+            if (ex.getCause() instanceof RuntimeException rtEx) {
+                throw rtEx;
+            }
+            throw ex;
+        }
+    }
+
     /**
      * Writes the certificate to the given writer. It is written in PEM format, with the
      * end-entity cert coming first, followed by the intermediate certificates.
@@ -339,6 +459,28 @@ public class Certificate extends AcmeResource {
         }
     }
 
+    /**
+     * Interns the issuer certificates after deserialization.
+     */
+    @Serial
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        if (certChain != null) {
+            certChain = CertificateInterner.internIssuers(certChain);
+        }
+    }
+
+    /**
+     * Returns this certificate's chain if it was issued by the given issuer, or a chain
+     * that was assembled from the {@link IssuerChainCache}.
+     */
+    private Optional<List<X509Certificate>> findCachedCertificateChain(String issuer) {
+        if (isIssuedBy(issuer)) {
+            return Optional.of(getCertificateChain());
+        }
+        return getSession().getIssuerChainCache().find(getCertificate(), issuer);
+    }
+
     /**
      * Lazily downloads the certificate. Throws a runtime {@link AcmeLazyLoadingException}
      * if the download failed.
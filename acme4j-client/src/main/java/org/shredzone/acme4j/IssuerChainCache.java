@@ -0,0 +1,209 @@
+/*
+ * acme4j - Java ACME client
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://acme4j.shredzone.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ */
+package org.shredzone.acme4j;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.bouncycastle.asn1.x509.AuthorityKeyIdentifier;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.cert.jcajce.JcaX509ExtensionUtils;
+import org.shredzone.acme4j.toolbox.AcmeUtils;
+
+/**
+ * Remembers the issuer chains of the certificates that have been downloaded in a
+ * {@link Session}.
+ * <p>
+ * If a CA offers alternate certificate chains, the chain that is issued by a preferred
+ * root is usually the same for all certificates that were signed by the same
+ * intermediate certificate. This cache stores the issuer chains by the Authority Key
+ * Identifier and the distinguished name of the end-entity certificate's issuer, and by
+ * the names of the issuers found in the chain. After a preferred chain has been
+ * downloaded once, it can be assembled for further certificates of the same
+ * intermediate without downloading the alternates again.
+ * <p>
+ * Intermediates with the same name, but a different key, have different Authority Key
+ * Identifiers. If the end-entity certificate has no Authority Key Identifier, its
+ * signature is verified against the cached intermediate instead. The number of cached
+ * chains is limited. If the limit is reached, the least recently used chain is
+ * evicted.
+ * <p>
+ * Each {@link Session} has its own cache, see {@link Session#getIssuerChainCache()}.
+ * This class is thread-safe.
+ *
+ * @see Certificate#findCertificateChain(String)
+ * @since 5.2.0
+ */
+public class IssuerChainCache {
+    private static final int MAX_SIZE = 256;
+
+    private final Map<Key, List<X509Certificate>> chains;
+
+    /**
+     * Creates a new, empty {@link IssuerChainCache}.
+     */
+    IssuerChainCache() {
+        // package-private, instances are created by Session
+        this(MAX_SIZE);
+    }
+
+    /**
+     * Creates a new, empty {@link IssuerChainCache} with the given size limit.
+     *
+     * @param maxSize
+     *         Maximum number of cached issuer chain entries
+     */
+    IssuerChainCache(int maxSize) {
+        this.chains = new BoundedMap(maxSize);
+    }
+
+    /**
+     * Records a certificate chain. Chains without issuer certificates are ignored.
+     *
+     * @param chain
+     *         Certificate chain, starting with the end-entity certificate
+     */
+    public void record(List<X509Certificate> chain) {
+        requireNonNull(chain, "chain");
+        if (chain.size() < 2) {
+            return;
+        }
+
+        var leaf = chain.get(0);
+        var authorityKeyId = getAuthorityKeyId(leaf);
+        var leafIssuer = leaf.getIssuerX500Principal().getName();
+        var issuers = List.copyOf(chain.subList(1, chain.size()));
+        synchronized (chains) {
+            for (var cert : chain) {
+                chains.put(new Key(authorityKeyId, leafIssuer,
+                        cert.getIssuerX500Principal().getName()), issuers);
+            }
+        }
+    }
+
+    /**
+     * Assembles the certificate chain of the given end-entity certificate that was
+     * issued by the given issuer. No request is sent to the server.
+     *
+     * @param certificate
+     *         End-entity {@link X509Certificate}
+     * @param issuer
+     *         Issuer name to look for, case-sensitive (see
+     *         {@link Certificate#isIssuedBy(String)})
+     * @return Certificate chain, starting with the given end-entity certificate, or
+     * empty if no matching issuer chain is known
+     */
+    public Optional<List<X509Certificate>> find(X509Certificate certificate, String issuer) {
+        requireNonNull(certificate, "certificate");
+        requireNonNull(issuer, "issuer");
+
+        var authorityKeyId = getAuthorityKeyId(certificate);
+        var key = new Key(authorityKeyId,
+                certificate.getIssuerX500Principal().getName(), "CN=" + issuer);
+        List<X509Certificate> issuers;
+        synchronized (chains) {
+            issuers = chains.get(key);
+        }
+        if (issuers == null) {
+            return Optional.empty();
+        }
+
+        if (authorityKeyId.isEmpty()) {
+            // Only the issuer name is known, so make sure it is the same issuer
+            try {
+                certificate.verify(issuers.get(0).getPublicKey());
+            } catch (GeneralSecurityException ex) {
+                return Optional.empty();
+            }
+        }
+
+        var result = new ArrayList<X509Certificate>(issuers.size() + 1);
+        result.add(certificate);
+        result.addAll(issuers);
+        return Optional.of(List.copyOf(result));
+    }
+
+    /**
+     * Returns the number of cached issuer chain entries.
+     */
+    public int size() {
+        synchronized (chains) {
+            return chains.size();
+        }
+    }
+
+    /**
+     * Removes all issuer chains from the cache.
+     */
+    public void clear() {
+        synchronized (chains) {
+            chains.clear();
+        }
+    }
+
+    /**
+     * Returns the key identifier of the Authority Key Identifier extension as hex
+     * string, or an empty string if the certificate has none.
+     */
+    private static String getAuthorityKeyId(X509Certificate certificate) {
+        var extension = certificate.getExtensionValue(Extension.authorityKeyIdentifier.getId());
+        if (extension == null) {
+            return "";
+        }
+        try {
+            var keyId = AuthorityKeyIdentifier
+                    .getInstance(JcaX509ExtensionUtils.parseExtensionValue(extension))
+                    .getKeyIdentifier();
+            return keyId != null ? AcmeUtils.hexEncode(keyId) : "";
+        } catch (IOException | IllegalArgumentException ex) {
+            return "";
+        }
+    }
+
+    /**
+     * The cache key. It consists of the Authority Key Identifier and the distinguished
+     * name of the end-entity certificate's issuer, and the distinguished name of an
+     * issuer in the chain.
+     */
+    private record Key(String authorityKeyId, String leafIssuer, String issuer) {
+    }
+
+    /**
+     * LRU map that drops the eldest entry when the size limit is exceeded.
+     */
+    private static class BoundedMap extends LinkedHashMap<Key, List<X509Certificate>> {
+        private static final long serialVersionUID = 1L;
+
+        private final int maxSize;
+
+        private BoundedMap(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, List<X509Certificate>> eldest) {
+            return size() > maxSize;
+        }
+    }
+
+}
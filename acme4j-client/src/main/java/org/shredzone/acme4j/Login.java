@@ -14,14 +14,19 @@
 package org.shredzone.acme4j;
 
 import static java.util.Objects.requireNonNull;
+import static org.shredzone.acme4j.toolbox.AcmeUtils.base64UrlEncode;
 import static org.shredzone.acme4j.toolbox.AcmeUtils.getRenewalUniqueIdentifier;
 
 import java.net.MalformedURLException;
 import java.net.URI;
+import java.net.URISyntaxException;
 import java.net.URL;
 import java.security.KeyPair;
 import java.security.PublicKey;
 import java.security.cert.X509Certificate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
 
 import edu.umd.cs.findbugs.annotations.Nullable;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
@@ -51,12 +56,21 @@ import org.shredzone.acme4j.toolbox.JoseUtils;
  * Note that {@link Login} objects are intentionally not serializable, as they contain a
  * keypair and volatile data. On distributed systems, you can create a {@link Login} to
  * the same account for every service instance.
+ * <p>
+ * Optionally, a login can keep an identity map of the bound resources. If enabled via
+ * {@link #setIdentityMapSize(int)}, binding the same location again returns the
+ * instance that has been bound before, with its state already fetched.
  */
 public class Login {
 
     private final Session session;
     private final Account account;
+    private final AuthorizationCache authorizationCache = new AuthorizationCache();
+    private final Object identityMapLock = new Object();
     private KeyPair keyPair;
+    private volatile @Nullable String thumbprint;
+    private int identityMapSize = 0;
+    private @Nullable Map<URI, AcmeResource> identityMap;
 
     /**
      * Creates a new {@link Login}.
@@ -91,6 +105,21 @@ public class Login {
         return keyPair.getPublic();
     }
 
+    /**
+     * Returns the base64url encoded JWK thumbprint of the account's {@link PublicKey}.
+     * It is computed once, and then kept until the key pair is changed.
+     *
+     * @since 5.2.0
+     */
+    public String getThumbprint() {
+        var result = thumbprint;
+        if (result == null) {
+            result = base64UrlEncode(JoseUtils.thumbprint(getPublicKey()));
+            thumbprint = result;
+        }
+        return result;
+    }
+
     /**
      * Gets the {@link Account} that is bound to this login.
      *
@@ -101,6 +130,16 @@ public class Login {
         return account;
     }
 
+    /**
+     * Returns the {@link AuthorizationCache} of this login's account.
+     *
+     * @since 5.2.0
+     */
+    @SuppressFBWarnings("EI_EXPOSE_REP")    // behavior is intended
+    public AuthorizationCache getAuthorizationCache() {
+        return authorizationCache;
+    }
+
     /**
      * Creates a new instance of an existing {@link Authorization} and binds it to this
      * login.
@@ -110,7 +149,8 @@ public class Login {
      * @return {@link Authorization} bound to the login
      */
     public Authorization bindAuthorization(URL location) {
-        return new Authorization(this, requireNonNull(location, "location"));
+        requireNonNull(location, "location");
+        return bind(location, Authorization.class, () -> new Authorization(this, location));
     }
 
     /**
@@ -122,7 +162,8 @@ public class Login {
      * @return {@link Certificate} bound to the login
      */
     public Certificate bindCertificate(URL location) {
-        return new Certificate(this, requireNonNull(location, "location"));
+        requireNonNull(location, "location");
+        return bind(location, Certificate.class, () -> new Certificate(this, location));
     }
 
     /**
@@ -133,7 +174,8 @@ public class Login {
      * @return {@link Order} bound to the login
      */
     public Order bindOrder(URL location) {
-        return new Order(this, requireNonNull(location, "location"));
+        requireNonNull(location, "location");
+        return bind(location, Order.class, () -> new Order(this, location));
     }
 
     /**
@@ -146,7 +188,8 @@ public class Login {
      * @since 3.0.0
      */
     public RenewalInfo bindRenewalInfo(URL location) {
-        return new RenewalInfo(this, requireNonNull(location, "location"));
+        requireNonNull(location, "location");
+        return bind(location, RenewalInfo.class, () -> new RenewalInfo(this, location));
     }
 
     /**
@@ -182,9 +225,19 @@ public class Login {
      * @see #bindChallenge(URL, Class)
      */
     public Challenge bindChallenge(URL location) {
+        var key = identityKey(location);
+        var bound = key != null ? lookup(key, Challenge.class) : null;
+        if (bound != null) {
+            return bound;
+        }
+
         try (var connect = session.connect()) {
             connect.sendSignedPostAsGetRequest(location, this);
-            return createChallenge(connect.readJsonResponse());
+            var challenge = createChallenge(connect.readJsonResponse());
+            if (key != null) {
+                challenge = register(key, Challenge.class, challenge);
+            }
+            return challenge;
         } catch (AcmeException ex) {
             throw new AcmeLazyLoadingException(Challenge.class, location, ex);
         }
@@ -228,6 +281,71 @@ public class Login {
         return challenge;
     }
 
+    /**
+     * Sets the maximum number of resources that are kept in the identity map of this
+     * login. If the map is full, the least recently bound resource is evicted.
+     * <p>
+     * The identity map is disabled by default. If it is enabled, the
+     * {@code bind...()} methods return the instance that has previously been bound to
+     * the same location, instead of creating a new instance. This way, the state of
+     * resources that are referenced several times (e.g. an authorization that is used by
+     * multiple orders) is only fetched and kept in memory once.
+     * <p>
+     * Note that the bound instances are shared, so their state is shared as well.
+     *
+     * @param size
+     *         Maximum number of resources in the identity map, or 0 to disable it.
+     *         If the map is shrunk, the least recently bound resources are evicted.
+     * @since 5.2.0
+     */
+    public void setIdentityMapSize(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("size must not be negative");
+        }
+        synchronized (identityMapLock) {
+            var oldMap = identityMap;
+            identityMapSize = size;
+            identityMap = null;
+            if (size > 0) {
+                identityMap = new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<URI, AcmeResource> eldest) {
+                        return size() > identityMapSize;
+                    }
+                };
+                if (oldMap != null) {
+                    identityMap.putAll(oldMap);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the maximum number of resources in the identity map, or 0 if the identity
+     * map is disabled.
+     *
+     * @since 5.2.0
+     */
+    public int getIdentityMapSize() {
+        synchronized (identityMapLock) {
+            return identityMapSize;
+        }
+    }
+
+    /**
+     * Removes all resources from the identity map. Subsequent binds will create new
+     * instances.
+     *
+     * @since 5.2.0
+     */
+    public void clearIdentityMap() {
+        synchronized (identityMapLock) {
+            if (identityMap != null) {
+                identityMap.clear();
+            }
+        }
+    }
+
     /**
      * Creates a builder for a new {@link Order}.
      *
@@ -244,6 +362,7 @@ public class Login {
      */
     protected void setKeyPair(KeyPair keyPair) {
         this.keyPair = requireNonNull(keyPair, "keyPair");
+        this.thumbprint = null;
     }
 
     /**
@@ -264,4 +383,94 @@ public class Login {
         return JoseUtils.createJoseRequest(url, keyPair, payload, nonce, getAccount().getLocation().toString());
     }
 
+    /**
+     * Returns the resource that is bound to the location. If the identity map is
+     * enabled, a previously bound instance is returned. Otherwise a new instance is
+     * created.
+     *
+     * @param location
+     *         Location of the resource
+     * @param type
+     *         Expected resource type
+     * @param factory
+     *         Creates a new instance of the resource
+     * @return Bound resource
+     */
+    private <T extends AcmeResource> T bind(URL location, Class<T> type, Supplier<T> factory) {
+        var key = identityKey(location);
+        if (key == null) {
+            return factory.get();
+        }
+
+        var bound = lookup(key, type);
+        return bound != null ? bound : register(key, type, factory.get());
+    }
+
+    /**
+     * Looks up a resource in the identity map.
+     *
+     * @param key
+     *         Identity key of the resource
+     * @param type
+     *         Expected resource type
+     * @return Bound resource, or {@code null} if there is no resource of the expected
+     * type at the location
+     */
+    @Nullable
+    private <T extends AcmeResource> T lookup(URI key, Class<T> type) {
+        synchronized (identityMapLock) {
+            var bound = identityMap != null ? identityMap.get(key) : null;
+            return type.isInstance(bound) ? type.cast(bound) : null;
+        }
+    }
+
+    /**
+     * Registers a resource in the identity map. If another thread has registered an
+     * instance of the same type in the meantime, that instance is returned instead.
+     *
+     * @param key
+     *         Identity key of the resource
+     * @param type
+     *         Expected resource type
+     * @param resource
+     *         Resource to register
+     * @return Registered resource
+     */
+    private <T extends AcmeResource> T register(URI key, Class<T> type, T resource) {
+        synchronized (identityMapLock) {
+            if (identityMap == null) {
+                return resource;
+            }
+            var bound = identityMap.get(key);
+            if (type.isInstance(bound)) {
+                return type.cast(bound);
+            }
+            identityMap.put(key, resource);
+            return resource;
+        }
+    }
+
+    /**
+     * Returns the identity map key of the given location. {@link URI} is used because
+     * {@link URL#equals(Object)} may resolve the host name.
+     *
+     * @param location
+     *         Location of the resource
+     * @return Identity key, or {@code null} if the identity map is disabled or the
+     * location cannot be converted to a {@link URI}
+     */
+    @Nullable
+    private URI identityKey(URL location) {
+        synchronized (identityMapLock) {
+            if (identityMap == null) {
+                return null;
+            }
+        }
+        try {
+            return location.toURI();
+        } catch (URISyntaxException ex) {
+            return null;
+        }
+    }
+
 }
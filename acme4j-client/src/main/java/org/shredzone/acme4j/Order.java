@@ -14,10 +14,12 @@
 package org.shredzone.acme4j;
 
 import static java.util.Collections.unmodifiableList;
+import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toList;
 
 import java.io.IOException;
 import java.io.Serial;
+import java.io.UncheckedIOException;
 import java.net.URL;
 import java.security.KeyPair;
 import java.time.Duration;
@@ -25,7 +27,13 @@ import java.time.Instant;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import edu.umd.cs.findbugs.annotations.Nullable;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
@@ -49,6 +57,7 @@ public class Order extends AcmeJsonResource implements PollableResource {
 
     private transient @Nullable Certificate certificate = null;
     private transient @Nullable List<Authorization> authorizations = null;
+    private transient @Nullable CompletableFuture<byte[]> preparedCsr = null;
 
     protected Order(Login login, URL location) {
         super(login, location);
@@ -66,6 +75,16 @@ public class Order extends AcmeJsonResource implements PollableResource {
         return getJSON().get("status").asStatus();
     }
 
+    /**
+     * Returns the {@link PollPolicy} of the {@link Session}.
+     *
+     * @since 5.2.0
+     */
+    @Override
+    public PollPolicy getPollPolicy() {
+        return getSession().getPollPolicy();
+    }
+
     /**
      * Returns a {@link Problem} document with the reason if the order has failed.
      */
@@ -269,6 +288,143 @@ public class Order extends AcmeJsonResource implements PollableResource {
         invalidate();
     }
 
+    /**
+     * Prepares the finalization of the order in the background.
+     * <p>
+     * The domain key pair is generated, and the CSR is built and signed asynchronously,
+     * while the authorizations of this order are still being validated. When the order
+     * is ready, {@link #executeWhenReady(Duration)} finalizes it immediately with the
+     * prepared CSR.
+     * <p>
+     * The background tasks are executed by the common {@link ForkJoinPool}.
+     *
+     * @param keyPairSupplier
+     *         {@link Supplier} of the {@link KeyPair} that is going to be certified.
+     *         This is not your account's keypair!
+     * @param builderConsumer
+     *         {@link Consumer} that adds further details to the provided
+     *         {@link CSRBuilder}.
+     * @return {@link CompletableFuture} that is completed with the domain key pair when
+     * the CSR has been signed
+     * @see #executeWhenReady(Duration)
+     * @since 5.2.0
+     */
+    public CompletableFuture<KeyPair> prepareExecution(Supplier<KeyPair> keyPairSupplier,
+            Consumer<CSRBuilder> builderConsumer) {
+        return prepareExecution(keyPairSupplier, builderConsumer, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Prepares the finalization of the order in the background, using the given
+     * {@link Executor} (see {@link #prepareExecution(Supplier, Consumer)}).
+     *
+     * @param keyPairSupplier
+     *         {@link Supplier} of the {@link KeyPair} that is going to be certified.
+     *         This is not your account's keypair!
+     * @param builderConsumer
+     *         {@link Consumer} that adds further details to the provided
+     *         {@link CSRBuilder}.
+     * @param executor
+     *         {@link Executor} that generates the key pair and signs the CSR
+     * @return {@link CompletableFuture} that is completed with the domain key pair when
+     * the CSR has been signed
+     * @see #executeWhenReady(Duration)
+     * @since 5.2.0
+     */
+    public CompletableFuture<KeyPair> prepareExecution(Supplier<KeyPair> keyPairSupplier,
+            Consumer<CSRBuilder> builderConsumer, Executor executor) {
+        requireNonNull(keyPairSupplier, "keyPairSupplier");
+        requireNonNull(builderConsumer, "builderConsumer");
+        requireNonNull(executor, "executor");
+
+        // The identifiers are read here, so the background task won't access the server
+        var identifiers = getIdentifiers();
+        var result = new CompletableFuture<KeyPair>();
+        var csrFuture = CompletableFuture.supplyAsync(() -> {
+            try {
+                var domainKeyPair = keyPairSupplier.get();
+                var csrBuilder = new CSRBuilder();
+                csrBuilder.addIdentifiers(identifiers);
+                builderConsumer.accept(csrBuilder);
+                csrBuilder.sign(domainKeyPair);
+                var csr = csrBuilder.getEncoded();
+                result.complete(domainKeyPair);
+                return csr;
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }, executor);
+        // Also fails the result if the task was aborted by an Error
+        csrFuture.whenComplete((csr, ex) -> {
+            if (ex != null) {
+                result.completeExceptionally(unwrapCsrFailure(ex));
+            }
+        });
+        preparedCsr = csrFuture;
+        return result;
+    }
+
+    /**
+     * Waits until the order is ready for finalization, and then immediately finalizes
+     * it with the CSR that was prepared by
+     * {@link #prepareExecution(Supplier, Consumer)}. If the CSR is not signed yet, this
+     * method also waits for it.
+     * <p>
+     * The order is only finalized if it has reached {@link Status#READY}. Use
+     * {@link #waitForCompletion(Duration)} afterwards to wait for the certificate.
+     * <p>
+     * This method is synchronous and blocks the current thread.
+     *
+     * @param timeout
+     *         Timeout until the order must be ready
+     * @return Status that was reached before finalization. If it is not
+     * {@link Status#READY}, the order was not finalized.
+     * @throws IllegalStateException
+     *         if the execution has not been prepared
+     * @since 5.2.0
+     */
+    public Status executeWhenReady(Duration timeout)
+            throws AcmeException, InterruptedException {
+        var csrFuture = preparedCsr;
+        if (csrFuture == null) {
+            throw new IllegalStateException("Execution has not been prepared");
+        }
+
+        var status = waitUntilReady(timeout);
+        if (status != Status.READY) {
+            return status;
+        }
+
+        byte[] csr;
+        try {
+            csr = csrFuture.get();
+        } catch (ExecutionException ex) {
+            // A failed preparation cannot be retried, it needs to be prepared again
+            if (preparedCsr == csrFuture) {
+                preparedCsr = null;
+            }
+            throw new AcmeException("Failed to create CSR", unwrapCsrFailure(ex.getCause()));
+        }
+
+        execute(csr);
+        preparedCsr = null;
+        return status;
+    }
+
+    /**
+     * Returns the exception that has caused the CSR preparation to fail.
+     */
+    private static Throwable unwrapCsrFailure(Throwable ex) {
+        var cause = ex;
+        if (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof UncheckedIOException uioe) {
+            cause = uioe.getCause();
+        }
+        return cause;
+    }
+
     /**
      * Waits until the order is ready for finalization.
      * <p>
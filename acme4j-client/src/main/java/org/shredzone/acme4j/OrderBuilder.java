@@ -418,7 +418,7 @@ public class OrderBuilder {
 
             conn.sendSignedRequest(session.resourceUrl(Resource.NEW_ORDER), claims, login);
 
-            var order = new Order(login, conn.getLocation());
+            var order = login.bindOrder(conn.getLocation());
             order.setJSON(conn.readJsonResponse());
             return order;
         }
@@ -0,0 +1,80 @@
+/*
+ * acme4j - Java ACME client
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://acme4j.shredzone.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ */
+package org.shredzone.acme4j;
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Schedules the status polls of a {@link PollableResource}, if the CA did not send a
+ * Retry-After header.
+ *
+ * @see Session#setPollPolicy(PollPolicy)
+ * @see AdaptivePollPolicy
+ * @since 5.2.0
+ */
+public interface PollPolicy {
+
+    /**
+     * Returns the delay until the next status poll of the given resource.
+     * <p>
+     * This method is only invoked if the CA did not send a Retry-After header.
+     *
+     * @param resource
+     *         {@link PollableResource} that is polled
+     * @param statusSet
+     *         Set of {@link Status} that is waited for
+     * @param elapsed
+     *         Time that has elapsed since polling has been started
+     * @return Delay until the next poll
+     */
+    Duration nextPollDelay(PollableResource resource, Set<Status> statusSet, Duration elapsed);
+
+    /**
+     * Notifies that the resource has reached one of the expected status.
+     * <p>
+     * The default implementation does nothing.
+     *
+     * @param resource
+     *         {@link PollableResource} that was polled
+     * @param statusSet
+     *         Set of {@link Status} that was waited for
+     * @param status
+     *         {@link Status} that has been reached
+     * @param elapsed
+     *         Time that has elapsed since polling has been started
+     */
+    default void completed(PollableResource resource, Set<Status> statusSet, Status status,
+            Duration elapsed) {
+        // nothing to do by default
+    }
+
+    /**
+     * Returns a {@link PollPolicy} that always polls with the given fixed delay.
+     *
+     * @param delay
+     *         Delay between two polls
+     * @return {@link PollPolicy} with fixed delay
+     */
+    static PollPolicy fixed(Duration delay) {
+        requireNonNull(delay, "delay");
+        if (delay.isNegative()) {
+            throw new IllegalArgumentException("delay must not be negative");
+        }
+        return (resource, statusSet, elapsed) -> delay;
+    }
+
+}
@@ -35,7 +35,8 @@ import org.shredzone.acme4j.exception.AcmeException;
 public interface PollableResource {
 
     /**
-     * Default delay between status polls if there is no Retry-After header.
+     * Default delay between status polls if there is no Retry-After header, and no other
+     * {@link PollPolicy} is used.
      */
     Duration DEFAULT_RETRY_AFTER = Duration.ofSeconds(3L);
 
@@ -51,10 +52,23 @@ public interface PollableResource {
      */
     Optional<Instant> fetch() throws AcmeException;
 
+    /**
+     * Returns the {@link PollPolicy} that schedules the status polls if the CA did not
+     * send a Retry-After header.
+     * <p>
+     * The default implementation polls every {@link #DEFAULT_RETRY_AFTER}.
+     *
+     * @since 5.2.0
+     */
+    default PollPolicy getPollPolicy() {
+        return PollPolicy.fixed(DEFAULT_RETRY_AFTER);
+    }
+
     /**
      * Waits until a terminal status has been reached, by polling until one of the given
      * status or the given timeout has been reached. This call honors the Retry-After
-     * header if set by the CA.
+     * header if set by the CA. Otherwise, the polls are scheduled by the
+     * {@link PollPolicy} returned by {@link #getPollPolicy()}.
      * <p>
      * This method is synchronous and blocks the current thread.
      * <p>
@@ -79,19 +93,25 @@ public interface PollableResource {
             return currentStatus;
         }
 
-        var timebox = now().plus(timeout);
+        var pollPolicy = getPollPolicy();
+        var started = now();
+        var timebox = started.plus(timeout);
         Instant now;
 
         while ((now = now()).isBefore(timebox)) {
             // Poll status and get the time of the next poll
-            var retryAfter = fetch()
-                    .orElse(now.plus(DEFAULT_RETRY_AFTER));
+            var retryAfterOpt = fetch();
 
             currentStatus = getStatus();
             if (statusSet.contains(currentStatus)) {
+                pollPolicy.completed(this, statusSet, currentStatus, Duration.between(started, now()));
                 return currentStatus;
             }
 
+            var retryAfter = retryAfterOpt.isPresent()
+                    ? retryAfterOpt.get()
+                    : now.plus(pollPolicy.nextPollDelay(this, statusSet, Duration.between(started, now)));
+
             // Preemptively end the loop if the next iteration would be after timebox
             if (retryAfter.isAfter(timebox)) {
                 break;
@@ -35,6 +35,7 @@ import org.shredzone.acme4j.connector.Connection;
 import org.shredzone.acme4j.connector.NetworkSettings;
 import org.shredzone.acme4j.connector.NonceHolder;
 import org.shredzone.acme4j.connector.Resource;
+import org.shredzone.acme4j.connector.SignerPool;
 import org.shredzone.acme4j.exception.AcmeException;
 import org.shredzone.acme4j.exception.AcmeNotSupportedException;
 import org.shredzone.acme4j.provider.AcmeProvider;
@@ -52,8 +53,9 @@ import org.shredzone.acme4j.toolbox.JSON.Value;
  * documentation about valid URIs.
  * <p>
  * Starting with version 4.0.0, a session instance can be shared between multiple threads.
- * A session won't perform parallel HTTP connections. For high-load scenarios, it is
- * recommended to use multiple sessions.
+ * A session won't perform parallel HTTP connections, unless a
+ * {@link org.shredzone.acme4j.connector.SignerPool} is set. For high-load scenarios, it
+ * is recommended to use multiple sessions.
  */
 public class Session {
 
@@ -64,10 +66,13 @@ public class Session {
     private final AtomicReference<HttpClient> httpClient = new AtomicReference<>();
     private final ReentrantLock nonceLock = new ReentrantLock();
     private final NetworkSettings networkSettings = new NetworkSettings();
+    private final IssuerChainCache issuerChainCache = new IssuerChainCache();
     private final URI serverUri;
     private final AcmeProvider provider;
 
     private @Nullable String nonce;
+    private volatile @Nullable SignerPool signerPool;
+    private volatile PollPolicy pollPolicy = PollPolicy.fixed(PollableResource.DEFAULT_RETRY_AFTER);
     private @Nullable Locale locale = Locale.getDefault();
     private String languageHeader = AcmeUtils.localeToLanguageHeader(Locale.getDefault());
     protected @Nullable ZonedDateTime directoryLastModified;
@@ -185,6 +190,76 @@ public class Session {
         };
     }
 
+    /**
+     * Returns the {@link SignerPool} that is used for signing requests, or {@code null}
+     * if requests are signed while the nonce is locked.
+     *
+     * @since 5.2.0
+     */
+    @Nullable
+    public SignerPool getSignerPool() {
+        return signerPool;
+    }
+
+    /**
+     * Sets a {@link SignerPool} that is used for signing requests.
+     * <p>
+     * By default, a session signs and sends all requests while the nonce is locked, so
+     * requests of concurrent threads are serialized. If a {@link SignerPool} is set, a
+     * nonce is taken from the session, and the request is then signed and sent without
+     * holding the lock. This is useful if several threads share a session, and signing
+     * is slow (e.g. if a remote signing service is used). Note that concurrent requests
+     * may require additional nonces to be fetched from the server.
+     * <p>
+     * The session does not close the {@link SignerPool}.
+     *
+     * @param signerPool
+     *         {@link SignerPool} to be used, or {@code null} to sign requests while
+     *         the nonce is locked (default).
+     * @since 5.2.0
+     */
+    public void setSignerPool(@Nullable SignerPool signerPool) {
+        this.signerPool = signerPool;
+    }
+
+    /**
+     * Returns the {@link PollPolicy} that is used for polling the status of orders,
+     * authorizations, and challenges of this session.
+     *
+     * @since 5.2.0
+     */
+    public PollPolicy getPollPolicy() {
+        return pollPolicy;
+    }
+
+    /**
+     * Sets the {@link PollPolicy} that is used for polling the status of orders,
+     * authorizations, and challenges of this session. It is only used if the CA does
+     * not send a Retry-After header.
+     * <p>
+     * By default, the status is polled every {@link PollableResource#DEFAULT_RETRY_AFTER}.
+     * An {@link AdaptivePollPolicy} can be used for scheduling the polls by the
+     * completion times observed in this session.
+     *
+     * @param pollPolicy
+     *         {@link PollPolicy} to be used
+     * @since 5.2.0
+     */
+    public void setPollPolicy(PollPolicy pollPolicy) {
+        this.pollPolicy = requireNonNull(pollPolicy, "pollPolicy");
+    }
+
+    /**
+     * Returns the {@link IssuerChainCache} that keeps the issuer chains of all
+     * certificates downloaded in this session.
+     *
+     * @since 5.2.0
+     */
+    @SuppressFBWarnings("EI_EXPOSE_REP")    // behavior is intended
+    public IssuerChainCache getIssuerChainCache() {
+        return issuerChainCache;
+    }
+
     /**
      * Gets the current locale of this session, or {@code null} if no special language is
      * selected.
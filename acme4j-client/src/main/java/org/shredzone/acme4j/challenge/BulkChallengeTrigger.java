@@ -0,0 +1,374 @@
+/*
+ * acme4j - Java ACME client
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://acme4j.shredzone.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ */
+package org.shredzone.acme4j.challenge;
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+import org.shredzone.acme4j.Status;
+import org.shredzone.acme4j.exception.AcmeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Triggers a collection of {@link Challenge}s, and waits for their completion.
+ * <p>
+ * The challenges are triggered in parallel, with a limited number of concurrent
+ * requests. After that, a single poller fetches the status of all pending challenges.
+ * Each challenge is polled when its Retry-After time is reached, or as scheduled by its
+ * {@link org.shredzone.acme4j.PollPolicy}. The status requests are sent in parallel as
+ * well, with the same concurrency limit.
+ * <p>
+ * Failures of single challenges do not affect the other challenges. They are reported
+ * in the {@link Result}.
+ * <p>
+ * Note that a {@link org.shredzone.acme4j.Session} serializes all signed requests,
+ * unless a {@link org.shredzone.acme4j.connector.SignerPool} is set.
+ *
+ * @since 5.2.0
+ */
+public class BulkChallengeTrigger {
+    private static final Logger LOG = LoggerFactory.getLogger(BulkChallengeTrigger.class);
+    private static final int DEFAULT_MAX_CONCURRENCY = 8;
+    private static final Set<Status> TERMINAL_STATUS = EnumSet.of(Status.VALID, Status.INVALID);
+
+    private final int maxConcurrency;
+
+    /**
+     * Creates a new {@link BulkChallengeTrigger} that sends up to 8 concurrent requests.
+     */
+    public BulkChallengeTrigger() {
+        this(DEFAULT_MAX_CONCURRENCY);
+    }
+
+    /**
+     * Creates a new {@link BulkChallengeTrigger}.
+     *
+     * @param maxConcurrency
+     *         Maximum number of concurrent requests
+     */
+    public BulkChallengeTrigger(int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be positive");
+        }
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Returns the maximum number of concurrent requests.
+     */
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * Triggers all challenges, and waits until they have been completed.
+     * <p>
+     * Challenges that are already {@link Status#VALID} or {@link Status#INVALID} are not
+     * triggered again.
+     *
+     * @param challenges
+     *         {@link Challenge}s to trigger
+     * @param timeout
+     *         Timeout until all challenges must have been completed
+     * @return {@link Result} with the status and errors of all challenges
+     */
+    public Result triggerAll(Collection<? extends Challenge> challenges, Duration timeout)
+            throws InterruptedException {
+        requireNonNull(challenges, "challenges");
+        requireNonNull(timeout, "timeout");
+
+        var result = new Result(challenges);
+        if (challenges.isEmpty()) {
+            return result;
+        }
+
+        var threadCount = new AtomicInteger();
+        var executor = Executors.newFixedThreadPool(Math.min(maxConcurrency, challenges.size()), r -> {
+            var t = new Thread(r, "acme4j-bulk-trigger-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            var started = Instant.now();
+            var pending = trigger(challenges, executor, result);
+            poll(pending, executor, result, started, started.plus(timeout));
+        } finally {
+            executor.shutdownNow();
+        }
+        return result;
+    }
+
+    /**
+     * Triggers all challenges in parallel.
+     *
+     * @return Challenges that are not completed yet
+     */
+    private List<Challenge> trigger(Collection<? extends Challenge> challenges,
+            ExecutorService executor, Result result) throws InterruptedException {
+        var futures = new LinkedHashMap<Challenge, Future<Status>>();
+        for (var challenge : challenges) {
+            futures.put(challenge, executor.submit(() -> {
+                var status = challenge.getStatus();
+                if (!isCompleted(status)) {
+                    challenge.trigger();
+                    status = challenge.getStatus();
+                }
+                return status;
+            }));
+        }
+
+        var pending = new ArrayList<Challenge>();
+        for (var entry : futures.entrySet()) {
+            var challenge = entry.getKey();
+            try {
+                var status = entry.getValue().get();
+                result.setStatus(challenge, status);
+                if (!isCompleted(status)) {
+                    pending.add(challenge);
+                }
+            } catch (ExecutionException ex) {
+                LOG.warn("Could not trigger challenge {}", challenge.getLocation(), ex.getCause());
+                result.setError(challenge, ex.getCause());
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * Polls the pending challenges until they are completed, or the deadline is
+     * reached.
+     */
+    private void poll(List<Challenge> pending, ExecutorService executor, Result result,
+            Instant started, Instant deadline) throws InterruptedException {
+        var queue = new PriorityQueue<Scheduled>(Comparator.comparing(Scheduled::due));
+        for (var challenge : pending) {
+            schedule(queue, challenge, null, started, deadline, result);
+        }
+
+        var completion = new ExecutorCompletionService<Polled>(executor);
+        var inFlight = 0;
+
+        while (!queue.isEmpty() || inFlight > 0) {
+            var now = Instant.now();
+
+            while (!queue.isEmpty() && !queue.peek().due().isAfter(now) && inFlight < maxConcurrency) {
+                var challenge = queue.poll().challenge();
+                completion.submit(() -> fetch(challenge));
+                inFlight++;
+            }
+
+            Future<Polled> done;
+            if (inFlight == 0) {
+                var next = requireNonNull(queue.peek()).due();
+                Thread.sleep(Math.max(1L, Duration.between(now, next).toMillis()));
+                continue;
+            } else if (!queue.isEmpty() && inFlight < maxConcurrency) {
+                var wait = Duration.between(now, queue.peek().due()).toMillis();
+                done = completion.poll(Math.max(1L, wait), TimeUnit.MILLISECONDS);
+            } else {
+                done = completion.take();
+            }
+
+            if (done == null) {
+                continue;
+            }
+            inFlight--;
+
+            var polled = getPolled(done);
+            var challenge = polled.challenge();
+            var error = polled.error();
+            if (error != null) {
+                LOG.warn("Could not poll challenge {}", challenge.getLocation(), error);
+                result.setError(challenge, error);
+                continue;
+            }
+
+            var status = challenge.getStatus();
+            result.setStatus(challenge, status);
+            if (isCompleted(status)) {
+                challenge.getPollPolicy().completed(challenge, TERMINAL_STATUS, status,
+                        Duration.between(started, Instant.now()));
+            } else {
+                schedule(queue, challenge, polled.retryAfter(), started, deadline, result);
+            }
+        }
+    }
+
+    /**
+     * Fetches the current state of the challenge. Errors are returned in the result.
+     */
+    private static Polled fetch(Challenge challenge) {
+        try {
+            return new Polled(challenge, challenge.fetch().orElse(null), null);
+        } catch (AcmeException | RuntimeException ex) {
+            return new Polled(challenge, null, ex);
+        }
+    }
+
+    /**
+     * Returns the result of a completed fetch.
+     */
+    private static Polled getPolled(Future<Polled> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException ex) {
+            // fetch() catches all exceptions, so this can only be an Error
+            throw new IllegalStateException("Unexpected poll failure", ex.getCause());
+        }
+    }
+
+    /**
+     * Schedules the next poll of a challenge. If the poll would be after the deadline,
+     * the challenge is marked as timed out instead.
+     */
+    private static void schedule(PriorityQueue<Scheduled> queue, Challenge challenge,
+            @Nullable Instant retryAfter, Instant started, Instant deadline, Result result) {
+        var now = Instant.now();
+        var due = retryAfter != null
+                ? retryAfter
+                : now.plus(challenge.getPollPolicy().nextPollDelay(challenge, TERMINAL_STATUS,
+                        Duration.between(started, now)));
+        if (due.isAfter(deadline)) {
+            result.setError(challenge, new AcmeException("Timeout has been reached"));
+            return;
+        }
+        queue.add(new Scheduled(challenge, due));
+    }
+
+    /**
+     * Checks if the status is terminal.
+     */
+    private static boolean isCompleted(Status status) {
+        return TERMINAL_STATUS.contains(status);
+    }
+
+    /**
+     * A challenge that is scheduled to be polled.
+     */
+    private record Scheduled(Challenge challenge, Instant due) {
+    }
+
+    /**
+     * A challenge that has been polled.
+     */
+    private record Polled(Challenge challenge, @Nullable Instant retryAfter,
+                          @Nullable Exception error) {
+    }
+
+    /**
+     * The result of a bulk trigger.
+     */
+    public static final class Result {
+        private final Map<Challenge, Status> status = new IdentityHashMap<>();
+        private final Map<Challenge, Throwable> errors = new IdentityHashMap<>();
+        private final List<Challenge> challenges;
+
+        private Result(Collection<? extends Challenge> challenges) {
+            this.challenges = List.copyOf(challenges);
+        }
+
+        /**
+         * Returns all challenges, in the order they were passed in.
+         */
+        public List<Challenge> getChallenges() {
+            return challenges;
+        }
+
+        /**
+         * Returns the last known status of the challenge.
+         *
+         * @param challenge
+         *         {@link Challenge} to check
+         * @return Last known {@link Status}, or {@link Status#UNKNOWN} if it could not be
+         * determined
+         */
+        public Status getStatus(Challenge challenge) {
+            return status.getOrDefault(challenge, Status.UNKNOWN);
+        }
+
+        /**
+         * Returns the error that occurred while the challenge was triggered or polled.
+         * A timeout is reported as {@link AcmeException}.
+         *
+         * @param challenge
+         *         {@link Challenge} to check
+         * @return Error, or empty if there was none
+         */
+        public Optional<Throwable> getError(Challenge challenge) {
+            return Optional.ofNullable(errors.get(challenge));
+        }
+
+        /**
+         * Returns all challenges that have reached the {@link Status#VALID} status.
+         */
+        public List<Challenge> getValid() {
+            return challenges.stream()
+                    .filter(c -> getStatus(c) == Status.VALID)
+                    .toList();
+        }
+
+        /**
+         * Returns all challenges that have not reached the {@link Status#VALID} status,
+         * either because they are invalid, an error occurred, or they timed out.
+         */
+        public List<Challenge> getFailed() {
+            return challenges.stream()
+                    .filter(c -> getStatus(c) != Status.VALID)
+                    .toList();
+        }
+
+        /**
+         * Returns {@code true} if all challenges are {@link Status#VALID}.
+         */
+        public boolean isAllValid() {
+            return challenges.stream().allMatch(c -> getStatus(c) == Status.VALID);
+        }
+
+        private void setStatus(Challenge challenge, Status newStatus) {
+            status.put(challenge, newStatus);
+        }
+
+        private void setError(Challenge challenge, Throwable error) {
+            errors.put(challenge, error);
+        }
+    }
+
+    @Override
+    protected final void finalize() {
+        // CT_CONSTRUCTOR_THROW: Prevents finalizer attack
+    }
+
+}
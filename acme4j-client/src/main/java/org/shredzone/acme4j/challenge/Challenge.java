@@ -21,8 +21,10 @@ import java.util.Optional;
 
 import org.shredzone.acme4j.AcmeJsonResource;
 import org.shredzone.acme4j.Login;
+import org.shredzone.acme4j.PollPolicy;
 import org.shredzone.acme4j.PollableResource;
 import org.shredzone.acme4j.Problem;
+import org.shredzone.acme4j.Session;
 import org.shredzone.acme4j.Status;
 import org.shredzone.acme4j.exception.AcmeException;
 import org.shredzone.acme4j.exception.AcmeProtocolException;
@@ -86,6 +88,16 @@ public class Challenge extends AcmeJsonResource implements PollableResource {
         return getJSON().get(KEY_STATUS).asStatus();
     }
 
+    /**
+     * Returns the {@link PollPolicy} of the {@link Session}.
+     *
+     * @since 5.2.0
+     */
+    @Override
+    public PollPolicy getPollPolicy() {
+        return getSession().getPollPolicy();
+    }
+
     /**
      * Returns the validation date, if returned by the server.
      */
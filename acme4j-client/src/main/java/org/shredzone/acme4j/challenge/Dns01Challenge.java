@@ -13,9 +13,6 @@
  */
 package org.shredzone.acme4j.challenge;
 
-import static org.shredzone.acme4j.toolbox.AcmeUtils.base64UrlEncode;
-import static org.shredzone.acme4j.toolbox.AcmeUtils.sha256hash;
-
 import java.io.Serial;
 
 import org.shredzone.acme4j.Identifier;
@@ -85,7 +82,7 @@ public class Dns01Challenge extends TokenChallenge {
      * record.
      */
     public String getDigest() {
-        return base64UrlEncode(sha256hash(getAuthorization()));
+        return getAuthorizationDigest();
     }
 
     @Override
@@ -85,7 +85,7 @@ public class DnsAccount01Challenge extends TokenChallenge {
      * Returns the digest string to be set in the domain's TXT record.
      */
     public String getDigest() {
-        return base64UrlEncode(sha256hash(getAuthorization()));
+        return getAuthorizationDigest();
     }
 
     /**
@@ -13,8 +13,6 @@
  */
 package org.shredzone.acme4j.challenge;
 
-import static org.shredzone.acme4j.toolbox.AcmeUtils.sha256hash;
-
 import java.io.IOException;
 import java.io.Serial;
 import java.security.KeyPair;
@@ -68,7 +66,7 @@ public class TlsAlpn01Challenge extends TokenChallenge {
      * the test certificate.
      */
     public byte[] getAcmeValidation() {
-        return sha256hash(getAuthorization());
+        return getAuthorizationHash().clone();
     }
 
     /**
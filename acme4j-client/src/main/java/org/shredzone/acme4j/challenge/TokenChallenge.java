@@ -14,14 +14,15 @@
 package org.shredzone.acme4j.challenge;
 
 import static org.shredzone.acme4j.toolbox.AcmeUtils.base64UrlEncode;
+import static org.shredzone.acme4j.toolbox.AcmeUtils.sha256hash;
 
 import java.io.Serial;
 
+import edu.umd.cs.findbugs.annotations.Nullable;
 import org.shredzone.acme4j.Login;
 import org.shredzone.acme4j.exception.AcmeProtocolException;
 import org.shredzone.acme4j.toolbox.AcmeUtils;
 import org.shredzone.acme4j.toolbox.JSON;
-import org.shredzone.acme4j.toolbox.JoseUtils;
 
 /**
  * A generic extension of {@link Challenge} that handles challenges with a {@code token}
@@ -33,6 +34,9 @@ public class TokenChallenge extends Challenge {
 
     protected static final String KEY_TOKEN = "token";
 
+    private transient volatile @Nullable AuthorizationMemo authorizationMemo;
+    private transient volatile @Nullable DigestMemo digestMemo;
+
     /**
      * Creates a new generic {@link TokenChallenge} object.
      *
@@ -68,8 +72,7 @@ public class TokenChallenge extends Challenge {
      * @since 2.12
      */
     protected String keyAuthorizationFor(String token) {
-        var pk = getLogin().getPublicKey();
-        return token + '.' + base64UrlEncode(JoseUtils.thumbprint(pk));
+        return token + '.' + getLogin().getThumbprint();
     }
 
     /**
@@ -78,9 +81,76 @@ public class TokenChallenge extends Challenge {
      * The default uses {@link #keyAuthorizationFor(String)} to compute the key
      * authorization of {@link #getToken()}. Subclasses may override this method if a
      * different algorithm is used.
+     * <p>
+     * The result is computed once, and then kept until the challenge state or the
+     * account key pair is changed.
      */
     public String getAuthorization() {
-        return keyAuthorizationFor(getToken());
+        var thumbprint = getLogin().getThumbprint();
+        var memo = authorizationMemo;
+        if (memo == null || !memo.thumbprint().equals(thumbprint)) {
+            memo = new AuthorizationMemo(thumbprint, keyAuthorizationFor(getToken()));
+            authorizationMemo = memo;
+        }
+        return memo.authorization();
+    }
+
+    /**
+     * Returns the SHA-256 hash of {@link #getAuthorization()}.
+     * <p>
+     * The hash is computed once, and then kept as long as the authorization does not
+     * change. The returned array must not be modified.
+     *
+     * @since 5.2.0
+     */
+    protected byte[] getAuthorizationHash() {
+        return digestMemo().hash();
+    }
+
+    /**
+     * Returns the base64url encoded SHA-256 hash of {@link #getAuthorization()}, as it
+     * is used by the DNS based challenges.
+     * <p>
+     * The digest is computed once, and then kept as long as the authorization does not
+     * change.
+     *
+     * @since 5.2.0
+     */
+    protected String getAuthorizationDigest() {
+        return digestMemo().digest();
+    }
+
+    @Override
+    protected void invalidate() {
+        super.invalidate();
+        authorizationMemo = null;
+        digestMemo = null;
+    }
+
+    /**
+     * Returns the memoized hash of the current authorization string.
+     */
+    private DigestMemo digestMemo() {
+        var authorization = getAuthorization();
+        var memo = digestMemo;
+        if (memo == null || !memo.authorization().equals(authorization)) {
+            var hash = sha256hash(authorization);
+            memo = new DigestMemo(authorization, hash, base64UrlEncode(hash));
+            digestMemo = memo;
+        }
+        return memo;
+    }
+
+    /**
+     * The authorization string, and the thumbprint it was computed with.
+     */
+    private record AuthorizationMemo(String thumbprint, String authorization) {
+    }
+
+    /**
+     * The hash of an authorization string.
+     */
+    private record DigestMemo(String authorization, byte[] hash, String digest) {
     }
 
 }
@@ -27,6 +27,7 @@ import java.net.http.HttpResponse;
 import java.security.cert.CertificateException;
 import java.security.cert.CertificateFactory;
 import java.security.cert.X509Certificate;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
@@ -46,6 +47,7 @@ import org.shredzone.acme4j.Login;
 import org.shredzone.acme4j.Problem;
 import org.shredzone.acme4j.Session;
 import org.shredzone.acme4j.exception.AcmeException;
+import org.shredzone.acme4j.exception.AcmeHttpException;
 import org.shredzone.acme4j.exception.AcmeNetworkException;
 import org.shredzone.acme4j.exception.AcmeProtocolException;
 import org.shredzone.acme4j.exception.AcmeRateLimitedException;
@@ -53,6 +55,7 @@ import org.shredzone.acme4j.exception.AcmeServerException;
 import org.shredzone.acme4j.exception.AcmeUnauthorizedException;
 import org.shredzone.acme4j.exception.AcmeUserActionRequiredException;
 import org.shredzone.acme4j.toolbox.AcmeUtils;
+import org.shredzone.acme4j.toolbox.CertificateInterner;
 import org.shredzone.acme4j.toolbox.JSON;
 import org.shredzone.acme4j.toolbox.JSONBuilder;
 import org.slf4j.Logger;
@@ -69,6 +72,7 @@ public class DefaultConnection implements Connection {
     private static final int HTTP_CREATED = 201;
     private static final int HTTP_NO_CONTENT = 204;
     private static final int HTTP_NOT_MODIFIED = 304;
+    private static final int HTTP_SERVER_ERROR = 500;
 
     private static final String ACCEPT_HEADER = "Accept";
     private static final String ACCEPT_CHARSET_HEADER = "Accept-Charset";
@@ -115,31 +119,57 @@ public class DefaultConnection implements Connection {
     public void resetNonce(Session session) throws AcmeException {
         assertConnectionIsClosed();
 
-        try (var nonceHolder = session.lockNonce()) {
-            nonceHolder.setNonce(null);
-
+        try {
             var newNonceUrl = session.resourceUrl(Resource.NEW_NONCE);
 
-            LOG.debug("HEAD {}", newNonceUrl);
+            // The nonce is only locked while a request is sent, but not while waiting
+            // for the next attempt, so other threads can still use the session.
+            sendWithRetries(session, newNonceUrl, () -> {
+                try (var nonceHolder = session.lockNonce()) {
+                    return fetchNonce(session, nonceHolder, newNonceUrl);
+                }
+            });
+        } finally {
+            close();
+        }
+    }
 
-            sendRequest(session, newNonceUrl, b ->
-                    b.method("HEAD", HttpRequest.BodyPublishers.noBody()));
+    /**
+     * Fetches a new nonce from the server, in a single attempt.
+     *
+     * @param session
+     *         {@link Session} the nonce is fetched for
+     * @param nonceHolder
+     *         {@link NonceHolder} of the locked session nonce
+     * @param newNonceUrl
+     *         {@link URL} of the newNonce resource
+     * @return HTTP status that was returned
+     */
+    private int fetchNonce(Session session, NonceHolder nonceHolder, URL newNonceUrl)
+            throws AcmeException {
+        nonceHolder.setNonce(null);
 
-            logHeaders();
+        LOG.debug("HEAD {}", newNonceUrl);
 
-            var rc = getResponse().statusCode();
-            if (rc != HTTP_OK && rc != HTTP_NO_CONTENT) {
-                throw new AcmeException("Server responded with HTTP " + rc + " while trying to retrieve a nonce");
-            }
-
-            nonceHolder.setNonce(getNonce()
-                    .orElseThrow(() -> new AcmeProtocolException("Server did not provide a nonce"))
-            );
+        try {
+            sendRequest(session, newNonceUrl, b ->
+                    b.method("HEAD", HttpRequest.BodyPublishers.noBody()));
         } catch (IOException ex) {
             throw new AcmeNetworkException(ex);
-        } finally {
-            close();
         }
+
+        logHeaders();
+
+        var rc = getResponse().statusCode();
+        if (rc != HTTP_OK && rc != HTTP_NO_CONTENT) {
+            throw new AcmeHttpException("Server responded with HTTP " + rc
+                    + " while trying to retrieve a nonce", rc);
+        }
+
+        nonceHolder.setNonce(getNonce()
+                .orElseThrow(() -> new AcmeProtocolException("Server did not provide a nonce"))
+        );
+        return rc;
     }
 
     @Override
@@ -149,29 +179,33 @@ public class DefaultConnection implements Connection {
         Objects.requireNonNull(session, "session");
         assertConnectionIsClosed();
 
-        LOG.debug("GET {}", url);
-
-        try (var nonceHolder = session.lockNonce()) {
-            sendRequest(session, url, builder -> {
-                builder.GET();
-                builder.header(ACCEPT_HEADER, MIME_JSON);
-                if (ifModifiedSince != null) {
-                    builder.header(IF_MODIFIED_SINCE_HEADER, ifModifiedSince.format(RFC_1123_DATE_TIME));
+        return sendWithRetries(session, url, () -> {
+            try (var nonceHolder = session.lockNonce()) {
+                LOG.debug("GET {}", url);
+
+                try {
+                    sendRequest(session, url, builder -> {
+                        builder.GET();
+                        builder.header(ACCEPT_HEADER, MIME_JSON);
+                        if (ifModifiedSince != null) {
+                            builder.header(IF_MODIFIED_SINCE_HEADER, ifModifiedSince.format(RFC_1123_DATE_TIME));
+                        }
+                    });
+                } catch (IOException ex) {
+                    throw new AcmeNetworkException(ex);
                 }
-            });
 
-            logHeaders();
+                logHeaders();
 
-            getNonce().ifPresent(nonceHolder::setNonce);
+                getNonce().ifPresent(nonceHolder::setNonce);
 
-            var rc = getResponse().statusCode();
-            if (rc != HTTP_OK && rc != HTTP_CREATED && (rc != HTTP_NOT_MODIFIED || ifModifiedSince == null)) {
-                throwAcmeException();
+                var rc = getResponse().statusCode();
+                if (rc != HTTP_OK && rc != HTTP_CREATED && (rc != HTTP_NOT_MODIFIED || ifModifiedSince == null)) {
+                    throwAcmeException();
+                }
+                return rc;
             }
-            return rc;
-        } catch (IOException ex) {
-            throw new AcmeNetworkException(ex);
-        }
+        });
     }
 
     @Override
@@ -217,9 +251,9 @@ public class DefaultConnection implements Connection {
 
         try (var in = new TrimmingInputStream(getResponseBody())) {
             var cf = CertificateFactory.getInstance("X.509");
-            return cf.generateCertificates(in).stream()
+            return CertificateInterner.internIssuers(cf.generateCertificates(in).stream()
                     .map(X509Certificate.class::cast)
-                    .toList();
+                    .toList());
         } catch (IOException ex) {
             throw new AcmeNetworkException(ex);
         } catch (CertificateException ex) {
@@ -362,6 +396,29 @@ public class DefaultConnection implements Connection {
         Objects.requireNonNull(signer, "signer");
         assertConnectionIsClosed();
 
+        if (claims == null) {
+            // POST-as-GET requests are idempotent and can be retried
+            return sendWithRetries(session, url,
+                    () -> sendSignedRequestWithNonceRetries(url, null, session, accept, signer));
+        }
+
+        return sendSignedRequestWithNonceRetries(url, claims, session, accept, signer);
+    }
+
+    /**
+     * Sends a signed POST request, and retries it if the server rejected the nonce.
+     *
+     * @param url
+     *         {@link URL} to send the request to.
+     * @param claims
+     *         {@link JSONBuilder} containing claims. {@code null} for POST-as-GET
+     *         request.
+     * @param accept
+     *         Accept header
+     * @return HTTP 200 class status that was returned
+     */
+    private int sendSignedRequestWithNonceRetries(URL url, @Nullable JSONBuilder claims,
+                Session session, String accept, RequestSigner signer) throws AcmeException {
         var attempt = 1;
         while (true) {
             try {
@@ -379,6 +436,80 @@ public class DefaultConnection implements Connection {
         }
     }
 
+    /**
+     * Sends an idempotent request. If the request fails because of a network error or an
+     * HTTP 5xx server error, the {@link RetryPolicy} of the session decides whether the
+     * request is sent again.
+     *
+     * @param session
+     *         {@link Session} the request is sent with
+     * @param url
+     *         {@link URL} the request is sent to, for logging
+     * @param request
+     *         Sends the request, and returns the HTTP status
+     * @return HTTP status that was returned by the request
+     */
+    private int sendWithRetries(Session session, URL url, IdempotentRequest request)
+            throws AcmeException {
+        var retryPolicy = session.networkSettings().getRetryPolicy();
+        var started = Instant.now();
+        var attempt = 1;
+        while (true) {
+            try {
+                return request.send();
+            } catch (AcmeException ex) {
+                if (!isTransientFailure(ex)) {
+                    throw ex;
+                }
+
+                var retryAfter = findRetryAfter();
+                var delay = retryPolicy.retryDelay(attempt,
+                        Duration.between(started, Instant.now()), retryAfter);
+                if (delay.isEmpty()) {
+                    throw ex;
+                }
+
+                LOG.info("Request to {} failed, trying again in {} (attempt {})", url, delay.get(), attempt);
+                close();
+                try {
+                    Thread.sleep(delay.get().toMillis());
+                } catch (InterruptedException iex) {
+                    Thread.currentThread().interrupt();
+                    throw new AcmeNetworkException(new IOException("Request was interrupted", iex));
+                }
+                attempt++;
+            }
+        }
+    }
+
+    /**
+     * Returns the Retry-After instant of the last response, or {@code null} if there is
+     * no response, or if it has no valid Retry-After header.
+     */
+    @Nullable
+    private Instant findRetryAfter() {
+        if (lastResponse == null) {
+            return null;
+        }
+        try {
+            return getRetryAfter().orElse(null);
+        } catch (AcmeProtocolException ex) {
+            LOG.debug("Ignored invalid Retry-After header", ex);
+            return null;
+        }
+    }
+
+    /**
+     * Checks if the request failed because of a transient failure, which is a network
+     * error or an HTTP 5xx server error.
+     */
+    private boolean isTransientFailure(AcmeException ex) {
+        if (ex instanceof AcmeNetworkException) {
+            return true;
+        }
+        return lastResponse != null && lastResponse.statusCode() >= HTTP_SERVER_ERROR;
+    }
+
     /**
      * Performs the POST request.
      *
@@ -393,9 +524,14 @@ public class DefaultConnection implements Connection {
      */
     private int performRequest(URL url, @Nullable JSONBuilder claims, Session session,
                                String accept, RequestSigner signer) throws AcmeException {
+        var signerPool = session.getSignerPool();
+        if (signerPool != null) {
+            return performPooledRequest(url, claims, session, accept, signer, signerPool);
+        }
+
         try (var nonceHolder = session.lockNonce()) {
             if (nonceHolder.getNonce() == null) {
-                resetNonce(session);
+                fetchNonceLocked(session, nonceHolder);
             }
 
             var jose = signer.createRequest(url, claims, nonceHolder.getNonce());
@@ -421,6 +557,81 @@ public class DefaultConnection implements Connection {
         }
     }
 
+    /**
+     * Fetches a new nonce while the session's nonce is already locked. It is only tried
+     * once, so the lock is not held while waiting for a retry. Transient failures are
+     * retried by the caller's request instead, if it is idempotent.
+     *
+     * @param session
+     *         {@link Session} the nonce is fetched for
+     * @param nonceHolder
+     *         {@link NonceHolder} of the locked session nonce
+     */
+    private void fetchNonceLocked(Session session, NonceHolder nonceHolder) throws AcmeException {
+        try {
+            fetchNonce(session, nonceHolder, session.resourceUrl(Resource.NEW_NONCE));
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * Performs the POST request, with the request being signed by a {@link SignerPool}.
+     * The session's nonce is only locked for taking the nonce, and for storing the new
+     * nonce of the response.
+     *
+     * @param url
+     *         {@link URL} to send the request to.
+     * @param claims
+     *         {@link JSONBuilder} containing claims. {@code null} for POST-as-GET
+     *         request.
+     * @param accept
+     *         Accept header
+     * @param signerPool
+     *         {@link SignerPool} that signs the request
+     * @return HTTP 200 class status that was returned
+     */
+    private int performPooledRequest(URL url, @Nullable JSONBuilder claims, Session session,
+                String accept, RequestSigner signer, SignerPool signerPool) throws AcmeException {
+        String nonce;
+        try (var nonceHolder = session.lockNonce()) {
+            if (nonceHolder.getNonce() == null) {
+                fetchNonceLocked(session, nonceHolder);
+            }
+            // A nonce can only be used once, so take it away from other threads
+            nonce = nonceHolder.getNonce();
+            nonceHolder.setNonce(null);
+        }
+
+        var jose = signerPool.sign(signer, url, claims, nonce);
+        var outputData = jose.toString();
+
+        try {
+            sendRequest(session, url, builder -> {
+                builder.POST(HttpRequest.BodyPublishers.ofString(outputData));
+                builder.header(ACCEPT_HEADER, accept);
+                builder.header(CONTENT_TYPE_HEADER, "application/jose+json");
+            });
+
+            logHeaders();
+
+            var newNonce = getNonce();
+            if (newNonce.isPresent()) {
+                try (var nonceHolder = session.lockNonce()) {
+                    nonceHolder.setNonce(newNonce.get());
+                }
+            }
+
+            var rc = getResponse().statusCode();
+            if (rc != HTTP_OK && rc != HTTP_CREATED) {
+                throwAcmeException();
+            }
+            return rc;
+        } catch (IOException ex) {
+            throw new AcmeNetworkException(ex);
+        }
+    }
+
     @Override
     public Optional<Instant> getRetryAfter() {
         return getResponse().headers()
@@ -487,7 +698,8 @@ public class DefaultConnection implements Connection {
                     .filter(MIME_JSON_PROBLEM::equals)
                     .isEmpty()) {
                 // Generic HTTP error
-                throw new AcmeException("HTTP " + getResponse().statusCode());
+                var rc = getResponse().statusCode();
+                throw new AcmeHttpException("HTTP " + rc, rc);
             }
 
             var problem = new Problem(readJsonResponse(), getResponse().request().uri().toURL());
@@ -619,4 +831,17 @@ public class DefaultConnection implements Connection {
         return getResponse().request().uri().resolve(uri);
     }
 
+    /**
+     * An idempotent request that can be sent again.
+     */
+    @FunctionalInterface
+    private interface IdempotentRequest {
+        /**
+         * Sends the request.
+         *
+         * @return HTTP status that was returned
+         */
+        int send() throws AcmeException;
+    }
+
 }
@@ -0,0 +1,137 @@
+/*
+ * acme4j - Java ACME client
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://acme4j.shredzone.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ */
+package org.shredzone.acme4j.connector;
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * A {@link RetryPolicy} with exponential backoff and jitter.
+ * <p>
+ * The delay starts with the initial delay, and is doubled on every failed attempt until
+ * the maximum delay is reached. The actual delay is randomly chosen between half and
+ * the full computed delay, so concurrent clients do not retry at the same time. If the
+ * server sent a Retry-After header, the request is not retried before that instant.
+ * <p>
+ * A request is given up if the maximum number of attempts has been reached, or if the
+ * next attempt would start after the maximum elapsed time.
+ * <p>
+ * This class is thread-safe. It counts the retries and the given up requests, so the
+ * numbers can be used for monitoring.
+ *
+ * @since 5.2.0
+ */
+public class ExponentialBackoffRetryPolicy implements RetryPolicy {
+
+    private final int maxAttempts;
+    private final Duration initialDelay;
+    private final Duration maxDelay;
+    private final Duration maxElapsed;
+    private final AtomicLong retryCount = new AtomicLong();
+    private final AtomicLong giveUpCount = new AtomicLong();
+
+    /**
+     * Creates a new {@link ExponentialBackoffRetryPolicy} with default settings. A
+     * request is attempted up to 3 times, with an initial delay of 1 second, a maximum
+     * delay of 10 seconds, and a maximum elapsed time of 30 seconds.
+     */
+    public ExponentialBackoffRetryPolicy() {
+        this(3, Duration.ofSeconds(1L), Duration.ofSeconds(10L), Duration.ofSeconds(30L));
+    }
+
+    /**
+     * Creates a new {@link ExponentialBackoffRetryPolicy}.
+     *
+     * @param maxAttempts
+     *         Maximum number of attempts, including the first one
+     * @param initialDelay
+     *         Delay before the first retry
+     * @param maxDelay
+     *         Maximum delay between two attempts
+     * @param maxElapsed
+     *         Maximum time after the first attempt until the request is given up
+     */
+    public ExponentialBackoffRetryPolicy(int maxAttempts, Duration initialDelay,
+                Duration maxDelay, Duration maxElapsed) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be positive");
+        }
+        this.maxAttempts = maxAttempts;
+        this.initialDelay = requireNonNull(initialDelay, "initialDelay");
+        this.maxDelay = requireNonNull(maxDelay, "maxDelay");
+        this.maxElapsed = requireNonNull(maxElapsed, "maxElapsed");
+        if (initialDelay.isNegative() || initialDelay.compareTo(maxDelay) > 0) {
+            throw new IllegalArgumentException("initialDelay must be between 0 and maxDelay");
+        }
+    }
+
+    @Override
+    public Optional<Duration> retryDelay(int attempt, Duration elapsed, @Nullable Instant retryAfter) {
+        if (attempt >= maxAttempts) {
+            giveUpCount.incrementAndGet();
+            return Optional.empty();
+        }
+
+        var backoff = maxDelay;
+        if (attempt - 1 < 62 && initialDelay.toMillis() <= (maxDelay.toMillis() >> (attempt - 1))) {
+            backoff = initialDelay.multipliedBy(1L << (attempt - 1));
+        }
+
+        var halfMillis = backoff.toMillis() / 2;
+        var delay = Duration.ofMillis(halfMillis
+                + ThreadLocalRandom.current().nextLong(backoff.toMillis() - halfMillis + 1));
+
+        if (retryAfter != null) {
+            var untilRetryAfter = Duration.between(Instant.now(), retryAfter);
+            if (untilRetryAfter.compareTo(delay) > 0) {
+                delay = untilRetryAfter;
+            }
+        }
+
+        if (elapsed.plus(delay).compareTo(maxElapsed) > 0) {
+            giveUpCount.incrementAndGet();
+            return Optional.empty();
+        }
+
+        retryCount.incrementAndGet();
+        return Optional.of(delay);
+    }
+
+    /**
+     * Returns the number of retries that have been granted by this policy.
+     */
+    public long getRetryCount() {
+        return retryCount.get();
+    }
+
+    /**
+     * Returns the number of requests that have been given up by this policy.
+     */
+    public long getGiveUpCount() {
+        return giveUpCount.get();
+    }
+
+    @Override
+    protected final void finalize() {
+        // CT_CONSTRUCTOR_THROW: Prevents finalizer attack
+    }
+
+}
@@ -38,6 +38,7 @@ public class NetworkSettings {
     private Duration timeout = Duration.ofSeconds(30);
     private @Nullable Authenticator authenticator = null;
     private boolean compression = true;
+    private RetryPolicy retryPolicy = RetryPolicy.none();
 
     public NetworkSettings() {
         try {
@@ -133,4 +134,25 @@ public class NetworkSettings {
         this.compression = compression;
     }
 
+    /**
+     * Gets the {@link RetryPolicy} for idempotent requests.
+     *
+     * @since 5.2.0
+     */
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * Sets a {@link RetryPolicy} that decides if idempotent requests are retried after
+     * network errors or HTTP 5xx server errors. By default, requests are never retried.
+     *
+     * @param retryPolicy
+     *         {@link RetryPolicy} to be used, or {@code null} to never retry requests
+     * @since 5.2.0
+     */
+    public void setRetryPolicy(@Nullable RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy != null ? retryPolicy : RetryPolicy.none();
+    }
+
 }
@@ -0,0 +1,58 @@
+/*
+ * acme4j - Java ACME client
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://acme4j.shredzone.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ */
+package org.shredzone.acme4j.connector;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * Decides if and when an idempotent request is retried after a transient failure.
+ * <p>
+ * Transient failures are network errors and HTTP 5xx server errors. Only idempotent
+ * requests are retried, which are directory and nonce requests, POST-as-GET requests,
+ * and certificate downloads.
+ *
+ * @see NetworkSettings#setRetryPolicy(RetryPolicy)
+ * @see ExponentialBackoffRetryPolicy
+ * @since 5.2.0
+ */
+@FunctionalInterface
+public interface RetryPolicy {
+
+    /**
+     * Decides if a failed request is to be retried.
+     *
+     * @param attempt
+     *         Number of the attempt that has failed, starting with 1
+     * @param elapsed
+     *         Time that has elapsed since the first attempt was started
+     * @param retryAfter
+     *         Retry-After instant that was sent by the server, or {@code null} if the
+     *         server did not send a Retry-After header
+     * @return Delay until the next attempt, or empty if the request is not to be
+     * retried
+     */
+    Optional<Duration> retryDelay(int attempt, Duration elapsed, @Nullable Instant retryAfter);
+
+    /**
+     * Returns a {@link RetryPolicy} that never retries a request.
+     */
+    static RetryPolicy none() {
+        return (attempt, elapsed, retryAfter) -> Optional.empty();
+    }
+
+}
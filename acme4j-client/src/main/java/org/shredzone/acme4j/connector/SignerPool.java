@@ -0,0 +1,140 @@
+/*
+ * acme4j - Java ACME client
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://acme4j.shredzone.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ */
+package org.shredzone.acme4j.connector;
+
+import static java.util.Objects.requireNonNull;
+
+import java.net.URL;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+import org.shredzone.acme4j.exception.AcmeException;
+import org.shredzone.acme4j.toolbox.JSONBuilder;
+
+/**
+ * A bounded pool of worker threads that invoke {@link RequestSigner}.
+ * <p>
+ * If a {@link SignerPool} is set to a {@link org.shredzone.acme4j.Session}, signed
+ * requests are not signed and sent while the session's nonce is locked. Instead, a nonce
+ * is taken from the session, the request is signed by one of the pool's workers, and
+ * then sent. This way, the latency of slow signers (e.g. a remote signing service) is
+ * overlapped when several threads are using the same session, rather than being
+ * serialized.
+ * <p>
+ * The pool must be closed when it is not used anymore.
+ *
+ * @since 5.2.0
+ */
+public class SignerPool implements AutoCloseable {
+    private static final AtomicInteger POOL_NUMBER = new AtomicInteger();
+
+    private final ExecutorService executor;
+
+    /**
+     * Creates a new {@link SignerPool} that invokes the signers by at most the given
+     * number of worker threads.
+     *
+     * @param maxThreads
+     *         Maximum number of concurrent signer invocations
+     */
+    public SignerPool(int maxThreads) {
+        if (maxThreads < 1) {
+            throw new IllegalArgumentException("maxThreads must be positive");
+        }
+
+        var poolNumber = POOL_NUMBER.incrementAndGet();
+        var threadNumber = new AtomicInteger();
+        ThreadFactory threadFactory = r -> {
+            var thread = new Thread(r, "acme4j-signer-" + poolNumber + "-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        var pool = new ThreadPoolExecutor(maxThreads, maxThreads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), threadFactory);
+        pool.allowCoreThreadTimeOut(true);
+        this.executor = pool;
+    }
+
+    /**
+     * Creates a new {@link SignerPool} that invokes the signers by the given
+     * {@link ExecutorService}. The executor is shut down when the pool is closed.
+     *
+     * @param executor
+     *         {@link ExecutorService} to be used
+     */
+    public SignerPool(ExecutorService executor) {
+        this.executor = requireNonNull(executor, "executor");
+    }
+
+    /**
+     * Signs a request by one of the pool's workers. The invoking thread is blocked until
+     * the request is signed.
+     *
+     * @param signer
+     *         {@link RequestSigner} to be invoked
+     * @param url
+     *         {@link URL} of the request
+     * @param payload
+     *         Payload to be signed, or {@code null} for POST-as-GET requests
+     * @param nonce
+     *         Nonce to be used, or {@code null} if no nonce is to be used
+     * @return Signed JOSE request
+     * @throws AcmeException
+     *         if the signer failed, or the invoking thread was interrupted
+     */
+    public JSONBuilder sign(RequestSigner signer, URL url, @Nullable JSONBuilder payload,
+            @Nullable String nonce) throws AcmeException {
+        requireNonNull(signer, "signer");
+        requireNonNull(url, "url");
+
+        var future = executor.submit(() -> signer.createRequest(url, payload, nonce));
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new AcmeException("Signing was interrupted", ex);
+        } catch (ExecutionException ex) {
+            var cause = ex.getCause();
+            if (cause instanceof RuntimeException rex) {
+                throw rex;
+            }
+            if (cause instanceof Error err) {
+                throw err;
+            }
+            throw new AcmeException("Could not sign request", cause);
+        }
+    }
+
+    /**
+     * Shuts down the pool. Pending signing operations are still completed.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    @Override
+    protected final void finalize() {
+        // CT_CONSTRUCTOR_THROW: Prevents finalizer attack
+    }
+
+}
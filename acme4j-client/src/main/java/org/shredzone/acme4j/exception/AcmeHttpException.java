@@ -0,0 +1,50 @@
+/*
+ * acme4j - Java ACME client
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://acme4j.shredzone.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ */
+package org.shredzone.acme4j.exception;
+
+import java.io.Serial;
+
+/**
+ * The server responded with an HTTP error status, but did not provide a problem
+ * document that would explain the error.
+ *
+ * @since 5.2.0
+ */
+public class AcmeHttpException extends AcmeException {
+    @Serial
+    private static final long serialVersionUID = -3319857415093186242L;
+
+    private final int statusCode;
+
+    /**
+     * Creates a new {@link AcmeHttpException}.
+     *
+     * @param msg
+     *            Details about the exception
+     * @param statusCode
+     *            HTTP status code of the response
+     */
+    public AcmeHttpException(String msg, int statusCode) {
+        super(msg);
+        this.statusCode = statusCode;
+    }
+
+    /**
+     * Returns the HTTP status code of the response.
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+}
@@ -0,0 +1,289 @@
+/*
+ * acme4j - Java ACME client
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://acme4j.shredzone.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ */
+package org.shredzone.acme4j.provider.failover;
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * A circuit breaker that keeps track of the health of a CA.
+ * <p>
+ * The outcomes of the latest calls are kept in a sliding window. If the failure rate
+ * exceeds a threshold, the circuit is opened, and further calls are rejected for a
+ * while. After that, the circuit is half open, and a few trial calls are permitted. If
+ * they succeed, the circuit is closed again. Otherwise it is opened again.
+ * <p>
+ * Calls that took longer than a threshold are regarded as failed, as a CA with degraded
+ * performance would stall all requests.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @since 5.2.0
+ */
+public class CircuitBreaker {
+
+    /**
+     * The state of a {@link CircuitBreaker}.
+     */
+    public enum State {
+
+        /**
+         * The CA is healthy, all calls are permitted.
+         */
+        CLOSED,
+
+        /**
+         * The CA is degraded, all calls are rejected.
+         */
+        OPEN,
+
+        /**
+         * The CA is tested, a limited number of trial calls is permitted.
+         */
+        HALF_OPEN
+    }
+
+    private static final int HALF_OPEN_CALLS = 3;
+
+    private final double failureRateThreshold;
+    private final Duration slowCallThreshold;
+    private final int minimumCalls;
+    private final Duration openDuration;
+    private final LongSupplier clock;
+
+    private final boolean[] failures;
+    private final long[] latencies;
+    private int count = 0;
+    private int next = 0;
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int trialCalls;
+    private int trialSuccesses;
+
+    /**
+     * Creates a new {@link CircuitBreaker} with default settings. The circuit is opened
+     * if at least 50% of the latest 20 calls have failed, with at least 5 calls
+     * recorded. Calls taking longer than 10 seconds are regarded as failed. An open
+     * circuit rejects all calls for 30 seconds.
+     */
+    public CircuitBreaker() {
+        this(0.5, Duration.ofSeconds(10L), 20, 5, Duration.ofSeconds(30L));
+    }
+
+    /**
+     * Creates a new {@link CircuitBreaker}.
+     *
+     * @param failureRateThreshold
+     *         Failure rate (between 0 and 1) that opens the circuit
+     * @param slowCallThreshold
+     *         Calls that took longer are regarded as failed
+     * @param windowSize
+     *         Number of latest calls that are used for computing the failure rate
+     * @param minimumCalls
+     *         Minimum number of recorded calls before the circuit can be opened
+     * @param openDuration
+     *         Time the circuit stays open until trial calls are permitted
+     */
+    public CircuitBreaker(double failureRateThreshold, Duration slowCallThreshold,
+                          int windowSize, int minimumCalls, Duration openDuration) {
+        this(failureRateThreshold, slowCallThreshold, windowSize, minimumCalls,
+                openDuration, System::nanoTime);
+    }
+
+    /**
+     * Creates a new {@link CircuitBreaker} with a custom clock. Only for unit tests.
+     */
+    CircuitBreaker(double failureRateThreshold, Duration slowCallThreshold,
+                   int windowSize, int minimumCalls, Duration openDuration,
+                   LongSupplier clock) {
+        if (!(failureRateThreshold > 0.0 && failureRateThreshold <= 1.0)) {
+            throw new IllegalArgumentException("failureRateThreshold must be between 0 and 1");
+        }
+        if (windowSize < 1 || minimumCalls < 1 || minimumCalls > windowSize) {
+            throw new IllegalArgumentException("minimumCalls must be between 1 and windowSize");
+        }
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallThreshold = requireNonNull(slowCallThreshold, "slowCallThreshold");
+        this.minimumCalls = minimumCalls;
+        this.openDuration = requireNonNull(openDuration, "openDuration");
+        this.clock = requireNonNull(clock, "clock");
+        this.failures = new boolean[windowSize];
+        this.latencies = new long[windowSize];
+    }
+
+    /**
+     * Checks if a call is currently permitted. If the circuit is half open, a permitted
+     * call is counted as trial call, and its outcome must be recorded.
+     *
+     * @return {@code true} if the call is permitted, {@code false} if it is to be
+     * rejected
+     */
+    public synchronized boolean tryAcquire() {
+        updateState();
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> false;
+            case HALF_OPEN -> {
+                if (trialCalls < HALF_OPEN_CALLS) {
+                    trialCalls++;
+                    yield true;
+                }
+                yield false;
+            }
+        };
+    }
+
+    /**
+     * Checks if calls are currently permitted, without acquiring a trial call.
+     *
+     * @return {@code true} if the circuit is closed, or half open with trial calls still
+     * available
+     */
+    public synchronized boolean isCallPermitted() {
+        updateState();
+        return state == State.CLOSED
+                || (state == State.HALF_OPEN && trialCalls < HALF_OPEN_CALLS);
+    }
+
+    /**
+     * Records a successful call. If the call took longer than the slow call threshold,
+     * it is recorded as failed call.
+     *
+     * @param duration
+     *         Duration of the call
+     */
+    public synchronized void onSuccess(Duration duration) {
+        record(duration.compareTo(slowCallThreshold) > 0, duration);
+    }
+
+    /**
+     * Records a failed call.
+     *
+     * @param duration
+     *         Duration of the call
+     */
+    public synchronized void onFailure(Duration duration) {
+        record(true, duration);
+    }
+
+    /**
+     * Releases a permitted call without recording an outcome. This is used for calls
+     * that failed for reasons that are unrelated to the server. If the circuit is half
+     * open, the trial call is made available again.
+     *
+     * @since 5.2.0
+     */
+    public synchronized void release() {
+        if (state == State.HALF_OPEN && trialCalls > trialSuccesses) {
+            trialCalls--;
+        }
+    }
+
+    /**
+     * Returns the current state of the circuit.
+     */
+    public synchronized State getState() {
+        updateState();
+        return state;
+    }
+
+    /**
+     * Returns the failure rate of the calls in the sliding window, between 0 and 1.
+     */
+    public synchronized double getFailureRate() {
+        if (count == 0) {
+            return 0.0;
+        }
+        var failed = 0;
+        for (var ix = 0; ix < count; ix++) {
+            if (failures[ix]) {
+                failed++;
+            }
+        }
+        return (double) failed / count;
+    }
+
+    /**
+     * Returns the average duration of the calls in the sliding window.
+     */
+    public synchronized Duration getAverageLatency() {
+        if (count == 0) {
+            return Duration.ZERO;
+        }
+        var sum = 0L;
+        for (var ix = 0; ix < count; ix++) {
+            sum += latencies[ix];
+        }
+        return Duration.ofNanos(sum / count);
+    }
+
+    /**
+     * Records the outcome of a call, and updates the circuit state.
+     */
+    private void record(boolean failed, Duration duration) {
+        updateState();
+
+        if (state == State.HALF_OPEN) {
+            if (failed) {
+                open();
+            } else if (++trialSuccesses >= HALF_OPEN_CALLS) {
+                state = State.CLOSED;
+                count = 0;
+                next = 0;
+            }
+            return;
+        }
+
+        if (state == State.OPEN) {
+            // outcome of a call that was started before the circuit was opened
+            return;
+        }
+
+        failures[next] = failed;
+        latencies[next] = duration.toNanos();
+        next = (next + 1) % failures.length;
+        count = Math.min(count + 1, failures.length);
+
+        if (count >= minimumCalls && getFailureRate() >= failureRateThreshold) {
+            open();
+        }
+    }
+
+    /**
+     * Opens the circuit.
+     */
+    private void open() {
+        state = State.OPEN;
+        openedAt = clock.getAsLong();
+    }
+
+    /**
+     * Changes an open circuit to half open if the open duration has elapsed.
+     */
+    private void updateState() {
+        if (state == State.OPEN && clock.getAsLong() - openedAt >= openDuration.toNanos()) {
+            state = State.HALF_OPEN;
+            trialCalls = 0;
+            trialSuccesses = 0;
+        }
+    }
+
+    @Override
+    protected final void finalize() {
+        // CT_CONSTRUCTOR_THROW: Prevents finalizer attack
+    }
+
+}
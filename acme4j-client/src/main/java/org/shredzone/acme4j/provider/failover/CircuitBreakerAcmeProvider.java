@@ -0,0 +1,345 @@
+/*
+ * acme4j - Java ACME client
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://acme4j.shredzone.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ */
+package org.shredzone.acme4j.provider.failover;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+import org.shredzone.acme4j.Login;
+import org.shredzone.acme4j.Session;
+import org.shredzone.acme4j.challenge.Challenge;
+import org.shredzone.acme4j.connector.Connection;
+import org.shredzone.acme4j.connector.NetworkSettings;
+import org.shredzone.acme4j.connector.RequestSigner;
+import org.shredzone.acme4j.exception.AcmeException;
+import org.shredzone.acme4j.exception.AcmeHttpException;
+import org.shredzone.acme4j.exception.AcmeNetworkException;
+import org.shredzone.acme4j.exception.AcmeProtocolException;
+import org.shredzone.acme4j.exception.AcmeServerException;
+import org.shredzone.acme4j.provider.AcmeProvider;
+import org.shredzone.acme4j.toolbox.JSON;
+import org.shredzone.acme4j.toolbox.JSONBuilder;
+
+/**
+ * An {@link AcmeProvider} that wraps another provider, and guards all requests to the
+ * CA with a {@link CircuitBreaker}.
+ * <p>
+ * Network errors, server internal errors, HTTP 5xx errors without problem document, and
+ * unparseable responses are recorded as failures. Other errors (like malformed requests
+ * or rate limits) are caused by the client, and do not affect the health of the CA.
+ * Runtime exceptions that are not caused by the CA response are not recorded at all. If
+ * the circuit is open, all requests fail immediately with an
+ * {@link AcmeNetworkException}.
+ * <p>
+ * Use {@link #createSession(URI)} to create a {@link Session} that is guarded by a
+ * circuit breaker.
+ *
+ * @see FailoverRouter
+ * @since 5.2.0
+ */
+public class CircuitBreakerAcmeProvider implements AcmeProvider {
+    private static final URI SERVER_INTERNAL_TYPE =
+            URI.create("urn:ietf:params:acme:error:serverInternal");
+
+    private final AcmeProvider delegate;
+    private final CircuitBreaker circuitBreaker;
+
+    /**
+     * Creates a new {@link CircuitBreakerAcmeProvider} with a {@link CircuitBreaker}
+     * using default settings.
+     *
+     * @param delegate
+     *         {@link AcmeProvider} to be wrapped
+     */
+    public CircuitBreakerAcmeProvider(AcmeProvider delegate) {
+        this(delegate, new CircuitBreaker());
+    }
+
+    /**
+     * Creates a new {@link CircuitBreakerAcmeProvider}.
+     *
+     * @param delegate
+     *         {@link AcmeProvider} to be wrapped
+     * @param circuitBreaker
+     *         {@link CircuitBreaker} to be used
+     */
+    public CircuitBreakerAcmeProvider(AcmeProvider delegate, CircuitBreaker circuitBreaker) {
+        this.delegate = requireNonNull(delegate, "delegate");
+        this.circuitBreaker = requireNonNull(circuitBreaker, "circuitBreaker");
+    }
+
+    /**
+     * Creates a new {@link Session} for the given server URI, with its provider wrapped
+     * into a {@link CircuitBreakerAcmeProvider} using default settings.
+     *
+     * @param serverUri
+     *         URI of the ACME server, see {@link Session#Session(URI)}
+     * @return {@link Session} that is guarded by a circuit breaker
+     * @throws IllegalArgumentException
+     *         if no ACME provider was found for the server URI.
+     */
+    public static Session createSession(URI serverUri) {
+        return createSession(serverUri, new CircuitBreaker());
+    }
+
+    /**
+     * Creates a new {@link Session} for the given server URI, with its provider wrapped
+     * into a {@link CircuitBreakerAcmeProvider}.
+     *
+     * @param serverUri
+     *         URI of the ACME server, see {@link Session#Session(URI)}
+     * @param circuitBreaker
+     *         {@link CircuitBreaker} to be used
+     * @return {@link Session} that is guarded by the circuit breaker
+     * @throws IllegalArgumentException
+     *         if no ACME provider was found for the server URI.
+     */
+    public static Session createSession(URI serverUri, CircuitBreaker circuitBreaker) {
+        var delegate = new Session(serverUri).provider();
+        return new Session(serverUri, new CircuitBreakerAcmeProvider(delegate, circuitBreaker));
+    }
+
+    /**
+     * Returns the wrapped {@link AcmeProvider}.
+     */
+    public AcmeProvider getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Returns the {@link CircuitBreaker} that guards the CA.
+     */
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    @Override
+    public boolean accepts(URI serverUri) {
+        return delegate.accepts(serverUri);
+    }
+
+    @Override
+    public URL resolve(URI serverUri) {
+        return delegate.resolve(serverUri);
+    }
+
+    @Override
+    public HttpClient createHttpClient(NetworkSettings networkSettings) {
+        return delegate.createHttpClient(networkSettings);
+    }
+
+    @Override
+    public Connection connect(URI serverUri, NetworkSettings networkSettings, HttpClient httpClient) {
+        return new GuardedConnection(serverUri,
+                delegate.connect(serverUri, networkSettings, httpClient));
+    }
+
+    @Override
+    @Nullable
+    public JSON directory(Session session, URI serverUri) throws AcmeException {
+        var expires = session.getDirectoryExpires();
+        if (expires != null && expires.isAfter(ZonedDateTime.now())) {
+            // The cached directory is used, so the CA is not contacted. Neither a trial
+            // call is acquired, nor an outcome is recorded.
+            return delegate.directory(session, serverUri);
+        }
+        return guarded(serverUri, () -> delegate.directory(session, serverUri));
+    }
+
+    @Override
+    @Nullable
+    public Challenge createChallenge(Login login, JSON data) {
+        return delegate.createChallenge(login, data);
+    }
+
+    @Override
+    public Optional<String> getProposedEabMacAlgorithm() {
+        return delegate.getProposedEabMacAlgorithm();
+    }
+
+    /**
+     * Invokes a request, and records its outcome.
+     *
+     * @param serverUri
+     *         Server {@link URI}, for error messages
+     * @param request
+     *         Request to be invoked
+     * @return Result of the request
+     * @throws AcmeNetworkException
+     *         if the circuit is open
+     */
+    private <T> T guarded(URI serverUri, GuardedRequest<T> request) throws AcmeException {
+        if (!circuitBreaker.tryAcquire()) {
+            throw new AcmeNetworkException(
+                    new IOException("Circuit breaker is open for " + serverUri));
+        }
+
+        var start = System.nanoTime();
+        try {
+            var result = request.invoke();
+            circuitBreaker.onSuccess(Duration.ofNanos(System.nanoTime() - start));
+            return result;
+        } catch (AcmeException ex) {
+            var duration = Duration.ofNanos(System.nanoTime() - start);
+            if (isCaFailure(ex)) {
+                circuitBreaker.onFailure(duration);
+            } else {
+                circuitBreaker.onSuccess(duration);
+            }
+            throw ex;
+        } catch (AcmeProtocolException ex) {
+            circuitBreaker.onFailure(Duration.ofNanos(System.nanoTime() - start));
+            throw ex;
+        } catch (RuntimeException ex) {
+            // not caused by the CA, so it does not count as failure or success
+            circuitBreaker.release();
+            throw ex;
+        }
+    }
+
+    /**
+     * Checks if the exception indicates a failure of the CA.
+     *
+     * @param ex
+     *         {@link AcmeException} to check
+     * @return {@code true} if the CA has failed, {@code false} if the request was
+     * rejected for other reasons
+     */
+    static boolean isCaFailure(AcmeException ex) {
+        if (ex instanceof AcmeNetworkException) {
+            return true;
+        }
+        if (ex instanceof AcmeServerException serverEx) {
+            return SERVER_INTERNAL_TYPE.equals(serverEx.getType());
+        }
+        if (ex instanceof AcmeHttpException httpEx) {
+            return httpEx.getStatusCode() >= 500;
+        }
+        return false;
+    }
+
+    /**
+     * A request that is guarded by the circuit breaker.
+     */
+    @FunctionalInterface
+    private interface GuardedRequest<T> {
+        T invoke() throws AcmeException;
+    }
+
+    /**
+     * A {@link Connection} that guards all requests with the circuit breaker.
+     */
+    private class GuardedConnection implements Connection {
+        private final URI serverUri;
+        private final Connection conn;
+
+        GuardedConnection(URI serverUri, Connection conn) {
+            this.serverUri = serverUri;
+            this.conn = conn;
+        }
+
+        @Override
+        public void resetNonce(Session session) throws AcmeException {
+            guarded(serverUri, () -> {
+                conn.resetNonce(session);
+                return null;
+            });
+        }
+
+        @Override
+        public int sendRequest(URL url, Session session, @Nullable ZonedDateTime ifModifiedSince)
+                throws AcmeException {
+            return guarded(serverUri, () -> conn.sendRequest(url, session, ifModifiedSince));
+        }
+
+        @Override
+        public int sendCertificateRequest(URL url, Login login) throws AcmeException {
+            return guarded(serverUri, () -> conn.sendCertificateRequest(url, login));
+        }
+
+        @Override
+        public int sendSignedPostAsGetRequest(URL url, Login login) throws AcmeException {
+            return guarded(serverUri, () -> conn.sendSignedPostAsGetRequest(url, login));
+        }
+
+        @Override
+        public int sendSignedRequest(URL url, JSONBuilder claims, Login login) throws AcmeException {
+            return guarded(serverUri, () -> conn.sendSignedRequest(url, claims, login));
+        }
+
+        @Override
+        public int sendSignedRequest(URL url, JSONBuilder claims, Session session,
+                                     RequestSigner signer) throws AcmeException {
+            return guarded(serverUri, () -> conn.sendSignedRequest(url, claims, session, signer));
+        }
+
+        @Override
+        public JSON readJsonResponse() throws AcmeException {
+            return conn.readJsonResponse();
+        }
+
+        @Override
+        public List<X509Certificate> readCertificates() throws AcmeException {
+            return conn.readCertificates();
+        }
+
+        @Override
+        public Optional<Instant> getRetryAfter() {
+            return conn.getRetryAfter();
+        }
+
+        @Override
+        public Optional<String> getNonce() {
+            return conn.getNonce();
+        }
+
+        @Override
+        public URL getLocation() {
+            return conn.getLocation();
+        }
+
+        @Override
+        public Optional<ZonedDateTime> getLastModified() {
+            return conn.getLastModified();
+        }
+
+        @Override
+        public Optional<ZonedDateTime> getExpiration() {
+            return conn.getExpiration();
+        }
+
+        @Override
+        public Collection<URL> getLinks(String relation) {
+            return conn.getLinks(relation);
+        }
+
+        @Override
+        public void close() {
+            conn.close();
+        }
+    }
+
+}
@@ -0,0 +1,161 @@
+/*
+ * acme4j - Java ACME client
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://acme4j.shredzone.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ */
+package org.shredzone.acme4j.provider.failover;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.shredzone.acme4j.Login;
+import org.shredzone.acme4j.exception.AcmeException;
+import org.shredzone.acme4j.exception.AcmeRateLimitedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Routes new orders to a healthy CA.
+ * <p>
+ * The router keeps a list of {@link Login}s, one for each CA, in the order of priority.
+ * The {@link org.shredzone.acme4j.Session} of each login must use a
+ * {@link CircuitBreakerAcmeProvider}. A CA is regarded as healthy as long as its circuit
+ * breaker permits calls.
+ * <p>
+ * Note that the router only selects the CA for new actions. All resources of an order
+ * are bound to the login that was used for creating it, so the order must be finalized
+ * at the same CA.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @since 5.2.0
+ */
+public class FailoverRouter {
+    private static final Logger LOG = LoggerFactory.getLogger(FailoverRouter.class);
+
+    private final List<Login> logins = new CopyOnWriteArrayList<>();
+
+    /**
+     * An action that is invoked with the {@link Login} of a CA.
+     *
+     * @param <T>
+     *         Result type
+     */
+    @FunctionalInterface
+    public interface Action<T> {
+        /**
+         * Invokes the action.
+         *
+         * @param login
+         *         {@link Login} of the selected CA
+         * @return Result of the action
+         */
+        T invoke(Login login) throws AcmeException;
+    }
+
+    /**
+     * Adds a {@link Login} to the router. Logins are used in the order they have been
+     * added, so the preferred CA should be added first.
+     *
+     * @param login
+     *         {@link Login} to add. Its session must use a
+     *         {@link CircuitBreakerAcmeProvider}.
+     * @return itself
+     */
+    public FailoverRouter add(Login login) {
+        requireNonNull(login, "login");
+        if (!(login.getSession().provider() instanceof CircuitBreakerAcmeProvider)) {
+            throw new IllegalArgumentException("Session of " + login.getAccount().getLocation()
+                    + " does not use a CircuitBreakerAcmeProvider");
+        }
+        logins.add(login);
+        return this;
+    }
+
+    /**
+     * Returns all {@link Login}s, in the order of priority.
+     */
+    public List<Login> getLogins() {
+        return List.copyOf(logins);
+    }
+
+    /**
+     * Selects the {@link Login} of the preferred healthy CA.
+     *
+     * @return {@link Login} of the first CA with a closed or half open circuit, or empty
+     * if all CAs are degraded
+     */
+    public Optional<Login> select() {
+        return logins.stream()
+                .filter(FailoverRouter::isHealthy)
+                .findFirst();
+    }
+
+    /**
+     * Invokes the action with the preferred healthy CA. If the action fails because the
+     * CA is degraded or rate limits the account, the action is invoked again with the
+     * next healthy CA.
+     * <p>
+     * Other exceptions (e.g. if the request was malformed) would be thrown by the other
+     * CAs as well, so they are thrown immediately.
+     *
+     * @param action
+     *         {@link Action} to invoke, e.g. creating a new order
+     * @return Result of the action
+     * @throws AcmeException
+     *         if the action failed with all healthy CAs, or if there was no healthy CA
+     */
+    public <T> T execute(Action<T> action) throws AcmeException {
+        requireNonNull(action, "action");
+
+        AcmeException lastException = null;
+        for (var login : logins) {
+            if (!isHealthy(login)) {
+                continue;
+            }
+
+            try {
+                return action.invoke(login);
+            } catch (AcmeException ex) {
+                if (!isFailoverCause(ex)) {
+                    throw ex;
+                }
+                LOG.warn("CA {} failed, trying next one", login.getSession().getServerUri(), ex);
+                lastException = ex;
+            }
+        }
+
+        if (lastException != null) {
+            throw lastException;
+        }
+        throw new AcmeException("No healthy CA available");
+    }
+
+    /**
+     * Checks if the CA of the given {@link Login} is healthy.
+     */
+    private static boolean isHealthy(Login login) {
+        var provider = (CircuitBreakerAcmeProvider) login.getSession().provider();
+        return provider.getCircuitBreaker().isCallPermitted();
+    }
+
+    /**
+     * Checks if the exception is a reason to fail over to the next CA.
+     */
+    private static boolean isFailoverCause(AcmeException ex) {
+        return ex instanceof AcmeRateLimitedException
+                || CircuitBreakerAcmeProvider.isCaFailure(ex);
+    }
+
+}
@@ -0,0 +1,271 @@
+/*
+ * acme4j - Java ACME client
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://acme4j.shredzone.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ */
+package org.shredzone.acme4j.responder;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.shredzone.acme4j.Authorization;
+import org.shredzone.acme4j.AuthorizationCache;
+import org.shredzone.acme4j.Status;
+import org.shredzone.acme4j.challenge.Challenge;
+import org.shredzone.acme4j.challenge.Dns01Challenge;
+import org.shredzone.acme4j.challenge.DnsAccount01Challenge;
+import org.shredzone.acme4j.exception.AcmeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Validates a batch of {@link Authorization}s by DNS based challenges.
+ * <p>
+ * The records of all pending authorizations are collected first, and passed to the
+ * {@link DnsProvisioner} in one call per DNS zone. The propagation of all records is
+ * then checked once, before all challenges are triggered. Finally the records are
+ * removed again.
+ * <p>
+ * Authorizations that are already valid are skipped. {@value Dns01Challenge#TYPE}
+ * challenges are used by default, {@value DnsAccount01Challenge#TYPE} challenges can be
+ * used instead.
+ *
+ * @since 5.2.0
+ */
+public class DnsBatchValidator {
+    private static final Logger LOG = LoggerFactory.getLogger(DnsBatchValidator.class);
+    private static final Duration DEFAULT_PROPAGATION_TIMEOUT = Duration.ofMinutes(5L);
+
+    private final DnsProvisioner provisioner;
+    private String challengeType = Dns01Challenge.TYPE;
+    private Duration propagationTimeout = DEFAULT_PROPAGATION_TIMEOUT;
+    private @Nullable AuthorizationCache authorizationCache;
+
+    /**
+     * Creates a new {@link DnsBatchValidator}.
+     *
+     * @param provisioner
+     *         {@link DnsProvisioner} that sets the DNS records
+     */
+    public DnsBatchValidator(DnsProvisioner provisioner) {
+        this.provisioner = requireNonNull(provisioner, "provisioner");
+    }
+
+    /**
+     * Sets the challenge type to be used. Either {@value Dns01Challenge#TYPE} (default)
+     * or {@value DnsAccount01Challenge#TYPE}.
+     *
+     * @param challengeType
+     *         Challenge type
+     * @return itself
+     */
+    public DnsBatchValidator challengeType(String challengeType) {
+        requireNonNull(challengeType, "challengeType");
+        if (!Dns01Challenge.TYPE.equals(challengeType)
+                && !DnsAccount01Challenge.TYPE.equals(challengeType)) {
+            throw new IllegalArgumentException("Unsupported challenge type " + challengeType);
+        }
+        this.challengeType = challengeType;
+        return this;
+    }
+
+    /**
+     * Sets the maximum time to wait for the propagation of the DNS records. The default
+     * is 5 minutes.
+     *
+     * @param propagationTimeout
+     *         Propagation timeout
+     * @return itself
+     */
+    public DnsBatchValidator propagationTimeout(Duration propagationTimeout) {
+        requireNonNull(propagationTimeout, "propagationTimeout");
+        if (propagationTimeout.isNegative()) {
+            throw new IllegalArgumentException("propagationTimeout must not be negative");
+        }
+        this.propagationTimeout = propagationTimeout;
+        return this;
+    }
+
+    /**
+     * Sets an {@link AuthorizationCache}. Authorizations that are known to be valid are
+     * skipped, and authorizations that have been validated are recorded.
+     *
+     * @param authorizationCache
+     *         {@link AuthorizationCache} to be used, or {@code null} for none
+     * @return itself
+     */
+    @SuppressFBWarnings("EI_EXPOSE_REP2")   // behavior is intended
+    public DnsBatchValidator authorizationCache(@Nullable AuthorizationCache authorizationCache) {
+        this.authorizationCache = authorizationCache;
+        return this;
+    }
+
+    /**
+     * Validates the given authorizations.
+     *
+     * @param authorizations
+     *         {@link Authorization}s to validate, e.g. from
+     *         {@link org.shredzone.acme4j.Order#getAuthorizations()}
+     * @param timeout
+     *         Maximum time to wait for the completion of all challenges, after the
+     *         records have propagated
+     * @return List of {@link Authorization}s that could not be validated. Empty if all
+     * authorizations are valid.
+     * @throws AcmeException
+     *         if a challenge could not be triggered, or a validated authorization
+     *         could not be fetched for the {@link AuthorizationCache}
+     * @throws IOException
+     *         if the DNS records could not be set, or did not propagate in time
+     * @throws InterruptedException
+     *         if the thread was interrupted while waiting for the propagation of the
+     *         records, or for the completion of the challenges
+     */
+    public List<Authorization> validate(Collection<Authorization> authorizations, Duration timeout)
+            throws AcmeException, IOException, InterruptedException {
+        requireNonNull(authorizations, "authorizations");
+        requireNonNull(timeout, "timeout");
+
+        var failed = new ArrayList<Authorization>();
+        var pending = new LinkedHashMap<Authorization, Challenge>();
+        var zones = new LinkedHashMap<String, List<DnsRecord>>();
+
+        for (var auth : authorizations) {
+            if (isValid(auth)) {
+                continue;
+            }
+
+            var challenge = auth.<Challenge>findChallenge(challengeType);
+            var rec = challenge.flatMap(c -> toRecord(auth, c));
+            if (rec.isEmpty()) {
+                LOG.warn("No {} challenge found for {}", challengeType, auth.getIdentifier());
+                failed.add(auth);
+                continue;
+            }
+
+            pending.put(auth, challenge.get());
+            zones.computeIfAbsent(provisioner.zoneOf(rec.get().getName()), z -> new ArrayList<>())
+                    .add(rec.get());
+        }
+
+        if (pending.isEmpty()) {
+            return failed;
+        }
+
+        var provisioned = new LinkedHashMap<String, List<DnsRecord>>();
+        try {
+            for (var zone : zones.entrySet()) {
+                LOG.debug("Provisioning {} records in zone {}", zone.getValue().size(), zone.getKey());
+                provisioner.provision(zone.getKey(), zone.getValue());
+                provisioned.put(zone.getKey(), zone.getValue());
+            }
+
+            provisioner.awaitPropagation(
+                    zones.values().stream().flatMap(List::stream).toList(),
+                    propagationTimeout);
+
+            for (var challenge : pending.values()) {
+                challenge.trigger();
+            }
+
+            var deadline = Instant.now().plus(timeout);
+            for (var entry : pending.entrySet()) {
+                var status = await(entry.getValue(), deadline);
+                if (status == Status.VALID) {
+                    record(entry.getKey());
+                } else {
+                    failed.add(entry.getKey());
+                }
+            }
+        } finally {
+            cleanup(provisioned);
+        }
+
+        return failed;
+    }
+
+    /**
+     * Checks if the authorization is known to be valid.
+     */
+    private boolean isValid(Authorization auth) {
+        var cache = authorizationCache;
+        if (cache != null && cache.isAuthorized(auth.getLocation())) {
+            return true;
+        }
+        return auth.getStatus() == Status.VALID;
+    }
+
+    /**
+     * Records a validated authorization in the {@link AuthorizationCache}.
+     */
+    private void record(Authorization auth) throws AcmeException {
+        var cache = authorizationCache;
+        if (cache != null) {
+            auth.fetch();
+            cache.record(auth);
+        }
+    }
+
+    /**
+     * Waits for the completion of the challenge, until the deadline is reached.
+     */
+    private static Status await(Challenge challenge, Instant deadline)
+            throws InterruptedException {
+        try {
+            var remaining = Duration.between(Instant.now(), deadline);
+            if (remaining.isNegative()) {
+                remaining = Duration.ZERO;
+            }
+            return challenge.waitForCompletion(remaining);
+        } catch (AcmeException ex) {
+            LOG.warn("Challenge {} did not complete", challenge.getLocation(), ex);
+            return challenge.getStatus();
+        }
+    }
+
+    /**
+     * Converts the challenge to the required {@link DnsRecord}.
+     */
+    private static Optional<DnsRecord> toRecord(Authorization auth, Challenge challenge) {
+        var identifier = auth.getIdentifier();
+        if (challenge instanceof Dns01Challenge dns01) {
+            return Optional.of(new DnsRecord(dns01.getRRName(identifier), dns01.getDigest()));
+        }
+        if (challenge instanceof DnsAccount01Challenge dnsAccount01) {
+            return Optional.of(new DnsRecord(dnsAccount01.getRRName(identifier), dnsAccount01.getDigest()));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Removes the provisioned records. Errors are logged, but not thrown.
+     */
+    private void cleanup(Map<String, List<DnsRecord>> provisioned) {
+        for (var zone : provisioned.entrySet()) {
+            try {
+                provisioner.cleanup(zone.getKey(), zone.getValue());
+            } catch (IOException | RuntimeException ex) {
+                LOG.warn("Could not remove records of zone {}", zone.getKey(), ex);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,98 @@
+/*
+ * acme4j - Java ACME client
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://acme4j.shredzone.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ */
+package org.shredzone.acme4j.responder;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+
+/**
+ * A service provider interface for setting DNS records that are required for DNS based
+ * challenges.
+ * <p>
+ * The records are passed in batches, one call per DNS zone, so an implementation can
+ * update all records of a zone with a single request to the DNS provider. The
+ * propagation of all records is checked once, before the challenges are triggered.
+ * <p>
+ * Implementations must be thread-safe.
+ *
+ * @see DnsBatchValidator
+ * @since 5.2.0
+ */
+public interface DnsProvisioner {
+
+    /**
+     * Returns the DNS zone that contains the given record.
+     * <p>
+     * The default implementation returns the last two labels of the record name (e.g.
+     * {@code example.org.} for {@code _acme-challenge.www.example.org.}). Implementations
+     * should override this method if zones are delegated differently, or if public
+     * suffixes with more than one label are involved.
+     *
+     * @param recordName
+     *         Fully qualified record name, with trailing full stop
+     * @return Zone name, with trailing full stop
+     */
+    default String zoneOf(String recordName) {
+        var name = recordName.endsWith(".")
+                ? recordName.substring(0, recordName.length() - 1)
+                : recordName;
+        var lastDot = name.lastIndexOf('.');
+        var secondDot = lastDot > 0 ? name.lastIndexOf('.', lastDot - 1) : -1;
+        return name.substring(secondDot + 1) + '.';
+    }
+
+    /**
+     * Adds all records of a zone. Records with the same name must be added as separate
+     * values of the same record set, as wildcard and non-wildcard authorizations of a
+     * domain use the same record name.
+     *
+     * @param zone
+     *         Zone name, as returned by {@link #zoneOf(String)}
+     * @param records
+     *         {@link DnsRecord}s to add
+     * @throws IOException
+     *         if the records could not be added
+     */
+    void provision(String zone, Collection<DnsRecord> records) throws IOException;
+
+    /**
+     * Waits until all records are visible to the CA, e.g. by querying the authoritative
+     * name servers of the zones.
+     *
+     * @param records
+     *         All {@link DnsRecord}s that have been added
+     * @param timeout
+     *         Maximum time to wait
+     * @throws IOException
+     *         if the records did not propagate within the timeout
+     * @throws InterruptedException
+     *         if the thread was interrupted while waiting
+     */
+    void awaitPropagation(Collection<DnsRecord> records, Duration timeout)
+            throws IOException, InterruptedException;
+
+    /**
+     * Removes all records of a zone that have been added before.
+     *
+     * @param zone
+     *         Zone name, as returned by {@link #zoneOf(String)}
+     * @param records
+     *         {@link DnsRecord}s to remove
+     * @throws IOException
+     *         if the records could not be removed
+     */
+    void cleanup(String zone, Collection<DnsRecord> records) throws IOException;
+
+}
@@ -0,0 +1,77 @@
+/*
+ * acme4j - Java ACME client
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://acme4j.shredzone.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ */
+package org.shredzone.acme4j.responder;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Locale;
+
+/**
+ * A DNS {@code TXT} record that is required for a DNS based challenge.
+ *
+ * @since 5.2.0
+ */
+public final class DnsRecord {
+    private final String name;
+    private final String value;
+
+    /**
+     * Creates a new {@link DnsRecord}.
+     *
+     * @param name
+     *         Fully qualified record name, with trailing full stop (e.g.
+     *         {@code _acme-challenge.www.example.org.}). The name is converted to lower
+     *         case.
+     * @param value
+     *         {@code TXT} record value
+     */
+    public DnsRecord(String name, String value) {
+        this.name = requireNonNull(name, "name").toLowerCase(Locale.ENGLISH);
+        this.value = requireNonNull(value, "value");
+    }
+
+    /**
+     * Returns the fully qualified record name, in lower case and with trailing full
+     * stop.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the {@code TXT} record value.
+     */
+    public String getValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return name + " TXT \"" + value + '"';
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof DnsRecord r)) {
+            return false;
+        }
+        return name.equals(r.name) && value.equals(r.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * name.hashCode() + value.hashCode();
+    }
+
+}
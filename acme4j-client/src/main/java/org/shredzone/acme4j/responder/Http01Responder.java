@@ -0,0 +1,481 @@
+/*
+ * acme4j - Java ACME client
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://acme4j.shredzone.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ */
+package org.shredzone.acme4j.responder;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+import org.shredzone.acme4j.Status;
+import org.shredzone.acme4j.challenge.Http01Challenge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An embedded HTTP server that responds to the validation requests of
+ * {@link Http01Challenge}s.
+ * <p>
+ * The responder only uses the JDK. A single thread serves all connections via a
+ * non-blocking {@link Selector}, and the responses are prepared when a challenge is
+ * registered, so each validation request is answered by a simple map lookup. Only
+ * {@code GET} and {@code HEAD} requests to {@value #PATH_PREFIX} are served. All
+ * connections are closed after the response has been sent.
+ * <p>
+ * The responder must be reachable on port 80 of the domain to be validated. Use
+ * {@link #start(InetSocketAddress)} to start a responder, and {@link #close()} to stop
+ * it. This class is thread-safe.
+ *
+ * @since 5.2.0
+ */
+public class Http01Responder implements Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(Http01Responder.class);
+
+    /**
+     * The path prefix of the validation requests.
+     */
+    public static final String PATH_PREFIX = "/.well-known/acme-challenge/";
+
+    private static final Pattern TOKEN_PATTERN = Pattern.compile("[A-Za-z0-9_-]+");
+    private static final int BACKLOG = 1024;
+    private static final int MAX_REQUEST_SIZE = 8192;
+    private static final long SELECT_TIMEOUT_MILLIS = 1000L;
+    private static final long IDLE_TIMEOUT_MILLIS = 10_000L;
+
+    private static final ByteBuffer BAD_REQUEST = response(400, "Bad Request", "", false);
+    private static final ByteBuffer NOT_FOUND = response(404, "Not Found", "", false);
+    private static final ByteBuffer METHOD_NOT_ALLOWED = response(405, "Method Not Allowed", "", false);
+    private static final ByteBuffer TOO_LARGE = response(431, "Request Header Fields Too Large", "", false);
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    /**
+     * Starts a new {@link Http01Responder}.
+     *
+     * @param address
+     *         {@link InetSocketAddress} to listen on. Port 0 binds to an ephemeral port.
+     * @return Started {@link Http01Responder}
+     */
+    public static Http01Responder start(InetSocketAddress address) throws IOException {
+        var responder = new Http01Responder(requireNonNull(address, "address"));
+        responder.thread.start();
+        return responder;
+    }
+
+    private Http01Responder(InetSocketAddress address) throws IOException {
+        selector = Selector.open();
+        var channel = ServerSocketChannel.open();
+        try {
+            channel.configureBlocking(false);
+            channel.bind(address, BACKLOG);
+            channel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException ex) {
+            channel.close();
+            selector.close();
+            throw ex;
+        }
+        serverChannel = channel;
+        thread = new Thread(this::run, "acme4j-http01-responder");
+        thread.setDaemon(true);
+    }
+
+    /**
+     * Returns the address the responder is listening on.
+     */
+    public InetSocketAddress getAddress() throws IOException {
+        return (InetSocketAddress) serverChannel.getLocalAddress();
+    }
+
+    /**
+     * Registers a {@link Http01Challenge}. The responder serves the challenge's
+     * authorization until the returned {@link Registration} is closed, or the challenge
+     * is completed. Completed challenges are removed automatically about once per
+     * second, or by {@link #purgeCompleted()}.
+     *
+     * @param challenge
+     *         {@link Http01Challenge} to respond to
+     * @return {@link Registration} of the challenge
+     */
+    public Registration register(Http01Challenge challenge) {
+        requireNonNull(challenge, "challenge");
+        return register(challenge.getToken(), challenge.getAuthorization(), challenge);
+    }
+
+    /**
+     * Registers a token and its content. The responder serves the content until the
+     * returned {@link Registration} is closed.
+     *
+     * @param token
+     *         Challenge token
+     * @param content
+     *         Content to be served
+     * @return {@link Registration} of the token
+     */
+    public Registration register(String token, String content) {
+        return register(token, content, null);
+    }
+
+    private Registration register(String token, String content, @Nullable Http01Challenge challenge) {
+        requireNonNull(token, "token");
+        requireNonNull(content, "content");
+        if (!TOKEN_PATTERN.matcher(token).matches()) {
+            throw new IllegalArgumentException("Invalid token: " + token);
+        }
+
+        var entry = new Entry(
+                response(200, "OK", content, false),
+                response(200, "OK", content, true),
+                challenge);
+        entries.put(token, entry);
+        LOG.debug("Registered token {}", token);
+        return new Registration(token, entry);
+    }
+
+    /**
+     * Removes all registered challenges that are completed, i.e. have a
+     * {@link Status#VALID} or {@link Status#INVALID} status. Only the local state of
+     * the challenges is checked, no request is sent to the server.
+     *
+     * @return Number of removed challenges
+     */
+    public int purgeCompleted() {
+        var count = 0;
+        for (var e : entries.entrySet()) {
+            var challenge = e.getValue().challenge;
+            if (challenge != null) {
+                var status = challenge.getStatus();
+                if ((status == Status.VALID || status == Status.INVALID)
+                        && entries.remove(e.getKey(), e.getValue())) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of registered tokens.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Stops the responder and closes all open connections.
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        selector.wakeup();
+        try {
+            thread.join(SELECT_TIMEOUT_MILLIS * 5);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            throw new IOException("Responder thread did not terminate");
+        }
+    }
+
+    /**
+     * The selector loop.
+     */
+    private void run() {
+        var lastExpiry = System.currentTimeMillis();
+        try {
+            while (running) {
+                selector.select(SELECT_TIMEOUT_MILLIS);
+
+                var it = selector.selectedKeys().iterator();
+                while (it.hasNext()) {
+                    var key = it.next();
+                    it.remove();
+                    handle(key);
+                }
+
+                var now = System.currentTimeMillis();
+                if (now - lastExpiry >= SELECT_TIMEOUT_MILLIS) {
+                    expireIdle(now);
+                    purgeCompleted();
+                    lastExpiry = now;
+                }
+            }
+        } catch (IOException ex) {
+            LOG.error("HTTP-01 responder failed", ex);
+        } finally {
+            closeAll();
+        }
+    }
+
+    /**
+     * Handles a selected key. Connection errors only close the affected connection.
+     */
+    private void handle(SelectionKey key) {
+        try {
+            if (key.isAcceptable()) {
+                accept();
+            } else if (key.isReadable()) {
+                read(key);
+            } else if (key.isWritable()) {
+                write(key);
+            }
+        } catch (IOException | CancelledKeyException ex) {
+            LOG.debug("Connection failed", ex);
+            closeKey(key);
+        }
+    }
+
+    /**
+     * Accepts all pending connections.
+     */
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.register(selector, SelectionKey.OP_READ, new Exchange());
+        }
+    }
+
+    /**
+     * Reads the request. As soon as the request header is complete, the response is
+     * selected and sent.
+     */
+    private void read(SelectionKey key) throws IOException {
+        var channel = (SocketChannel) key.channel();
+        var exchange = (Exchange) key.attachment();
+        exchange.lastActivity = System.currentTimeMillis();
+
+        if (channel.read(exchange.request) < 0) {
+            closeKey(key);
+            return;
+        }
+
+        if (isHeaderComplete(exchange.request)) {
+            exchange.response = respond(exchange.request);
+        } else if (!exchange.request.hasRemaining()) {
+            exchange.response = TOO_LARGE.duplicate();
+        } else {
+            return;
+        }
+
+        key.interestOps(SelectionKey.OP_WRITE);
+        write(key);
+    }
+
+    /**
+     * Writes the response, and closes the connection when it was sent completely.
+     */
+    private void write(SelectionKey key) throws IOException {
+        var channel = (SocketChannel) key.channel();
+        var exchange = (Exchange) key.attachment();
+        var response = requireNonNull(exchange.response);
+        exchange.lastActivity = System.currentTimeMillis();
+
+        channel.write(response);
+        if (!response.hasRemaining()) {
+            closeKey(key);
+        }
+    }
+
+    /**
+     * Selects the response to the request in the buffer.
+     */
+    private ByteBuffer respond(ByteBuffer request) {
+        var data = request.duplicate().flip();
+        var lineLength = 0;
+        while (lineLength < data.limit() && data.get(lineLength) != '\r' && data.get(lineLength) != '\n') {
+            lineLength++;
+        }
+        var bytes = new byte[lineLength];
+        data.get(bytes);
+
+        var parts = new String(bytes, ISO_8859_1).split(" ");
+        if (parts.length != 3 || !parts[2].startsWith("HTTP/")) {
+            return BAD_REQUEST.duplicate();
+        }
+
+        var head = "HEAD".equals(parts[0]);
+        if (!head && !"GET".equals(parts[0])) {
+            return METHOD_NOT_ALLOWED.duplicate();
+        }
+
+        var path = parts[1];
+        var query = path.indexOf('?');
+        if (query >= 0) {
+            path = path.substring(0, query);
+        }
+        if (!path.startsWith(PATH_PREFIX)) {
+            return NOT_FOUND.duplicate();
+        }
+
+        var entry = entries.get(path.substring(PATH_PREFIX.length()));
+        if (entry == null) {
+            return NOT_FOUND.duplicate();
+        }
+        return (head ? entry.head : entry.get).duplicate();
+    }
+
+    /**
+     * Closes all connections that have been idle for too long.
+     */
+    private void expireIdle(long now) {
+        for (var key : selector.keys()) {
+            if (key.attachment() instanceof Exchange exchange
+                    && now - exchange.lastActivity > IDLE_TIMEOUT_MILLIS) {
+                closeKey(key);
+            }
+        }
+    }
+
+    /**
+     * Closes the server and all connections.
+     */
+    private void closeAll() {
+        if (selector.isOpen()) {
+            for (var key : selector.keys()) {
+                closeKey(key);
+            }
+        }
+        try {
+            selector.close();
+        } catch (IOException ex) {
+            LOG.debug("Could not close selector", ex);
+        }
+    }
+
+    /**
+     * Closes the channel of a key.
+     */
+    private static void closeKey(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException ex) {
+            LOG.debug("Could not close channel", ex);
+        }
+    }
+
+    /**
+     * Checks if the buffer contains the end of the request header.
+     */
+    private static boolean isHeaderComplete(ByteBuffer buffer) {
+        for (var ix = 1; ix < buffer.position(); ix++) {
+            if (buffer.get(ix) == '\n' && (buffer.get(ix - 1) == '\n'
+                    || (ix >= 2 && buffer.get(ix - 1) == '\r' && buffer.get(ix - 2) == '\n'))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Creates a complete, read-only HTTP response.
+     */
+    private static ByteBuffer response(int status, String reason, String content, boolean head) {
+        var body = content.getBytes(UTF_8);
+        var header = "HTTP/1.1 " + status + ' ' + reason + "\r\n"
+                + "Content-Type: text/plain\r\n"
+                + "Content-Length: " + body.length + "\r\n"
+                + "Connection: close\r\n"
+                + "\r\n";
+        var headerBytes = header.getBytes(ISO_8859_1);
+
+        var buffer = ByteBuffer.allocate(headerBytes.length + (head ? 0 : body.length));
+        buffer.put(headerBytes);
+        if (!head) {
+            buffer.put(body);
+        }
+        return buffer.flip().asReadOnlyBuffer();
+    }
+
+    /**
+     * The registration of a token. Closing the registration removes the token from the
+     * responder.
+     */
+    public final class Registration implements AutoCloseable {
+        private final String token;
+        private final Entry entry;
+
+        private Registration(String token, Entry entry) {
+            this.token = token;
+            this.entry = entry;
+        }
+
+        /**
+         * Returns the registered token.
+         */
+        public String getToken() {
+            return token;
+        }
+
+        /**
+         * Removes the token from the responder. If the token has been registered again
+         * in the meantime, the new registration is kept.
+         */
+        @Override
+        public void close() {
+            if (entries.remove(token, entry)) {
+                LOG.debug("Unregistered token {}", token);
+            }
+        }
+    }
+
+    /**
+     * The prepared responses of a token. Entries are compared by identity, so a
+     * {@link Registration} only removes its own entry.
+     */
+    private static final class Entry {
+        private final ByteBuffer get;
+        private final ByteBuffer head;
+        private final @Nullable Http01Challenge challenge;
+
+        private Entry(ByteBuffer get, ByteBuffer head, @Nullable Http01Challenge challenge) {
+            this.get = get;
+            this.head = head;
+            this.challenge = challenge;
+        }
+    }
+
+    /**
+     * The state of a connection.
+     */
+    private static final class Exchange {
+        private final ByteBuffer request = ByteBuffer.allocate(MAX_REQUEST_SIZE);
+        private @Nullable ByteBuffer response;
+        private long lastActivity = System.currentTimeMillis();
+    }
+
+    @Override
+    protected final void finalize() {
+        // CT_CONSTRUCTOR_THROW: Prevents finalizer attack
+    }
+
+}
@@ -0,0 +1,118 @@
+/*
+ * acme4j - Java ACME client
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://acme4j.shredzone.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ */
+package org.shredzone.acme4j.responder;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link DnsProvisioner} that keeps the records in memory. It is meant for testing.
+ * <p>
+ * All records are visible immediately after they have been provisioned.
+ *
+ * @since 5.2.0
+ */
+public class InMemoryDnsProvisioner implements DnsProvisioner {
+    private final Map<String, List<String>> records = new ConcurrentHashMap<>();
+    private final AtomicInteger provisionCount = new AtomicInteger();
+    private final AtomicInteger cleanupCount = new AtomicInteger();
+
+    @Override
+    public void provision(String zone, Collection<DnsRecord> newRecords) {
+        requireNonNull(zone, "zone");
+        provisionCount.incrementAndGet();
+        for (var rec : newRecords) {
+            checkZone(zone, rec);
+            records.compute(rec.getName(), (name, values) -> {
+                var result = values != null ? new ArrayList<>(values) : new ArrayList<String>();
+                result.add(rec.getValue());
+                return List.copyOf(result);
+            });
+        }
+    }
+
+    @Override
+    public void awaitPropagation(Collection<DnsRecord> expected, Duration timeout)
+            throws IOException {
+        for (var rec : expected) {
+            if (!lookup(rec.getName()).contains(rec.getValue())) {
+                throw new IOException("Record has not been provisioned: " + rec);
+            }
+        }
+    }
+
+    @Override
+    public void cleanup(String zone, Collection<DnsRecord> oldRecords) {
+        requireNonNull(zone, "zone");
+        cleanupCount.incrementAndGet();
+        for (var rec : oldRecords) {
+            records.computeIfPresent(rec.getName(), (name, values) -> {
+                var result = new ArrayList<>(values);
+                result.remove(rec.getValue());
+                return result.isEmpty() ? null : List.copyOf(result);
+            });
+        }
+    }
+
+    /**
+     * Returns the {@code TXT} values of the given record name.
+     *
+     * @param name
+     *         Fully qualified record name, with trailing full stop
+     * @return List of values, or an empty list if there is no such record
+     */
+    public List<String> lookup(String name) {
+        return records.getOrDefault(name.toLowerCase(Locale.ENGLISH), List.of());
+    }
+
+    /**
+     * Returns the number of record names that are currently set.
+     */
+    public int size() {
+        return records.size();
+    }
+
+    /**
+     * Returns how often {@link #provision(String, Collection)} has been invoked.
+     */
+    public int getProvisionCount() {
+        return provisionCount.get();
+    }
+
+    /**
+     * Returns how often {@link #cleanup(String, Collection)} has been invoked.
+     */
+    public int getCleanupCount() {
+        return cleanupCount.get();
+    }
+
+    /**
+     * Checks that the record is part of the zone.
+     */
+    private void checkZone(String zone, DnsRecord rec) {
+        if (!zone.equals(zoneOf(rec.getName()))) {
+            throw new IllegalArgumentException(rec + " is not part of zone " + zone);
+        }
+    }
+
+}
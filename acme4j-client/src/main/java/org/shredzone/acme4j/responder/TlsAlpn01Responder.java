@@ -0,0 +1,502 @@
+/*
+ * acme4j - Java ACME client
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://acme4j.shredzone.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ */
+package org.shredzone.acme4j.responder;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.Principal;
+import java.security.PrivateKey;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.net.ssl.ExtendedSSLSession;
+import javax.net.ssl.KeyManager;
+import javax.net.ssl.SNIHostName;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.SSLServerSocket;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.X509ExtendedKeyManager;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.shredzone.acme4j.Identifier;
+import org.shredzone.acme4j.Status;
+import org.shredzone.acme4j.challenge.TlsAlpn01Challenge;
+import org.shredzone.acme4j.util.KeyPairUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An embedded TLS server that responds to the validation requests of
+ * {@link TlsAlpn01Challenge}s.
+ * <p>
+ * The responder only accepts TLS handshakes that negotiate the
+ * {@value TlsAlpn01Challenge#ACME_TLS_1_PROTOCOL} protocol. The validation certificate
+ * is selected by the SNI server name of the handshake. For IP identifiers, the reverse
+ * DNS name of the address is expected as server name.
+ * <p>
+ * All validation certificates share the key pair of the responder. Each certificate is
+ * generated on the first validation request of its challenge, and is kept until the
+ * challenge is unregistered, or the challenge is completed. The connection is closed
+ * after the handshake. Connections that did not complete the handshake within the
+ * handshake timeout are closed as well.
+ * <p>
+ * The responder must be reachable on port 443 of the domain to be validated. Use
+ * {@link #start(InetSocketAddress)} to start a responder, and {@link #close()} to stop
+ * it. This class is thread-safe.
+ *
+ * @since 5.2.0
+ */
+public class TlsAlpn01Responder implements Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(TlsAlpn01Responder.class);
+    private static final int BACKLOG = 1024;
+    private static final int HANDSHAKE_THREADS = 16;
+    private static final int PURGE_INTERVAL_MILLIS = 1000;
+    private static final Duration DEFAULT_HANDSHAKE_TIMEOUT = Duration.ofSeconds(10L);
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final KeyPair keyPair;
+    private final SSLServerSocket serverSocket;
+    private final ExecutorService handshakeExecutor;
+    private final ScheduledExecutorService timeoutExecutor;
+    private final Duration handshakeTimeout;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    /**
+     * Starts a new {@link TlsAlpn01Responder}, using a new 2048 bit RSA key pair for the
+     * validation certificates.
+     *
+     * @param address
+     *         {@link InetSocketAddress} to listen on. Port 0 binds to an ephemeral port.
+     * @return Started {@link TlsAlpn01Responder}
+     */
+    public static TlsAlpn01Responder start(InetSocketAddress address) throws IOException {
+        return start(address, KeyPairUtils.createKeyPair(2048));
+    }
+
+    /**
+     * Starts a new {@link TlsAlpn01Responder}.
+     *
+     * @param address
+     *         {@link InetSocketAddress} to listen on. Port 0 binds to an ephemeral port.
+     * @param keyPair
+     *         RSA {@link KeyPair} that is shared by all validation certificates
+     * @return Started {@link TlsAlpn01Responder}
+     */
+    public static TlsAlpn01Responder start(InetSocketAddress address, KeyPair keyPair)
+                throws IOException {
+        return start(address, keyPair, DEFAULT_HANDSHAKE_TIMEOUT);
+    }
+
+    /**
+     * Starts a new {@link TlsAlpn01Responder}.
+     *
+     * @param address
+     *         {@link InetSocketAddress} to listen on. Port 0 binds to an ephemeral port.
+     * @param keyPair
+     *         RSA {@link KeyPair} that is shared by all validation certificates
+     * @param handshakeTimeout
+     *         Maximum time between accepting a connection and completing its handshake.
+     *         The connection is closed when the timeout has elapsed.
+     * @return Started {@link TlsAlpn01Responder}
+     */
+    public static TlsAlpn01Responder start(InetSocketAddress address, KeyPair keyPair,
+                Duration handshakeTimeout) throws IOException {
+        requireNonNull(handshakeTimeout, "handshakeTimeout");
+        if (handshakeTimeout.isNegative() || handshakeTimeout.isZero()) {
+            throw new IllegalArgumentException("handshakeTimeout must be positive");
+        }
+        var responder = new TlsAlpn01Responder(requireNonNull(address, "address"),
+                requireNonNull(keyPair, "keyPair"), handshakeTimeout);
+        responder.thread.start();
+        return responder;
+    }
+
+    private TlsAlpn01Responder(InetSocketAddress address, KeyPair keyPair,
+                Duration handshakeTimeout) throws IOException {
+        this.keyPair = keyPair;
+        this.handshakeTimeout = handshakeTimeout;
+
+        try {
+            var sslContext = SSLContext.getInstance("TLS");
+            sslContext.init(new KeyManager[] {new SniKeyManager()}, null, null);
+            serverSocket = (SSLServerSocket) sslContext.getServerSocketFactory()
+                    .createServerSocket();
+        } catch (GeneralSecurityException ex) {
+            throw new IOException("Could not create TLS context", ex);
+        }
+
+        try {
+            serverSocket.bind(address, BACKLOG);
+            serverSocket.setSoTimeout(PURGE_INTERVAL_MILLIS);
+        } catch (IOException ex) {
+            serverSocket.close();
+            throw ex;
+        }
+
+        var threadCount = new AtomicInteger();
+        handshakeExecutor = Executors.newFixedThreadPool(HANDSHAKE_THREADS, r -> {
+            var t = new Thread(r, "acme4j-tls-alpn01-handshake-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        timeoutExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            var t = new Thread(r, "acme4j-tls-alpn01-timeout");
+            t.setDaemon(true);
+            return t;
+        });
+
+        thread = new Thread(this::run, "acme4j-tls-alpn01-responder");
+        thread.setDaemon(true);
+    }
+
+    /**
+     * Returns the address the responder is listening on.
+     */
+    public InetSocketAddress getAddress() {
+        return (InetSocketAddress) serverSocket.getLocalSocketAddress();
+    }
+
+    /**
+     * Registers a {@link TlsAlpn01Challenge}. The responder serves the validation
+     * certificate until the returned {@link Registration} is closed, or the challenge is
+     * completed. Completed challenges are removed automatically about once per second,
+     * or by {@link #purgeCompleted()}.
+     *
+     * @param challenge
+     *         {@link TlsAlpn01Challenge} to respond to
+     * @param identifier
+     *         {@link Identifier} that is to be validated
+     * @return {@link Registration} of the challenge
+     */
+    public Registration register(TlsAlpn01Challenge challenge, Identifier identifier) {
+        requireNonNull(challenge, "challenge");
+        requireNonNull(identifier, "identifier");
+
+        var serverName = serverName(identifier);
+        var entry = new Entry(challenge, identifier);
+        entries.put(serverName, entry);
+        LOG.debug("Registered server name {}", serverName);
+        return new Registration(serverName, entry);
+    }
+
+    /**
+     * Removes all registered challenges that are completed, i.e. have a
+     * {@link Status#VALID} or {@link Status#INVALID} status. Only the local state of
+     * the challenges is checked, no request is sent to the server.
+     *
+     * @return Number of removed challenges
+     */
+    public int purgeCompleted() {
+        var count = 0;
+        for (var e : entries.entrySet()) {
+            var status = e.getValue().challenge.getStatus();
+            if ((status == Status.VALID || status == Status.INVALID)
+                    && entries.remove(e.getKey(), e.getValue())) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of registered challenges.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Stops the responder.
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        serverSocket.close();
+        handshakeExecutor.shutdownNow();
+        try {
+            thread.join(handshakeTimeout.toMillis());
+            handshakeExecutor.awaitTermination(handshakeTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            timeoutExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns the SNI server name that is used for validating the identifier.
+     *
+     * @param identifier
+     *         {@link Identifier} to be validated
+     * @return Server name, in lower case
+     */
+    static String serverName(Identifier identifier) {
+        return switch (identifier.getType()) {
+            case Identifier.TYPE_DNS -> identifier.getDomain().toLowerCase(Locale.ENGLISH);
+            case Identifier.TYPE_IP -> reverseName(identifier.getIP());
+            default -> throw new IllegalArgumentException("Unsupported Identifier type "
+                    + identifier.getType());
+        };
+    }
+
+    /**
+     * Returns the reverse DNS name of an IP address, see RFC 8738.
+     */
+    private static String reverseName(InetAddress address) {
+        var bytes = address.getAddress();
+        var sb = new StringBuilder();
+        if (address instanceof Inet4Address) {
+            for (var ix = bytes.length - 1; ix >= 0; ix--) {
+                sb.append(bytes[ix] & 0xFF).append('.');
+            }
+            return sb.append("in-addr.arpa").toString();
+        }
+        for (var ix = bytes.length - 1; ix >= 0; ix--) {
+            sb.append(Character.forDigit(bytes[ix] & 0x0F, 16)).append('.');
+            sb.append(Character.forDigit((bytes[ix] >> 4) & 0x0F, 16)).append('.');
+        }
+        return sb.append("ip6.arpa").toString();
+    }
+
+    /**
+     * The accept loop. Handshakes are performed by the handshake executor. Completed
+     * challenges are purged periodically.
+     */
+    private void run() {
+        var lastPurge = System.currentTimeMillis();
+        while (running) {
+            try {
+                var now = System.currentTimeMillis();
+                if (now - lastPurge >= PURGE_INTERVAL_MILLIS) {
+                    purgeCompleted();
+                    lastPurge = now;
+                }
+
+                var socket = (SSLSocket) serverSocket.accept();
+                var deadline = timeoutExecutor.schedule(() -> abort(socket),
+                        handshakeTimeout.toMillis(), TimeUnit.MILLISECONDS);
+                handshakeExecutor.execute(() -> handshake(socket, deadline));
+            } catch (SocketTimeoutException ex) {
+                // no connection within the purge interval
+            } catch (SocketException ex) {
+                if (running) {
+                    LOG.error("TLS-ALPN-01 responder failed", ex);
+                }
+                return;
+            } catch (IOException ex) {
+                LOG.debug("Could not accept connection", ex);
+            } catch (RuntimeException ex) {
+                LOG.debug("Could not handle connection", ex);
+            }
+        }
+    }
+
+    /**
+     * Performs the handshake, then closes the connection.
+     *
+     * @param socket
+     *         {@link SSLSocket} of the accepted connection
+     * @param deadline
+     *         Scheduled abortion of the connection, cancelled after the handshake
+     */
+    private void handshake(SSLSocket socket, Future<?> deadline) {
+        try (socket) {
+            socket.setSoTimeout((int) Math.min(handshakeTimeout.toMillis(), Integer.MAX_VALUE));
+            socket.setHandshakeApplicationProtocolSelector((s, protocols) ->
+                    protocols.contains(TlsAlpn01Challenge.ACME_TLS_1_PROTOCOL)
+                            ? TlsAlpn01Challenge.ACME_TLS_1_PROTOCOL
+                            : null);
+            socket.startHandshake();
+        } catch (IOException ex) {
+            LOG.debug("TLS handshake failed", ex);
+        } finally {
+            deadline.cancel(false);
+        }
+    }
+
+    /**
+     * Closes a connection that did not complete the handshake in time.
+     */
+    private static void abort(SSLSocket socket) {
+        if (!socket.isClosed()) {
+            LOG.debug("TLS handshake timed out");
+            try {
+                socket.close();
+            } catch (IOException ex) {
+                LOG.debug("Could not close connection", ex);
+            }
+        }
+    }
+
+    /**
+     * Returns the SNI server name that was requested in the handshake. The server name
+     * is only returned if the {@value TlsAlpn01Challenge#ACME_TLS_1_PROTOCOL} protocol
+     * was negotiated.
+     */
+    private static Optional<String> requestedServerName(@Nullable Socket socket) {
+        if (socket instanceof SSLSocket sslSocket
+                && TlsAlpn01Challenge.ACME_TLS_1_PROTOCOL.equals(sslSocket.getHandshakeApplicationProtocol())
+                && sslSocket.getHandshakeSession() instanceof ExtendedSSLSession session) {
+            return session.getRequestedServerNames().stream()
+                    .filter(SNIHostName.class::isInstance)
+                    .map(SNIHostName.class::cast)
+                    .map(SNIHostName::getAsciiName)
+                    .map(name -> name.toLowerCase(Locale.ENGLISH))
+                    .findFirst();
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * The registration of a challenge. Closing the registration removes the challenge and
+     * its validation certificate from the responder.
+     */
+    public final class Registration implements AutoCloseable {
+        private final String serverName;
+        private final Entry entry;
+
+        private Registration(String serverName, Entry entry) {
+            this.serverName = serverName;
+            this.entry = entry;
+        }
+
+        /**
+         * Returns the SNI server name the validation certificate is served for.
+         */
+        public String getServerName() {
+            return serverName;
+        }
+
+        /**
+         * Removes the challenge from the responder. If the server name has been
+         * registered again in the meantime, the new registration is kept.
+         */
+        @Override
+        public void close() {
+            if (entries.remove(serverName, entry)) {
+                LOG.debug("Unregistered server name {}", serverName);
+            }
+        }
+    }
+
+    /**
+     * A registered challenge, and its lazily generated validation certificate.
+     */
+    private final class Entry {
+        private final TlsAlpn01Challenge challenge;
+        private final Identifier identifier;
+        private @Nullable X509Certificate certificate;
+
+        private Entry(TlsAlpn01Challenge challenge, Identifier identifier) {
+            this.challenge = challenge;
+            this.identifier = identifier;
+        }
+
+        private synchronized X509Certificate getCertificate() {
+            if (certificate == null) {
+                certificate = challenge.createCertificate(keyPair, identifier);
+            }
+            return certificate;
+        }
+    }
+
+    /**
+     * A key manager that selects the validation certificate by the SNI server name.
+     * The server name is used as alias.
+     */
+    private class SniKeyManager extends X509ExtendedKeyManager {
+        @Override
+        @Nullable
+        public String chooseServerAlias(String keyType, @Nullable Principal[] issuers,
+                                        @Nullable Socket socket) {
+            if (!keyPair.getPublic().getAlgorithm().equals(keyType)) {
+                return null;
+            }
+            return requestedServerName(socket)
+                    .filter(entries::containsKey)
+                    .orElse(null);
+        }
+
+        @Override
+        @Nullable
+        public String chooseEngineServerAlias(String keyType, @Nullable Principal[] issuers,
+                                              @Nullable SSLEngine engine) {
+            return null;
+        }
+
+        @Override
+        @Nullable
+        @SuppressFBWarnings("PZLA_PREFER_ZERO_LENGTH_ARRAYS")  // null is required by the API
+        public X509Certificate[] getCertificateChain(String alias) {
+            var entry = entries.get(alias);
+            return entry != null ? new X509Certificate[] {entry.getCertificate()} : null;
+        }
+
+        @Override
+        @Nullable
+        public PrivateKey getPrivateKey(String alias) {
+            return entries.containsKey(alias) ? keyPair.getPrivate() : null;
+        }
+
+        @Override
+        @Nullable
+        @SuppressFBWarnings("PZLA_PREFER_ZERO_LENGTH_ARRAYS")  // null is required by the API
+        public String[] getServerAliases(String keyType, @Nullable Principal[] issuers) {
+            return null;
+        }
+
+        @Override
+        @Nullable
+        @SuppressFBWarnings("PZLA_PREFER_ZERO_LENGTH_ARRAYS")  // null is required by the API
+        public String[] getClientAliases(String keyType, @Nullable Principal[] issuers) {
+            return null;
+        }
+
+        @Override
+        @Nullable
+        public String chooseClientAlias(String[] keyType, @Nullable Principal[] issuers,
+                                        @Nullable Socket socket) {
+            return null;
+        }
+    }
+
+    @Override
+    protected final void finalize() {
+        // CT_CONSTRUCTOR_THROW: Prevents finalizer attack
+    }
+
+}
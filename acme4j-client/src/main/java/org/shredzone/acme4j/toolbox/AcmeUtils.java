@@ -23,15 +23,19 @@ import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.security.cert.CertificateEncodingException;
 import java.security.cert.X509Certificate;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.Arrays;
 import java.util.Base64;
+import java.util.Collections;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.WeakHashMap;
 import java.util.regex.Pattern;
 
 import edu.umd.cs.findbugs.annotations.Nullable;
@@ -74,6 +78,9 @@ public final class AcmeUtils {
 
     private static final char[] BASE32_ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZ234567".toCharArray();
 
+    private static final Map<X509Certificate, String> RENEWAL_ID_CACHE =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
     /**
      * Enumeration of PEM labels.
      */
@@ -388,6 +395,9 @@ public final class AcmeUtils {
 
     /**
      * Returns the certificate's unique identifier for renewal.
+     * <p>
+     * The result is cached as long as the certificate is in use, so repeated invocations
+     * for the same certificate are cheap.
      *
      * @param certificate
      *         Certificate to get the unique identifier for.
@@ -397,8 +407,43 @@ public final class AcmeUtils {
      *         information.
      */
     public static String getRenewalUniqueIdentifier(X509Certificate certificate) {
+        var cached = RENEWAL_ID_CACHE.get(certificate);
+        if (cached != null) {
+            return cached;
+        }
+
+        try {
+            var id = getRenewalUniqueIdentifier(certificate.getEncoded());
+            RENEWAL_ID_CACHE.put(certificate, id);
+            return id;
+        } catch (CertificateEncodingException ex) {
+            throw new AcmeProtocolException("Invalid certificate", ex);
+        }
+    }
+
+    /**
+     * Returns the unique identifier for renewal of a DER encoded certificate.
+     * <p>
+     * The identifier is read directly from the encoded certificate, so it is not
+     * necessary to parse the certificate into a {@link X509Certificate} first.
+     *
+     * @param encoded
+     *         DER encoded certificate to get the unique identifier for.
+     * @return Unique identifier
+     * @throws AcmeProtocolException
+     *         if the certificate is invalid or does not provide the necessary
+     *         information.
+     * @since 5.2.0
+     */
+    public static String getRenewalUniqueIdentifier(byte[] encoded) {
+        var id = DerCertificateParser.renewalUniqueIdentifier(encoded);
+        if (id != null) {
+            return id;
+        }
+
+        // Use the full parser for unusual certificates, and for detailed error messages
         try {
-            var cert = new X509CertificateHolder(certificate.getEncoded());
+            var cert = new X509CertificateHolder(encoded);
 
             var aki = Optional.of(cert)
                     .map(X509CertificateHolder::getExtensions)
@@ -0,0 +1,102 @@
+/*
+ * acme4j - Java ACME client
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://acme4j.shredzone.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ */
+package org.shredzone.acme4j.toolbox;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.X509Certificate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.shredzone.acme4j.exception.AcmeProtocolException;
+
+/**
+ * Interns issuer certificates, so the same intermediate certificate is only kept once in
+ * memory, no matter how many certificate chains refer to it.
+ * <p>
+ * Certificates are identified by the SHA-256 hash of their DER encoding. The number of
+ * interned certificates is limited. If the limit is reached, the least recently used
+ * certificate is evicted.
+ *
+ * @since 5.2.0
+ */
+public final class CertificateInterner {
+    private static final int MAX_SIZE = 256;
+
+    private static final Map<ByteBuffer, X509Certificate> INTERNED =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<ByteBuffer, X509Certificate> eldest) {
+                    return size() > MAX_SIZE;
+                }
+            };
+
+    private CertificateInterner() {
+        // Utility class without constructor
+    }
+
+    /**
+     * Returns a canonical instance of the given certificate.
+     *
+     * @param certificate
+     *         {@link X509Certificate} to intern
+     * @return An identical {@link X509Certificate} that has been interned before, or the
+     * given certificate if it is interned for the first time
+     */
+    public static X509Certificate intern(X509Certificate certificate) {
+        var key = derHash(certificate);
+        synchronized (INTERNED) {
+            var interned = INTERNED.putIfAbsent(key, certificate);
+            return interned != null ? interned : certificate;
+        }
+    }
+
+    /**
+     * Interns the issuer certificates of a certificate chain. The first certificate is
+     * the end-entity certificate. It is usually unique, and is kept as it is.
+     *
+     * @param chain
+     *         Certificate chain, starting with the end-entity certificate
+     * @return Unmodifiable certificate chain with interned issuer certificates
+     */
+    public static List<X509Certificate> internIssuers(List<X509Certificate> chain) {
+        if (chain.size() < 2) {
+            return List.copyOf(chain);
+        }
+
+        var result = new ArrayList<X509Certificate>(chain.size());
+        result.add(chain.get(0));
+        for (var ix = 1; ix < chain.size(); ix++) {
+            result.add(intern(chain.get(ix)));
+        }
+        return List.copyOf(result);
+    }
+
+    /**
+     * Computes the SHA-256 hash of the certificate's DER encoding.
+     */
+    private static ByteBuffer derHash(X509Certificate certificate) {
+        try {
+            var md = MessageDigest.getInstance("SHA-256");
+            return ByteBuffer.wrap(md.digest(certificate.getEncoded()));
+        } catch (NoSuchAlgorithmException | CertificateEncodingException ex) {
+            throw new AcmeProtocolException("Could not compute certificate hash", ex);
+        }
+    }
+
+}
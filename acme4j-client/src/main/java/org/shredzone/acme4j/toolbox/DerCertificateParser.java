@@ -0,0 +1,195 @@
+/*
+ * acme4j - Java ACME client
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://acme4j.shredzone.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ */
+package org.shredzone.acme4j.toolbox;
+
+import java.util.Arrays;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * A minimal DER walker that reads the renewal unique identifier (Authority Key
+ * Identifier and serial number) straight from an encoded X.509 certificate, without
+ * building a full ASN.1 object tree.
+ * <p>
+ * Only the path to the required fields is walked. If the certificate does not follow
+ * the expected structure, {@code null} is returned, and the caller is supposed to fall
+ * back to a full parser for a detailed error message.
+ */
+final class DerCertificateParser {
+    private static final int TAG_INTEGER = 0x02;
+    private static final int TAG_OCTET_STRING = 0x04;
+    private static final int TAG_OID = 0x06;
+    private static final int TAG_SEQUENCE = 0x30;
+    private static final int TAG_VERSION = 0xA0;
+    private static final int TAG_EXTENSIONS = 0xA3;
+    private static final int TAG_KEY_IDENTIFIER = 0x80;
+
+    /**
+     * Encoded OID 2.5.29.35 (Authority Key Identifier).
+     */
+    private static final byte[] AKI_OID = {0x55, 0x1D, 0x23};
+
+    private final byte[] der;
+    private int pos;
+    private int tag;
+    private int length;
+
+    private DerCertificateParser(byte[] der) {
+        this.der = der;
+    }
+
+    /**
+     * Reads the renewal unique identifier of an encoded certificate.
+     *
+     * @param der
+     *         DER encoded X.509 certificate
+     * @return Renewal unique identifier, or {@code null} if it could not be found
+     */
+    @Nullable
+    static String renewalUniqueIdentifier(byte[] der) {
+        try {
+            return new DerCertificateParser(der).parse();
+        } catch (IndexOutOfBoundsException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Walks the certificate structure.
+     */
+    @Nullable
+    private String parse() {
+        // Certificate ::= SEQUENCE { tbsCertificate, ... }
+        if (!enter(TAG_SEQUENCE) || !enter(TAG_SEQUENCE)) {
+            return null;
+        }
+        var tbsEnd = pos + length;
+
+        // version [0] EXPLICIT is optional
+        readHeader();
+        if (tag == TAG_VERSION) {
+            pos += length;
+            readHeader();
+        }
+
+        if (tag != TAG_INTEGER || length == 0) {
+            return null;
+        }
+        var serial = Arrays.copyOfRange(der, pos, pos + length);
+        pos += length;
+
+        // Skip signature, issuer, validity, subject, subjectPublicKeyInfo, and the
+        // optional unique IDs, until the extensions are found.
+        byte[] aki = null;
+        while (pos < tbsEnd) {
+            readHeader();
+            if (tag == TAG_EXTENSIONS) {
+                aki = findAuthorityKeyIdentifier();
+                break;
+            }
+            pos += length;
+        }
+
+        if (aki == null) {
+            return null;
+        }
+        return AcmeUtils.base64UrlEncode(aki) + '.' + AcmeUtils.base64UrlEncode(serial);
+    }
+
+    /**
+     * Finds the key identifier of the Authority Key Identifier extension. The parser
+     * is positioned at the content of the {@code [3] EXPLICIT Extensions}.
+     */
+    @Nullable
+    private byte[] findAuthorityKeyIdentifier() {
+        if (!enter(TAG_SEQUENCE)) {
+            return null;
+        }
+        var extensionsEnd = pos + length;
+
+        while (pos < extensionsEnd) {
+            // Extension ::= SEQUENCE { extnID, critical DEFAULT FALSE, extnValue }
+            if (!enter(TAG_SEQUENCE)) {
+                return null;
+            }
+            var extensionEnd = pos + length;
+
+            if (!enter(TAG_OID)) {
+                return null;
+            }
+            if (!Arrays.equals(der, pos, pos + length, AKI_OID, 0, AKI_OID.length)) {
+                pos = extensionEnd;
+                continue;
+            }
+            pos += length;
+
+            readHeader();
+            if (tag != TAG_OCTET_STRING) {
+                // skip the critical flag
+                pos += length;
+                readHeader();
+            }
+            if (tag != TAG_OCTET_STRING) {
+                return null;
+            }
+
+            // AuthorityKeyIdentifier ::= SEQUENCE { keyIdentifier [0] IMPLICIT OPTIONAL, ... }
+            if (!enter(TAG_SEQUENCE)) {
+                return null;
+            }
+            readHeader();
+            if (tag != TAG_KEY_IDENTIFIER) {
+                return null;
+            }
+            return Arrays.copyOfRange(der, pos, pos + length);
+        }
+        return null;
+    }
+
+    /**
+     * Reads the next header, and checks its tag. If the tag matches, the parser is
+     * positioned at the content.
+     */
+    private boolean enter(int expectedTag) {
+        readHeader();
+        return tag == expectedTag;
+    }
+
+    /**
+     * Reads the tag and length of the next element. Afterwards the parser is positioned
+     * at the content of the element.
+     *
+     * @throws IndexOutOfBoundsException
+     *         if the element exceeds the encoded data
+     */
+    private void readHeader() {
+        tag = der[pos++] & 0xFF;
+        var len = der[pos++] & 0xFF;
+        if (len > 0x80 && len <= 0x84) {
+            var octets = len & 0x7F;
+            len = 0;
+            for (var ix = 0; ix < octets; ix++) {
+                len = (len << 8) | (der[pos++] & 0xFF);
+            }
+        } else if (len >= 0x80) {
+            // indefinite or too large lengths are not permitted in DER
+            throw new IndexOutOfBoundsException("Unsupported length encoding");
+        }
+        if (len < 0 || len > der.length - pos) {
+            throw new IndexOutOfBoundsException("Element exceeds the encoded data");
+        }
+        length = len;
+    }
+
+}
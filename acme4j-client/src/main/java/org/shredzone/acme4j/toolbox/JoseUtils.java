@@ -13,19 +13,32 @@
  */
 package org.shredzone.acme4j.toolbox;
 
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.shredzone.acme4j.toolbox.AcmeUtils.base64UrlEncode;
+
+import java.io.IOException;
 import java.net.URL;
+import java.security.GeneralSecurityException;
+import java.security.InvalidKeyException;
 import java.security.KeyPair;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.Provider;
 import java.security.PublicKey;
+import java.security.Signature;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.crypto.SecretKey;
 
 import edu.umd.cs.findbugs.annotations.Nullable;
 import org.jose4j.jwk.EllipticCurveJsonWebKey;
 import org.jose4j.jwk.JsonWebKey;
+import org.jose4j.jwk.OctetKeyPairJsonWebKey;
 import org.jose4j.jwk.PublicJsonWebKey;
 import org.jose4j.jwk.RsaJsonWebKey;
 import org.jose4j.jws.AlgorithmIdentifiers;
+import org.jose4j.jws.EcdsaUsingShaAlgorithm;
 import org.jose4j.jws.JsonWebSignature;
 import org.jose4j.lang.JoseException;
 import org.slf4j.Logger;
@@ -43,6 +56,14 @@ public final class JoseUtils {
 
     private static final Logger LOG = LoggerFactory.getLogger(JoseUtils.class);
 
+    /**
+     * {@link Signature} engines are expensive to look up, so the {@link Provider} that
+     * was selected for a JCA algorithm and key type is kept. The engines themselves are
+     * created for each signature, so they won't keep a reference to the private key.
+     */
+    private static final Map<String, Provider> SIGNATURE_PROVIDERS =
+            new ConcurrentHashMap<>();
+
     private JoseUtils() {
         // Utility class without constructor
     }
@@ -64,6 +85,7 @@ public final class JoseUtils {
      *         kid to be used in the JOSE header. If {@code null}, a jwk header of the
      *         given key is used instead.
      * @return JSON structure of the JOSE request, ready to be sent.
+     * @see #sign(String, PrivateKey, byte[])
      */
     public static JSONBuilder createJoseRequest(URL url, KeyPair keypair,
                 @Nullable JSONBuilder payload, @Nullable String nonce, @Nullable String kid) {
@@ -83,10 +105,14 @@ public final class JoseUtils {
                 jws.getHeaders().setObjectHeaderValue("nonce", nonce);
             }
 
+            var algorithm = keyAlgorithm(jwk);
             jws.setPayload(payload != null ? payload.toString() : "");
-            jws.setAlgorithmHeaderValue(keyAlgorithm(jwk));
-            jws.setKey(keypair.getPrivate());
-            jws.sign();
+            jws.setAlgorithmHeaderValue(algorithm);
+
+            var encodedHeader = jws.getHeaders().getEncodedHeader();
+            var encodedPayload = jws.getEncodedPayload();
+            var signingInput = (encodedHeader + '.' + encodedPayload).getBytes(US_ASCII);
+            var signature = sign(algorithm, keypair.getPrivate(), signingInput);
 
             if (LOG.isDebugEnabled()) {
                 LOG.debug("{} {}", payload != null ? "POST" : "POST-as-GET", url);
@@ -97,15 +123,72 @@ public final class JoseUtils {
             }
 
             var jb = new JSONBuilder();
-            jb.put("protected", jws.getHeaders().getEncodedHeader());
-            jb.put("payload", jws.getEncodedPayload());
-            jb.put("signature", jws.getEncodedSignature());
+            jb.put("protected", encodedHeader);
+            jb.put("payload", encodedPayload);
+            jb.put("signature", base64UrlEncode(signature));
             return jb;
         } catch (JoseException ex) {
             throw new IllegalArgumentException("Could not create a JOSE request", ex);
         }
     }
 
+    /**
+     * Signs the given JWS signing input.
+     * <p>
+     * Unlike jose4j, this method does not look up a new {@link Signature} instance on
+     * every invocation, but reuses a {@link Signature} engine that is bound to the
+     * current thread.
+     *
+     * @param algorithm
+     *         JWS algorithm identifier, as returned by {@link #keyAlgorithm(JsonWebKey)}
+     * @param key
+     *         {@link PrivateKey} to sign with
+     * @param signingInput
+     *         JWS signing input (encoded header, '.', encoded payload)
+     * @return JWS signature. ECDSA signatures are converted to the concatenated format
+     * that is required by RFC 7518.
+     * @throws IllegalArgumentException
+     *         if the data could not be signed with the given key
+     * @since 5.2.0
+     */
+    public static byte[] sign(String algorithm, PrivateKey key, byte[] signingInput) {
+        var jcaAlgorithm = jcaAlgorithm(algorithm);
+        try {
+            var providerKey = jcaAlgorithm + '/' + key.getClass().getName();
+            Signature signature = null;
+            var provider = SIGNATURE_PROVIDERS.get(providerKey);
+            if (provider != null) {
+                try {
+                    signature = Signature.getInstance(jcaAlgorithm, provider);
+                    signature.initSign(key);
+                } catch (NoSuchAlgorithmException | InvalidKeyException ex) {
+                    // The provider does not accept this key anymore, look up a new one
+                    signature = null;
+                }
+            }
+            if (signature == null) {
+                signature = Signature.getInstance(jcaAlgorithm);
+                signature.initSign(key);
+                SIGNATURE_PROVIDERS.put(providerKey, signature.getProvider());
+            }
+
+            signature.update(signingInput);
+            var result = signature.sign();
+
+            return switch (algorithm) {
+                case AlgorithmIdentifiers.ECDSA_USING_P256_CURVE_AND_SHA256 ->
+                        EcdsaUsingShaAlgorithm.convertDerToConcatenated(result, 64);
+                case AlgorithmIdentifiers.ECDSA_USING_P384_CURVE_AND_SHA384 ->
+                        EcdsaUsingShaAlgorithm.convertDerToConcatenated(result, 96);
+                case AlgorithmIdentifiers.ECDSA_USING_P521_CURVE_AND_SHA512 ->
+                        EcdsaUsingShaAlgorithm.convertDerToConcatenated(result, 132);
+                default -> result;
+            };
+        } catch (GeneralSecurityException | IOException ex) {
+            throw new IllegalArgumentException("Could not sign with " + algorithm, ex);
+        }
+    }
+
     /**
      * Creates a JSON structure for external account binding.
      *
@@ -214,11 +297,38 @@ public final class JoseUtils {
         } else if (jwk instanceof RsaJsonWebKey) {
             return AlgorithmIdentifiers.RSA_USING_SHA256;
 
+        } else if (jwk instanceof OctetKeyPairJsonWebKey okpjwk) {
+            return switch (okpjwk.getSubtype()) {
+                case OctetKeyPairJsonWebKey.SUBTYPE_ED25519,
+                     OctetKeyPairJsonWebKey.SUBTYPE_ED448 -> AlgorithmIdentifiers.EDDSA;
+                default -> throw new IllegalArgumentException("Unknown OKP subtype " + okpjwk.getSubtype());
+            };
+
         } else {
             throw new IllegalArgumentException("Unknown algorithm " + jwk.getAlgorithm());
         }
     }
 
+    /**
+     * Returns the JCA signature algorithm name for the given JWS algorithm identifier.
+     *
+     * @param algorithm
+     *         JWS algorithm identifier
+     * @return JCA algorithm name
+     * @throws IllegalArgumentException
+     *         if the algorithm is not supported
+     */
+    private static String jcaAlgorithm(String algorithm) {
+        return switch (algorithm) {
+            case AlgorithmIdentifiers.RSA_USING_SHA256 -> "SHA256withRSA";
+            case AlgorithmIdentifiers.ECDSA_USING_P256_CURVE_AND_SHA256 -> "SHA256withECDSA";
+            case AlgorithmIdentifiers.ECDSA_USING_P384_CURVE_AND_SHA384 -> "SHA384withECDSA";
+            case AlgorithmIdentifiers.ECDSA_USING_P521_CURVE_AND_SHA512 -> "SHA512withECDSA";
+            case AlgorithmIdentifiers.EDDSA -> "EdDSA";
+            default -> throw new IllegalArgumentException("Unsupported algorithm " + algorithm);
+        };
+    }
+
     /**
      * Analyzes the {@link SecretKey}, and returns the key algorithm identifier for {@link
      * JsonWebSignature}.
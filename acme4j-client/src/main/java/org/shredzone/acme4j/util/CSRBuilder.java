@@ -24,7 +24,6 @@ import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.net.InetAddress;
 import java.security.KeyPair;
-import java.security.interfaces.ECKey;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -33,18 +32,10 @@ import java.util.Objects;
 
 import edu.umd.cs.findbugs.annotations.Nullable;
 import org.bouncycastle.asn1.ASN1ObjectIdentifier;
-import org.bouncycastle.asn1.pkcs.PKCSObjectIdentifiers;
 import org.bouncycastle.asn1.x500.X500Name;
 import org.bouncycastle.asn1.x500.X500NameBuilder;
 import org.bouncycastle.asn1.x500.style.BCStyle;
-import org.bouncycastle.asn1.x509.Extension;
-import org.bouncycastle.asn1.x509.ExtensionsGenerator;
-import org.bouncycastle.asn1.x509.GeneralName;
-import org.bouncycastle.asn1.x509.GeneralNames;
-import org.bouncycastle.operator.OperatorCreationException;
-import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
 import org.bouncycastle.pkcs.PKCS10CertificationRequest;
-import org.bouncycastle.pkcs.jcajce.JcaPKCS10CertificationRequestBuilder;
 import org.bouncycastle.util.io.pem.PemObject;
 import org.bouncycastle.util.io.pem.PemWriter;
 import org.shredzone.acme4j.Identifier;
@@ -57,9 +48,6 @@ import org.shredzone.acme4j.Identifier;
  * provider.
  */
 public class CSRBuilder {
-    private static final String SIGNATURE_ALG = "SHA256withRSA";
-    private static final String EC_SIGNATURE_ALG = "SHA256withECDSA";
-
     private final X500NameBuilder namebuilder = new X500NameBuilder(X500Name.getDefaultStyle());
     private final List<String> namelist = new ArrayList<>();
     private final List<InetAddress> iplist = new ArrayList<>();
@@ -289,32 +277,14 @@ public class CSRBuilder {
             throw new IllegalStateException("No domain or IP address was set");
         }
 
-        try {
-            var ix = 0;
-            var gns = new GeneralName[namelist.size() + iplist.size()];
-            for (var name : namelist) {
-                gns[ix++] = new GeneralName(GeneralName.dNSName, name);
-            }
-            for (var ip : iplist) {
-                gns[ix++] = new GeneralName(GeneralName.iPAddress, ip.getHostAddress());
-            }
-            var subjectAltName = new GeneralNames(gns);
-
-            var p10Builder = new JcaPKCS10CertificationRequestBuilder(namebuilder.build(), keypair.getPublic());
-
-            var extensionsGenerator = new ExtensionsGenerator();
-            extensionsGenerator.addExtension(Extension.subjectAlternativeName, false, subjectAltName);
-
-            p10Builder.addAttribute(PKCSObjectIdentifiers.pkcs_9_at_extensionRequest, extensionsGenerator.generate());
-
-            var pk = keypair.getPrivate();
-            var csBuilder = new JcaContentSignerBuilder(pk instanceof ECKey ? EC_SIGNATURE_ALG : SIGNATURE_ALG);
-            var signer = csBuilder.build(pk);
+        csr = CSRTemplate.createCsr(namebuilder.build(), namelist, iplist, keypair);
+    }
 
-            csr = p10Builder.build(signer);
-        } catch (OperatorCreationException ex) {
-            throw new IOException("Could not generate CSR", ex);
-        }
+    /**
+     * Returns the subject that has been set up so far.
+     */
+    X500Name getSubject() {
+        return namebuilder.build();
     }
 
     /**
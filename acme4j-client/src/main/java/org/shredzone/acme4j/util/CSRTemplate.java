@@ -0,0 +1,256 @@
+/*
+ * acme4j - Java ACME client
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://acme4j.shredzone.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ */
+package org.shredzone.acme4j.util;
+
+import static java.util.Objects.requireNonNull;
+import static org.shredzone.acme4j.toolbox.AcmeUtils.toAce;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.interfaces.ECKey;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+import org.bouncycastle.asn1.pkcs.PKCSObjectIdentifiers;
+import org.bouncycastle.asn1.x500.RDN;
+import org.bouncycastle.asn1.x500.X500Name;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.asn1.x509.ExtensionsGenerator;
+import org.bouncycastle.asn1.x509.GeneralName;
+import org.bouncycastle.asn1.x509.GeneralNames;
+import org.bouncycastle.operator.OperatorCreationException;
+import org.bouncycastle.operator.jcajce.JcaContentSignerBuilder;
+import org.bouncycastle.pkcs.PKCS10CertificationRequest;
+import org.bouncycastle.pkcs.jcajce.JcaPKCS10CertificationRequestBuilder;
+import org.shredzone.acme4j.Identifier;
+
+/**
+ * A template for generating many CSRs (Certificate Signing Requests) that share the same
+ * subject, but have different identifiers and key pairs.
+ * <p>
+ * The subject is built only once, when the template is created. Each CSR then only
+ * needs to encode its identifiers and to be signed. Signing is by far the most expensive
+ * part, so the template is immutable and thread-safe, and CSRs can be signed in
+ * parallel, see {@link #signAll(Map)}.
+ * <p>
+ * Requires {@code Bouncy Castle}. The
+ * {@link org.bouncycastle.jce.provider.BouncyCastleProvider} must be added as security
+ * provider.
+ *
+ * @see CSRBuilder
+ * @since 5.2.0
+ */
+public class CSRTemplate {
+    private static final String SIGNATURE_ALG = "SHA256withRSA";
+    private static final String EC_SIGNATURE_ALG = "SHA256withECDSA";
+
+    private final X500Name subject;
+
+    /**
+     * Creates a new {@link CSRTemplate} with an empty subject.
+     */
+    public CSRTemplate() {
+        this(new X500Name(new RDN[0]));
+    }
+
+    /**
+     * Creates a new {@link CSRTemplate} with the given subject.
+     *
+     * @param subject
+     *         {@link X500Name} of the subject that is shared by all CSRs
+     */
+    public CSRTemplate(X500Name subject) {
+        this.subject = requireNonNull(subject, "subject");
+    }
+
+    /**
+     * Creates a new {@link CSRTemplate} with the subject that is set up by the given
+     * consumer. Domains and IP addresses that are added to the {@link CSRBuilder} are
+     * ignored, only the subject is used.
+     *
+     * @param subjectConsumer
+     *         {@link Consumer} that sets the subject values of the provided
+     *         {@link CSRBuilder} (e.g. the organization)
+     * @return {@link CSRTemplate} with that subject
+     */
+    public static CSRTemplate of(Consumer<CSRBuilder> subjectConsumer) {
+        var builder = new CSRBuilder();
+        subjectConsumer.accept(builder);
+        return new CSRTemplate(builder.getSubject());
+    }
+
+    /**
+     * Returns the subject that is shared by all CSRs.
+     */
+    public X500Name getSubject() {
+        return subject;
+    }
+
+    /**
+     * Generates a signed CSR for the given identifiers.
+     *
+     * @param identifiers
+     *         {@link Identifier}s to be added as <em>Subject Alternative Name</em>.
+     *         Must not be empty.
+     * @param keypair
+     *         {@link KeyPair} to sign the CSR with
+     * @return Signed {@link PKCS10CertificationRequest}
+     */
+    public PKCS10CertificationRequest sign(Collection<Identifier> identifiers, KeyPair keypair)
+            throws IOException {
+        requireNonNull(identifiers, "identifiers");
+        requireNonNull(keypair, "keypair");
+        if (identifiers.isEmpty()) {
+            throw new IllegalStateException("No domain or IP address was set");
+        }
+
+        var domains = new ArrayList<String>();
+        var ips = new ArrayList<InetAddress>();
+        for (var id : identifiers) {
+            if (Identifier.TYPE_DNS.equals(id.getType())) {
+                domains.add(toAce(id.getDomain()));
+            } else if (Identifier.TYPE_IP.equals(id.getType())) {
+                ips.add(id.getIP());
+            } else {
+                throw new IllegalArgumentException("Unknown identifier type: " + id.getType());
+            }
+        }
+
+        return createCsr(subject, domains, ips, keypair);
+    }
+
+    /**
+     * Generates signed CSRs for many key pairs in parallel, using the common
+     * {@link ForkJoinPool}.
+     *
+     * @param requests
+     *         Map of the {@link KeyPair}s to sign the CSRs with, and the
+     *         {@link Identifier}s of each CSR
+     * @return Map of the {@link KeyPair}s and the signed CSRs, in the iteration order of
+     * the requests
+     * @throws IOException
+     *         if one of the CSRs could not be generated
+     */
+    public Map<KeyPair, PKCS10CertificationRequest> signAll(
+            Map<KeyPair, ? extends Collection<Identifier>> requests) throws IOException {
+        return signAll(requests, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Generates signed CSRs for many key pairs in parallel.
+     *
+     * @param requests
+     *         Map of the {@link KeyPair}s to sign the CSRs with, and the
+     *         {@link Identifier}s of each CSR
+     * @param executor
+     *         {@link Executor} that signs the CSRs
+     * @return Map of the {@link KeyPair}s and the signed CSRs, in the iteration order of
+     * the requests
+     * @throws IOException
+     *         if one of the CSRs could not be generated
+     */
+    public Map<KeyPair, PKCS10CertificationRequest> signAll(
+            Map<KeyPair, ? extends Collection<Identifier>> requests, Executor executor)
+            throws IOException {
+        requireNonNull(requests, "requests");
+        requireNonNull(executor, "executor");
+
+        var futures = new LinkedHashMap<KeyPair, CompletableFuture<PKCS10CertificationRequest>>();
+        requests.forEach((keypair, identifiers) -> futures.put(keypair,
+                CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return sign(identifiers, keypair);
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                }, executor)));
+
+        var result = new LinkedHashMap<KeyPair, PKCS10CertificationRequest>();
+        try {
+            futures.forEach((keypair, future) -> result.put(keypair, future.join()));
+        } catch (CompletionException ex) {
+            futures.values().forEach(f -> f.cancel(false));
+            var cause = ex.getCause();
+            if (cause instanceof UncheckedIOException uioe) {
+                throw uioe.getCause();
+            }
+            if (cause instanceof RuntimeException rex) {
+                throw rex;
+            }
+            throw new IOException("Could not generate CSR", cause);
+        }
+        return result;
+    }
+
+    /**
+     * Creates a signed CSR.
+     *
+     * @param subject
+     *         Subject of the CSR
+     * @param domains
+     *         ACE encoded domain names to be added as <em>Subject Alternative Name</em>
+     * @param ips
+     *         IP addresses to be added as <em>Subject Alternative Name</em>
+     * @param keypair
+     *         {@link KeyPair} to sign the CSR with
+     * @return Signed {@link PKCS10CertificationRequest}
+     */
+    static PKCS10CertificationRequest createCsr(X500Name subject, List<String> domains,
+            List<InetAddress> ips, KeyPair keypair) throws IOException {
+        try {
+            var ix = 0;
+            var gns = new GeneralName[domains.size() + ips.size()];
+            for (var name : domains) {
+                gns[ix++] = new GeneralName(GeneralName.dNSName, name);
+            }
+            for (var ip : ips) {
+                gns[ix++] = new GeneralName(GeneralName.iPAddress, ip.getHostAddress());
+            }
+            var subjectAltName = new GeneralNames(gns);
+
+            var p10Builder = new JcaPKCS10CertificationRequestBuilder(subject, keypair.getPublic());
+
+            var extensionsGenerator = new ExtensionsGenerator();
+            extensionsGenerator.addExtension(Extension.subjectAlternativeName, false, subjectAltName);
+
+            p10Builder.addAttribute(PKCSObjectIdentifiers.pkcs_9_at_extensionRequest, extensionsGenerator.generate());
+
+            var pk = keypair.getPrivate();
+            var signer = new JcaContentSignerBuilder(signatureAlgorithm(pk)).build(pk);
+
+            return p10Builder.build(signer);
+        } catch (OperatorCreationException ex) {
+            throw new IOException("Could not generate CSR", ex);
+        }
+    }
+
+    /**
+     * Returns the signature algorithm to be used for the given {@link PrivateKey}.
+     */
+    private static String signatureAlgorithm(PrivateKey pk) {
+        return pk instanceof ECKey ? EC_SIGNATURE_ALG : SIGNATURE_ALG;
+    }
+
+}
@@ -0,0 +1,339 @@
+/*
+ * acme4j - Java ACME client
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://acme4j.shredzone.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ */
+package org.shredzone.acme4j.util;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.util.Objects.requireNonNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.cert.Certificate;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import org.shredzone.acme4j.toolbox.AcmeUtils;
+
+/**
+ * Exports many certificate chains and key pairs to files in a single run.
+ * <p>
+ * Exports are first collected, and then written in parallel by {@link #export()}. Each
+ * file is encoded in memory, written to a temporary file in the target directory, and
+ * then atomically renamed to its final name. Readers of the target file will either see
+ * the old or the new content, but never a partially written file.
+ * <p>
+ * A failure to write one file does not affect the other files. The failures are
+ * reported in the {@link Result}.
+ * <p>
+ * Requires {@code Bouncy Castle}.
+ *
+ * @since 5.2.0
+ */
+public class CertificateExporter {
+    private final Map<Path, Encoder> exports = new LinkedHashMap<>();
+    private final Executor executor;
+
+    /**
+     * Creates a new {@link CertificateExporter} that writes the files using the common
+     * {@link ForkJoinPool}.
+     */
+    public CertificateExporter() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a new {@link CertificateExporter}.
+     *
+     * @param executor
+     *         {@link Executor} that writes the files
+     */
+    public CertificateExporter(Executor executor) {
+        this.executor = requireNonNull(executor, "executor");
+    }
+
+    /**
+     * Adds a certificate chain to be written as PEM file. The result is identical to
+     * {@link org.shredzone.acme4j.Certificate#writeCertificate(java.io.Writer)}.
+     *
+     * @param target
+     *         Target file
+     * @param chain
+     *         Certificate chain, starting with the end-entity certificate
+     * @return itself
+     */
+    public CertificateExporter addPem(Path target, List<X509Certificate> chain) {
+        var certificates = List.copyOf(chain);
+        return add(target, () -> {
+            var out = new StringWriter();
+            for (var cert : certificates) {
+                AcmeUtils.writeToPem(cert.getEncoded(), AcmeUtils.PemLabel.CERTIFICATE, out);
+            }
+            return out.toString().getBytes(US_ASCII);
+        });
+    }
+
+    /**
+     * Adds a key pair to be written as PEM file. The result is identical to
+     * {@link KeyPairUtils#writeKeyPair(KeyPair, java.io.Writer)}.
+     *
+     * @param target
+     *         Target file
+     * @param keypair
+     *         {@link KeyPair} to be written
+     * @return itself
+     */
+    public CertificateExporter addPem(Path target, KeyPair keypair) {
+        requireNonNull(keypair, "keypair");
+        return add(target, () -> {
+            var out = new StringWriter();
+            KeyPairUtils.writeKeyPair(keypair, out);
+            return out.toString().getBytes(US_ASCII);
+        });
+    }
+
+    /**
+     * Adds a certificate chain and its private key to be written as PKCS#12 keystore.
+     *
+     * @param target
+     *         Target file
+     * @param alias
+     *         Alias of the key entry
+     * @param chain
+     *         Certificate chain, starting with the end-entity certificate
+     * @param privateKey
+     *         {@link PrivateKey} of the end-entity certificate
+     * @param password
+     *         Password that protects the keystore and the key entry. The password is
+     *         copied, so the array can be cleared after this call. The copy is cleared
+     *         by {@link #export()}.
+     * @return itself
+     */
+    public CertificateExporter addPkcs12(Path target, String alias,
+            List<X509Certificate> chain, PrivateKey privateKey, char[] password) {
+        requireNonNull(alias, "alias");
+        requireNonNull(privateKey, "privateKey");
+        var certificates = chain.toArray(new Certificate[0]);
+        var pwd = requireNonNull(password, "password").clone();
+        return add(target, () -> {
+            try {
+                var keyStore = KeyStore.getInstance("PKCS12");
+                keyStore.load(null, null);
+                keyStore.setKeyEntry(alias, privateKey, pwd, certificates);
+                var out = new ByteArrayOutputStream();
+                keyStore.store(out, pwd);
+                return out.toByteArray();
+            } catch (GeneralSecurityException ex) {
+                throw new IOException("Could not create keystore", ex);
+            } finally {
+                Arrays.fill(pwd, '\0');
+            }
+        });
+    }
+
+    /**
+     * Returns the number of files that are going to be written.
+     */
+    public int size() {
+        return exports.size();
+    }
+
+    /**
+     * Writes all files in parallel, and waits until all of them are written.
+     * <p>
+     * Afterwards, the exporter is empty and can be reused.
+     *
+     * @return {@link Result} of the export
+     */
+    public Result export() {
+        var targets = new ArrayList<>(exports.keySet());
+        var encoders = new ArrayList<>(exports.values());
+        exports.clear();
+
+        var start = System.nanoTime();
+        var futures = new ArrayList<CompletableFuture<Integer>>(targets.size());
+        for (var ix = 0; ix < targets.size(); ix++) {
+            var target = targets.get(ix);
+            var encoder = encoders.get(ix);
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return write(target, encoder.encode());
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                } catch (GeneralSecurityException ex) {
+                    throw new UncheckedIOException(new IOException("Encoding error", ex));
+                }
+            }, executor));
+        }
+
+        var written = new ArrayList<Path>(targets.size());
+        var failures = new TreeMap<Path, IOException>();
+        var bytes = 0L;
+        for (var ix = 0; ix < targets.size(); ix++) {
+            try {
+                bytes += futures.get(ix).join();
+                written.add(targets.get(ix));
+            } catch (CompletionException ex) {
+                if (!(ex.getCause() instanceof UncheckedIOException uioe)) {
+                    throw ex;
+                }
+                failures.put(targets.get(ix), uioe.getCause());
+            }
+        }
+
+        return new Result(written, failures, bytes, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    /**
+     * Adds an export.
+     */
+    private CertificateExporter add(Path target, Encoder encoder) {
+        var path = requireNonNull(target, "target").toAbsolutePath().normalize();
+        if (exports.putIfAbsent(path, encoder) != null) {
+            throw new IllegalArgumentException("Duplicate target " + target);
+        }
+        return this;
+    }
+
+    /**
+     * Writes the content to a temporary file, and then renames it to the target file.
+     *
+     * @return Number of bytes that were written
+     */
+    private static int write(Path target, byte[] content) throws IOException {
+        var dir = target.getParent();
+        if (dir == null) {
+            throw new IOException("Not a file: " + target);
+        }
+        var tmp = Files.createTempFile(dir, "." + target.getFileName(), ".tmp");
+        try {
+            try (var channel = FileChannel.open(tmp, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                var buffer = ByteBuffer.wrap(content);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            }
+
+            try {
+                Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return content.length;
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Encodes the content of a file.
+     */
+    @FunctionalInterface
+    private interface Encoder {
+        byte[] encode() throws IOException, GeneralSecurityException;
+    }
+
+    /**
+     * The result of an export.
+     */
+    public static final class Result {
+        private final List<Path> written;
+        private final Map<Path, IOException> failures;
+        private final long bytes;
+        private final Duration duration;
+
+        private Result(List<Path> written, Map<Path, IOException> failures, long bytes,
+                       Duration duration) {
+            this.written = Collections.unmodifiableList(written);
+            this.failures = Collections.unmodifiableMap(failures);
+            this.bytes = bytes;
+            this.duration = duration;
+        }
+
+        /**
+         * Returns the files that have been written successfully.
+         */
+        public List<Path> getWritten() {
+            return written;
+        }
+
+        /**
+         * Returns the files that could not be written, and the reason.
+         */
+        public Map<Path, IOException> getFailures() {
+            return failures;
+        }
+
+        /**
+         * Returns {@code true} if all files have been written successfully.
+         */
+        public boolean isSuccessful() {
+            return failures.isEmpty();
+        }
+
+        /**
+         * Returns the total number of bytes that have been written.
+         */
+        public long getBytes() {
+            return bytes;
+        }
+
+        /**
+         * Returns the time it took to write all files.
+         */
+        public Duration getDuration() {
+            return duration;
+        }
+
+        /**
+         * Returns the number of files written per second.
+         */
+        public double getFilesPerSecond() {
+            var nanos = Math.max(duration.toNanos(), 1L);
+            return written.size() * 1_000_000_000.0 / nanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d files (%d bytes) written in %d ms, %d failed",
+                    written.size(), bytes, duration.toMillis(), failures.size());
+        }
+    }
+
+}
@@ -0,0 +1,398 @@
+/*
+ * acme4j - Java ACME client
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://acme4j.shredzone.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ */
+package org.shredzone.acme4j.util;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+import org.bouncycastle.asn1.ASN1IA5String;
+import org.bouncycastle.asn1.DEROctetString;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.asn1.x509.GeneralName;
+import org.bouncycastle.asn1.x509.GeneralNames;
+import org.bouncycastle.cert.X509CertificateHolder;
+import org.shredzone.acme4j.exception.AcmeProtocolException;
+import org.shredzone.acme4j.toolbox.AcmeUtils;
+
+/**
+ * A compact index of the certificates that are stored in a directory.
+ * <p>
+ * Renewal jobs usually need to find the certificates that are about to expire, and their
+ * renewal unique identifiers for {@link org.shredzone.acme4j.RenewalInfo}. This class
+ * scans a directory for PEM or DER encoded certificate files, and extracts these
+ * properties. The files are decoded in parallel. Only the first certificate of every
+ * file (the end-entity certificate) is decoded, the issuer chain is skipped. The index
+ * only keeps the extracted properties, not the certificates.
+ * <p>
+ * Certificate files are usually small, so they are simply read into memory. Only
+ * unusually large files (e.g. certificate bundles) are memory mapped, so the
+ * certificates behind the first one do not need to be read.
+ * <p>
+ * Files that cannot be decoded are recorded, and do not abort the scan.
+ * <p>
+ * Requires {@code Bouncy Castle}.
+ *
+ * @since 5.2.0
+ */
+public class CertificateInventory {
+    private static final Set<String> EXTENSIONS = Set.of("pem", "crt", "cer", "der");
+    private static final byte[] PEM_BEGIN = "-----BEGIN CERTIFICATE-----".getBytes(US_ASCII);
+    private static final byte[] PEM_END = "-----END CERTIFICATE-----".getBytes(US_ASCII);
+    private static final int DER_SEQUENCE = 0x30;
+    private static final long MAP_THRESHOLD = 64L * 1024L;
+
+    private final List<Entry> entries;
+    private final Map<Path, Exception> failures;
+
+    private CertificateInventory(List<Entry> entries, Map<Path, Exception> failures) {
+        this.entries = Collections.unmodifiableList(entries);
+        this.failures = Collections.unmodifiableMap(failures);
+    }
+
+    /**
+     * Scans all certificate files of a directory, using the common {@link ForkJoinPool}.
+     * <p>
+     * Only regular files with the extensions {@code .pem}, {@code .crt}, {@code .cer},
+     * and {@code .der} are scanned. Subdirectories are not scanned.
+     *
+     * @param directory
+     *         Directory to scan
+     * @return {@link CertificateInventory} of the certificates that were found
+     */
+    public static CertificateInventory scan(Path directory) throws IOException {
+        return scan(directory, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Scans all certificate files of a directory (see {@link #scan(Path)}).
+     *
+     * @param directory
+     *         Directory to scan
+     * @param executor
+     *         {@link Executor} that decodes the files
+     * @return {@link CertificateInventory} of the certificates that were found
+     */
+    public static CertificateInventory scan(Path directory, Executor executor) throws IOException {
+        requireNonNull(directory, "directory");
+        requireNonNull(executor, "executor");
+
+        List<Path> files;
+        try (var stream = Files.list(directory)) {
+            files = stream.filter(Files::isRegularFile)
+                    .filter(CertificateInventory::isCertificateFile)
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+
+        var futures = new ArrayList<CompletableFuture<Entry>>(files.size());
+        for (var file : files) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return read(file);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }, executor));
+        }
+
+        var entries = new ArrayList<Entry>(files.size());
+        var failures = new TreeMap<Path, Exception>();
+        for (var ix = 0; ix < files.size(); ix++) {
+            try {
+                entries.add(futures.get(ix).join());
+            } catch (CompletionException ex) {
+                var cause = ex.getCause();
+                if (cause instanceof UncheckedIOException uioe) {
+                    cause = uioe.getCause();
+                }
+                if (!(cause instanceof Exception)) {
+                    throw ex;
+                }
+                failures.put(files.get(ix), (Exception) cause);
+            }
+        }
+
+        entries.sort(Comparator.comparing(Entry::getNotAfter));
+        return new CertificateInventory(entries, failures);
+    }
+
+    /**
+     * Returns all certificates that were found, ordered by their expiry date.
+     */
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Returns all certificates that expire before the given instant, ordered by their
+     * expiry date.
+     *
+     * @param instant
+     *         Expiry limit
+     * @return List of expiring certificates
+     */
+    public List<Entry> getExpiringBefore(Instant instant) {
+        requireNonNull(instant, "instant");
+        var result = new ArrayList<Entry>();
+        for (var entry : entries) {
+            if (!entry.getNotAfter().isBefore(instant)) {
+                break;
+            }
+            result.add(entry);
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Returns the files that could not be decoded, and the reason.
+     */
+    public Map<Path, Exception> getFailures() {
+        return failures;
+    }
+
+    /**
+     * Checks if the file name has a known certificate file extension.
+     */
+    private static boolean isCertificateFile(Path file) {
+        var name = file.getFileName().toString();
+        var dot = name.lastIndexOf('.');
+        return dot >= 0 && EXTENSIONS.contains(name.substring(dot + 1).toLowerCase(Locale.ENGLISH));
+    }
+
+    /**
+     * Reads the first certificate of a file.
+     */
+    private static Entry read(Path file) throws IOException {
+        byte[] der;
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            var size = channel.size();
+            if (size == 0L || size > Integer.MAX_VALUE) {
+                throw new IOException("Not a certificate file");
+            }
+            ByteBuffer buffer;
+            if (size >= MAP_THRESHOLD) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0L, size);
+            } else {
+                // Small files are read, as every mapping occupies a system resource
+                // until it is garbage collected, and keeps the file locked on Windows.
+                buffer = ByteBuffer.allocate((int) size);
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer) < 0) {
+                        throw new IOException("Unexpected end of file");
+                    }
+                }
+                buffer.flip();
+            }
+            der = (buffer.get(0) & 0xFF) == DER_SEQUENCE ? readDer(buffer) : readPem(buffer);
+        }
+
+        try {
+            var holder = new X509CertificateHolder(der);
+            return new Entry(file, holder.getNotAfter().toInstant(),
+                    holder.getIssuer().toString(), getNames(holder), getRenewalId(der));
+        } catch (IOException | RuntimeException ex) {
+            throw new IOException("Invalid certificate", ex);
+        }
+    }
+
+    /**
+     * Reads the first DER encoded certificate.
+     */
+    private static byte[] readDer(ByteBuffer buffer) throws IOException {
+        var limit = buffer.limit();
+        if (limit < 2) {
+            throw new IOException("Invalid DER encoding");
+        }
+        var length = buffer.get(1) & 0xFF;
+        var pos = 2;
+        if (length > 0x80 && length <= 0x84) {
+            var octets = length & 0x7F;
+            length = 0;
+            for (var ix = 0; ix < octets && pos < limit; ix++) {
+                length = (length << 8) | (buffer.get(pos++) & 0xFF);
+            }
+        } else if (length >= 0x80) {
+            throw new IOException("Invalid DER encoding");
+        }
+        if (length < 0 || length > limit - pos) {
+            throw new IOException("Invalid DER encoding");
+        }
+
+        var der = new byte[pos + length];
+        buffer.get(0, der);
+        return der;
+    }
+
+    /**
+     * Reads the first PEM encoded certificate.
+     */
+    private static byte[] readPem(ByteBuffer buffer) throws IOException {
+        var begin = indexOf(buffer, PEM_BEGIN, 0);
+        if (begin < 0) {
+            throw new IOException("No certificate found");
+        }
+        begin += PEM_BEGIN.length;
+        var end = indexOf(buffer, PEM_END, begin);
+        if (end < 0) {
+            throw new IOException("Incomplete certificate");
+        }
+
+        var base64 = new byte[end - begin];
+        buffer.get(begin, base64);
+        try {
+            return Base64.getMimeDecoder().decode(base64);
+        } catch (IllegalArgumentException ex) {
+            throw new IOException("Invalid PEM encoding", ex);
+        }
+    }
+
+    /**
+     * Finds the position of a pattern in the buffer.
+     */
+    private static int indexOf(ByteBuffer buffer, byte[] pattern, int from) {
+        var last = buffer.limit() - pattern.length;
+        outer:
+        for (var pos = from; pos <= last; pos++) {
+            for (var ix = 0; ix < pattern.length; ix++) {
+                if (buffer.get(pos + ix) != pattern[ix]) {
+                    continue outer;
+                }
+            }
+            return pos;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the DNS names and IP addresses of the Subject Alternative Names.
+     */
+    private static List<String> getNames(X509CertificateHolder holder) throws IOException {
+        var sans = GeneralNames.fromExtensions(holder.getExtensions(), Extension.subjectAlternativeName);
+        if (sans == null) {
+            return List.of();
+        }
+
+        var result = new ArrayList<String>();
+        for (var name : sans.getNames()) {
+            if (name.getTagNo() == GeneralName.dNSName) {
+                result.add(ASN1IA5String.getInstance(name.getName()).getString());
+            } else if (name.getTagNo() == GeneralName.iPAddress) {
+                var octets = DEROctetString.getInstance(name.getName()).getOctets();
+                result.add(InetAddress.getByAddress(octets).getHostAddress());
+            }
+        }
+        return List.copyOf(result);
+    }
+
+    /**
+     * Returns the renewal unique identifier, or {@code null} if the certificate does not
+     * provide one (e.g. because it is self-signed).
+     */
+    @Nullable
+    private static String getRenewalId(byte[] der) {
+        try {
+            return AcmeUtils.getRenewalUniqueIdentifier(der);
+        } catch (AcmeProtocolException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * The properties of a certificate in the inventory.
+     */
+    public static final class Entry {
+        private final Path path;
+        private final Instant notAfter;
+        private final String issuer;
+        private final List<String> names;
+        private final @Nullable String renewalUniqueIdentifier;
+
+        private Entry(Path path, Instant notAfter, String issuer, List<String> names,
+                      @Nullable String renewalUniqueIdentifier) {
+            this.path = path;
+            this.notAfter = notAfter;
+            this.issuer = issuer;
+            this.names = List.copyOf(names);
+            this.renewalUniqueIdentifier = renewalUniqueIdentifier;
+        }
+
+        /**
+         * Returns the path of the certificate file.
+         */
+        public Path getPath() {
+            return path;
+        }
+
+        /**
+         * Returns the expiry date of the certificate.
+         */
+        public Instant getNotAfter() {
+            return notAfter;
+        }
+
+        /**
+         * Returns the distinguished name of the issuer.
+         */
+        public String getIssuer() {
+            return issuer;
+        }
+
+        /**
+         * Returns the DNS names and IP addresses that are certified.
+         */
+        public List<String> getNames() {
+            return names;
+        }
+
+        /**
+         * Returns the renewal unique identifier of the certificate. It is empty if the
+         * certificate has no Authority Key Identifier.
+         */
+        public Optional<String> getRenewalUniqueIdentifier() {
+            return Optional.ofNullable(renewalUniqueIdentifier);
+        }
+
+        @Override
+        public String toString() {
+            return path + " (" + String.join(", ", names) + ") expires " + notAfter;
+        }
+    }
+
+}
@@ -0,0 +1,514 @@
+/*
+ * acme4j - Java ACME client
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://acme4j.shredzone.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ */
+package org.shredzone.acme4j.util;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.shredzone.acme4j.AcmeResource;
+import org.shredzone.acme4j.Authorization;
+import org.shredzone.acme4j.Certificate;
+import org.shredzone.acme4j.Login;
+import org.shredzone.acme4j.Order;
+import org.shredzone.acme4j.Status;
+import org.shredzone.acme4j.challenge.Challenge;
+import org.shredzone.acme4j.toolbox.JSON.Value;
+import org.shredzone.acme4j.toolbox.JSONBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A compact persistent store for the locations and states of {@link Order},
+ * {@link Authorization}, {@link Challenge}, and {@link Certificate} resources.
+ * <p>
+ * It is meant for checkpointing a large number of resources that are currently in
+ * progress, so the processing can be resumed after a restart. Only the location, the
+ * status, and a few properties that are required for binding the resource are stored.
+ * <p>
+ * The store is an append-only log file. Every change is appended to the file, so
+ * checkpoints are cheap. On opening, the log is read into an in-memory index. A
+ * truncated or unreadable record at the end of the file (e.g. after a crash) is
+ * discarded, together with everything that follows it. If the log contains too many
+ * outdated records, it is compacted by writing the current state to a temporary file,
+ * which then atomically replaces the log file.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @since 5.2.0
+ */
+public class ResourceStateStore implements Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(ResourceStateStore.class);
+    private static final int MAGIC = 0x41344A53;
+    private static final byte VERSION = 1;
+    private static final byte OP_PUT = 1;
+    private static final byte OP_REMOVE = 2;
+    private static final int MIN_COMPACT_RECORDS = 1024;
+
+    /**
+     * The kind of resource that is stored.
+     */
+    public enum Kind {
+        // The ordinal is persisted, so new kinds must only be appended!
+        ORDER, AUTHORIZATION, CHALLENGE, CERTIFICATE
+    }
+
+    private final Path file;
+    private final Map<URI, Entry> index = new LinkedHashMap<>();
+    private FileChannel channel;
+    private DataOutputStream out;
+    private int records;
+
+    /**
+     * Opens a {@link ResourceStateStore}. If the file does not exist, a new store is
+     * created.
+     *
+     * @param file
+     *         {@link Path} of the log file
+     */
+    @SuppressFBWarnings("NP_NONNULL_FIELD_NOT_INITIALIZED_IN_CONSTRUCTOR")  // set by openWriter()
+    public ResourceStateStore(Path file) throws IOException {
+        this.file = requireNonNull(file, "file");
+
+        var validLength = Files.exists(file) ? load() : -1L;
+        openWriter(validLength);
+
+        if (records > MIN_COMPACT_RECORDS && records > index.size() * 2) {
+            compact();
+        }
+    }
+
+    /**
+     * Stores the current state of the given resource, replacing any previous state of a
+     * resource at the same location.
+     * <p>
+     * The resource state is fetched from the server if it has not been fetched yet.
+     *
+     * @param resource
+     *         {@link Order}, {@link Authorization}, {@link Challenge}, or
+     *         {@link Certificate} to store
+     */
+    public void put(AcmeResource resource) throws IOException {
+        put(Entry.of(resource));
+    }
+
+    /**
+     * Removes the resource at the given location from the store.
+     *
+     * @param location
+     *         Location of the resource
+     */
+    public synchronized void remove(URL location) throws IOException {
+        var key = toUri(location);
+        if (index.remove(key) != null) {
+            out.writeByte(OP_REMOVE);
+            out.writeUTF(key.toString());
+            records++;
+        }
+    }
+
+    /**
+     * Returns the stored state of the resource at the given location.
+     *
+     * @param location
+     *         Location of the resource
+     * @return Stored {@link Entry}, or empty if the location is not stored
+     */
+    public synchronized Optional<Entry> get(URL location) {
+        return Optional.ofNullable(index.get(toUri(location)));
+    }
+
+    /**
+     * Returns all stored entries, in the order they were first stored.
+     */
+    public synchronized List<Entry> entries() {
+        return List.copyOf(index.values());
+    }
+
+    /**
+     * Binds all stored resources to the given {@link Login}. No requests are sent to the
+     * server. The resources fetch their current state lazily when it is accessed.
+     * Challenges are created with their stored type, status and token, and need to be
+     * fetched if further properties are required.
+     *
+     * @param login
+     *         {@link Login} to bind the resources to
+     * @return List of bound resources, in the order they were first stored
+     */
+    public List<AcmeResource> restore(Login login) {
+        requireNonNull(login, "login");
+        var result = new ArrayList<AcmeResource>();
+        for (var entry : entries()) {
+            result.add(entry.bind(login));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of stored resources.
+     */
+    public synchronized int size() {
+        return index.size();
+    }
+
+    /**
+     * Writes all pending changes to the log file, and forces them to the storage device.
+     */
+    public synchronized void flush() throws IOException {
+        out.flush();
+        channel.force(false);
+    }
+
+    /**
+     * Compacts the log file, so it only contains the current state of every stored
+     * resource.
+     */
+    public synchronized void compact() throws IOException {
+        out.flush();
+
+        var dir = file.toAbsolutePath().getParent();
+        var name = file.getFileName();
+        if (dir == null || name == null) {
+            throw new IOException("Not a file: " + file);
+        }
+        var tempFile = Files.createTempFile(dir, name.toString(), ".tmp");
+        try {
+            try (var fc = FileChannel.open(tempFile, StandardOpenOption.WRITE);
+                 var tempOut = new DataOutputStream(new BufferedOutputStream(
+                         Channels.newOutputStream(fc)))) {
+                writeHeader(tempOut);
+                for (var entry : index.values()) {
+                    entry.write(tempOut);
+                }
+                tempOut.flush();
+                fc.force(false);
+            }
+
+            // The log must be closed before it can be replaced on some platforms
+            out.close();
+            var moved = false;
+            try {
+                Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+                moved = true;
+            } finally {
+                // Reopen the compacted log, or the old log if it could not be replaced
+                if (moved) {
+                    records = index.size();
+                }
+                openWriter(Files.size(file));
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        flush();
+        out.close();
+    }
+
+    /**
+     * Stores the entry in the index, and appends it to the log.
+     */
+    private synchronized void put(Entry entry) throws IOException {
+        index.put(entry.key, entry);
+        entry.write(out);
+        records++;
+    }
+
+    /**
+     * Reads the log file into the index.
+     *
+     * @return Length of the valid part of the log file
+     */
+    private synchronized long load() throws IOException {
+        ByteBuffer buffer;
+        try (var fc = FileChannel.open(file, StandardOpenOption.READ)) {
+            var size = fc.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("State store is too large: " + file);
+            }
+            // the mapping stays valid after the channel is closed
+            buffer = fc.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+
+        if (!buffer.hasRemaining()) {
+            return -1L;
+        }
+
+        var in = new DataInputStream(new ByteBufferInputStream(buffer));
+        try {
+            if (in.readInt() != MAGIC || in.readByte() != VERSION) {
+                throw new IOException("Not a state store, or unsupported version: " + file);
+            }
+        } catch (EOFException ex) {
+            return -1L;
+        }
+
+        long validLength = buffer.position();
+        try {
+            while (buffer.hasRemaining()) {
+                var op = in.readByte();
+                if (op == OP_PUT) {
+                    var entry = Entry.read(in);
+                    index.put(entry.key, entry);
+                } else if (op == OP_REMOVE) {
+                    index.remove(URI.create(in.readUTF()));
+                } else {
+                    throw new IOException("Unknown operation " + op);
+                }
+                records++;
+                validLength = buffer.position();
+            }
+        } catch (EOFException ex) {
+            // truncated record at the end, caused by a crash while writing
+        } catch (IOException | IllegalArgumentException ex) {
+            // torn write at the end (e.g. a zero-filled tail after a crash)
+            LOG.warn("Discarding {} bytes of unreadable records at the end of {}",
+                    buffer.limit() - validLength, file, ex);
+        }
+        return validLength;
+    }
+
+    /**
+     * Opens the log file for appending.
+     *
+     * @param validLength
+     *         Length of the valid part of the log file. Anything after it is truncated.
+     *         If negative, a new log file is started.
+     */
+    private void openWriter(long validLength) throws IOException {
+        var fos = new FileOutputStream(file.toFile(), validLength >= 0);
+        channel = fos.getChannel();
+        if (validLength >= 0 && channel.size() > validLength) {
+            channel.truncate(validLength);
+        }
+        out = new DataOutputStream(new BufferedOutputStream(fos));
+        if (validLength < 0) {
+            writeHeader(out);
+        }
+    }
+
+    private static void writeHeader(DataOutputStream dos) throws IOException {
+        dos.writeInt(MAGIC);
+        dos.writeByte(VERSION);
+    }
+
+    private static URI toUri(URL location) {
+        try {
+            return location.toURI();
+        } catch (URISyntaxException ex) {
+            throw new IllegalArgumentException("Invalid location " + location, ex);
+        }
+    }
+
+    /**
+     * The stored state of a resource.
+     */
+    public static final class Entry {
+        private final Kind kind;
+        private final URI key;
+        private final @Nullable Status status;
+        private final @Nullable String challengeType;
+        private final @Nullable String token;
+
+        private Entry(Kind kind, URI key, @Nullable Status status,
+                      @Nullable String challengeType, @Nullable String token) {
+            this.kind = kind;
+            this.key = key;
+            this.status = status;
+            this.challengeType = challengeType;
+            this.token = token;
+        }
+
+        /**
+         * Creates an {@link Entry} of the current state of the resource.
+         */
+        private static Entry of(AcmeResource resource) {
+            requireNonNull(resource, "resource");
+            var key = toUri(resource.getLocation());
+            if (resource instanceof Order order) {
+                return new Entry(Kind.ORDER, key, order.getStatus(), null, null);
+            } else if (resource instanceof Authorization auth) {
+                return new Entry(Kind.AUTHORIZATION, key, auth.getStatus(), null, null);
+            } else if (resource instanceof Challenge challenge) {
+                var token = challenge.getJSON().get("token")
+                        .map(Value::asString)
+                        .orElse(null);
+                return new Entry(Kind.CHALLENGE, key, challenge.getStatus(),
+                        challenge.getType(), token);
+            } else if (resource instanceof Certificate) {
+                return new Entry(Kind.CERTIFICATE, key, null, null, null);
+            }
+            throw new IllegalArgumentException("Cannot store "
+                    + resource.getClass().getSimpleName());
+        }
+
+        /**
+         * Returns the kind of the stored resource.
+         */
+        public Kind getKind() {
+            return kind;
+        }
+
+        /**
+         * Returns the location of the stored resource.
+         */
+        public URL getLocation() {
+            try {
+                return key.toURL();
+            } catch (MalformedURLException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        /**
+         * Returns the stored status of the resource. Empty for certificates.
+         */
+        public Optional<Status> getStatus() {
+            return Optional.ofNullable(status);
+        }
+
+        /**
+         * Returns the challenge type. Empty if the resource is not a challenge.
+         */
+        public Optional<String> getChallengeType() {
+            return Optional.ofNullable(challengeType);
+        }
+
+        /**
+         * Binds the stored resource to the given {@link Login}, without sending a
+         * request to the server.
+         *
+         * @param login
+         *         {@link Login} to bind the resource to
+         * @return Bound resource
+         */
+        public AcmeResource bind(Login login) {
+            var location = getLocation();
+            return switch (kind) {
+                case ORDER -> login.bindOrder(location);
+                case AUTHORIZATION -> login.bindAuthorization(location);
+                case CERTIFICATE -> login.bindCertificate(location);
+                case CHALLENGE -> {
+                    var jb = new JSONBuilder();
+                    jb.put("type", challengeType);
+                    jb.put("url", location);
+                    if (status != null) {
+                        jb.put("status", status.name().toLowerCase(Locale.ENGLISH));
+                    }
+                    if (token != null) {
+                        jb.put("token", token);
+                    }
+                    yield login.createChallenge(jb.toJSON());
+                }
+            };
+        }
+
+        private void write(DataOutputStream dos) throws IOException {
+            dos.writeByte(OP_PUT);
+            dos.writeByte(kind.ordinal());
+            dos.writeUTF(key.toString());
+            dos.writeUTF(status != null ? status.name() : "");
+            dos.writeUTF(challengeType != null ? challengeType : "");
+            dos.writeUTF(token != null ? token : "");
+        }
+
+        private static Entry read(DataInputStream in) throws IOException {
+            var kindIndex = in.readByte();
+            var kinds = Kind.values();
+            if (kindIndex < 0 || kindIndex >= kinds.length) {
+                throw new IOException("Unknown resource kind " + kindIndex);
+            }
+            var key = URI.create(in.readUTF());
+            var status = in.readUTF();
+            var challengeType = in.readUTF();
+            var token = in.readUTF();
+            return new Entry(kinds[kindIndex], key,
+                    status.isEmpty() ? null : Status.parse(status),
+                    challengeType.isEmpty() ? null : challengeType,
+                    token.isEmpty() ? null : token);
+        }
+    }
+
+    /**
+     * An {@link InputStream} that reads directly from a {@link ByteBuffer}, so the
+     * mapped log file does not need to be copied to the heap.
+     */
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            var count = Math.min(len, buffer.remaining());
+            buffer.get(b, off, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+
+    @Override
+    protected final void finalize() {
+        // CT_CONSTRUCTOR_THROW: Prevents finalizer attack
+    }
+
+}
@@ -0,0 +1,239 @@
+/*
+ * acme4j - Java ACME client
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://acme4j.shredzone.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ */
+package org.shredzone.acme4j;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.shredzone.acme4j.toolbox.TestUtils.getJSON;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.shredzone.acme4j.challenge.Dns01Challenge;
+import org.shredzone.acme4j.challenge.Http01Challenge;
+import org.shredzone.acme4j.toolbox.TestUtils;
+
+/**
+ * Unit tests for {@link AdaptivePollPolicy}.
+ */
+public class AdaptivePollPolicyTest {
+
+    private static final Duration DEFAULT_DELAY = Duration.ofSeconds(3L);
+    private static final Duration MIN_DELAY = Duration.ofMillis(100L);
+    private static final Duration MAX_DELAY = Duration.ofSeconds(30L);
+    private static final Set<Status> AWAITED = EnumSet.of(Status.VALID, Status.INVALID);
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000_000L);
+
+    /**
+     * Test that the default delay is used as long as there are not enough samples.
+     */
+    @Test
+    public void testDefaultDelay() {
+        var policy = createPolicy(1000.0);
+        var challenge = httpChallenge();
+
+        assertThat(policy.nextPollDelay(challenge, AWAITED, Duration.ZERO)).isEqualTo(DEFAULT_DELAY);
+
+        policy.completed(challenge, AWAITED, Status.VALID, Duration.ofMillis(800L));
+        policy.completed(challenge, AWAITED, Status.VALID, Duration.ofMillis(800L));
+        assertThat(policy.expectedCompletionTimes(challenge, AWAITED)).isEmpty();
+
+        clock.addAndGet(Duration.ofSeconds(10L).toNanos());
+        assertThat(policy.nextPollDelay(challenge, AWAITED, Duration.ZERO)).isEqualTo(DEFAULT_DELAY);
+    }
+
+    /**
+     * Test that the completion times are learned separately for each challenge type.
+     */
+    @Test
+    public void testLearnedDelay() {
+        var policy = createPolicy(1000.0);
+        var httpChallenge = httpChallenge();
+        var dnsChallenge = dnsChallenge();
+
+        for (var ms : new long[] {700L, 800L, 800L, 900L}) {
+            policy.completed(httpChallenge, AWAITED, Status.VALID, Duration.ofMillis(ms));
+        }
+        for (var ms : new long[] {20000L, 22000L, 24000L}) {
+            policy.completed(dnsChallenge, AWAITED, Status.VALID, Duration.ofMillis(ms));
+        }
+
+        assertThat(policy.expectedCompletionTimes(httpChallenge, AWAITED)).contains(List.of(
+                Duration.ofMillis(800L), Duration.ofMillis(800L),
+                Duration.ofMillis(900L), Duration.ofMillis(900L)));
+
+        // http-01: first poll at the median, then at the next quantile
+        assertThat(policy.nextPollDelay(httpChallenge, AWAITED, Duration.ZERO))
+                .isEqualTo(Duration.ofMillis(800L));
+        assertThat(policy.nextPollDelay(httpChallenge, AWAITED, Duration.ofMillis(800L)))
+                .isEqualTo(Duration.ofMillis(100L));
+
+        // dns-01: first poll is not before the median
+        assertThat(policy.nextPollDelay(dnsChallenge, AWAITED, Duration.ZERO))
+                .isEqualTo(Duration.ofSeconds(22L));
+
+        // beyond all observed completion times, the default delay is used
+        assertThat(policy.nextPollDelay(dnsChallenge, AWAITED, Duration.ofSeconds(25L)))
+                .isEqualTo(DEFAULT_DELAY);
+    }
+
+    /**
+     * Test that the completion times are learned separately for each set of awaited
+     * status, and that failed waits are not recorded.
+     */
+    @Test
+    public void testAwaitedStatus() {
+        var policy = createPolicy(1000.0);
+        var order = new Order(TestUtils.login(), TestUtils.url("https://example.com/acme/order/1"));
+        var ready = EnumSet.of(Status.READY, Status.VALID, Status.INVALID);
+        var issued = EnumSet.of(Status.VALID, Status.INVALID);
+
+        for (var ix = 0; ix < 3; ix++) {
+            policy.completed(order, ready, Status.READY, Duration.ofSeconds(2L));
+            policy.completed(order, issued, Status.VALID, Duration.ofSeconds(20L));
+            policy.completed(order, issued, Status.INVALID, Duration.ofMillis(10L));
+        }
+
+        assertThat(policy.expectedCompletionTimes(order, ready))
+                .contains(List.of(Duration.ofSeconds(2L), Duration.ofSeconds(2L),
+                        Duration.ofSeconds(2L), Duration.ofSeconds(2L)));
+        assertThat(policy.expectedCompletionTimes(order, issued))
+                .contains(List.of(Duration.ofSeconds(20L), Duration.ofSeconds(20L),
+                        Duration.ofSeconds(20L), Duration.ofSeconds(20L)));
+        assertThat(policy.expectedCompletionTimes(order, EnumSet.of(Status.VALID)))
+                .isEqualTo(policy.expectedCompletionTimes(order, issued));
+    }
+
+    /**
+     * Test that the delay is kept within the minimum and maximum delay.
+     */
+    @Test
+    public void testDelayLimits() {
+        var policy = createPolicy(1000.0);
+        var httpChallenge = httpChallenge();
+        var dnsChallenge = dnsChallenge();
+
+        for (var ix = 0; ix < 3; ix++) {
+            policy.completed(httpChallenge, AWAITED, Status.VALID, Duration.ofMillis(10L));
+            policy.completed(dnsChallenge, AWAITED, Status.VALID, Duration.ofMinutes(5L));
+        }
+
+        assertThat(policy.nextPollDelay(httpChallenge, AWAITED, Duration.ZERO)).isEqualTo(MIN_DELAY);
+        assertThat(policy.nextPollDelay(dnsChallenge, AWAITED, Duration.ZERO)).isEqualTo(MAX_DELAY);
+    }
+
+    /**
+     * Test that the poll rate is capped.
+     */
+    @Test
+    public void testRateCap() {
+        var policy = createPolicy(2.0);
+        var challenge = httpChallenge();
+
+        // at most one poll every 500 ms
+        assertThat(policy.nextPollDelay(challenge, AWAITED, Duration.ZERO)).isEqualTo(DEFAULT_DELAY);
+        assertThat(policy.nextPollDelay(challenge, AWAITED, Duration.ZERO)).isEqualTo(Duration.ofMillis(3500L));
+        assertThat(policy.nextPollDelay(challenge, AWAITED, Duration.ZERO)).isEqualTo(Duration.ofMillis(4000L));
+
+        // time passes, slots in the past are released
+        clock.addAndGet(Duration.ofSeconds(10L).toNanos());
+        assertThat(policy.nextPollDelay(challenge, AWAITED, Duration.ZERO)).isEqualTo(DEFAULT_DELAY);
+    }
+
+    /**
+     * Test that the policy is used by {@link PollableResource#waitForStatus}.
+     */
+    @Test
+    public void testWaitForStatus() throws Exception {
+        var policy = new AdaptivePollPolicy(Duration.ZERO, Duration.ZERO,
+                Duration.ofSeconds(1L), 1000.0);
+        var fetches = new AtomicInteger();
+
+        var resource = new PollableResource() {
+            @Override
+            public Status getStatus() {
+                return fetches.get() >= 3 ? Status.VALID : Status.PENDING;
+            }
+
+            @Override
+            public Optional<Instant> fetch() {
+                fetches.incrementAndGet();
+                return Optional.empty();
+            }
+
+            @Override
+            public PollPolicy getPollPolicy() {
+                return policy;
+            }
+        };
+
+        for (var ix = 0; ix < 3; ix++) {
+            fetches.set(0);
+            var status = resource.waitForStatus(EnumSet.of(Status.VALID), Duration.ofSeconds(10L));
+            assertThat(status).isEqualTo(Status.VALID);
+            assertThat(fetches.get()).isEqualTo(3);
+        }
+
+        assertThat(policy.expectedCompletionTimes(resource, EnumSet.of(Status.VALID))).isPresent();
+    }
+
+    /**
+     * Test that invalid parameters are rejected.
+     */
+    @Test
+    public void testInvalidParameters() {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> new AdaptivePollPolicy(DEFAULT_DELAY, MAX_DELAY, MIN_DELAY, 1.0));
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> new AdaptivePollPolicy(DEFAULT_DELAY, MIN_DELAY, MAX_DELAY, 0.0));
+    }
+
+    /**
+     * Test that the session uses a fixed poll policy by default.
+     */
+    @Test
+    public void testSessionDefault() {
+        var login = TestUtils.login();
+        var challenge = new Http01Challenge(login, getJSON("httpChallenge"));
+
+        assertThat(challenge.getPollPolicy().nextPollDelay(challenge, AWAITED, Duration.ofMinutes(1L)))
+                .isEqualTo(PollableResource.DEFAULT_RETRY_AFTER);
+
+        var policy = new AdaptivePollPolicy();
+        login.getSession().setPollPolicy(policy);
+        assertThat(challenge.getPollPolicy()).isSameAs(policy);
+    }
+
+    private AdaptivePollPolicy createPolicy(double maxPollsPerSecond) {
+        return new AdaptivePollPolicy(DEFAULT_DELAY, MIN_DELAY, MAX_DELAY,
+                maxPollsPerSecond, clock::get);
+    }
+
+    private Http01Challenge httpChallenge() {
+        return new Http01Challenge(TestUtils.login(), getJSON("httpChallenge"));
+    }
+
+    private Dns01Challenge dnsChallenge() {
+        return new Dns01Challenge(TestUtils.login(), getJSON("dns01Challenge"));
+    }
+
+}
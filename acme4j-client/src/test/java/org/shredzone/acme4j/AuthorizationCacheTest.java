@@ -0,0 +1,203 @@
+/*
+ * acme4j - Java ACME client
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://acme4j.shredzone.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ */
+package org.shredzone.acme4j;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.shredzone.acme4j.toolbox.TestUtils.url;
+
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.shredzone.acme4j.provider.TestableConnectionProvider;
+import org.shredzone.acme4j.toolbox.JSON;
+import org.shredzone.acme4j.toolbox.JSONBuilder;
+
+/**
+ * Unit tests for {@link AuthorizationCache}.
+ */
+public class AuthorizationCacheTest {
+    private static final Instant FUTURE = Instant.now().plus(Duration.ofDays(7L));
+
+    private final URL authUrl1 = url("https://example.com/acme/authz/1");
+    private final URL authUrl2 = url("https://example.com/acme/authz/2");
+    private final URL authUrl3 = url("https://example.com/acme/authz/3");
+
+    /**
+     * Test that valid authorizations are recorded, and other ones are removed.
+     */
+    @Test
+    public void testRecord() throws Exception {
+        try (var provider = new TestableConnectionProvider()) {
+            var login = provider.createLogin();
+            var cache = login.getAuthorizationCache();
+            assertThat(login.getAuthorizationCache()).isSameAs(cache);
+
+            var auth = createAuthorization(login, authUrl1, "example.org", false,
+                    Status.VALID, FUTURE);
+            cache.record(auth);
+            assertThat(cache.isAuthorized(Identifier.dns("example.org"))).isTrue();
+            assertThat(cache.isAuthorized(Identifier.dns("EXAMPLE.org"))).isTrue();
+            assertThat(cache.getAuthorization(Identifier.dns("example.org"))).containsSame(auth);
+            assertThat(cache.isAuthorized(Identifier.dns("*.example.org"))).isFalse();
+            assertThat(cache.isAuthorized(Identifier.dns("www.example.org"))).isFalse();
+
+            var wildcard = createAuthorization(login, authUrl2, "example.org", true,
+                    Status.VALID, FUTURE);
+            cache.record(wildcard);
+            assertThat(cache.getAuthorization(Identifier.dns("*.example.org")))
+                    .containsSame(wildcard);
+
+            var deactivated = createAuthorization(login, authUrl1, "example.org", false,
+                    Status.DEACTIVATED, FUTURE);
+            cache.record(deactivated);
+            assertThat(cache.isAuthorized(Identifier.dns("example.org"))).isFalse();
+            assertThat(cache.isAuthorized(Identifier.dns("*.example.org"))).isTrue();
+
+            cache.invalidate(Identifier.dns("*.example.org"));
+            assertThat(cache.isAuthorized(Identifier.dns("*.example.org"))).isFalse();
+
+            cache.record(auth);
+            cache.clear();
+            assertThat(cache.isAuthorized(Identifier.dns("example.org"))).isFalse();
+        }
+    }
+
+    /**
+     * Test that authorizations expiring within the safety margin are not used.
+     */
+    @Test
+    public void testExpiry() throws Exception {
+        try (var provider = new TestableConnectionProvider()) {
+            var login = provider.createLogin();
+            var cache = login.getAuthorizationCache();
+            assertThat(cache.getExpiryMargin()).isEqualTo(Duration.ofHours(1L));
+
+            var soon = Instant.now().plus(Duration.ofMinutes(30L));
+            cache.record(createAuthorization(login, authUrl1, "example.org", false,
+                    Status.VALID, soon));
+            assertThat(cache.isAuthorized(Identifier.dns("example.org"))).isFalse();
+
+            cache.setExpiryMargin(Duration.ofMinutes(10L));
+            cache.record(createAuthorization(login, authUrl1, "example.org", false,
+                    Status.VALID, soon));
+            assertThat(cache.isAuthorized(Identifier.dns("example.org"))).isTrue();
+
+            cache.setExpiryMargin(Duration.ofHours(1L));
+            assertThat(cache.isAuthorized(Identifier.dns("example.org"))).isFalse();
+
+            assertThatExceptionOfType(IllegalArgumentException.class)
+                    .isThrownBy(() -> cache.setExpiryMargin(Duration.ofSeconds(-1L)));
+        }
+    }
+
+    /**
+     * Test that only authorizations requiring challenges are returned, and known valid
+     * authorizations are not fetched again.
+     */
+    @Test
+    public void testRequiringChallenges() throws Exception {
+        var responses = new HashMap<URL, JSON>();
+        responses.put(authUrl1, authorizationJson("a.example.org", false, Status.VALID, FUTURE));
+        responses.put(authUrl2, authorizationJson("b.example.org", false, Status.PENDING, FUTURE));
+        responses.put(authUrl3, authorizationJson("c.example.org", true, Status.VALID, FUTURE));
+        var fetchCount = new AtomicInteger();
+
+        try (var provider = new ServingProvider(responses, fetchCount)) {
+            var login = provider.createLogin();
+            var cache = login.getAuthorizationCache();
+
+            var required = cache.requiringChallenges(createOrder(login));
+            assertThat(required).hasSize(1);
+            assertThat(required.get(0).getLocation()).isEqualTo(authUrl2);
+            assertThat(fetchCount.get()).isEqualTo(3);
+            assertThat(cache.isAuthorized(Identifier.dns("a.example.org"))).isTrue();
+            assertThat(cache.isAuthorized(Identifier.dns("*.c.example.org"))).isTrue();
+
+            // the second order only fetches the pending authorization again
+            fetchCount.set(0);
+            var required2 = cache.requiringChallenges(createOrder(login));
+            assertThat(required2).hasSize(1);
+            assertThat(fetchCount.get()).isEqualTo(1);
+        }
+    }
+
+    private Order createOrder(Login login) {
+        var order = new Order(login, url("https://example.com/acme/order/1"));
+        order.setJSON(new JSONBuilder()
+                .put("status", "pending")
+                .array("authorizations", List.of(authUrl1, authUrl2, authUrl3))
+                .toJSON());
+        return order;
+    }
+
+    private static Authorization createAuthorization(Login login, URL location, String domain,
+                boolean wildcard, Status status, Instant expires) {
+        var auth = new Authorization(login, location);
+        auth.setJSON(authorizationJson(domain, wildcard, status, expires));
+        return auth;
+    }
+
+    private static JSON authorizationJson(String domain, boolean wildcard, Status status,
+                Instant expires) {
+        var jb = new JSONBuilder();
+        jb.put("status", status.name().toLowerCase(Locale.ENGLISH));
+        jb.put("expires", expires);
+        jb.put("identifier", Identifier.dns(domain).toMap());
+        jb.put("wildcard", wildcard);
+        jb.array("challenges", List.of());
+        return jb.toJSON();
+    }
+
+    /**
+     * A {@link TestableConnectionProvider} that serves the JSON of the requested URL.
+     */
+    private static class ServingProvider extends TestableConnectionProvider {
+        private final Map<URL, JSON> responses;
+        private final AtomicInteger fetchCount;
+        private URL lastUrl;
+
+        ServingProvider(Map<URL, JSON> responses, AtomicInteger fetchCount) {
+            this.responses = responses;
+            this.fetchCount = fetchCount;
+        }
+
+        @Override
+        public int sendSignedPostAsGetRequest(URL url, Login login) {
+            fetchCount.incrementAndGet();
+            lastUrl = url;
+            return HttpURLConnection.HTTP_OK;
+        }
+
+        @Override
+        public JSON readJsonResponse() {
+            return responses.get(lastUrl);
+        }
+
+        @Override
+        public Optional<Instant> getRetryAfter() {
+            return Optional.empty();
+        }
+    }
+
+}
@@ -17,21 +17,30 @@ import static net.javacrumbs.jsonunit.assertj.JsonAssertions.assertThatJson;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.shredzone.acme4j.toolbox.TestUtils.*;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.OutputStreamWriter;
 import java.net.HttpURLConnection;
 import java.net.URI;
 import java.net.URL;
 import java.security.cert.X509Certificate;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.Test;
 import org.shredzone.acme4j.connector.RequestSigner;
@@ -41,6 +50,7 @@ import org.shredzone.acme4j.provider.TestableConnectionProvider;
 import org.shredzone.acme4j.toolbox.JSON;
 import org.shredzone.acme4j.toolbox.JSONBuilder;
 import org.shredzone.acme4j.toolbox.TestUtils;
+import org.shredzone.acme4j.util.CertificateUtils;
 
 /**
  * Unit tests for {@link Certificate}.
@@ -147,6 +157,181 @@ public class CertificateTest {
         provider.close();
     }
 
+    /**
+     * Test that issuer certificates are interned after deserialization.
+     */
+    @Test
+    public void testSerializationInternsIssuers() throws Exception {
+        var originalCert = TestUtils.createCertificate("/cert.pem");
+
+        var provider = new TestableConnectionProvider() {
+            @Override
+            public int sendCertificateRequest(URL url, Login login) {
+                return HttpURLConnection.HTTP_OK;
+            }
+
+            @Override
+            public List<X509Certificate> readCertificates() {
+                return originalCert;
+            }
+
+            @Override
+            public Collection<URL> getLinks(String relation) {
+                return List.of();
+            }
+        };
+
+        var cert = new Certificate(provider.createLogin(), locationUrl);
+        cert.download();
+        provider.close();
+
+        byte[] serialized;
+        try (var baos = new ByteArrayOutputStream(); var out = new ObjectOutputStream(baos)) {
+            out.writeObject(cert);
+            out.flush();
+            serialized = baos.toByteArray();
+        }
+
+        var restored = new ArrayList<Certificate>();
+        for (var ix = 0; ix < 2; ix++) {
+            try (var in = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+                restored.add((Certificate) in.readObject());
+            }
+        }
+
+        var chain1 = restored.get(0).getCertificateChain();
+        var chain2 = restored.get(1).getCertificateChain();
+        assertThat(chain1.get(1)).isSameAs(chain2.get(1));
+        assertThat(chain1.get(1).getEncoded()).isEqualTo(originalCert.get(1).getEncoded());
+    }
+
+    /**
+     * Test that alternate certificates are downloaded concurrently.
+     */
+    @Test
+    public void testDownloadAlternates() throws Exception {
+        var originalCert = TestUtils.createCertificate("/cert.pem");
+        var alternateCert = TestUtils.createCertificate("/certid-cert.pem");
+        var alternatesInFlight = new CountDownLatch(2);
+
+        var provider = new TestableConnectionProvider() {
+            private final ThreadLocal<List<X509Certificate>> sendCert = new ThreadLocal<>();
+
+            @Override
+            public int sendCertificateRequest(URL url, Login login) {
+                if (locationUrl.equals(url)) {
+                    sendCert.set(originalCert);
+                } else {
+                    // Both alternates must be requested at the same time
+                    alternatesInFlight.countDown();
+                    try {
+                        assertThat(alternatesInFlight.await(10, TimeUnit.SECONDS)).isTrue();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException(ex);
+                    }
+                    sendCert.set(alternateCert);
+                }
+                return HttpURLConnection.HTTP_OK;
+            }
+
+            @Override
+            public List<X509Certificate> readCertificates() {
+                return sendCert.get();
+            }
+
+            @Override
+            public Collection<URL> getLinks(String relation) {
+                return Arrays.asList(alternate1Url, alternate2Url);
+            }
+        };
+
+        var executor = Executors.newFixedThreadPool(2);
+        try {
+            var cert = new Certificate(provider.createLogin(), locationUrl);
+            var found = cert.findCertificate("minica root ca 3a1356", executor);
+            assertThat(found).contains(cert.getAlternateCertificates().get(0));
+            assertThat(alternatesInFlight.getCount()).isZero();
+            for (var alt : cert.getAlternateCertificates()) {
+                assertThat(alt.getCertificate().getEncoded())
+                        .isEqualTo(alternateCert.get(0).getEncoded());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        provider.close();
+    }
+
+    /**
+     * Test that preferred chains are assembled from the issuer chain cache.
+     */
+    @Test
+    public void testFindCertificateChainCached() throws Exception {
+        var keyPair = TestUtils.createKeyPair();
+        var notBefore = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        var notAfter = notBefore.plus(Duration.ofDays(90L));
+
+        var rootA = CertificateUtils.createTestRootCertificate("CN=Root A", notBefore, notAfter, keyPair);
+        var rootB = CertificateUtils.createTestRootCertificate("CN=Root B", notBefore, notAfter, keyPair);
+        var selfSigned = CertificateUtils.createTestRootCertificate("CN=Intermediate", notBefore, notAfter, keyPair);
+        var intermediateA = CertificateUtils.createTestIntermediateCertificate("CN=Intermediate",
+                notBefore, notAfter, keyPair.getPublic(), rootA, keyPair.getPrivate());
+        var intermediateB = CertificateUtils.createTestIntermediateCertificate("CN=Intermediate",
+                notBefore, notAfter, keyPair.getPublic(), rootB, keyPair.getPrivate());
+        var leaf1 = CertificateUtils.createTestIntermediateCertificate("CN=www1.example.org",
+                notBefore, notAfter, keyPair.getPublic(), selfSigned, keyPair.getPrivate());
+        var leaf2 = CertificateUtils.createTestIntermediateCertificate("CN=www2.example.org",
+                notBefore, notAfter, keyPair.getPublic(), selfSigned, keyPair.getPrivate());
+
+        var cert1Url = url("https://example.com/acme/cert/1");
+        var cert2Url = url("https://example.com/acme/cert/2");
+        var chains = Map.of(
+                cert1Url, List.of(leaf1, intermediateA),
+                alternate1Url, List.of(leaf1, intermediateB),
+                cert2Url, List.of(leaf2, intermediateA));
+        var requested = new ArrayList<URL>();
+
+        var provider = new TestableConnectionProvider() {
+            private URL sendUrl;
+
+            @Override
+            public int sendCertificateRequest(URL url, Login login) {
+                assertThat(chains).containsKey(url);
+                requested.add(url);
+                sendUrl = url;
+                return HttpURLConnection.HTTP_OK;
+            }
+
+            @Override
+            public List<X509Certificate> readCertificates() {
+                return chains.get(sendUrl);
+            }
+
+            @Override
+            public Collection<URL> getLinks(String relation) {
+                return cert1Url.equals(sendUrl) ? List.of(alternate1Url) : List.of();
+            }
+        };
+
+        var login = provider.createLogin();
+
+        var cert1 = new Certificate(login, cert1Url);
+        assertThat(cert1.findCertificateChain("Root A")).contains(List.of(leaf1, intermediateA));
+        assertThat(cert1.findCertificateChain("Root B")).contains(List.of(leaf1, intermediateB));
+        assertThat(cert1.findCertificateChain("Root C")).isEmpty();
+        assertThat(requested).containsExactly(cert1Url, alternate1Url);
+
+        var cert2 = new Certificate(login, cert2Url);
+        assertThat(cert2.findCertificateChain("Root B")).contains(List.of(leaf2, intermediateB));
+        assertThat(requested).containsExactly(cert1Url, alternate1Url, cert2Url);
+
+        login.getSession().getIssuerChainCache().clear();
+        assertThat(cert2.findCertificateChain("Root B")).isEmpty();
+
+        provider.close();
+    }
+
     /**
      * Test that a certificate can be revoked.
      */
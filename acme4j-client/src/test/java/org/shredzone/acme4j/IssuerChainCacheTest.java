@@ -0,0 +1,134 @@
+/*
+ * acme4j - Java ACME client
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://acme4j.shredzone.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ */
+package org.shredzone.acme4j;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.security.Security;
+import java.security.cert.X509Certificate;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.shredzone.acme4j.toolbox.TestUtils;
+import org.shredzone.acme4j.util.CSRBuilder;
+import org.shredzone.acme4j.util.CertificateUtils;
+import org.shredzone.acme4j.util.KeyPairUtils;
+
+/**
+ * Unit tests for {@link IssuerChainCache}.
+ */
+public class IssuerChainCacheTest {
+
+    @BeforeAll
+    public static void setup() {
+        Security.addProvider(new BouncyCastleProvider());
+    }
+
+    /**
+     * Test that chains are recorded and found by their issuers.
+     */
+    @Test
+    public void testRecordAndFind() throws Exception {
+        var chain = TestUtils.createCertificate("/cert.pem");
+        var leaf = chain.get(0);
+
+        var cache = new IssuerChainCache();
+        assertThat(cache.find(leaf, TestUtils.CERT_ISSUER)).isEmpty();
+
+        cache.record(chain);
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.find(leaf, TestUtils.CERT_ISSUER)).contains(chain);
+        assertThat(cache.find(leaf, "The ACME CA X1")).isEmpty();
+
+        cache.clear();
+        assertThat(cache.size()).isZero();
+        assertThat(cache.find(leaf, TestUtils.CERT_ISSUER)).isEmpty();
+    }
+
+    /**
+     * Test that a chain of a different intermediate with the same name is not used.
+     */
+    @Test
+    public void testSameIssuerNameDifferentKey() throws Exception {
+        var chainA = createChain();
+        var chainB = createChain();
+        assertThat(chainA.get(1).getSubjectX500Principal())
+                .isEqualTo(chainB.get(1).getSubjectX500Principal());
+
+        var cache = new IssuerChainCache();
+        cache.record(chainA);
+        assertThat(cache.find(chainA.get(0), "Test Root")).contains(chainA);
+        assertThat(cache.find(chainB.get(0), "Test Root")).isEmpty();
+    }
+
+    /**
+     * Test that the least recently used chains are evicted.
+     */
+    @Test
+    public void testEviction() throws Exception {
+        var chain = TestUtils.createCertificate("/cert.pem");
+        var leaf = chain.get(0);
+
+        var cache = new IssuerChainCache(1);
+        cache.record(chain);
+        assertThat(cache.size()).isEqualTo(1);
+
+        cache.record(createChain());
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.find(leaf, TestUtils.CERT_ISSUER)).isEmpty();
+        assertThat(cache.find(leaf, "Pebble Root CA 6ed38b")).isEmpty();
+    }
+
+    /**
+     * Test that chains without issuer certificates are ignored.
+     */
+    @Test
+    public void testRecordLeafOnly() throws Exception {
+        var leaf = TestUtils.createCertificate("/cert.pem").get(0);
+
+        var cache = new IssuerChainCache();
+        cache.record(List.of(leaf));
+        assertThat(cache.size()).isZero();
+    }
+
+    /**
+     * Creates a certificate chain with new keys, but always the same issuer names.
+     */
+    private static List<X509Certificate> createChain() throws Exception {
+        var notBefore = Instant.now().minus(1L, ChronoUnit.DAYS);
+        var notAfter = notBefore.plus(30L, ChronoUnit.DAYS);
+
+        var rootKeyPair = KeyPairUtils.createKeyPair(2048);
+        var root = CertificateUtils.createTestRootCertificate("CN=Test Root",
+                notBefore, notAfter, rootKeyPair);
+
+        var intermediateKeyPair = KeyPairUtils.createKeyPair(2048);
+        var intermediate = CertificateUtils.createTestIntermediateCertificate(
+                "CN=Test Intermediate", notBefore, notAfter,
+                intermediateKeyPair.getPublic(), root, rootKeyPair.getPrivate());
+
+        var csrBuilder = new CSRBuilder();
+        csrBuilder.addDomain("example.org");
+        csrBuilder.sign(KeyPairUtils.createECKeyPair("secp256r1"));
+        var leaf = CertificateUtils.createTestCertificate(csrBuilder.getCSR(),
+                notBefore, notAfter, intermediate, intermediateKeyPair.getPrivate());
+
+        return List.of(leaf, intermediate, root);
+    }
+
+}
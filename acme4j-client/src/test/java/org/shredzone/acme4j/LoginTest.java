@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.net.HttpURLConnection;
 import java.net.URI;
 import java.net.URL;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentMatchers;
@@ -33,8 +34,10 @@ import org.shredzone.acme4j.exception.AcmeException;
 import org.shredzone.acme4j.exception.AcmeProtocolException;
 import org.shredzone.acme4j.provider.AcmeProvider;
 import org.shredzone.acme4j.provider.TestableConnectionProvider;
+import org.shredzone.acme4j.toolbox.AcmeUtils;
 import org.shredzone.acme4j.toolbox.JSON;
 import org.shredzone.acme4j.toolbox.JSONBuilder;
+import org.shredzone.acme4j.toolbox.JoseUtils;
 import org.shredzone.acme4j.toolbox.TestUtils;
 
 /**
@@ -91,6 +94,56 @@ public class LoginTest {
         assertThat(order.getLocation()).isEqualTo(resourceUrl);
     }
 
+    /**
+     * Test the identity map of bound resources.
+     */
+    @Test
+    public void testIdentityMap() throws IOException {
+        var login = new Login(url(TestUtils.ACCOUNT_URL), TestUtils.createKeyPair(),
+                TestUtils.session());
+        var url1 = url("https://example.com/acme/resource/1");
+        var url2 = url("https://example.com/acme/resource/2");
+        var url3 = url("https://example.com/acme/resource/3");
+
+        // disabled by default
+        assertThat(login.getIdentityMapSize()).isZero();
+        assertThat(login.bindAuthorization(url1)).isNotSameAs(login.bindAuthorization(url1));
+
+        login.setIdentityMapSize(2);
+        assertThat(login.getIdentityMapSize()).isEqualTo(2);
+
+        var auth1 = login.bindAuthorization(url1);
+        assertThat(login.bindAuthorization(url("https://example.com/acme/resource/1")))
+                .isSameAs(auth1);
+
+        // a different type at the same location replaces the entry
+        var order1 = login.bindOrder(url1);
+        assertThat(login.bindOrder(url1)).isSameAs(order1);
+        assertThat(login.bindAuthorization(url1)).isNotSameAs(auth1);
+
+        // least recently bound resources are evicted
+        var cert2 = login.bindCertificate(url2);
+        var info3 = login.bindRenewalInfo(url3);
+        assertThat(login.bindRenewalInfo(url3)).isSameAs(info3);
+        assertThat(login.bindCertificate(url2)).isSameAs(cert2);
+        assertThat(login.bindOrder(url1)).isNotSameAs(order1);
+
+        // shrinking evicts the least recently bound resources
+        login.setIdentityMapSize(1);
+        assertThat(login.bindOrder(url1)).isSameAs(login.bindOrder(url1));
+        assertThat(login.bindCertificate(url2)).isNotSameAs(cert2);
+
+        login.clearIdentityMap();
+        var cert2b = login.bindCertificate(url2);
+        login.clearIdentityMap();
+        assertThat(login.bindCertificate(url2)).isNotSameAs(cert2b);
+
+        login.setIdentityMapSize(0);
+        assertThat(login.bindCertificate(url2)).isNotSameAs(login.bindCertificate(url2));
+
+        assertThrows(IllegalArgumentException.class, () -> login.setIdentityMapSize(-1));
+    }
+
     /**
      * Test that the account's keypair can be changed.
      */
@@ -108,6 +161,33 @@ public class LoginTest {
         assertThat(login.getPublicKey()).isEqualTo(keypair2.getPublic());
     }
 
+    /**
+     * Test that the thumbprint is memoized, and updated on key change.
+     */
+    @Test
+    public void testThumbprint() throws IOException {
+        var keypair = TestUtils.createKeyPair();
+        var login = new Login(url(TestUtils.ACCOUNT_URL), keypair, TestUtils.session());
+        var challenge = new Http01Challenge(login, getJSON("httpChallenge"));
+
+        var thumbprint = login.getThumbprint();
+        assertThat(thumbprint)
+                .isEqualTo(AcmeUtils.base64UrlEncode(JoseUtils.thumbprint(keypair.getPublic())));
+        assertThat(login.getThumbprint()).isSameAs(thumbprint);
+
+        var authorization = challenge.getAuthorization();
+        assertThat(authorization).endsWith('.' + thumbprint);
+        assertThat(challenge.getAuthorization()).isSameAs(authorization);
+
+        var keypair2 = TestUtils.createDomainKeyPair();
+        login.setKeyPair(keypair2);
+        var thumbprint2 = login.getThumbprint();
+        assertThat(thumbprint2)
+                .isEqualTo(AcmeUtils.base64UrlEncode(JoseUtils.thumbprint(keypair2.getPublic())))
+                .isNotEqualTo(thumbprint);
+        assertThat(challenge.getAuthorization()).endsWith('.' + thumbprint2);
+    }
+
     /**
      * Test that challenges are correctly created via provider.
      */
@@ -184,6 +264,42 @@ public class LoginTest {
                 " requested class class org.shredzone.acme4j.challenge.Dns01Challenge");
     }
 
+    /**
+     * Test that bound challenges are only fetched once if the identity map is enabled.
+     */
+    @Test
+    public void testBindChallengeIdentityMap() throws Exception {
+        var locationUrl = URI.create("https://example.com/acme/challenge/1").toURL();
+        var fetchCount = new AtomicInteger();
+
+        var provider  = new TestableConnectionProvider() {
+            @Override
+            public int sendSignedPostAsGetRequest(URL url, Login login) {
+                fetchCount.incrementAndGet();
+                return HttpURLConnection.HTTP_OK;
+            }
+
+            @Override
+            public JSON readJsonResponse() {
+                return getJSON("httpChallenge");
+            }
+
+            @Override
+            public Challenge createChallenge(Login login, JSON json) {
+                return new Http01Challenge(login, json);
+            }
+        };
+
+        var login = provider.createLogin();
+        login.setIdentityMapSize(10);
+
+        var challenge = login.bindChallenge(locationUrl);
+        assertThat(login.bindChallenge(locationUrl, Http01Challenge.class)).isSameAs(challenge);
+        assertThat(fetchCount.get()).isEqualTo(1);
+
+        provider.close();
+    }
+
     /**
      * Test that a new order can be created.
      */
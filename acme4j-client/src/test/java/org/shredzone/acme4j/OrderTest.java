@@ -15,17 +15,25 @@ package org.shredzone.acme4j;
 
 import static net.javacrumbs.jsonunit.assertj.JsonAssertions.assertThatJson;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
 import static org.shredzone.acme4j.toolbox.TestUtils.getJSON;
 import static org.shredzone.acme4j.toolbox.TestUtils.url;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.HttpURLConnection;
 import java.net.URI;
 import java.net.URL;
 import java.time.Duration;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.assertj.core.api.AutoCloseableSoftAssertions;
+import org.bouncycastle.pkcs.PKCS10CertificationRequest;
 import org.junit.jupiter.api.Test;
+import org.shredzone.acme4j.exception.AcmeException;
 import org.shredzone.acme4j.exception.AcmeNotSupportedException;
 import org.shredzone.acme4j.provider.TestableConnectionProvider;
 import org.shredzone.acme4j.toolbox.JSON;
@@ -220,6 +228,124 @@ public class OrderTest {
         provider.close();
     }
 
+    /**
+     * Test that a prepared order is finalized when it is ready.
+     */
+    @Test
+    public void testExecuteWhenReady() throws Exception {
+        var domainKeyPair = TestUtils.createDomainKeyPair();
+        var csrRef = new AtomicReference<PKCS10CertificationRequest>();
+
+        var provider = new TestableConnectionProvider() {
+            private int polls = 0;
+            private boolean isFinalized = false;
+
+            @Override
+            public int sendSignedPostAsGetRequest(URL url, Login login) {
+                assertThat(url).isEqualTo(locationUrl);
+                polls++;
+                return HttpURLConnection.HTTP_OK;
+            }
+
+            @Override
+            public int sendSignedRequest(URL url, JSONBuilder claims, Login login) {
+                assertThat(url).isEqualTo(finalizeUrl);
+                var csr = claims.toJSON().get("csr").asBinary();
+                try {
+                    csrRef.set(new PKCS10CertificationRequest(csr));
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+                isFinalized = true;
+                return HttpURLConnection.HTTP_OK;
+            }
+
+            @Override
+            public JSON readJsonResponse() {
+                if (isFinalized) {
+                    return getJSON("finalizeResponse");
+                }
+                var status = polls > 2 ? "ready" : "pending";
+                return JSON.parse(getJSON("updateOrderResponse").toString()
+                        .replace("\"pending\"", "\"" + status + "\""));
+            }
+        };
+
+        var login = provider.createLogin();
+        login.getSession().setPollPolicy(PollPolicy.fixed(Duration.ofMillis(10L)));
+
+        var order = new Order(login, locationUrl);
+        var keyPairFuture = order.prepareExecution(() -> domainKeyPair,
+                csr -> csr.setOrganization("Example Inc."));
+
+        assertThat(order.executeWhenReady(Duration.ofSeconds(10L))).isEqualTo(Status.READY);
+        assertThat(keyPairFuture.get()).isSameAs(domainKeyPair);
+        assertThat(order.getStatus()).isEqualTo(Status.VALID);
+
+        var csr = csrRef.get();
+        assertThat(csr).isNotNull();
+        assertThat(csr.getSubject().toString()).contains("O=Example Inc.");
+        assertThat(csr.getSubjectPublicKeyInfo().getEncoded())
+                .isEqualTo(domainKeyPair.getPublic().getEncoded());
+
+        provider.close();
+    }
+
+    /**
+     * Test that a failed preparation is reported, and that the order is not finalized.
+     */
+    @Test
+    public void testExecuteWhenReadyFailed() throws Exception {
+        var provider = new TestableConnectionProvider() {
+            @Override
+            public int sendSignedPostAsGetRequest(URL url, Login login) {
+                return HttpURLConnection.HTTP_OK;
+            }
+
+            @Override
+            public JSON readJsonResponse() {
+                return JSON.parse(getJSON("updateOrderResponse").toString()
+                        .replace("\"pending\"", "\"ready\""));
+            }
+        };
+
+        var login = provider.createLogin();
+        var order = new Order(login, locationUrl);
+
+        assertThatIllegalStateException()
+                .isThrownBy(() -> order.executeWhenReady(Duration.ofSeconds(1L)));
+
+        var keyPairFuture = order.prepareExecution(() -> {
+            throw new IllegalStateException("no entropy");
+        }, csr -> {});
+
+        assertThatExceptionOfType(AcmeException.class)
+                .isThrownBy(() -> order.executeWhenReady(Duration.ofSeconds(1L)))
+                .withMessage("Failed to create CSR")
+                .havingCause()
+                .withMessage("no entropy");
+        assertThat(keyPairFuture).isCompletedExceptionally();
+
+        // the failed preparation is discarded
+        assertThatIllegalStateException()
+                .isThrownBy(() -> order.executeWhenReady(Duration.ofSeconds(1L)));
+
+        var errorFuture = order.prepareExecution(() -> {
+            throw new NoClassDefFoundError("missing provider");
+        }, csr -> {});
+
+        assertThatExceptionOfType(AcmeException.class)
+                .isThrownBy(() -> order.executeWhenReady(Duration.ofSeconds(1L)))
+                .withMessage("Failed to create CSR")
+                .havingCause()
+                .isInstanceOf(NoClassDefFoundError.class);
+        assertThat(errorFuture).failsWithin(Duration.ofSeconds(1L))
+                .withThrowableOfType(ExecutionException.class)
+                .withCauseInstanceOf(NoClassDefFoundError.class);
+
+        provider.close();
+    }
+
     /**
      * Test that order is properly updated.
      */
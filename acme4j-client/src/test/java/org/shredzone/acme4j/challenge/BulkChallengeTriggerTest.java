@@ -0,0 +1,183 @@
+/*
+ * acme4j - Java ACME client
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://acme4j.shredzone.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ */
+package org.shredzone.acme4j.challenge;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.shredzone.acme4j.Login;
+import org.shredzone.acme4j.PollPolicy;
+import org.shredzone.acme4j.Status;
+import org.shredzone.acme4j.exception.AcmeException;
+import org.shredzone.acme4j.exception.AcmeServerException;
+import org.shredzone.acme4j.toolbox.JSONBuilder;
+import org.shredzone.acme4j.toolbox.TestUtils;
+
+/**
+ * Unit tests for {@link BulkChallengeTrigger}.
+ */
+public class BulkChallengeTriggerTest {
+    private final Login login = TestUtils.login();
+    private final AtomicInteger concurrent = new AtomicInteger();
+    private final AtomicInteger maxConcurrent = new AtomicInteger();
+
+    /**
+     * Test that all challenges are triggered and polled, with bounded concurrency.
+     */
+    @Test
+    public void testTriggerAll() throws Exception {
+        var challenges = new ArrayList<FakeChallenge>();
+        for (var ix = 0; ix < 20; ix++) {
+            challenges.add(new FakeChallenge(ix, Status.PENDING, 2, Status.VALID));
+        }
+        var invalid = new FakeChallenge(20, Status.PENDING, 1, Status.INVALID);
+        challenges.add(invalid);
+        var failing = new FakeChallenge(21, Status.PENDING, 1, Status.VALID);
+        failing.failTrigger = true;
+        challenges.add(failing);
+        var alreadyValid = new FakeChallenge(22, Status.VALID, 0, Status.VALID);
+        challenges.add(alreadyValid);
+
+        var trigger = new BulkChallengeTrigger(3);
+        var result = trigger.triggerAll(challenges, Duration.ofSeconds(30));
+
+        assertThat(result.getChallenges()).containsExactlyElementsOf(challenges);
+        assertThat(result.isAllValid()).isFalse();
+        assertThat(result.getValid()).hasSize(21);
+        assertThat(result.getFailed()).containsExactly(invalid, failing);
+
+        assertThat(result.getStatus(invalid)).isEqualTo(Status.INVALID);
+        assertThat(result.getError(invalid)).isEmpty();
+        assertThat(result.getStatus(failing)).isEqualTo(Status.UNKNOWN);
+        assertThat(result.getError(failing)).containsInstanceOf(AcmeServerException.class);
+
+        for (var challenge : challenges.subList(0, 20)) {
+            assertThat(challenge.triggered.get()).isEqualTo(1);
+            assertThat(challenge.fetched.get()).isEqualTo(2);
+        }
+        assertThat(alreadyValid.triggered.get()).isZero();
+        assertThat(maxConcurrent.get()).isBetween(1, 3);
+    }
+
+    /**
+     * Test that challenges that do not complete in time are reported.
+     */
+    @Test
+    public void testTimeout() throws Exception {
+        var stuck = new FakeChallenge(0, Status.PENDING, Integer.MAX_VALUE, Status.VALID);
+        var fast = new FakeChallenge(1, Status.PENDING, 1, Status.VALID);
+
+        var result = new BulkChallengeTrigger().triggerAll(List.of(stuck, fast), Duration.ofMillis(200));
+
+        assertThat(result.getStatus(fast)).isEqualTo(Status.VALID);
+        assertThat(result.getStatus(stuck)).isEqualTo(Status.PENDING);
+        assertThat(result.getError(stuck)).get()
+                .isInstanceOf(AcmeException.class)
+                .extracting(Throwable::getMessage)
+                .isEqualTo("Timeout has been reached");
+        assertThat(result.getFailed()).containsExactly(stuck);
+    }
+
+    /**
+     * Test that the concurrency must be positive.
+     */
+    @Test
+    public void testInvalidConcurrency() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new BulkChallengeTrigger(0));
+        assertThat(new BulkChallengeTrigger().getMaxConcurrency()).isEqualTo(8);
+    }
+
+    /**
+     * A {@link Challenge} that simulates the server side locally.
+     */
+    private class FakeChallenge extends Challenge {
+        private static final long serialVersionUID = 1L;
+
+        private final AtomicInteger triggered = new AtomicInteger();
+        private final AtomicInteger fetched = new AtomicInteger();
+        private final int fetchesUntilCompleted;
+        private final Status finalStatus;
+        private volatile Status status;
+        private volatile boolean failTrigger = false;
+
+        FakeChallenge(int id, Status status, int fetchesUntilCompleted, Status finalStatus) {
+            super(login, new JSONBuilder()
+                    .put("type", "fake-01")
+                    .put("url", "https://example.com/acme/chall/" + id)
+                    .put("status", status.name().toLowerCase())
+                    .toJSON());
+            this.status = status;
+            this.fetchesUntilCompleted = fetchesUntilCompleted;
+            this.finalStatus = finalStatus;
+        }
+
+        @Override
+        public Status getStatus() {
+            return status;
+        }
+
+        @Override
+        public PollPolicy getPollPolicy() {
+            return PollPolicy.fixed(Duration.ofMillis(10L));
+        }
+
+        @Override
+        public void trigger() throws AcmeException {
+            enter();
+            try {
+                triggered.incrementAndGet();
+                if (failTrigger) {
+                    throw new AcmeServerException(TestUtils.createProblem(
+                            URI.create("urn:ietf:params:acme:error:malformed"),
+                            "Malformed", getLocation()));
+                }
+            } finally {
+                concurrent.decrementAndGet();
+            }
+        }
+
+        @Override
+        public Optional<Instant> fetch() {
+            enter();
+            try {
+                if (fetched.incrementAndGet() >= fetchesUntilCompleted) {
+                    status = finalStatus;
+                }
+                return Optional.empty();
+            } finally {
+                concurrent.decrementAndGet();
+            }
+        }
+
+        private void enter() {
+            var current = concurrent.incrementAndGet();
+            maxConcurrent.accumulateAndGet(current, Math::max);
+            try {
+                Thread.sleep(5L);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+}
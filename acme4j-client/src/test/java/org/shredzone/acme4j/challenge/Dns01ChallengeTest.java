@@ -43,6 +43,7 @@ public class Dns01ChallengeTest {
         assertThat(challenge.getType()).isEqualTo(Dns01Challenge.TYPE);
         assertThat(challenge.getStatus()).isEqualTo(Status.PENDING);
         assertThat(challenge.getDigest()).isEqualTo("rzMmotrIgsithyBYc0vgiLUEEKYx0WetQRgEF2JIozA");
+        assertThat(challenge.getDigest()).isSameAs(challenge.getDigest());
         assertThat(challenge.getAuthorization()).isEqualTo("pNvmJivs0WCko2suV7fhe-59oFqyYx_yB7tx6kIMAyE.HnWjTDnyqlCrm6tZ-6wX-TrEXgRdeNu9G71gqxSO6o0");
 
         assertThat(challenge.getRRName("www.example.org")).isEqualTo("_acme-challenge.www.example.org.");
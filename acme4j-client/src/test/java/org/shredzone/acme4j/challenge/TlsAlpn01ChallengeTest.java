@@ -53,6 +53,10 @@ public class TlsAlpn01ChallengeTest {
         assertThat(challenge.getAuthorization()).isEqualTo(KEY_AUTHORIZATION);
         assertThat(challenge.getAcmeValidation()).isEqualTo(AcmeUtils.sha256hash(KEY_AUTHORIZATION));
 
+        // Modifying the returned array must not affect the challenge
+        challenge.getAcmeValidation()[0] ^= 0xFF;
+        assertThat(challenge.getAcmeValidation()).isEqualTo(AcmeUtils.sha256hash(KEY_AUTHORIZATION));
+
         var response = new JSONBuilder();
         challenge.prepareResponse(response);
 
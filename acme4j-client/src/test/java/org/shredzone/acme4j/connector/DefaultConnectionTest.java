@@ -16,6 +16,7 @@ package org.shredzone.acme4j.connector;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.time.temporal.ChronoUnit.SECONDS;
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.stubbing.Scenario.STARTED;
 import static net.javacrumbs.jsonunit.assertj.JsonAssertions.assertThatJson;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
@@ -40,6 +41,8 @@ import java.util.Arrays;
 import java.util.Base64;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
 
 import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
 import com.github.tomakehurst.wiremock.junit5.WireMockTest;
@@ -50,6 +53,7 @@ import org.junit.jupiter.api.Test;
 import org.shredzone.acme4j.Login;
 import org.shredzone.acme4j.Session;
 import org.shredzone.acme4j.exception.AcmeException;
+import org.shredzone.acme4j.exception.AcmeHttpException;
 import org.shredzone.acme4j.exception.AcmeProtocolException;
 import org.shredzone.acme4j.exception.AcmeRateLimitedException;
 import org.shredzone.acme4j.exception.AcmeServerException;
@@ -181,12 +185,13 @@ public class DefaultConnectionTest {
         try (var nonceHolder = session.lockNonce()) {
             assertThat(nonceHolder.getNonce()).isNull();
 
-            var ex = assertThrows(AcmeException.class, () -> {
+            var ex = assertThrows(AcmeHttpException.class, () -> {
                 try (var conn = session.connect()) {
                     conn.resetNonce(session);
                 }
             });
             assertThat(ex.getMessage()).isEqualTo("Server responded with HTTP 500 while trying to retrieve a nonce");
+            assertThat(ex.getStatusCode()).isEqualTo(500);
         }
 
         verify(headRequestedFor(urlEqualTo(NEW_NONCE_PATH)));
@@ -623,12 +628,13 @@ public class DefaultConnectionTest {
             nonceHolder.setNonce(TestUtils.DUMMY_NONCE);
         }
 
-        var ex = assertThrows(AcmeException.class, () -> {
+        var ex = assertThrows(AcmeHttpException.class, () -> {
             try (var conn = session.connect()) {
                 conn.sendSignedRequest(requestUrl, new JSONBuilder(), login);
             }
         });
         assertThat(ex.getMessage()).isEqualTo("HTTP 500");
+        assertThat(ex.getStatusCode()).isEqualTo(500);
     }
 
     /**
@@ -650,6 +656,126 @@ public class DefaultConnectionTest {
         );
     }
 
+    /**
+     * Test that GET requests are retried on server errors, if a {@link RetryPolicy} is
+     * set.
+     */
+    @Test
+    public void testSendRequestRetried() throws AcmeException {
+        var policy = new ExponentialBackoffRetryPolicy(3, Duration.ofMillis(1L),
+                Duration.ofMillis(10L), Duration.ofSeconds(10L));
+        session.networkSettings().setRetryPolicy(policy);
+
+        stubFor(get(urlEqualTo(REQUEST_PATH)).inScenario("retry")
+                .whenScenarioStateIs(STARTED)
+                .willReturn(aResponse().withStatus(503))
+                .willSetStateTo("recovered"));
+        stubFor(get(urlEqualTo(REQUEST_PATH)).inScenario("retry")
+                .whenScenarioStateIs("recovered")
+                .willReturn(ok()));
+
+        try (var conn = session.connect()) {
+            var rc = conn.sendRequest(requestUrl, session, null);
+            assertThat(rc).isEqualTo(HttpURLConnection.HTTP_OK);
+        }
+
+        verify(2, getRequestedFor(urlEqualTo(REQUEST_PATH)));
+        assertThat(policy.getRetryCount()).isEqualTo(1L);
+        assertThat(policy.getGiveUpCount()).isZero();
+    }
+
+    /**
+     * Test that the session can be used by other threads while a request is waiting
+     * for its next attempt.
+     */
+    @Test
+    public void testSessionUsableWhileBackingOff() throws Exception {
+        var policy = new ExponentialBackoffRetryPolicy(2, Duration.ofSeconds(4L),
+                Duration.ofSeconds(4L), Duration.ofSeconds(30L));
+        session.networkSettings().setRetryPolicy(policy);
+
+        stubFor(get(urlEqualTo(REQUEST_PATH)).inScenario("backoff")
+                .whenScenarioStateIs(STARTED)
+                .willReturn(aResponse().withStatus(503))
+                .willSetStateTo("recovered"));
+        stubFor(get(urlEqualTo(REQUEST_PATH)).inScenario("backoff")
+                .whenScenarioStateIs("recovered")
+                .willReturn(ok()));
+        stubFor(get(urlEqualTo("/other")).willReturn(ok()));
+
+        var backingOff = CompletableFuture.supplyAsync(() -> {
+            try (var conn = session.connect()) {
+                return conn.sendRequest(requestUrl, session, null);
+            } catch (AcmeException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+
+        // Wait until the first attempt has failed
+        var deadline = Instant.now().plusSeconds(2L);
+        while (findAll(getRequestedFor(urlEqualTo(REQUEST_PATH))).isEmpty()) {
+            assertThat(Instant.now()).isBefore(deadline);
+            Thread.sleep(10L);
+        }
+
+        // The session must not be blocked by the waiting request
+        try (var conn = session.connect()) {
+            var otherUrl = URI.create(baseUrl + "/other").toURL();
+            assertThat(conn.sendRequest(otherUrl, session, null)).isEqualTo(HttpURLConnection.HTTP_OK);
+        }
+        assertThat(backingOff).isNotDone();
+
+        assertThat(backingOff.get()).isEqualTo(HttpURLConnection.HTTP_OK);
+        assertThat(policy.getRetryCount()).isEqualTo(1L);
+    }
+
+    /**
+     * Test that GET requests are given up if the {@link RetryPolicy} does not permit
+     * further attempts.
+     */
+    @Test
+    public void testSendRequestRetriesExhausted() {
+        var policy = new ExponentialBackoffRetryPolicy(2, Duration.ofMillis(1L),
+                Duration.ofMillis(10L), Duration.ofSeconds(10L));
+        session.networkSettings().setRetryPolicy(policy);
+
+        stubFor(get(urlEqualTo(REQUEST_PATH)).willReturn(aResponse().withStatus(500)));
+
+        assertThatExceptionOfType(AcmeException.class)
+                .isThrownBy(() -> {
+                    try (var conn = session.connect()) {
+                        conn.sendRequest(requestUrl, session, null);
+                    }
+                })
+                .withMessage("HTTP 500");
+
+        verify(2, getRequestedFor(urlEqualTo(REQUEST_PATH)));
+        assertThat(policy.getRetryCount()).isEqualTo(1L);
+        assertThat(policy.getGiveUpCount()).isEqualTo(1L);
+    }
+
+    /**
+     * Test that client errors are never retried.
+     */
+    @Test
+    public void testSendRequestClientErrorNotRetried() {
+        var policy = new ExponentialBackoffRetryPolicy(3, Duration.ofMillis(1L),
+                Duration.ofMillis(10L), Duration.ofSeconds(10L));
+        session.networkSettings().setRetryPolicy(policy);
+
+        stubFor(get(urlEqualTo(REQUEST_PATH)).willReturn(aResponse().withStatus(404)));
+
+        assertThatExceptionOfType(AcmeException.class)
+                .isThrownBy(() -> {
+                    try (var conn = session.connect()) {
+                        conn.sendRequest(requestUrl, session, null);
+                    }
+                });
+
+        verify(1, getRequestedFor(urlEqualTo(REQUEST_PATH)));
+        assertThat(policy.getRetryCount()).isZero();
+    }
+
     /**
      * Test GET requests with If-Modified-Since.
      */
@@ -733,6 +859,112 @@ public class DefaultConnectionTest {
         assertThat(jws.verifySignature()).isTrue();
     }
 
+    /**
+     * Test signed POST requests that are signed by a {@link SignerPool}.
+     */
+    @Test
+    public void testSendSignedRequestWithSignerPool() throws Exception {
+        var nonce1 = URL_ENCODER.encodeToString("foo-nonce-1-foo".getBytes());
+        var nonce2 = URL_ENCODER.encodeToString("foo-nonce-2-foo".getBytes());
+
+        stubFor(head(urlEqualTo(NEW_NONCE_PATH)).willReturn(ok()
+                .withHeader("Replay-Nonce", nonce1)));
+
+        stubFor(post(urlEqualTo(REQUEST_PATH)).willReturn(ok()
+                .withHeader("Replay-Nonce", nonce2)
+        ));
+
+        var signerThread = new AtomicReference<Thread>();
+
+        try (var pool = new SignerPool(1)) {
+            session.setSignerPool(pool);
+
+            try (var conn = session.connect()) {
+                var cb = new JSONBuilder();
+                cb.put("foo", 123).put("bar", "a-string");
+                conn.sendSignedRequest(requestUrl, cb, session, (url, payload, nonce) -> {
+                    signerThread.set(Thread.currentThread());
+                    // The nonce must not be locked while signing
+                    assertThat(CompletableFuture.runAsync(() -> session.lockNonce().close()))
+                            .succeedsWithin(Duration.ofSeconds(10));
+                    return JoseUtils.createJoseRequest(url, keyPair, payload, nonce, accountUrl.toString());
+                });
+            }
+        } finally {
+            session.setSignerPool(null);
+        }
+
+        assertThat(signerThread.get()).isNotSameAs(Thread.currentThread());
+
+        try (var nonceHolder = session.lockNonce()) {
+            assertThat(nonceHolder.getNonce()).isEqualTo(nonce2);
+        }
+
+        var requests = findAll(postRequestedFor(urlEqualTo(REQUEST_PATH)));
+        assertThat(requests).hasSize(1);
+
+        var data = JSON.parse(requests.get(0).getBodyAsString());
+        var encodedHeader = data.get("protected").asString();
+        var encodedSignature = data.get("signature").asString();
+        var encodedPayload = data.get("payload").asString();
+
+        assertThatJson(new String(URL_DECODER.decode(encodedHeader), UTF_8))
+                .node("nonce").isEqualTo(nonce1);
+        assertThatJson(new String(URL_DECODER.decode(encodedPayload), UTF_8))
+                .isEqualTo("{\"foo\":123,\"bar\":\"a-string\"}");
+
+        var jws = new JsonWebSignature();
+        jws.setCompactSerialization(CompactSerializer.serialize(encodedHeader, encodedPayload, encodedSignature));
+        jws.setKey(login.getPublicKey());
+        assertThat(jws.verifySignature()).isTrue();
+    }
+
+    /**
+     * Test that signed POST-as-GET requests are retried on server errors, but signed
+     * POST requests are not.
+     */
+    @Test
+    public void testSendSignedRequestRetries() throws Exception {
+        var nonce1 = URL_ENCODER.encodeToString("foo-nonce-1-foo".getBytes());
+
+        var policy = new ExponentialBackoffRetryPolicy(3, Duration.ofMillis(1L),
+                Duration.ofMillis(10L), Duration.ofSeconds(10L));
+        session.networkSettings().setRetryPolicy(policy);
+
+        stubFor(head(urlEqualTo(NEW_NONCE_PATH)).willReturn(ok()
+                .withHeader("Replay-Nonce", nonce1)));
+
+        stubFor(post(urlEqualTo(REQUEST_PATH)).inScenario("retry")
+                .whenScenarioStateIs(STARTED)
+                .willReturn(aResponse().withStatus(503))
+                .willSetStateTo("recovered"));
+        stubFor(post(urlEqualTo(REQUEST_PATH)).inScenario("retry")
+                .whenScenarioStateIs("recovered")
+                .willReturn(ok().withHeader("Replay-Nonce", nonce1)));
+
+        try (var conn = session.connect()) {
+            var rc = conn.sendSignedPostAsGetRequest(requestUrl, login);
+            assertThat(rc).isEqualTo(HttpURLConnection.HTTP_OK);
+        }
+
+        verify(2, postRequestedFor(urlEqualTo(REQUEST_PATH)));
+        assertThat(policy.getRetryCount()).isEqualTo(1L);
+
+        resetAllScenarios();
+        resetAllRequests();
+
+        assertThatExceptionOfType(AcmeException.class)
+                .isThrownBy(() -> {
+                    try (var conn = session.connect()) {
+                        conn.sendSignedRequest(requestUrl, new JSONBuilder(), login);
+                    }
+                })
+                .withMessage("HTTP 503");
+
+        verify(1, postRequestedFor(urlEqualTo(REQUEST_PATH)));
+        assertThat(policy.getRetryCount()).isEqualTo(1L);
+    }
+
     /**
      * Test signed POST-as-GET requests.
      */
@@ -0,0 +1,126 @@
+/*
+ * acme4j - Java ACME client
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://acme4j.shredzone.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ */
+package org.shredzone.acme4j.connector;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link ExponentialBackoffRetryPolicy}.
+ */
+public class ExponentialBackoffRetryPolicyTest {
+
+    /**
+     * Test that the delay grows exponentially, with jitter, up to the maximum delay.
+     */
+    @Test
+    public void testBackoff() {
+        var policy = new ExponentialBackoffRetryPolicy(10, Duration.ofSeconds(1L),
+                Duration.ofSeconds(5L), Duration.ofHours(1L));
+
+        for (var ix = 0; ix < 20; ix++) {
+            assertThat(policy.retryDelay(1, Duration.ZERO, null)).hasValueSatisfying(d ->
+                    assertThat(d).isBetween(Duration.ofMillis(500L), Duration.ofSeconds(1L)));
+            assertThat(policy.retryDelay(2, Duration.ZERO, null)).hasValueSatisfying(d ->
+                    assertThat(d).isBetween(Duration.ofSeconds(1L), Duration.ofSeconds(2L)));
+            assertThat(policy.retryDelay(3, Duration.ZERO, null)).hasValueSatisfying(d ->
+                    assertThat(d).isBetween(Duration.ofSeconds(2L), Duration.ofSeconds(4L)));
+            assertThat(policy.retryDelay(4, Duration.ZERO, null)).hasValueSatisfying(d ->
+                    assertThat(d).isBetween(Duration.ofMillis(2500L), Duration.ofSeconds(5L)));
+            assertThat(policy.retryDelay(9, Duration.ZERO, null)).hasValueSatisfying(d ->
+                    assertThat(d).isBetween(Duration.ofMillis(2500L), Duration.ofSeconds(5L)));
+        }
+
+        assertThat(policy.getRetryCount()).isEqualTo(100L);
+        assertThat(policy.getGiveUpCount()).isZero();
+    }
+
+    /**
+     * Test that the request is given up after the maximum number of attempts.
+     */
+    @Test
+    public void testMaxAttempts() {
+        var policy = new ExponentialBackoffRetryPolicy(3, Duration.ofMillis(10L),
+                Duration.ofSeconds(1L), Duration.ofHours(1L));
+
+        assertThat(policy.retryDelay(1, Duration.ZERO, null)).isPresent();
+        assertThat(policy.retryDelay(2, Duration.ZERO, null)).isPresent();
+        assertThat(policy.retryDelay(3, Duration.ZERO, null)).isEmpty();
+
+        assertThat(policy.getRetryCount()).isEqualTo(2L);
+        assertThat(policy.getGiveUpCount()).isEqualTo(1L);
+    }
+
+    /**
+     * Test that the request is given up if the maximum elapsed time would be exceeded.
+     */
+    @Test
+    public void testMaxElapsed() {
+        var policy = new ExponentialBackoffRetryPolicy(10, Duration.ofSeconds(1L),
+                Duration.ofSeconds(1L), Duration.ofSeconds(30L));
+
+        assertThat(policy.retryDelay(1, Duration.ofSeconds(20L), null)).isPresent();
+        assertThat(policy.retryDelay(1, Duration.ofSeconds(30L), null)).isEmpty();
+
+        // Retry-After beyond the maximum elapsed time
+        var retryAfter = Instant.now().plus(Duration.ofMinutes(5L));
+        assertThat(policy.retryDelay(1, Duration.ZERO, retryAfter)).isEmpty();
+    }
+
+    /**
+     * Test that a Retry-After header is respected.
+     */
+    @Test
+    public void testRetryAfter() {
+        var policy = new ExponentialBackoffRetryPolicy(10, Duration.ofMillis(10L),
+                Duration.ofMillis(10L), Duration.ofMinutes(1L));
+
+        var retryAfter = Instant.now().plus(Duration.ofSeconds(20L));
+        assertThat(policy.retryDelay(1, Duration.ZERO, retryAfter)).hasValueSatisfying(d ->
+                assertThat(d).isBetween(Duration.ofSeconds(19L), Duration.ofSeconds(20L)));
+
+        // Retry-After in the past is ignored
+        var past = Instant.now().minus(Duration.ofSeconds(20L));
+        assertThat(policy.retryDelay(1, Duration.ZERO, past)).hasValueSatisfying(d ->
+                assertThat(d).isLessThanOrEqualTo(Duration.ofMillis(10L)));
+    }
+
+    /**
+     * Test that {@link RetryPolicy#none()} never retries.
+     */
+    @Test
+    public void testNone() {
+        assertThat(RetryPolicy.none().retryDelay(1, Duration.ZERO, null)).isEmpty();
+        assertThat(new NetworkSettings().getRetryPolicy().retryDelay(1, Duration.ZERO, null)).isEmpty();
+    }
+
+    /**
+     * Test that invalid parameters are rejected.
+     */
+    @Test
+    public void testInvalidParameters() {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> new ExponentialBackoffRetryPolicy(0, Duration.ofSeconds(1L),
+                        Duration.ofSeconds(1L), Duration.ofSeconds(1L)));
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> new ExponentialBackoffRetryPolicy(1, Duration.ofSeconds(2L),
+                        Duration.ofSeconds(1L), Duration.ofSeconds(1L)));
+    }
+
+}
@@ -0,0 +1,122 @@
+/*
+ * acme4j - Java ACME client
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://acme4j.shredzone.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ */
+package org.shredzone.acme4j.connector;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.shredzone.acme4j.toolbox.TestUtils.url;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.shredzone.acme4j.exception.AcmeException;
+import org.shredzone.acme4j.toolbox.JSONBuilder;
+
+/**
+ * Unit tests for {@link SignerPool}.
+ */
+public class SignerPoolTest {
+
+    /**
+     * Test that the signer is invoked by a worker thread, with the given parameters.
+     */
+    @Test
+    public void testSign() throws Exception {
+        var requestUrl = url("https://example.com/acme/req");
+        var payload = new JSONBuilder().put("foo", 123);
+        var signerThread = new AtomicReference<Thread>();
+
+        try (var pool = new SignerPool(2)) {
+            var result = pool.sign((url, claims, nonce) -> {
+                signerThread.set(Thread.currentThread());
+                assertThat(url).isEqualTo(requestUrl);
+                assertThat(claims).isSameAs(payload);
+                assertThat(nonce).isEqualTo("nonce-1");
+                return new JSONBuilder().put("signed", true);
+            }, requestUrl, payload, "nonce-1");
+
+            assertThat(result.toMap()).containsEntry("signed", true);
+        }
+
+        assertThat(signerThread.get()).isNotNull().isNotSameAs(Thread.currentThread());
+        assertThat(signerThread.get().getName()).startsWith("acme4j-signer-");
+    }
+
+    /**
+     * Test that several signers are invoked concurrently.
+     */
+    @Test
+    public void testConcurrentSigning() throws Exception {
+        var requestUrl = url("https://example.com/acme/req");
+        var latch = new CountDownLatch(2);
+
+        RequestSigner signer = (url, claims, nonce) -> {
+            latch.countDown();
+            try {
+                // Only succeeds if both signers are running at the same time
+                assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+            } catch (InterruptedException ex) {
+                throw new IllegalStateException(ex);
+            }
+            return new JSONBuilder().put("nonce", nonce);
+        };
+
+        try (var pool = new SignerPool(2)) {
+            var other = new AtomicReference<JSONBuilder>();
+            var thread = new Thread(() -> {
+                try {
+                    other.set(pool.sign(signer, requestUrl, null, "nonce-2"));
+                } catch (AcmeException ex) {
+                    throw new IllegalStateException(ex);
+                }
+            });
+            thread.start();
+
+            var result = pool.sign(signer, requestUrl, null, "nonce-1");
+            thread.join();
+
+            assertThat(result.toMap()).containsEntry("nonce", "nonce-1");
+            assertThat(other.get().toMap()).containsEntry("nonce", "nonce-2");
+        }
+    }
+
+    /**
+     * Test that exceptions of the signer are passed to the invoker.
+     */
+    @Test
+    public void testSignerFails() {
+        var requestUrl = url("https://example.com/acme/req");
+
+        try (var pool = new SignerPool(Executors.newSingleThreadExecutor())) {
+            assertThatExceptionOfType(IllegalArgumentException.class)
+                    .isThrownBy(() -> pool.sign((url, claims, nonce) -> {
+                        throw new IllegalArgumentException("bad key");
+                    }, requestUrl, null, null))
+                    .withMessage("bad key");
+        }
+    }
+
+    /**
+     * Test that invalid pool sizes are rejected.
+     */
+    @Test
+    public void testInvalidPoolSize() {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> new SignerPool(0));
+    }
+
+}
@@ -0,0 +1,299 @@
+/*
+ * acme4j - Java ACME client
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://acme4j.shredzone.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ */
+package org.shredzone.acme4j.provider.failover;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.shredzone.acme4j.toolbox.TestUtils.createProblem;
+import static org.shredzone.acme4j.toolbox.TestUtils.url;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.shredzone.acme4j.Login;
+import org.shredzone.acme4j.Session;
+import org.shredzone.acme4j.connector.Connection;
+import org.shredzone.acme4j.connector.NetworkSettings;
+import org.shredzone.acme4j.exception.AcmeException;
+import org.shredzone.acme4j.exception.AcmeHttpException;
+import org.shredzone.acme4j.exception.AcmeNetworkException;
+import org.shredzone.acme4j.exception.AcmeProtocolException;
+import org.shredzone.acme4j.exception.AcmeRateLimitedException;
+import org.shredzone.acme4j.exception.AcmeServerException;
+import org.shredzone.acme4j.provider.AcmeProvider;
+import org.shredzone.acme4j.provider.failover.CircuitBreaker.State;
+import org.shredzone.acme4j.provider.letsencrypt.LetsEncryptAcmeProvider;
+
+/**
+ * Unit tests for {@link CircuitBreakerAcmeProvider}.
+ */
+public class CircuitBreakerAcmeProviderTest {
+    private static final URI SERVER_URI = URI.create("acme://example.com");
+    private static final URL REQUEST_URL = url("https://example.com/acme/1");
+
+    private AcmeProvider delegate;
+    private Connection delegateConnection;
+    private CircuitBreaker breaker;
+    private CircuitBreakerAcmeProvider provider;
+    private Session session;
+
+    @BeforeEach
+    public void setup() {
+        delegate = mock(AcmeProvider.class);
+        delegateConnection = mock(Connection.class);
+        when(delegate.accepts(SERVER_URI)).thenReturn(true);
+        when(delegate.connect(any(), any(), any())).thenReturn(delegateConnection);
+
+        breaker = new CircuitBreaker(0.5, Duration.ofSeconds(10L), 10, 2,
+                Duration.ofMinutes(1L));
+        provider = new CircuitBreakerAcmeProvider(delegate, breaker);
+        session = new Session(SERVER_URI, provider);
+    }
+
+    /**
+     * Test that the provider delegates to the wrapped provider.
+     */
+    @Test
+    public void testDelegation() {
+        assertThat(provider.accepts(SERVER_URI)).isTrue();
+        assertThat(provider.accepts(URI.create("acme://example.org"))).isFalse();
+        assertThat(provider.getDelegate()).isSameAs(delegate);
+        assertThat(provider.getCircuitBreaker()).isSameAs(breaker);
+        assertThat(new CircuitBreakerAcmeProvider(delegate).getCircuitBreaker()).isNotNull();
+    }
+
+    /**
+     * Test that a guarded session is created for a server URI.
+     */
+    @Test
+    public void testCreateSession() {
+        var guarded = CircuitBreakerAcmeProvider.createSession(
+                URI.create("acme://letsencrypt.org/staging"));
+        assertThat(guarded.provider()).isInstanceOf(CircuitBreakerAcmeProvider.class);
+        assertThat(((CircuitBreakerAcmeProvider) guarded.provider()).getDelegate())
+                .isInstanceOf(LetsEncryptAcmeProvider.class);
+
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> CircuitBreakerAcmeProvider.createSession(
+                        URI.create("acme://unknown.invalid")));
+    }
+
+    /**
+     * Test that network errors open the circuit, and further requests fail fast.
+     */
+    @Test
+    public void testNetworkFailure() throws AcmeException {
+        when(delegateConnection.sendRequest(REQUEST_URL, session, null))
+                .thenThrow(new AcmeNetworkException(new IOException("timeout")));
+
+        for (var ix = 0; ix < 2; ix++) {
+            try (var conn = session.connect()) {
+                assertThatExceptionOfType(AcmeNetworkException.class)
+                        .isThrownBy(() -> conn.sendRequest(REQUEST_URL, session, null))
+                        .withRootCauseInstanceOf(IOException.class);
+            }
+        }
+
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+
+        try (var conn = session.connect()) {
+            assertThatExceptionOfType(AcmeNetworkException.class)
+                    .isThrownBy(() -> conn.sendRequest(REQUEST_URL, session, null))
+                    .havingCause()
+                    .withMessage("Circuit breaker is open for acme://example.com");
+        }
+
+        verify(delegateConnection, times(2)).sendRequest(REQUEST_URL, session, null);
+        verify(delegateConnection, times(3)).close();
+    }
+
+    /**
+     * Test that successful requests and client errors keep the circuit closed.
+     */
+    @Test
+    public void testClientErrors() throws AcmeException {
+        var login = mock(Login.class);
+        when(delegateConnection.sendSignedPostAsGetRequest(REQUEST_URL, login))
+                .thenThrow(new AcmeServerException(createProblem(
+                        URI.create("urn:ietf:params:acme:error:malformed"), "bad", null)))
+                .thenReturn(200);
+
+        try (var conn = session.connect()) {
+            assertThatExceptionOfType(AcmeServerException.class)
+                    .isThrownBy(() -> conn.sendSignedPostAsGetRequest(REQUEST_URL, login));
+            assertThat(conn.sendSignedPostAsGetRequest(REQUEST_URL, login)).isEqualTo(200);
+        }
+
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+        assertThat(breaker.getFailureRate()).isZero();
+    }
+
+    /**
+     * Test that unparseable responses open the circuit, while other runtime exceptions
+     * are not recorded.
+     */
+    @Test
+    public void testRuntimeExceptions() throws AcmeException {
+        var login = mock(Login.class);
+        when(delegateConnection.sendSignedPostAsGetRequest(REQUEST_URL, login))
+                .thenThrow(new IllegalStateException("client bug"))
+                .thenThrow(new IllegalStateException("client bug"))
+                .thenThrow(new AcmeProtocolException("bad response"))
+                .thenThrow(new AcmeProtocolException("bad response"));
+
+        try (var conn = session.connect()) {
+            for (var ix = 0; ix < 2; ix++) {
+                assertThatExceptionOfType(IllegalStateException.class)
+                        .isThrownBy(() -> conn.sendSignedPostAsGetRequest(REQUEST_URL, login));
+            }
+            assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+            assertThat(breaker.getFailureRate()).isZero();
+
+            for (var ix = 0; ix < 2; ix++) {
+                assertThatExceptionOfType(AcmeProtocolException.class)
+                        .isThrownBy(() -> conn.sendSignedPostAsGetRequest(REQUEST_URL, login));
+            }
+            assertThat(breaker.getState()).isEqualTo(State.OPEN);
+        }
+    }
+
+    /**
+     * Test that a runtime exception does not use up the trial calls of a half open
+     * circuit.
+     */
+    @Test
+    public void testRuntimeExceptionHalfOpen() throws AcmeException {
+        var now = new AtomicLong();
+        breaker = new CircuitBreaker(0.5, Duration.ofSeconds(10L), 10, 2,
+                Duration.ofMinutes(1L), now::get);
+        provider = new CircuitBreakerAcmeProvider(delegate, breaker);
+        session = new Session(SERVER_URI, provider);
+
+        breaker.onFailure(Duration.ZERO);
+        breaker.onFailure(Duration.ZERO);
+        now.addAndGet(Duration.ofMinutes(2L).toNanos());
+        assertThat(breaker.getState()).isEqualTo(State.HALF_OPEN);
+
+        when(delegate.directory(session, SERVER_URI))
+                .thenThrow(new IllegalArgumentException("client bug"));
+
+        for (var ix = 0; ix < 5; ix++) {
+            assertThatExceptionOfType(IllegalArgumentException.class)
+                    .isThrownBy(() -> provider.directory(session, SERVER_URI));
+        }
+
+        assertThat(breaker.getState()).isEqualTo(State.HALF_OPEN);
+        assertThat(breaker.isCallPermitted()).isTrue();
+        verify(delegate, times(5)).directory(session, SERVER_URI);
+    }
+
+    /**
+     * Test that the directory request is guarded as well.
+     */
+    @Test
+    public void testDirectory() throws AcmeException {
+        when(delegate.directory(session, SERVER_URI))
+                .thenThrow(new AcmeHttpException("HTTP 503", 503));
+
+        for (var ix = 0; ix < 2; ix++) {
+            assertThatExceptionOfType(AcmeException.class)
+                    .isThrownBy(() -> provider.directory(session, SERVER_URI))
+                    .withMessage("HTTP 503");
+        }
+
+        assertThatExceptionOfType(AcmeNetworkException.class)
+                .isThrownBy(() -> provider.directory(session, SERVER_URI));
+        verify(delegate, times(2)).directory(session, SERVER_URI);
+    }
+
+    /**
+     * Test that lookups of a cached directory neither consume trial calls of a half open
+     * circuit, nor close it.
+     */
+    @Test
+    public void testCachedDirectoryHalfOpen() throws AcmeException {
+        var now = new AtomicLong();
+        breaker = new CircuitBreaker(0.5, Duration.ofSeconds(10L), 10, 2,
+                Duration.ofMinutes(1L), now::get);
+        provider = new CircuitBreakerAcmeProvider(delegate, breaker);
+        session = new Session(SERVER_URI, provider);
+
+        when(delegate.directory(session, SERVER_URI))
+                .thenThrow(new AcmeHttpException("HTTP 503", 503))
+                .thenThrow(new AcmeHttpException("HTTP 503", 503))
+                .thenReturn(null);
+
+        for (var ix = 0; ix < 2; ix++) {
+            assertThatExceptionOfType(AcmeException.class)
+                    .isThrownBy(() -> provider.directory(session, SERVER_URI));
+        }
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+
+        now.addAndGet(Duration.ofMinutes(2L).toNanos());
+        assertThat(breaker.getState()).isEqualTo(State.HALF_OPEN);
+
+        // The directory is cached now, the CA is not contacted
+        session.setDirectoryExpires(ZonedDateTime.now().plusHours(1L));
+        for (var ix = 0; ix < 5; ix++) {
+            assertThat(provider.directory(session, SERVER_URI)).isNull();
+        }
+
+        assertThat(breaker.getState()).isEqualTo(State.HALF_OPEN);
+        assertThat(breaker.isCallPermitted()).isTrue();
+        verify(delegate, times(7)).directory(session, SERVER_URI);
+    }
+
+    /**
+     * Test the classification of exceptions.
+     */
+    @Test
+    public void testIsCaFailure() {
+        var serverInternal = createProblem(
+                URI.create("urn:ietf:params:acme:error:serverInternal"), "oops", null);
+        var rateLimited = createProblem(
+                URI.create("urn:ietf:params:acme:error:rateLimited"), "slow down", null);
+
+        assertThat(CircuitBreakerAcmeProvider.isCaFailure(
+                new AcmeNetworkException(new IOException()))).isTrue();
+        assertThat(CircuitBreakerAcmeProvider.isCaFailure(
+                new AcmeServerException(serverInternal))).isTrue();
+        assertThat(CircuitBreakerAcmeProvider.isCaFailure(
+                new AcmeHttpException("HTTP 502", 502))).isTrue();
+        assertThat(CircuitBreakerAcmeProvider.isCaFailure(
+                new AcmeHttpException("HTTP 404", 404))).isFalse();
+        assertThat(CircuitBreakerAcmeProvider.isCaFailure(
+                new AcmeException("No healthy CA available"))).isFalse();
+        assertThat(CircuitBreakerAcmeProvider.isCaFailure(
+                new AcmeRateLimitedException(rateLimited, null, null))).isFalse();
+    }
+
+    /**
+     * Test that the HttpClient is created by the wrapped provider.
+     */
+    @Test
+    public void testCreateHttpClient() {
+        var settings = new NetworkSettings();
+        provider.createHttpClient(settings);
+        verify(delegate).createHttpClient(settings);
+    }
+
+}
@@ -0,0 +1,186 @@
+/*
+ * acme4j - Java ACME client
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://acme4j.shredzone.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ */
+package org.shredzone.acme4j.provider.failover;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.shredzone.acme4j.provider.failover.CircuitBreaker.State;
+
+/**
+ * Unit tests for {@link CircuitBreaker}.
+ */
+public class CircuitBreakerTest {
+    private static final Duration FAST = Duration.ofMillis(100L);
+    private static final Duration SLOW = Duration.ofSeconds(20L);
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000_000L);
+
+    /**
+     * Test that the circuit stays closed while the failure rate is below the threshold.
+     */
+    @Test
+    public void testClosed() {
+        var breaker = createBreaker();
+
+        for (var ix = 0; ix < 10; ix++) {
+            assertThat(breaker.tryAcquire()).isTrue();
+            if (ix % 3 == 2) {
+                breaker.onFailure(FAST);
+            } else {
+                breaker.onSuccess(FAST);
+            }
+        }
+
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+        assertThat(breaker.getFailureRate()).isEqualTo(0.3);
+        assertThat(breaker.getAverageLatency()).isEqualTo(FAST);
+    }
+
+    /**
+     * Test that the circuit is not opened before the minimum number of calls.
+     */
+    @Test
+    public void testMinimumCalls() {
+        var breaker = createBreaker();
+
+        for (var ix = 0; ix < 3; ix++) {
+            breaker.onFailure(FAST);
+        }
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+
+        breaker.onFailure(FAST);
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+        assertThat(breaker.isCallPermitted()).isFalse();
+    }
+
+    /**
+     * Test that slow calls are regarded as failures.
+     */
+    @Test
+    public void testSlowCalls() {
+        var breaker = createBreaker();
+
+        for (var ix = 0; ix < 4; ix++) {
+            breaker.onSuccess(SLOW);
+        }
+
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+    }
+
+    /**
+     * Test that the circuit is closed again after successful trial calls.
+     */
+    @Test
+    public void testHalfOpenRecovery() {
+        var breaker = createBreaker();
+        open(breaker);
+
+        clock.addAndGet(Duration.ofSeconds(29L).toNanos());
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+
+        clock.addAndGet(Duration.ofSeconds(1L).toNanos());
+        assertThat(breaker.getState()).isEqualTo(State.HALF_OPEN);
+
+        // only three trial calls are permitted
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse();
+        assertThat(breaker.isCallPermitted()).isFalse();
+
+        breaker.onSuccess(FAST);
+        breaker.onSuccess(FAST);
+        assertThat(breaker.getState()).isEqualTo(State.HALF_OPEN);
+        breaker.onSuccess(FAST);
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+        assertThat(breaker.getFailureRate()).isZero();
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    /**
+     * Test that the circuit is opened again if a trial call fails.
+     */
+    @Test
+    public void testHalfOpenFailure() {
+        var breaker = createBreaker();
+        open(breaker);
+
+        clock.addAndGet(Duration.ofSeconds(30L).toNanos());
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onFailure(FAST);
+
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    /**
+     * Test that released trial calls are available again, and are not recorded.
+     */
+    @Test
+    public void testHalfOpenRelease() {
+        var breaker = createBreaker();
+        open(breaker);
+
+        clock.addAndGet(Duration.ofSeconds(30L).toNanos());
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.isCallPermitted()).isFalse();
+
+        breaker.release();
+        assertThat(breaker.getState()).isEqualTo(State.HALF_OPEN);
+        assertThat(breaker.isCallPermitted()).isTrue();
+
+        breaker.onSuccess(FAST);
+        breaker.onSuccess(FAST);
+        assertThat(breaker.getState()).isEqualTo(State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onSuccess(FAST);
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+
+        // releasing a call of a closed circuit has no effect
+        breaker.release();
+        assertThat(breaker.getFailureRate()).isZero();
+    }
+
+    /**
+     * Test that invalid parameters are rejected.
+     */
+    @Test
+    public void testInvalidParameters() {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> new CircuitBreaker(0.0, SLOW, 10, 4, SLOW));
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> new CircuitBreaker(0.5, SLOW, 10, 11, SLOW));
+    }
+
+    private CircuitBreaker createBreaker() {
+        return new CircuitBreaker(0.5, Duration.ofSeconds(10L), 10, 4,
+                Duration.ofSeconds(30L), clock::get);
+    }
+
+    private void open(CircuitBreaker breaker) {
+        for (var ix = 0; ix < 4; ix++) {
+            breaker.onFailure(FAST);
+        }
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+    }
+
+}
@@ -0,0 +1,170 @@
+/*
+ * acme4j - Java ACME client
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://acme4j.shredzone.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ */
+package org.shredzone.acme4j.provider.failover;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.shredzone.acme4j.toolbox.TestUtils.createKeyPair;
+import static org.shredzone.acme4j.toolbox.TestUtils.createProblem;
+import static org.shredzone.acme4j.toolbox.TestUtils.url;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.shredzone.acme4j.Login;
+import org.shredzone.acme4j.Session;
+import org.shredzone.acme4j.exception.AcmeException;
+import org.shredzone.acme4j.exception.AcmeHttpException;
+import org.shredzone.acme4j.exception.AcmeNetworkException;
+import org.shredzone.acme4j.exception.AcmeRateLimitedException;
+import org.shredzone.acme4j.exception.AcmeServerException;
+import org.shredzone.acme4j.provider.AcmeProvider;
+
+/**
+ * Unit tests for {@link FailoverRouter}.
+ */
+public class FailoverRouterTest {
+    private static final URI PRIMARY_URI = URI.create("acme://primary.example.com");
+    private static final URI SECONDARY_URI = URI.create("acme://secondary.example.com");
+
+    private CircuitBreaker primaryBreaker;
+    private Login primary;
+    private Login secondary;
+    private FailoverRouter router;
+
+    @BeforeEach
+    public void setup() {
+        primaryBreaker = new CircuitBreaker(0.5, Duration.ofSeconds(10L), 10, 1,
+                Duration.ofMinutes(1L));
+        primary = createLogin(PRIMARY_URI, primaryBreaker);
+        secondary = createLogin(SECONDARY_URI, new CircuitBreaker());
+        router = new FailoverRouter().add(primary).add(secondary);
+    }
+
+    /**
+     * Test that the first healthy CA is selected.
+     */
+    @Test
+    public void testSelect() {
+        assertThat(router.getLogins()).containsExactly(primary, secondary);
+        assertThat(router.select()).containsSame(primary);
+
+        primaryBreaker.onFailure(Duration.ZERO);
+        assertThat(router.select()).containsSame(secondary);
+    }
+
+    /**
+     * Test that the action fails over to the next CA on CA failures.
+     */
+    @Test
+    public void testFailover() throws AcmeException {
+        var invoked = new ArrayList<Login>();
+
+        var result = router.execute(login -> {
+            invoked.add(login);
+            if (login == primary) {
+                throw new AcmeNetworkException(new IOException("timeout"));
+            }
+            return "ok";
+        });
+
+        assertThat(result).isEqualTo("ok");
+        assertThat(invoked).containsExactly(primary, secondary);
+    }
+
+    /**
+     * Test that the action fails over to the next CA if the account is rate limited.
+     */
+    @Test
+    public void testFailoverOnRateLimit() throws AcmeException {
+        var problem = createProblem(URI.create("urn:ietf:params:acme:error:rateLimited"),
+                "slow down", null);
+
+        var result = router.execute(login -> {
+            if (login == primary) {
+                throw new AcmeRateLimitedException(problem, null, null);
+            }
+            return login;
+        });
+
+        assertThat(result).isSameAs(secondary);
+    }
+
+    /**
+     * Test that client errors are not failed over.
+     */
+    @Test
+    public void testNoFailoverOnClientError() {
+        var problem = createProblem(URI.create("urn:ietf:params:acme:error:rejectedIdentifier"),
+                "no way", null);
+        var invoked = new ArrayList<Login>();
+
+        assertThatExceptionOfType(AcmeServerException.class)
+                .isThrownBy(() -> router.execute(login -> {
+                    invoked.add(login);
+                    throw new AcmeServerException(problem);
+                }));
+
+        assertThat(invoked).containsExactly(primary);
+    }
+
+    /**
+     * Test that degraded CAs are skipped, and an exception is thrown if no CA is left.
+     */
+    @Test
+    public void testAllDegraded() {
+        primaryBreaker.onFailure(Duration.ZERO);
+
+        assertThatExceptionOfType(AcmeException.class)
+                .isThrownBy(() -> router.execute(login -> {
+                    assertThat(login).isSameAs(secondary);
+                    throw new AcmeHttpException("HTTP 503", 503);
+                }))
+                .withMessage("HTTP 503");
+
+        var router2 = new FailoverRouter().add(primary);
+        assertThatExceptionOfType(AcmeException.class)
+                .isThrownBy(() -> router2.execute(login -> login))
+                .withMessage("No healthy CA available");
+    }
+
+    /**
+     * Test that only logins with a circuit breaker are accepted.
+     */
+    @Test
+    public void testAddWithoutCircuitBreaker() {
+        var provider = mock(AcmeProvider.class);
+        when(provider.accepts(PRIMARY_URI)).thenReturn(true);
+        var login = new Login(url("https://primary.example.com/acct/1"), createKeyPair(),
+                new Session(PRIMARY_URI, provider));
+
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> router.add(login));
+    }
+
+    private static Login createLogin(URI serverUri, CircuitBreaker breaker) {
+        var delegate = mock(AcmeProvider.class);
+        when(delegate.accepts(serverUri)).thenReturn(true);
+        var session = new Session(serverUri, new CircuitBreakerAcmeProvider(delegate, breaker));
+        return new Login(url("https://" + serverUri.getHost() + "/acct/1"), createKeyPair(),
+                session);
+    }
+
+}
@@ -0,0 +1,176 @@
+/*
+ * acme4j - Java ACME client
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://acme4j.shredzone.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ */
+package org.shredzone.acme4j.responder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIOException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.shredzone.acme4j.toolbox.TestUtils.url;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.shredzone.acme4j.Authorization;
+import org.shredzone.acme4j.Identifier;
+import org.shredzone.acme4j.Status;
+import org.shredzone.acme4j.challenge.Challenge;
+import org.shredzone.acme4j.challenge.Dns01Challenge;
+
+/**
+ * Unit tests for {@link DnsBatchValidator}.
+ */
+public class DnsBatchValidatorTest {
+
+    /**
+     * Test that all records are provisioned per zone, and the challenges are triggered.
+     */
+    @Test
+    public void testValidate() throws Exception {
+        var auths = new ArrayList<Authorization>();
+        var challenges = new ArrayList<Dns01Challenge>();
+        for (var ix = 0; ix < 10; ix++) {
+            var challenge = mockChallenge(Status.VALID);
+            challenges.add(challenge);
+            auths.add(mockAuthorization("www" + ix + ".example.org", Status.PENDING, challenge));
+        }
+        var otherChallenge = mockChallenge(Status.VALID);
+        challenges.add(otherChallenge);
+        auths.add(mockAuthorization("example.com", Status.PENDING, otherChallenge));
+
+        var validChallenge = mockChallenge(Status.VALID);
+        auths.add(mockAuthorization("valid.example.org", Status.VALID, validChallenge));
+
+        var provisioner = new TrackingProvisioner();
+        var failed = new DnsBatchValidator(provisioner).validate(auths, Duration.ofMinutes(1));
+
+        assertThat(failed).isEmpty();
+        assertThat(provisioner.zones).containsExactly("example.org.", "example.com.");
+        assertThat(provisioner.getProvisionCount()).isEqualTo(2);
+        assertThat(provisioner.propagationChecks).isEqualTo(1);
+        assertThat(provisioner.getCleanupCount()).isEqualTo(2);
+        assertThat(provisioner.size()).isZero();
+
+        for (var challenge : challenges) {
+            verify(challenge).trigger();
+        }
+        verify(validChallenge, never()).trigger();
+    }
+
+    /**
+     * Test that failed authorizations are returned, and records are removed.
+     */
+    @Test
+    public void testFailedValidation() throws Exception {
+        var goodAuth = mockAuthorization("www.example.org", Status.PENDING, mockChallenge(Status.VALID));
+        var badAuth = mockAuthorization("bad.example.org", Status.PENDING, mockChallenge(Status.INVALID));
+
+        var noDnsAuth = mock(Authorization.class);
+        when(noDnsAuth.getStatus()).thenReturn(Status.PENDING);
+        when(noDnsAuth.getIdentifier()).thenReturn(Identifier.dns("nodns.example.org"));
+        when(noDnsAuth.<Challenge>findChallenge(Dns01Challenge.TYPE)).thenReturn(Optional.empty());
+
+        var provisioner = new InMemoryDnsProvisioner();
+        var failed = new DnsBatchValidator(provisioner)
+                .validate(List.of(goodAuth, badAuth, noDnsAuth), Duration.ofMinutes(1));
+
+        assertThat(failed).containsExactlyInAnyOrder(badAuth, noDnsAuth);
+        assertThat(provisioner.getProvisionCount()).isEqualTo(1);
+        assertThat(provisioner.size()).isZero();
+    }
+
+    /**
+     * Test that records are removed if they did not propagate.
+     */
+    @Test
+    public void testPropagationFailed() throws Exception {
+        var challenge = mockChallenge(Status.VALID);
+        var auth = mockAuthorization("www.example.org", Status.PENDING, challenge);
+
+        var provisioner = new InMemoryDnsProvisioner() {
+            @Override
+            public void provision(String zone, Collection<DnsRecord> newRecords) {
+                super.provision(zone, List.of());
+            }
+        };
+
+        assertThatIOException()
+                .isThrownBy(() -> new DnsBatchValidator(provisioner)
+                        .validate(List.of(auth), Duration.ofMinutes(1)));
+        assertThat(provisioner.getCleanupCount()).isEqualTo(1);
+        verify(challenge, never()).trigger();
+    }
+
+    /**
+     * Test the default zone detection.
+     */
+    @Test
+    public void testZoneOf() {
+        var provisioner = new InMemoryDnsProvisioner();
+        assertThat(provisioner.zoneOf("_acme-challenge.www.example.org.")).isEqualTo("example.org.");
+        assertThat(provisioner.zoneOf("_acme-challenge.example.org.")).isEqualTo("example.org.");
+        assertThat(provisioner.zoneOf("example.org")).isEqualTo("example.org.");
+    }
+
+    private static Dns01Challenge mockChallenge(Status result) throws Exception {
+        var challenge = mock(Dns01Challenge.class);
+        when(challenge.getRRName(any(Identifier.class))).thenAnswer(inv ->
+                Dns01Challenge.RECORD_NAME_PREFIX + '.'
+                        + inv.getArgument(0, Identifier.class).getDomain() + '.');
+        when(challenge.getDigest()).thenReturn("digest-" + result);
+        when(challenge.waitForCompletion(any())).thenReturn(result);
+        when(challenge.getStatus()).thenReturn(result);
+        return challenge;
+    }
+
+    private static Authorization mockAuthorization(String domain, Status status,
+                Dns01Challenge challenge) {
+        var auth = mock(Authorization.class);
+        when(auth.getStatus()).thenReturn(status);
+        when(auth.getIdentifier()).thenReturn(Identifier.dns(domain));
+        when(auth.getLocation()).thenReturn(url("https://example.com/acme/authz/" + domain));
+        when(auth.<Challenge>findChallenge(Dns01Challenge.TYPE)).thenReturn(Optional.of(challenge));
+        return auth;
+    }
+
+    /**
+     * An {@link InMemoryDnsProvisioner} that tracks the zones and propagation checks.
+     */
+    private static class TrackingProvisioner extends InMemoryDnsProvisioner {
+        private final List<String> zones = new ArrayList<>();
+        private int propagationChecks = 0;
+
+        @Override
+        public void provision(String zone, Collection<DnsRecord> newRecords) {
+            zones.add(zone);
+            super.provision(zone, newRecords);
+        }
+
+        @Override
+        public void awaitPropagation(Collection<DnsRecord> expected, Duration timeout)
+                throws IOException {
+            propagationChecks++;
+            super.awaitPropagation(expected, timeout);
+        }
+    }
+
+}
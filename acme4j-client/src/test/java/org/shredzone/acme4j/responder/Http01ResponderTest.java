@@ -0,0 +1,211 @@
+/*
+ * acme4j - Java ACME client
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://acme4j.shredzone.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ */
+package org.shredzone.acme4j.responder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.shredzone.acme4j.Status;
+import org.shredzone.acme4j.challenge.Http01Challenge;
+
+/**
+ * Unit tests for {@link Http01Responder}.
+ */
+public class Http01ResponderTest {
+    private static final String TOKEN = "rSoI9JpyvFi-ltdnBW0W1DjKstzG7cHixjzcOjwzAEQ";
+    private static final String CONTENT = TOKEN + ".HnWjTDnyqlCrm6tZ-6wX-TrEXgRdeNu9G71gqxSO6o0";
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+
+    private Http01Responder responder;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        responder = Http01Responder.start(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        if (responder != null) {
+            responder.close();
+        }
+    }
+
+    /**
+     * Test that registered tokens are served, and removed when the registration is
+     * closed.
+     */
+    @Test
+    public void testServeToken() throws Exception {
+        try (var registration = responder.register(TOKEN, CONTENT)) {
+            assertThat(registration.getToken()).isEqualTo(TOKEN);
+            assertThat(responder.size()).isEqualTo(1);
+
+            var response = get(Http01Responder.PATH_PREFIX + TOKEN);
+            assertThat(response.statusCode()).isEqualTo(200);
+            assertThat(response.body()).isEqualTo(CONTENT);
+            assertThat(response.headers().firstValue("Content-Type")).contains("text/plain");
+
+            var head = client.send(request(Http01Responder.PATH_PREFIX + TOKEN)
+                    .method("HEAD", HttpRequest.BodyPublishers.noBody())
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            assertThat(head.statusCode()).isEqualTo(200);
+            assertThat(head.body()).isEmpty();
+        }
+
+        assertThat(responder.size()).isZero();
+        assertThat(get(Http01Responder.PATH_PREFIX + TOKEN).statusCode()).isEqualTo(404);
+    }
+
+    /**
+     * Test that other requests are rejected.
+     */
+    @Test
+    public void testRejectOtherRequests() throws Exception {
+        responder.register(TOKEN, CONTENT);
+
+        assertThat(get(Http01Responder.PATH_PREFIX + "unknown").statusCode()).isEqualTo(404);
+        assertThat(get("/" + TOKEN).statusCode()).isEqualTo(404);
+
+        var post = client.send(request(Http01Responder.PATH_PREFIX + TOKEN)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertThat(post.statusCode()).isEqualTo(405);
+
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> responder.register("../etc/passwd", CONTENT));
+    }
+
+    /**
+     * Test that a registration does not remove a newer registration of the same token.
+     */
+    @Test
+    public void testReRegister() throws Exception {
+        var first = responder.register(TOKEN, CONTENT);
+        var second = responder.register(TOKEN, CONTENT);
+
+        first.close();
+        assertThat(get(Http01Responder.PATH_PREFIX + TOKEN).body()).isEqualTo(CONTENT);
+
+        second.close();
+        assertThat(responder.size()).isZero();
+    }
+
+    /**
+     * Test that completed challenges are purged.
+     */
+    @Test
+    public void testPurgeCompleted() throws Exception {
+        var status = new AtomicReference<>(Status.PENDING);
+        var challenge = mock(Http01Challenge.class);
+        when(challenge.getToken()).thenReturn(TOKEN);
+        when(challenge.getAuthorization()).thenReturn(CONTENT);
+        when(challenge.getStatus()).thenAnswer(inv -> status.get());
+
+        responder.register(challenge);
+        assertThat(get(Http01Responder.PATH_PREFIX + TOKEN).body()).isEqualTo(CONTENT);
+
+        // stop the responder, so the challenge is not purged automatically
+        var stopped = responder;
+        stopped.close();
+        responder = null;
+
+        assertThat(stopped.purgeCompleted()).isZero();
+        assertThat(stopped.size()).isEqualTo(1);
+
+        status.set(Status.VALID);
+        assertThat(stopped.purgeCompleted()).isEqualTo(1);
+        assertThat(stopped.size()).isZero();
+    }
+
+    /**
+     * Test that completed challenges are removed automatically.
+     */
+    @Test
+    public void testAutoPurge() throws Exception {
+        var status = new AtomicReference<>(Status.PENDING);
+        var challenge = mock(Http01Challenge.class);
+        when(challenge.getToken()).thenReturn(TOKEN);
+        when(challenge.getAuthorization()).thenReturn(CONTENT);
+        when(challenge.getStatus()).thenAnswer(inv -> status.get());
+
+        responder.register(challenge);
+        assertThat(get(Http01Responder.PATH_PREFIX + TOKEN).body()).isEqualTo(CONTENT);
+
+        status.set(Status.INVALID);
+        for (var ix = 0; ix < 50 && responder.size() > 0; ix++) {
+            Thread.sleep(100L);
+        }
+        assertThat(responder.size()).isZero();
+        assertThat(get(Http01Responder.PATH_PREFIX + TOKEN).statusCode()).isEqualTo(404);
+    }
+
+    /**
+     * Test that many concurrent requests are served.
+     */
+    @Test
+    public void testConcurrentRequests() throws Exception {
+        var tokens = new ArrayList<String>();
+        for (var ix = 0; ix < 100; ix++) {
+            var token = "token" + ix;
+            responder.register(token, token + ".content");
+            tokens.add(token);
+        }
+
+        var futures = new ArrayList<CompletableFuture<HttpResponse<String>>>();
+        for (var round = 0; round < 5; round++) {
+            for (var token : tokens) {
+                futures.add(client.sendAsync(request(Http01Responder.PATH_PREFIX + token).build(),
+                        HttpResponse.BodyHandlers.ofString()));
+            }
+        }
+
+        for (var future : futures) {
+            var response = future.join();
+            var path = response.uri().getPath();
+            var token = path.substring(Http01Responder.PATH_PREFIX.length());
+            assertThat(response.statusCode()).isEqualTo(200);
+            assertThat(response.body()).isEqualTo(token + ".content");
+        }
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return client.send(request(path).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest.Builder request(String path) throws Exception {
+        var address = responder.getAddress();
+        return HttpRequest.newBuilder(URI.create("http://"
+                + address.getAddress().getHostAddress() + ':' + address.getPort() + path));
+    }
+
+}
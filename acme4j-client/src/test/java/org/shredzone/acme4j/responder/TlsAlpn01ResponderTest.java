@@ -0,0 +1,276 @@
+/*
+ * acme4j - Java ACME client
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://acme4j.shredzone.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ */
+package org.shredzone.acme4j.responder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.shredzone.acme4j.toolbox.TestUtils.getJSON;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.net.ssl.SNIHostName;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLException;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.shredzone.acme4j.Identifier;
+import org.shredzone.acme4j.Login;
+import org.shredzone.acme4j.Status;
+import org.shredzone.acme4j.challenge.TlsAlpn01Challenge;
+import org.shredzone.acme4j.toolbox.TestUtils;
+
+/**
+ * Unit tests for {@link TlsAlpn01Responder}.
+ */
+public class TlsAlpn01ResponderTest {
+    private static final String DOMAIN = "example.org";
+
+    private final Login login = TestUtils.login();
+    private TlsAlpn01Responder responder;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        responder = TlsAlpn01Responder.start(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+                TestUtils.createDomainKeyPair());
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        if (responder != null) {
+            responder.close();
+        }
+    }
+
+    /**
+     * Test that the validation certificate is served, and cached.
+     */
+    @Test
+    public void testServeCertificate() throws Exception {
+        var challenge = new TlsAlpn01Challenge(login, getJSON("tlsAlpnChallenge"));
+
+        try (var registration = responder.register(challenge, Identifier.dns(DOMAIN))) {
+            assertThat(registration.getServerName()).isEqualTo(DOMAIN);
+            assertThat(responder.size()).isEqualTo(1);
+
+            var cert1 = handshake(DOMAIN, TlsAlpn01Challenge.ACME_TLS_1_PROTOCOL);
+            var extension = cert1.getExtensionValue(TlsAlpn01Challenge.ACME_VALIDATION_OID);
+            assertThat(Arrays.copyOfRange(extension, extension.length - 32, extension.length))
+                    .isEqualTo(challenge.getAcmeValidation());
+            assertThat(cert1.getSubjectAlternativeNames())
+                    .containsExactly(List.of(2, DOMAIN));
+
+            var cert2 = handshake(DOMAIN, TlsAlpn01Challenge.ACME_TLS_1_PROTOCOL);
+            assertThat(cert2).isEqualTo(cert1);
+        }
+
+        assertThat(responder.size()).isZero();
+        assertThatExceptionOfType(SSLException.class)
+                .isThrownBy(() -> handshake(DOMAIN, TlsAlpn01Challenge.ACME_TLS_1_PROTOCOL));
+    }
+
+    /**
+     * Test that handshakes without acme-tls/1 protocol or unknown server names are
+     * rejected.
+     */
+    @Test
+    public void testRejectHandshakes() {
+        var challenge = new TlsAlpn01Challenge(login, getJSON("tlsAlpnChallenge"));
+        responder.register(challenge, Identifier.dns(DOMAIN));
+
+        assertThatExceptionOfType(SSLException.class)
+                .isThrownBy(() -> handshake(DOMAIN, "http/1.1"));
+        assertThatExceptionOfType(SSLException.class)
+                .isThrownBy(() -> handshake("www.example.org", TlsAlpn01Challenge.ACME_TLS_1_PROTOCOL));
+    }
+
+    /**
+     * Test that completed challenges are purged.
+     */
+    @Test
+    public void testPurgeCompleted() throws Exception {
+        var status = new AtomicReference<>(Status.PENDING);
+        var challenge = mock(TlsAlpn01Challenge.class);
+        when(challenge.getStatus()).thenAnswer(inv -> status.get());
+
+        // stop the responder, so the challenge is not purged automatically
+        var stopped = responder;
+        stopped.close();
+        responder = null;
+
+        stopped.register(challenge, Identifier.dns(DOMAIN));
+        assertThat(stopped.purgeCompleted()).isZero();
+        assertThat(stopped.size()).isEqualTo(1);
+
+        status.set(Status.INVALID);
+        assertThat(stopped.purgeCompleted()).isEqualTo(1);
+        assertThat(stopped.size()).isZero();
+    }
+
+    /**
+     * Test that completed challenges are removed automatically.
+     */
+    @Test
+    public void testAutoPurge() throws Exception {
+        var status = new AtomicReference<>(Status.PENDING);
+        var challenge = mock(TlsAlpn01Challenge.class);
+        when(challenge.getStatus()).thenAnswer(inv -> status.get());
+
+        responder.register(challenge, Identifier.dns(DOMAIN));
+        assertThat(responder.size()).isEqualTo(1);
+
+        status.set(Status.VALID);
+        for (var ix = 0; ix < 50 && responder.size() > 0; ix++) {
+            Thread.sleep(100L);
+        }
+        assertThat(responder.size()).isZero();
+    }
+
+    /**
+     * Test that connections are closed if the handshake is not completed in time, even
+     * if the client keeps sending data.
+     */
+    @Test
+    public void testHandshakeTimeout() throws Exception {
+        responder.close();
+        responder = TlsAlpn01Responder.start(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+                TestUtils.createDomainKeyPair(), Duration.ofSeconds(1L));
+
+        var address = responder.getAddress();
+        try (var socket = new Socket(address.getAddress(), address.getPort())) {
+            socket.setSoTimeout(10_000);
+            var out = socket.getOutputStream();
+
+            // header of a handshake record that is never completed
+            out.write(new byte[] {0x16, 0x03, 0x01, 0x40, 0x00});
+            out.flush();
+
+            var trickle = new Thread(() -> {
+                try {
+                    for (var ix = 0; ix < 100; ix++) {
+                        Thread.sleep(200L);
+                        out.write(0);
+                        out.flush();
+                    }
+                } catch (IOException | InterruptedException ex) {
+                    // connection was closed
+                }
+            });
+            trickle.setDaemon(true);
+            trickle.start();
+
+            var start = System.nanoTime();
+            try {
+                while (socket.getInputStream().read() >= 0) {
+                    // skip alerts
+                }
+            } catch (IOException ex) {
+                // connection was reset
+            }
+            assertThat(Duration.ofNanos(System.nanoTime() - start))
+                    .isLessThan(Duration.ofSeconds(5L));
+            trickle.interrupt();
+        }
+    }
+
+    /**
+     * Test that invalid handshake timeouts are rejected.
+     */
+    @Test
+    public void testInvalidHandshakeTimeout() throws Exception {
+        var address = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+        var keyPair = TestUtils.createDomainKeyPair();
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> TlsAlpn01Responder.start(address, keyPair, Duration.ZERO));
+    }
+
+    /**
+     * Test the server names of identifiers.
+     */
+    @Test
+    public void testServerName() {
+        assertThat(TlsAlpn01Responder.serverName(Identifier.dns("WWW.Example.ORG")))
+                .isEqualTo("www.example.org");
+        assertThat(TlsAlpn01Responder.serverName(Identifier.ip("192.0.2.1")))
+                .isEqualTo("1.2.0.192.in-addr.arpa");
+        assertThat(TlsAlpn01Responder.serverName(Identifier.ip("2001:db8::1")))
+                .isEqualTo("1.0.0.0.0.0.0.0.0.0.0.0.0.0.0.0.0.0.0.0.0.0.0.0.8.b.d.0.1.0.0.2.ip6.arpa");
+    }
+
+    /**
+     * Performs a TLS handshake with the responder.
+     *
+     * @param serverName
+     *         SNI server name to request
+     * @param protocol
+     *         ALPN protocol to offer
+     * @return Certificate that was presented by the responder
+     */
+    private X509Certificate handshake(String serverName, String protocol) throws Exception {
+        var sslContext = SSLContext.getInstance("TLS");
+        sslContext.init(null, new TrustManager[] {new TrustAllManager()}, null);
+
+        var address = responder.getAddress();
+        try (var socket = (SSLSocket) sslContext.getSocketFactory()
+                .createSocket(address.getAddress(), address.getPort())) {
+            socket.setSoTimeout(10_000);
+            var params = socket.getSSLParameters();
+            params.setServerNames(List.of(new SNIHostName(serverName)));
+            params.setApplicationProtocols(new String[] {protocol});
+            socket.setSSLParameters(params);
+            socket.startHandshake();
+
+            assertThat(socket.getApplicationProtocol()).isEqualTo(protocol);
+            return (X509Certificate) socket.getSession().getPeerCertificates()[0];
+        }
+    }
+
+    /**
+     * Accepts all certificates, as the validation certificates are self-signed.
+     */
+    private static class TrustAllManager implements X509TrustManager {
+        @Override
+        public void checkClientTrusted(X509Certificate[] chain, String authType) {
+            // accept all
+        }
+
+        @Override
+        public void checkServerTrusted(X509Certificate[] chain, String authType) {
+            // accept all
+        }
+
+        @Override
+        public X509Certificate[] getAcceptedIssuers() {
+            return new X509Certificate[0];
+        }
+    }
+
+}
@@ -27,6 +27,7 @@ import java.lang.reflect.Modifier;
 import java.net.URI;
 import java.security.Security;
 import java.security.cert.CertificateEncodingException;
+import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Locale;
 import java.util.stream.Stream;
@@ -41,6 +42,7 @@ import org.junit.jupiter.params.provider.MethodSource;
 import org.junit.jupiter.params.provider.NullSource;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.shredzone.acme4j.exception.AcmeProtocolException;
+import org.shredzone.acme4j.util.CertificateUtils;
 
 /**
  * Unit tests for {@link AcmeUtils}.
@@ -324,4 +326,26 @@ public class AcmeUtilsTest {
                 "only hfields are accepted");
     }
 
+    /**
+     * Test that the renewal unique identifier is computed and cached.
+     */
+    @Test
+    public void testGetRenewalUniqueIdentifier() throws Exception {
+        var cert = TestUtils.createCertificate("/certid-cert.pem").get(0);
+        var id = getRenewalUniqueIdentifier(cert);
+        assertThat(id).isEqualTo("aYhba4dGQEHhs3uEe6CuLN4ByNQ.AIdlQyE");
+        assertThat(getRenewalUniqueIdentifier(cert)).isSameAs(id);
+        assertThat(getRenewalUniqueIdentifier(cert.getEncoded())).isEqualTo(id);
+
+        var root = CertificateUtils.createTestRootCertificate("CN=Test Root",
+                Instant.now(), Instant.now().plus(1L, ChronoUnit.DAYS),
+                TestUtils.createKeyPair());
+        var ex = assertThrows(AcmeProtocolException.class,
+                () -> getRenewalUniqueIdentifier(root));
+        assertThat(ex.getCause()).hasMessage("Missing or invalid Authority Key Identifier");
+
+        assertThrows(AcmeProtocolException.class,
+                () -> getRenewalUniqueIdentifier(new byte[] {0x30, 0x00}));
+    }
+
 }
@@ -0,0 +1,64 @@
+/*
+ * acme4j - Java ACME client
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://acme4j.shredzone.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ */
+package org.shredzone.acme4j.toolbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.io.IOException;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link CertificateInterner}.
+ */
+public class CertificateInternerTest {
+
+    /**
+     * Test that identical certificates are interned.
+     */
+    @Test
+    public void testIntern() throws IOException {
+        var chain1 = TestUtils.createCertificate("/cert.pem");
+        var chain2 = TestUtils.createCertificate("/cert.pem");
+
+        var interned1 = CertificateInterner.intern(chain1.get(1));
+        var interned2 = CertificateInterner.intern(chain2.get(1));
+        assertThat(interned2).isSameAs(interned1);
+
+        var other = TestUtils.createCertificate("/certid-cert.pem").get(0);
+        assertThat(CertificateInterner.intern(other)).isNotSameAs(interned1);
+    }
+
+    /**
+     * Test that only the issuer certificates of a chain are interned.
+     */
+    @Test
+    public void testInternIssuers() throws IOException {
+        var chain1 = CertificateInterner.internIssuers(TestUtils.createCertificate("/cert.pem"));
+        var original2 = TestUtils.createCertificate("/cert.pem");
+        var chain2 = CertificateInterner.internIssuers(original2);
+
+        assertThat(chain2).hasSize(2);
+        assertThat(chain2.get(0)).isSameAs(original2.get(0));
+        assertThat(chain2.get(1)).isSameAs(chain1.get(1));
+
+        assertThatExceptionOfType(UnsupportedOperationException.class)
+                .isThrownBy(() -> chain2.remove(0));
+
+        var single = TestUtils.createCertificate("/certid-cert.pem");
+        assertThat(CertificateInterner.internIssuers(single)).containsExactlyElementsOf(single);
+    }
+
+}
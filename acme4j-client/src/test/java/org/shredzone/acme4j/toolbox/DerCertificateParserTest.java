@@ -0,0 +1,102 @@
+/*
+ * acme4j - Java ACME client
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://acme4j.shredzone.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ */
+package org.shredzone.acme4j.toolbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.security.Security;
+import java.security.cert.X509Certificate;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import org.bouncycastle.asn1.x509.AuthorityKeyIdentifier;
+import org.bouncycastle.cert.X509CertificateHolder;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.shredzone.acme4j.util.CertificateUtils;
+
+/**
+ * Unit tests for {@link DerCertificateParser}.
+ */
+public class DerCertificateParserTest {
+
+    @BeforeAll
+    public static void setup() {
+        Security.addProvider(new BouncyCastleProvider());
+    }
+
+    /**
+     * Test that the DER walker finds the same identifier as Bouncy Castle.
+     */
+    @ParameterizedTest
+    @MethodSource("certificates")
+    public void testSameAsBouncyCastle(X509Certificate certificate) throws Exception {
+        var holder = new X509CertificateHolder(certificate.getEncoded());
+        var aki = AuthorityKeyIdentifier.fromExtensions(holder.getExtensions());
+        var serial = holder.toASN1Structure().getSerialNumber().getEncoded();
+        var expected = AcmeUtils.base64UrlEncode(aki.getKeyIdentifier())
+                + '.' + AcmeUtils.base64UrlEncode(Arrays.copyOfRange(serial, 2, serial.length));
+
+        assertThat(DerCertificateParser.renewalUniqueIdentifier(certificate.getEncoded()))
+                .isEqualTo(expected);
+    }
+
+    /**
+     * Test the identifier of the ARI specification example.
+     */
+    @Test
+    public void testAriExample() throws Exception {
+        var cert = TestUtils.createCertificate("/certid-cert.pem").get(0);
+        assertThat(DerCertificateParser.renewalUniqueIdentifier(cert.getEncoded()))
+                .isEqualTo("aYhba4dGQEHhs3uEe6CuLN4ByNQ.AIdlQyE");
+    }
+
+    /**
+     * Test that {@code null} is returned if the identifier cannot be found.
+     */
+    @Test
+    public void testNotFound() throws Exception {
+        // Self-signed certificates don't have an Authority Key Identifier
+        var root = CertificateUtils.createTestRootCertificate("CN=Test Root",
+                Instant.now(), Instant.now().plus(1L, ChronoUnit.DAYS),
+                TestUtils.createKeyPair());
+        assertThat(DerCertificateParser.renewalUniqueIdentifier(root.getEncoded())).isNull();
+
+        var encoded = TestUtils.createCertificate("/cert.pem").get(0).getEncoded();
+        assertThat(DerCertificateParser.renewalUniqueIdentifier(
+                Arrays.copyOf(encoded, encoded.length / 2))).isNull();
+        assertThat(DerCertificateParser.renewalUniqueIdentifier(new byte[0])).isNull();
+        assertThat(DerCertificateParser.renewalUniqueIdentifier(new byte[] {0x30, (byte) 0x80}))
+                .isNull();
+    }
+
+    private static Stream<X509Certificate> certificates() throws IOException {
+        return Stream.of("/cert.pem", "/certid-cert.pem", "/ari-example-cert.pem")
+                .flatMap(resource -> {
+                    try {
+                        return TestUtils.createCertificate(resource).stream();
+                    } catch (IOException ex) {
+                        throw new IllegalStateException(ex);
+                    }
+                })
+                .filter(cert -> cert.getExtensionValue("2.5.29.35") != null);
+    }
+
+}
@@ -16,10 +16,13 @@ package org.shredzone.acme4j.toolbox;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static net.javacrumbs.jsonunit.assertj.JsonAssertions.assertThatJson;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.shredzone.acme4j.toolbox.TestUtils.url;
 
 import java.net.URL;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
 import java.util.Base64;
 import java.util.HashMap;
 
@@ -263,6 +266,68 @@ public class JoseUtilsTest {
         assertThat(type).isEqualTo("ES512");
     }
 
+    /**
+     * Test if Ed25519 keys are properly detected.
+     */
+    @Test
+    public void testEd25519Key() throws Exception {
+        var edKeyPair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+        var jwk = PublicJsonWebKey.Factory.newPublicJwk(edKeyPair.getPublic());
+
+        var type = JoseUtils.keyAlgorithm(jwk);
+        assertThat(type).isEqualTo("EdDSA");
+    }
+
+    /**
+     * Test if JOSE requests are signed correctly with all supported key types. Each
+     * key type is signed twice, to make sure that the cached providers are reused
+     * with different keys.
+     */
+    @ParameterizedTest
+    @CsvSource({
+            "RSA,,RS256",
+            "EC,secp256r1,ES256",
+            "EC,secp384r1,ES384",
+            "EC,secp521r1,ES512",
+            "Ed25519,,EdDSA",
+    })
+    public void testSignWithKeyTypes(String type, String curve, String expectedAlg) throws Exception {
+        var resourceUrl = url("http://example.com/acme/resource");
+        var payload = new JSONBuilder();
+        payload.put("foo", 123);
+
+        for (var ix = 0; ix < 2; ix++) {
+            KeyPair keyPair = switch (type) {
+                case "RSA" -> TestUtils.createKeyPair();
+                case "EC" -> TestUtils.createECKeyPair(curve);
+                default -> KeyPairGenerator.getInstance(type).generateKeyPair();
+            };
+
+            var jose = JoseUtils
+                    .createJoseRequest(resourceUrl, keyPair, payload, null, TestUtils.ACCOUNT_URL)
+                    .toMap();
+
+            var jws = new JsonWebSignature();
+            jws.setCompactSerialization(CompactSerializer.serialize(
+                    jose.get("protected").toString(),
+                    jose.get("payload").toString(),
+                    jose.get("signature").toString()));
+            jws.setKey(keyPair.getPublic());
+            assertThat(jws.getAlgorithmHeaderValue()).isEqualTo(expectedAlg);
+            assertThat(jws.verifySignature()).isTrue();
+        }
+    }
+
+    /**
+     * Test that unsupported algorithms are rejected when signing.
+     */
+    @Test
+    public void testSignUnsupportedAlgorithm() {
+        var keyPair = TestUtils.createKeyPair();
+        assertThrows(IllegalArgumentException.class,
+                () -> JoseUtils.sign("HS256", keyPair.getPrivate(), new byte[8]));
+    }
+
     /**
      * Test if MAC key algorithms are properly detected.
      */
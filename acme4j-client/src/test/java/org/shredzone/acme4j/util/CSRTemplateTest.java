@@ -0,0 +1,164 @@
+/*
+ * acme4j - Java ACME client
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://acme4j.shredzone.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ */
+package org.shredzone.acme4j.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+import java.io.IOException;
+import java.security.KeyPair;
+import java.security.Security;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import org.bouncycastle.asn1.ASN1IA5String;
+import org.bouncycastle.asn1.pkcs.PKCSObjectIdentifiers;
+import org.bouncycastle.asn1.x500.style.BCStyle;
+import org.bouncycastle.asn1.x509.Extension;
+import org.bouncycastle.asn1.x509.Extensions;
+import org.bouncycastle.asn1.x509.GeneralName;
+import org.bouncycastle.asn1.x509.GeneralNames;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.bouncycastle.operator.jcajce.JcaContentVerifierProviderBuilder;
+import org.bouncycastle.pkcs.PKCS10CertificationRequest;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.shredzone.acme4j.Identifier;
+import org.shredzone.acme4j.toolbox.AcmeUtils;
+
+/**
+ * Unit tests for {@link CSRTemplate}.
+ */
+public class CSRTemplateTest {
+
+    private static KeyPair testKey;
+
+    @BeforeAll
+    public static void setup() {
+        Security.addProvider(new BouncyCastleProvider());
+        testKey = KeyPairUtils.createKeyPair(512);
+    }
+
+    /**
+     * Test that a single CSR is generated from the template.
+     */
+    @Test
+    public void testSign() throws Exception {
+        var template = CSRTemplate.of(csr -> {
+            csr.setOrganization("Testing Co");
+            csr.setCountry("XX");
+            csr.addDomain("ignored.example");
+        });
+
+        var csr = template.sign(List.of(Identifier.dns("example.com"),
+                Identifier.dns("ÖÄÜ.example"), Identifier.ip("192.0.2.1")), testKey);
+
+        assertThat(csr.getSubject()).isEqualTo(template.getSubject());
+        assertThat(csr.getSubject().getRDNs(BCStyle.O))
+                .extracting(rdn -> rdn.getFirst().getValue().toString())
+                .containsExactly("Testing Co");
+        assertThat(dnsNames(csr)).containsExactly("example.com", AcmeUtils.toAce("ÖÄÜ.example"));
+        assertThat(isSignatureValid(csr, testKey)).isTrue();
+    }
+
+    /**
+     * Test that the template generates the same CSR as the {@link CSRBuilder}.
+     */
+    @Test
+    public void testSameAsBuilder() throws Exception {
+        var builder = new CSRBuilder();
+        builder.setOrganization("Testing Co");
+        builder.addDomain("example.com");
+        builder.sign(testKey);
+
+        var template = CSRTemplate.of(csr -> csr.setOrganization("Testing Co"));
+        var csr = template.sign(List.of(Identifier.dns("example.com")), testKey);
+
+        // RSA PKCS#1 v1.5 signatures are deterministic
+        assertThat(csr.getEncoded()).isEqualTo(builder.getEncoded());
+    }
+
+    /**
+     * Test that many CSRs are signed in parallel.
+     */
+    @Test
+    public void testSignAll() throws Exception {
+        var template = new CSRTemplate();
+
+        var requests = new LinkedHashMap<KeyPair, List<Identifier>>();
+        for (var ix = 0; ix < 20; ix++) {
+            var key = ix % 2 == 0
+                    ? KeyPairUtils.createECKeyPair("secp256r1")
+                    : KeyPairUtils.createKeyPair(512);
+            requests.put(key, List.of(Identifier.dns("host" + ix + ".example.com")));
+        }
+
+        var executor = Executors.newFixedThreadPool(4);
+        try {
+            var result = template.signAll(requests, executor);
+            assertThat(result.keySet()).containsExactlyElementsOf(requests.keySet());
+
+            var ix = 0;
+            for (var entry : result.entrySet()) {
+                assertThat(dnsNames(entry.getValue())).containsExactly("host" + ix + ".example.com");
+                assertThat(isSignatureValid(entry.getValue(), entry.getKey())).isTrue();
+                ix++;
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Test that invalid requests are rejected.
+     */
+    @Test
+    public void testInvalid() {
+        var template = new CSRTemplate();
+
+        assertThatIllegalStateException()
+                .isThrownBy(() -> template.sign(List.of(), testKey));
+
+        var requests = new LinkedHashMap<KeyPair, List<Identifier>>();
+        requests.put(testKey, List.of(Identifier.dns("example.com")));
+        requests.put(KeyPairUtils.createKeyPair(512), List.of(new Identifier("foo", "bar")));
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> template.signAll(requests))
+                .withMessage("Unknown identifier type: foo");
+    }
+
+    private static List<String> dnsNames(PKCS10CertificationRequest csr) {
+        var attr = csr.getAttributes(PKCSObjectIdentifiers.pkcs_9_at_extensionRequest);
+        var extensions = (Extensions) attr[0].getAttrValues().toArray()[0];
+        var names = GeneralNames.fromExtensions(extensions, Extension.subjectAlternativeName);
+        return Arrays.stream(names.getNames())
+                .filter(gn -> gn.getTagNo() == GeneralName.dNSName)
+                .map(gn -> ASN1IA5String.getInstance(gn.getName()).getString())
+                .toList();
+    }
+
+    private static boolean isSignatureValid(PKCS10CertificationRequest csr, KeyPair keypair)
+            throws IOException {
+        try {
+            return csr.isSignatureValid(new JcaContentVerifierProviderBuilder()
+                    .build(keypair.getPublic()));
+        } catch (Exception ex) {
+            throw new IOException(ex);
+        }
+    }
+
+}
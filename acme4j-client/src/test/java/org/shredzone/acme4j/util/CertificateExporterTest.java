@@ -0,0 +1,126 @@
+/*
+ * acme4j - Java ACME client
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://acme4j.shredzone.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ */
+package org.shredzone.acme4j.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+import java.security.Security;
+import java.util.concurrent.Executors;
+
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.shredzone.acme4j.toolbox.AcmeUtils;
+import org.shredzone.acme4j.toolbox.TestUtils;
+
+/**
+ * Unit tests for {@link CertificateExporter}.
+ */
+public class CertificateExporterTest {
+
+    @TempDir
+    Path directory;
+
+    @BeforeAll
+    public static void setup() {
+        Security.addProvider(new BouncyCastleProvider());
+    }
+
+    /**
+     * Test that chains and keys are exported.
+     */
+    @Test
+    public void testExport() throws Exception {
+        var chain = TestUtils.createCertificate("/cert.pem");
+        var keyPair = TestUtils.createDomainKeyPair();
+        var password = "secret".toCharArray();
+
+        var expectedChain = new StringWriter();
+        for (var cert : chain) {
+            AcmeUtils.writeToPem(cert.getEncoded(), AcmeUtils.PemLabel.CERTIFICATE, expectedChain);
+        }
+        var expectedKey = new StringWriter();
+        KeyPairUtils.writeKeyPair(keyPair, expectedKey);
+
+        // an existing file is replaced
+        Files.writeString(directory.resolve("host0.crt"), "outdated");
+
+        var executor = Executors.newFixedThreadPool(4);
+        try {
+            var exporter = new CertificateExporter(executor);
+            for (var ix = 0; ix < 10; ix++) {
+                exporter.addPem(directory.resolve("host" + ix + ".crt"), chain)
+                        .addPem(directory.resolve("host" + ix + ".key"), keyPair);
+            }
+            exporter.addPkcs12(directory.resolve("host.p12"), "host", chain,
+                    keyPair.getPrivate(), password);
+            exporter.addPem(directory.resolve("missing/host.crt"), chain);
+            assertThat(exporter.size()).isEqualTo(22);
+
+            var result = exporter.export();
+
+            assertThat(exporter.size()).isZero();
+            assertThat(result.isSuccessful()).isFalse();
+            assertThat(result.getWritten()).hasSize(21);
+            assertThat(result.getFailures()).containsOnlyKeys(directory.resolve("missing/host.crt"));
+            assertThat(result.getBytes()).isPositive();
+            assertThat(result.getFilesPerSecond()).isPositive();
+            assertThat(result.toString()).startsWith("21 files (");
+        } finally {
+            executor.shutdown();
+        }
+
+        for (var ix = 0; ix < 10; ix++) {
+            assertThat(Files.readString(directory.resolve("host" + ix + ".crt"), StandardCharsets.US_ASCII))
+                    .isEqualTo(expectedChain.toString());
+            assertThat(Files.readString(directory.resolve("host" + ix + ".key"), StandardCharsets.US_ASCII))
+                    .isEqualTo(expectedKey.toString());
+        }
+
+        var keyStore = KeyStore.getInstance("PKCS12");
+        try (var in = Files.newInputStream(directory.resolve("host.p12"))) {
+            keyStore.load(in, password);
+        }
+        assertThat(keyStore.getKey("host", password).getEncoded())
+                .isEqualTo(keyPair.getPrivate().getEncoded());
+        assertThat(keyStore.getCertificateChain("host")).containsExactlyElementsOf(chain);
+
+        // no temporary files are left behind
+        try (var files = Files.list(directory)) {
+            assertThat(files.map(p -> p.getFileName().toString()))
+                    .noneMatch(name -> name.endsWith(".tmp"));
+        }
+    }
+
+    /**
+     * Test that a target file can only be added once.
+     */
+    @Test
+    public void testDuplicate() throws Exception {
+        var chain = TestUtils.createCertificate("/cert.pem");
+        var exporter = new CertificateExporter()
+                .addPem(directory.resolve("host.crt"), chain);
+
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> exporter.addPem(directory.resolve("./host.crt"), chain));
+    }
+
+}
@@ -0,0 +1,138 @@
+/*
+ * acme4j - Java ACME client
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://acme4j.shredzone.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ */
+package org.shredzone.acme4j.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.Security;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.shredzone.acme4j.toolbox.TestUtils;
+
+/**
+ * Unit tests for {@link CertificateInventory}.
+ */
+public class CertificateInventoryTest {
+
+    @TempDir
+    Path directory;
+
+    @BeforeAll
+    public static void setup() {
+        Security.addProvider(new BouncyCastleProvider());
+    }
+
+    /**
+     * Test that a directory of certificate files is scanned.
+     */
+    @Test
+    public void testScan() throws Exception {
+        var chain = TestUtils.createCertificate("/cert.pem");
+        var certId = TestUtils.createCertificate("/certid-cert.pem");
+
+        try (var in = getClass().getResourceAsStream("/cert.pem")) {
+            Files.copy(in, directory.resolve("chain.pem"));
+        }
+        Files.write(directory.resolve("certid.der"), certId.get(0).getEncoded());
+
+        var root = CertificateUtils.createTestRootCertificate("CN=Test Root",
+                Instant.parse("2000-01-01T00:00:00Z"), Instant.parse("2000-02-01T00:00:00Z"),
+                TestUtils.createKeyPair());
+        Files.write(directory.resolve("root.crt"), root.getEncoded());
+
+        Files.writeString(directory.resolve("broken.pem"), "-----BEGIN CERTIFICATE-----\n"
+                + "Zm9vYmFy\n-----END CERTIFICATE-----\n", StandardCharsets.US_ASCII);
+        Files.writeString(directory.resolve("empty.cer"), "");
+        Files.writeString(directory.resolve("notes.txt"), "not a certificate");
+        Files.createDirectory(directory.resolve("sub.pem"));
+
+        var inventory = CertificateInventory.scan(directory);
+
+        assertThat(inventory.getFailures()).containsOnlyKeys(
+                directory.resolve("broken.pem"), directory.resolve("empty.cer"));
+
+        var entries = inventory.getEntries();
+        assertThat(entries).extracting(CertificateInventory.Entry::getPath)
+                .containsExactlyInAnyOrder(directory.resolve("chain.pem"),
+                        directory.resolve("certid.der"), directory.resolve("root.crt"));
+        assertThat(entries).isSortedAccordingTo(
+                (a, b) -> a.getNotAfter().compareTo(b.getNotAfter()));
+
+        var leaf = chain.get(0);
+        var chainEntry = entries.stream()
+                .filter(e -> e.getPath().endsWith("chain.pem"))
+                .findFirst().orElseThrow();
+        assertThat(chainEntry.getNotAfter()).isEqualTo(leaf.getNotAfter().toInstant());
+        assertThat(chainEntry.getIssuer()).contains("Pebble Intermediate CA 645fc5");
+        assertThat(chainEntry.getNames()).containsExactlyInAnyOrderElementsOf(
+                leaf.getSubjectAlternativeNames().stream()
+                        .map(san -> san.get(1).toString())
+                        .toList());
+        // this test certificate has no Authority Key Identifier
+        assertThat(chainEntry.getRenewalUniqueIdentifier()).isEmpty();
+
+        var certIdEntry = entries.stream()
+                .filter(e -> e.getPath().endsWith("certid.der"))
+                .findFirst().orElseThrow();
+        assertThat(certIdEntry.getRenewalUniqueIdentifier())
+                .contains("aYhba4dGQEHhs3uEe6CuLN4ByNQ.AIdlQyE");
+
+        var rootEntry = entries.stream()
+                .filter(e -> e.getPath().endsWith("root.crt"))
+                .findFirst().orElseThrow();
+        assertThat(rootEntry.getIssuer()).isEqualTo("CN=Test Root");
+        assertThat(rootEntry.getNames()).isEmpty();
+        assertThat(rootEntry.getRenewalUniqueIdentifier()).isEmpty();
+
+        assertThat(inventory.getExpiringBefore(Instant.parse("2000-03-01T00:00:00Z")))
+                .containsExactly(certIdEntry, rootEntry);
+        assertThat(inventory.getExpiringBefore(Instant.now().plus(36500L, ChronoUnit.DAYS)))
+                .hasSize(3);
+    }
+
+    /**
+     * Test that large certificate files are read as well.
+     */
+    @Test
+    public void testScanLargeFile() throws Exception {
+        var chain = TestUtils.createCertificate("/cert.pem");
+
+        String pem;
+        try (var in = getClass().getResourceAsStream("/cert.pem")) {
+            pem = new String(in.readAllBytes(), StandardCharsets.US_ASCII);
+        }
+        var bundle = new StringBuilder();
+        while (bundle.length() < 128 * 1024) {
+            bundle.append(pem);
+        }
+        Files.writeString(directory.resolve("bundle.pem"), bundle, StandardCharsets.US_ASCII);
+
+        var inventory = CertificateInventory.scan(directory);
+
+        assertThat(inventory.getFailures()).isEmpty();
+        assertThat(inventory.getEntries()).singleElement().satisfies(entry -> {
+            assertThat(entry.getPath()).isEqualTo(directory.resolve("bundle.pem"));
+            assertThat(entry.getNotAfter()).isEqualTo(chain.get(0).getNotAfter().toInstant());
+        });
+    }
+
+}
@@ -0,0 +1,254 @@
+/*
+ * acme4j - Java ACME client
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://acme4j.shredzone.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ */
+package org.shredzone.acme4j.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.shredzone.acme4j.toolbox.TestUtils.getJSON;
+import static org.shredzone.acme4j.toolbox.TestUtils.url;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.shredzone.acme4j.Authorization;
+import org.shredzone.acme4j.Certificate;
+import org.shredzone.acme4j.Login;
+import org.shredzone.acme4j.Order;
+import org.shredzone.acme4j.Status;
+import org.shredzone.acme4j.challenge.Challenge;
+import org.shredzone.acme4j.challenge.Http01Challenge;
+import org.shredzone.acme4j.provider.TestableConnectionProvider;
+import org.shredzone.acme4j.toolbox.JSON;
+import org.shredzone.acme4j.toolbox.TestUtils;
+import org.shredzone.acme4j.util.ResourceStateStore.Kind;
+
+/**
+ * Unit tests for {@link ResourceStateStore}.
+ */
+public class ResourceStateStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    /**
+     * Test that resources are stored, and restored after reopening.
+     */
+    @Test
+    public void testStoreAndRestore() throws Exception {
+        var file = tempDir.resolve("state.log");
+
+        try (var provider = new ChallengeProvider()) {
+            var login = provider.createLogin();
+            var challenge = new Http01Challenge(login, getJSON("httpChallenge"));
+
+            try (var store = new ResourceStateStore(file)) {
+                store.put(new TestOrder(login, "https://example.com/acme/order/1", "pending"));
+                store.put(new TestAuthorization(login, "https://example.com/acme/authz/1"));
+                store.put(challenge);
+                store.put(login.bindCertificate(url("https://example.com/acme/cert/1")));
+                store.put(new TestOrder(login, "https://example.com/acme/order/2", "ready"));
+                store.remove(url("https://example.com/acme/order/2"));
+                store.remove(url("https://example.com/acme/order/3"));
+                assertThat(store.size()).isEqualTo(4);
+            }
+
+            try (var store = new ResourceStateStore(file)) {
+                assertThat(store.entries())
+                        .extracting(ResourceStateStore.Entry::getKind)
+                        .containsExactly(Kind.ORDER, Kind.AUTHORIZATION, Kind.CHALLENGE,
+                                Kind.CERTIFICATE);
+
+                var order = store.get(url("https://example.com/acme/order/1")).orElseThrow();
+                assertThat(order.getStatus()).contains(Status.PENDING);
+                assertThat(order.getChallengeType()).isEmpty();
+                assertThat(store.get(url("https://example.com/acme/order/2"))).isEmpty();
+                assertThat(store.get(url("https://example.com/acme/cert/1")).orElseThrow()
+                        .getStatus()).isEmpty();
+
+                var restored = store.restore(login);
+                assertThat(restored).hasSize(4);
+                assertThat(restored.get(0)).isInstanceOf(Order.class);
+                assertThat(restored.get(0).getLocation())
+                        .isEqualTo(url("https://example.com/acme/order/1"));
+                assertThat(restored.get(1)).isInstanceOf(Authorization.class);
+                assertThat(restored.get(3)).isInstanceOf(Certificate.class);
+
+                var restoredChallenge = (Http01Challenge) restored.get(2);
+                assertThat(restoredChallenge.getLocation()).isEqualTo(challenge.getLocation());
+                assertThat(restoredChallenge.getStatus()).isEqualTo(challenge.getStatus());
+                assertThat(restoredChallenge.getToken()).isEqualTo(challenge.getToken());
+            }
+        }
+    }
+
+    /**
+     * Test that a truncated record at the end of the log is discarded.
+     */
+    @Test
+    public void testTruncatedLog() throws Exception {
+        var file = tempDir.resolve("state.log");
+
+        try (var provider = new TestableConnectionProvider()) {
+            var login = provider.createLogin();
+
+            try (var store = new ResourceStateStore(file)) {
+                store.put(new TestOrder(login, "https://example.com/acme/order/1", "pending"));
+                store.put(new TestOrder(login, "https://example.com/acme/order/2", "pending"));
+            }
+
+            try (var raf = new RandomAccessFile(file.toFile(), "rw")) {
+                raf.setLength(raf.length() - 3);
+            }
+
+            try (var store = new ResourceStateStore(file)) {
+                assertThat(store.size()).isEqualTo(1);
+                store.put(new TestOrder(login, "https://example.com/acme/order/3", "valid"));
+            }
+
+            try (var store = new ResourceStateStore(file)) {
+                assertThat(store.entries())
+                        .extracting(ResourceStateStore.Entry::getLocation)
+                        .containsExactly(url("https://example.com/acme/order/1"),
+                                url("https://example.com/acme/order/3"));
+            }
+        }
+    }
+
+    /**
+     * Test that a zero-filled tail, as left by a torn write, is discarded.
+     */
+    @Test
+    public void testZeroPaddedLog() throws Exception {
+        var file = tempDir.resolve("state.log");
+
+        try (var provider = new TestableConnectionProvider()) {
+            var login = provider.createLogin();
+
+            try (var store = new ResourceStateStore(file)) {
+                store.put(new TestOrder(login, "https://example.com/acme/order/1", "pending"));
+                store.put(new TestOrder(login, "https://example.com/acme/order/2", "pending"));
+            }
+            var validLength = Files.size(file);
+
+            Files.write(file, new byte[4096], StandardOpenOption.APPEND);
+
+            try (var store = new ResourceStateStore(file)) {
+                assertThat(store.size()).isEqualTo(2);
+                assertThat(Files.size(file)).isEqualTo(validLength);
+                store.put(new TestOrder(login, "https://example.com/acme/order/3", "valid"));
+            }
+
+            try (var store = new ResourceStateStore(file)) {
+                assertThat(store.entries())
+                        .extracting(ResourceStateStore.Entry::getLocation)
+                        .containsExactly(url("https://example.com/acme/order/1"),
+                                url("https://example.com/acme/order/2"),
+                                url("https://example.com/acme/order/3"));
+            }
+        }
+    }
+
+    /**
+     * Test that the log is compacted.
+     */
+    @Test
+    public void testCompact() throws Exception {
+        var file = tempDir.resolve("state.log");
+
+        try (var provider = new TestableConnectionProvider()) {
+            var login = provider.createLogin();
+
+            try (var store = new ResourceStateStore(file)) {
+                for (var ix = 0; ix < 100; ix++) {
+                    store.put(new TestOrder(login, "https://example.com/acme/order/" + ix, "pending"));
+                }
+                for (var ix = 0; ix < 100; ix++) {
+                    store.put(new TestOrder(login, "https://example.com/acme/order/" + ix, "ready"));
+                }
+                for (var ix = 1; ix < 100; ix++) {
+                    store.remove(url("https://example.com/acme/order/" + ix));
+                }
+                store.flush();
+                var sizeBefore = Files.size(file);
+
+                store.compact();
+                assertThat(Files.size(file)).isLessThan(sizeBefore / 100);
+
+                store.put(new TestOrder(login, "https://example.com/acme/order/100", "pending"));
+            }
+
+            try (var store = new ResourceStateStore(file)) {
+                assertThat(store.size()).isEqualTo(2);
+                assertThat(store.get(url("https://example.com/acme/order/0")).orElseThrow()
+                        .getStatus()).contains(Status.READY);
+            }
+
+            try (var files = Files.list(tempDir)) {
+                assertThat(files).containsExactly(file);
+            }
+        }
+    }
+
+    /**
+     * Test that foreign files are rejected.
+     */
+    @Test
+    public void testInvalidFile() throws IOException {
+        var file = tempDir.resolve("foreign.log");
+        Files.writeString(file, "this is not a state store");
+
+        assertThatExceptionOfType(IOException.class)
+                .isThrownBy(() -> new ResourceStateStore(file));
+    }
+
+    /**
+     * An {@link Order} with a preset state.
+     */
+    private static class TestOrder extends Order {
+        private static final long serialVersionUID = 1L;
+
+        TestOrder(Login login, String location, String status) {
+            super(login, url(location));
+            setJSON(JSON.parse("{\"status\":\"" + status + "\"}"));
+        }
+    }
+
+    /**
+     * An {@link Authorization} with a preset state.
+     */
+    private static class TestAuthorization extends Authorization {
+        private static final long serialVersionUID = 1L;
+
+        TestAuthorization(Login login, String location) {
+            super(login, url(location));
+            setJSON(TestUtils.getJSON("updateAuthorizationResponse"));
+        }
+    }
+
+    /**
+     * A {@link TestableConnectionProvider} that creates http-01 challenges.
+     */
+    private static class ChallengeProvider extends TestableConnectionProvider {
+        @Override
+        public Challenge createChallenge(Login login, JSON json) {
+            return new Http01Challenge(login, json);
+        }
+    }
+
+}
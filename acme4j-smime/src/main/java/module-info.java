@@ -23,6 +23,7 @@ module org.shredzone.acme4j.smime {
     requires org.bouncycastle.mail;
     requires org.bouncycastle.pkix;
     requires org.bouncycastle.provider;
+    requires org.slf4j;
 
     exports org.shredzone.acme4j.smime;
     exports org.shredzone.acme4j.smime.challenge;
@@ -0,0 +1,258 @@
+/*
+ * acme4j - Java ACME client
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://acme4j.shredzone.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ */
+package org.shredzone.acme4j.smime.email;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+
+/**
+ * Generates the response emails for many verified "Challenge" emails, and hands them
+ * over to a {@link ResponseSender} in batches.
+ * <p>
+ * All responses are generated with the same mail {@link Session}, header, footer, and
+ * {@link ResponseBodyGenerator}. The response bodies are assembled in a single buffer
+ * that is reused for all responses.
+ * <p>
+ * A failure to generate or send a response does not affect the other responses. The
+ * failures are reported in the {@link Result}. Only responses that have not been sent
+ * are reported as failures, so they can be retried without sending duplicates.
+ *
+ * @see ResponseGenerator
+ * @since 5.2.0
+ */
+public class BatchResponder {
+    private static final int DEFAULT_BATCH_SIZE = 100;
+    private static final String CRLF = "\r\n";
+
+    private final ResponseSender sender;
+    private Session mailSession = Session.getDefaultInstance(new Properties());
+    private @Nullable String header;
+    private @Nullable String footer;
+    private @Nullable ResponseBodyGenerator generator;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    /**
+     * Creates a new {@link BatchResponder}.
+     *
+     * @param sender
+     *         {@link ResponseSender} that sends the generated responses
+     */
+    public BatchResponder(ResponseSender sender) {
+        this.sender = requireNonNull(sender, "sender");
+    }
+
+    /**
+     * Sets the maximum number of responses that are handed over to the
+     * {@link ResponseSender} at once. The default is 100.
+     *
+     * @param batchSize
+     *         Maximum number of responses per batch
+     * @return itself
+     */
+    public synchronized BatchResponder batchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * Sets the {@code jakarta.mail} {@link Session} that is used for generating the
+     * response emails.
+     *
+     * @param mailSession
+     *         {@link Session} to be used
+     * @return itself
+     */
+    public synchronized BatchResponder mailSession(Session mailSession) {
+        this.mailSession = requireNonNull(mailSession, "mailSession");
+        return this;
+    }
+
+    /**
+     * Adds a custom header to the response mail bodies.
+     *
+     * @param header
+     *         Header text to be used, or {@code null} if no header is to be used.
+     * @return itself
+     * @see ResponseGenerator#withHeader(String)
+     */
+    public synchronized BatchResponder withHeader(@Nullable String header) {
+        // Terminate the header once, so it is not copied for every response
+        if (header != null && !header.endsWith(CRLF)) {
+            this.header = header.concat(CRLF);
+        } else {
+            this.header = header;
+        }
+        return this;
+    }
+
+    /**
+     * Adds a custom footer to the response mail bodies.
+     *
+     * @param footer
+     *         Footer text to be used, or {@code null} if no footer is to be used.
+     * @return itself
+     * @see ResponseGenerator#withFooter(String)
+     */
+    public synchronized BatchResponder withFooter(@Nullable String footer) {
+        this.footer = footer;
+        return this;
+    }
+
+    /**
+     * Sets a {@link ResponseBodyGenerator} that is used for generating the response
+     * bodies.
+     *
+     * @param generator
+     *         {@link ResponseBodyGenerator} to be used, or {@code null} to use the
+     *         default one.
+     * @return itself
+     * @see ResponseGenerator#withGenerator(ResponseBodyGenerator)
+     */
+    @SuppressFBWarnings("EI_EXPOSE_REP2")   // behavior is intended
+    public synchronized BatchResponder withGenerator(@Nullable ResponseBodyGenerator generator) {
+        this.generator = generator;
+        return this;
+    }
+
+    /**
+     * Generates the responses of the given processors, and hands them over to the
+     * {@link ResponseSender}.
+     * <p>
+     * The email-reply-00 challenge must have been set to each processor. Processors
+     * without challenge are reported as failures. Exceptions thrown by the
+     * {@link ResponseBodyGenerator} or the {@link ResponseSender} are reported as
+     * failures of the affected processors, and do not abort the run.
+     *
+     * @param processors
+     *         Verified {@link EmailProcessor}s to respond to
+     * @return {@link Result} of this run
+     */
+    public synchronized Result respond(Collection<EmailProcessor> processors) {
+        requireNonNull(processors, "processors");
+
+        var sent = new ArrayList<EmailProcessor>(processors.size());
+        var failures = new LinkedHashMap<EmailProcessor, Exception>();
+        var buffer = new StringBuilder();
+        var pending = new LinkedHashMap<EmailProcessor, Message>();
+        var batches = 0;
+
+        for (var processor : processors) {
+            try {
+                var response = processor.respond()
+                        .withHeader(header)
+                        .withFooter(footer)
+                        .withGenerator(generator)
+                        .generateResponse(mailSession, buffer);
+                pending.put(processor, response);
+            } catch (MessagingException | RuntimeException ex) {
+                // also covers failures of a custom ResponseBodyGenerator
+                failures.put(processor, ex);
+            }
+
+            if (pending.size() >= batchSize) {
+                send(pending, sent, failures);
+                batches++;
+            }
+        }
+
+        if (!pending.isEmpty()) {
+            send(pending, sent, failures);
+            batches++;
+        }
+
+        return new Result(sent, failures, batches);
+    }
+
+    /**
+     * Hands the pending responses over to the sender, and clears them.
+     */
+    private void send(Map<EmailProcessor, Message> pending, List<EmailProcessor> sent,
+            Map<EmailProcessor, Exception> failures) {
+        try {
+            var unsent = sender.send(List.copyOf(pending.values()));
+            pending.forEach((processor, response) -> {
+                var failure = unsent.get(response);
+                if (failure != null) {
+                    failures.put(processor, failure);
+                } else {
+                    sent.add(processor);
+                }
+            });
+        } catch (MessagingException | RuntimeException ex) {
+            pending.keySet().forEach(processor -> failures.put(processor, ex));
+        }
+        pending.clear();
+    }
+
+    /**
+     * The result of a {@link BatchResponder} run.
+     */
+    public static final class Result {
+        private final List<EmailProcessor> sent;
+        private final Map<EmailProcessor, Exception> failures;
+        private final int batches;
+
+        private Result(List<EmailProcessor> sent, Map<EmailProcessor, Exception> failures,
+                       int batches) {
+            this.sent = Collections.unmodifiableList(sent);
+            this.failures = Collections.unmodifiableMap(failures);
+            this.batches = batches;
+        }
+
+        /**
+         * Returns the processors that have been responded to, in the order they were
+         * passed in.
+         */
+        public List<EmailProcessor> getSent() {
+            return sent;
+        }
+
+        /**
+         * Returns the processors that could not be responded to, and the reason.
+         */
+        public Map<EmailProcessor, Exception> getFailures() {
+            return failures;
+        }
+
+        /**
+         * Returns the number of batches that were handed over to the sender.
+         */
+        public int getBatches() {
+            return batches;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d sent in %d batches, %d failures",
+                    sent.size(), batches, failures.size());
+        }
+    }
+
+}
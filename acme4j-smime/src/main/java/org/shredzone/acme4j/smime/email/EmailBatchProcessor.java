@@ -0,0 +1,545 @@
+/*
+ * acme4j - Java ACME client
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://acme4j.shredzone.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ */
+package org.shredzone.acme4j.smime.email;
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.InternetAddress;
+import org.shredzone.acme4j.exception.AcmeProtocolException;
+import org.shredzone.acme4j.smime.EmailIdentifier;
+import org.shredzone.acme4j.smime.challenge.EmailReply00Challenge;
+
+/**
+ * Processes a batch of incoming "Challenge" emails in parallel.
+ * <p>
+ * The messages are verified by an {@link EmailProcessor.Builder} on a bounded thread
+ * pool. Each verified message is then matched to one of the pending
+ * {@link EmailReply00Challenge}s by its recipient and sender, and a response email is
+ * generated. Each challenge is only answered once, it is removed from the pending
+ * challenges as soon as its response has been generated. Messages with a Message-ID
+ * that has been seen before are skipped, so duplicate deliveries are only answered once.
+ * The most recent Message-IDs are remembered, up to a limit.
+ * <p>
+ * A failure to process one message does not affect the other messages. The failures
+ * are reported in the {@link Result}.
+ *
+ * @since 5.2.0
+ */
+public class EmailBatchProcessor {
+    private static final int DEFAULT_PARALLELISM = 4;
+    private static final int DEFAULT_MESSAGE_ID_LIMIT = 10_000;
+
+    private final EmailProcessor.Builder verifier;
+    private final Map<String, List<EmailReply00Challenge>> challenges = new ConcurrentHashMap<>();
+    private final Map<String, Boolean> seenMessageIds;
+    private Session mailSession = Session.getDefaultInstance(new Properties());
+    private Consumer<ResponseGenerator> responseCustomizer = generator -> {};
+    private volatile int parallelism = DEFAULT_PARALLELISM;
+    private volatile int messageIdLimit = DEFAULT_MESSAGE_ID_LIMIT;
+
+    /**
+     * Creates a new {@link EmailBatchProcessor}.
+     *
+     * @param verifier
+     *         {@link EmailProcessor.Builder} that is configured for the verification of
+     *         the incoming messages. It must not be changed while messages are processed.
+     */
+    public EmailBatchProcessor(EmailProcessor.Builder verifier) {
+        this.verifier = requireNonNull(verifier, "verifier");
+        this.seenMessageIds = Collections.synchronizedMap(new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > messageIdLimit;
+            }
+        });
+    }
+
+    /**
+     * Sets the maximum number of messages that are verified in parallel. The default
+     * is 4.
+     *
+     * @param parallelism
+     *         Maximum number of parallel verifications
+     * @return itself
+     */
+    public EmailBatchProcessor parallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of Message-IDs that are remembered for detecting
+     * duplicate deliveries. If the limit is exceeded, the oldest Message-IDs are
+     * forgotten. The default is 10,000.
+     *
+     * @param messageIdLimit
+     *         Maximum number of remembered Message-IDs
+     * @return itself
+     */
+    public EmailBatchProcessor messageIdLimit(int messageIdLimit) {
+        if (messageIdLimit < 1) {
+            throw new IllegalArgumentException("messageIdLimit must be positive");
+        }
+        this.messageIdLimit = messageIdLimit;
+        return this;
+    }
+
+    /**
+     * Sets the {@code jakarta.mail} {@link Session} that is used for generating the
+     * response emails.
+     *
+     * @param mailSession
+     *         {@link Session} to be used
+     * @return itself
+     */
+    public EmailBatchProcessor mailSession(Session mailSession) {
+        this.mailSession = requireNonNull(mailSession, "mailSession");
+        return this;
+    }
+
+    /**
+     * Sets a {@link Consumer} that customizes the {@link ResponseGenerator} of every
+     * response, e.g. to add a header or footer.
+     *
+     * @param responseCustomizer
+     *         {@link Consumer} that customizes the {@link ResponseGenerator}
+     * @return itself
+     */
+    public EmailBatchProcessor responseCustomizer(Consumer<ResponseGenerator> responseCustomizer) {
+        this.responseCustomizer = requireNonNull(responseCustomizer, "responseCustomizer");
+        return this;
+    }
+
+    /**
+     * Adds a pending challenge.
+     *
+     * @param identifier
+     *         {@link EmailIdentifier} the challenge was issued for. Challenge emails are
+     *         addressed to it.
+     * @param challenge
+     *         Pending {@link EmailReply00Challenge}
+     * @return itself
+     */
+    public EmailBatchProcessor addChallenge(EmailIdentifier identifier, EmailReply00Challenge challenge) {
+        requireNonNull(identifier, "identifier");
+        requireNonNull(challenge, "challenge");
+        challenges.compute(key(identifier.getEmailAddress()), (k, list) -> {
+            var result = list != null ? list : new ArrayList<EmailReply00Challenge>(1);
+            result.add(challenge);
+            return result;
+        });
+        return this;
+    }
+
+    /**
+     * Removes a pending challenge, e.g. because it has expired or has been answered by
+     * other means.
+     * <p>
+     * Challenges are removed automatically as soon as a response has been generated
+     * for them, so this method only needs to be invoked for challenges that are not
+     * going to be answered.
+     *
+     * @param identifier
+     *         {@link EmailIdentifier} the challenge was issued for
+     * @param challenge
+     *         {@link EmailReply00Challenge} to remove
+     * @return {@code true} if the challenge was pending and has been removed
+     * @since 5.2.0
+     */
+    public boolean removeChallenge(EmailIdentifier identifier, EmailReply00Challenge challenge) {
+        requireNonNull(identifier, "identifier");
+        requireNonNull(challenge, "challenge");
+        var removed = new AtomicBoolean();
+        challenges.computeIfPresent(key(identifier.getEmailAddress()), (k, list) -> {
+            removed.set(list.remove(challenge));
+            return list.isEmpty() ? null : list;
+        });
+        return removed.get();
+    }
+
+    /**
+     * Processes a batch of messages, and waits until all of them are processed.
+     * <p>
+     * The Message-IDs are remembered across batches, so messages that have been
+     * answered in a previous batch are skipped as well. The Message-IDs of failed
+     * messages are forgotten, so they can be processed again in a later batch.
+     * Duplicates of a failed message in the same batch are reported as failures as
+     * well.
+     * <p>
+     * If the invoking thread is interrupted, the messages that have not been processed
+     * yet are abandoned. Their Message-IDs are forgotten, and their challenges remain
+     * pending.
+     *
+     * @param messages
+     *         {@link Stream} of incoming messages
+     * @return {@link Result} of the batch
+     * @throws InterruptedException
+     *         if the invoking thread was interrupted while waiting for the messages to
+     *         be processed
+     */
+    public Result process(Stream<? extends Message> messages) throws InterruptedException {
+        requireNonNull(messages, "messages");
+        var start = System.nanoTime();
+
+        var executor = Executors.newFixedThreadPool(parallelism, r -> {
+            var thread = new Thread(r, "acme4j-email-batch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        var jobs = new ArrayList<Job>();
+        var collected = 0;
+        try {
+            var duplicates = new LinkedHashMap<Message, String>();
+            var failures = new LinkedHashMap<Message, Exception>();
+
+            messages.forEachOrdered(message -> {
+                String messageId;
+                try {
+                    messageId = getMessageId(message);
+                } catch (MessagingException ex) {
+                    failures.put(message, ex);
+                    return;
+                }
+                if (messageId != null && seenMessageIds.putIfAbsent(messageId, Boolean.TRUE) != null) {
+                    duplicates.put(message, messageId);
+                    return;
+                }
+                var job = new Job(message, messageId);
+                job.future = executor.submit(() -> respond(job, verifier.build(message)));
+                jobs.add(job);
+            });
+
+            var responses = new ArrayList<Response>();
+            var failedIds = new HashMap<String, Exception>();
+            for (var job : jobs) {
+                try {
+                    responses.add(job.getFuture().get());
+                } catch (ExecutionException ex) {
+                    var cause = ex.getCause();
+                    var failure = cause instanceof Exception e ? e : ex;
+                    failures.put(job.message, failure);
+                    if (job.messageId != null) {
+                        // permit a retry, e.g. when the challenge is added later
+                        seenMessageIds.remove(job.messageId);
+                        failedIds.put(job.messageId, failure);
+                    }
+                }
+                collected++;
+            }
+
+            // duplicates of a failed message have not been answered either
+            var skipped = new ArrayList<Message>(duplicates.size());
+            duplicates.forEach((message, messageId) -> {
+                var failure = failedIds.get(messageId);
+                if (failure != null) {
+                    failures.put(message, failure);
+                } else {
+                    skipped.add(message);
+                }
+            });
+
+            return new Result(responses, failures, skipped,
+                    Duration.ofNanos(System.nanoTime() - start));
+        } finally {
+            executor.shutdownNow();
+            // e.g. if the thread was interrupted while waiting for the results
+            jobs.subList(collected, jobs.size()).forEach(this::abandon);
+        }
+    }
+
+    /**
+     * Abandons a job that has not been collected. Its Message-ID is forgotten. If the
+     * job has already claimed a challenge, it is pending again.
+     */
+    private void abandon(Job job) {
+        var claimed = job.abandon();
+        if (claimed != null) {
+            restoreChallenge(claimed.key(), claimed.challenge());
+        }
+        if (job.messageId != null) {
+            seenMessageIds.remove(job.messageId);
+        }
+    }
+
+    /**
+     * Matches the verified message to a pending challenge, and generates the response.
+     * The challenge is removed from the pending challenges, so it is only answered
+     * once. If the response could not be generated, or the job has been abandoned, it
+     * is pending again.
+     */
+    private Response respond(Job job, EmailProcessor processor) throws MessagingException {
+        var key = key(processor.getRecipient());
+        var sender = processor.getSender();
+        var challenge = claimChallenge(key, sender);
+        if (challenge == null) {
+            throw new AcmeProtocolException("No pending challenge for "
+                    + processor.getRecipient() + " from " + sender);
+        }
+
+        try {
+            var generator = processor.withChallenge(challenge).respond();
+            responseCustomizer.accept(generator);
+            var response = generator.generateResponse(mailSession);
+            if (!job.complete(new Claim(key, challenge))) {
+                throw new CancellationException("Batch has been aborted");
+            }
+            return new Response(job.message, processor, response);
+        } catch (MessagingException | RuntimeException ex) {
+            restoreChallenge(key, challenge);
+            throw ex;
+        }
+    }
+
+    /**
+     * Puts a claimed challenge back to the pending challenges. It is the first one to
+     * be claimed again.
+     */
+    private void restoreChallenge(String key, EmailReply00Challenge challenge) {
+        challenges.compute(key, (k, list) -> {
+            var result = list != null ? list : new ArrayList<EmailReply00Challenge>(1);
+            result.add(0, challenge);
+            return result;
+        });
+    }
+
+    /**
+     * Removes the oldest pending challenge of the recipient that is expecting the given
+     * sender, and returns it.
+     *
+     * @return Claimed challenge, or {@code null} if there is no matching challenge
+     */
+    @Nullable
+    private EmailReply00Challenge claimChallenge(String key, InternetAddress sender) {
+        var claimed = new AtomicReference<EmailReply00Challenge>();
+        challenges.computeIfPresent(key, (k, list) -> {
+            for (var it = list.iterator(); it.hasNext(); ) {
+                var candidate = it.next();
+                if (candidate.getExpectedSender().equals(sender)) {
+                    claimed.set(candidate);
+                    it.remove();
+                    break;
+                }
+            }
+            return list.isEmpty() ? null : list;
+        });
+        return claimed.get();
+    }
+
+    /**
+     * Returns the Message-ID header of the envelope, or {@code null} if there is none.
+     */
+    @Nullable
+    private static String getMessageId(Message message) throws MessagingException {
+        var headers = message.getHeader("Message-ID");
+        return headers != null && headers.length > 0 ? headers[0].trim() : null;
+    }
+
+    /**
+     * Returns the lookup key of an email address.
+     */
+    private static String key(InternetAddress address) {
+        return address.getAddress().toLowerCase(Locale.ENGLISH);
+    }
+
+    /**
+     * A message that is being processed.
+     */
+    private static final class Job {
+        private final Message message;
+        private final @Nullable String messageId;
+        private @Nullable Future<Response> future;
+        private @Nullable Claim claim;
+        private boolean abandoned;
+
+        private Job(Message message, @Nullable String messageId) {
+            this.message = message;
+            this.messageId = messageId;
+        }
+
+        private Future<Response> getFuture() {
+            return requireNonNull(future);
+        }
+
+        /**
+         * Marks the job as completed.
+         *
+         * @param claim
+         *         The challenge that has been claimed for the response
+         * @return {@code false} if the job has been abandoned, and the response must be
+         * discarded
+         */
+        private synchronized boolean complete(Claim claim) {
+            if (abandoned) {
+                return false;
+            }
+            this.claim = claim;
+            return true;
+        }
+
+        /**
+         * Abandons the job.
+         *
+         * @return The challenge that has been claimed by a completed job, or
+         * {@code null} if the job has not been completed
+         */
+        @Nullable
+        private synchronized Claim abandon() {
+            abandoned = true;
+            return claim;
+        }
+    }
+
+    /**
+     * A challenge that has been claimed for the given lookup key.
+     */
+    private record Claim(String key, EmailReply00Challenge challenge) {
+    }
+
+    /**
+     * A response that was generated for a challenge email.
+     */
+    public static final class Response {
+        private final Message message;
+        private final EmailProcessor processor;
+        private final Message response;
+
+        private Response(Message message, EmailProcessor processor, Message response) {
+            this.message = message;
+            this.processor = processor;
+            this.response = response;
+        }
+
+        /**
+         * Returns the incoming challenge email.
+         */
+        @SuppressFBWarnings("EI_EXPOSE_REP")    // behavior is intended
+        public Message getMessage() {
+            return message;
+        }
+
+        /**
+         * Returns the {@link EmailProcessor} of the challenge email.
+         */
+        public EmailProcessor getProcessor() {
+            return processor;
+        }
+
+        /**
+         * Returns the generated response email, ready to be sent.
+         */
+        @SuppressFBWarnings("EI_EXPOSE_REP")    // behavior is intended
+        public Message getResponse() {
+            return response;
+        }
+    }
+
+    /**
+     * The result of a batch.
+     */
+    public static final class Result {
+        private final List<Response> responses;
+        private final Map<Message, Exception> failures;
+        private final List<Message> duplicates;
+        private final Duration duration;
+
+        private Result(List<Response> responses, Map<Message, Exception> failures,
+                       List<Message> duplicates, Duration duration) {
+            this.responses = Collections.unmodifiableList(responses);
+            this.failures = Collections.unmodifiableMap(failures);
+            this.duplicates = Collections.unmodifiableList(duplicates);
+            this.duration = duration;
+        }
+
+        /**
+         * Returns the responses that were generated, in the order of the incoming
+         * messages.
+         */
+        public List<Response> getResponses() {
+            return responses;
+        }
+
+        /**
+         * Returns the messages that could not be processed, and the reason. Messages
+         * that failed the verification must be rejected.
+         */
+        public Map<Message, Exception> getFailures() {
+            return failures;
+        }
+
+        /**
+         * Returns the messages that were skipped because their Message-ID has been seen
+         * before.
+         */
+        public List<Message> getDuplicates() {
+            return duplicates;
+        }
+
+        /**
+         * Returns the total number of messages of this batch.
+         */
+        public int getProcessed() {
+            return responses.size() + failures.size() + duplicates.size();
+        }
+
+        /**
+         * Returns the time it took to process the batch.
+         */
+        public Duration getDuration() {
+            return duration;
+        }
+
+        /**
+         * Returns the number of messages processed per second.
+         */
+        public double getMessagesPerSecond() {
+            var nanos = Math.max(duration.toNanos(), 1L);
+            return getProcessed() * 1_000_000_000.0 / nanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d messages processed in %d ms: %d responses, %d failures, %d duplicates",
+                    getProcessed(), duration.toMillis(), responses.size(), failures.size(),
+                    duplicates.size());
+        }
+    }
+
+}
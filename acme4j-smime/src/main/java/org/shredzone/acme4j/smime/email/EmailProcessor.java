@@ -22,6 +22,7 @@ import java.security.KeyStore;
 import java.security.KeyStoreException;
 import java.security.cert.PKIXParameters;
 import java.security.cert.X509Certificate;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicReference;
@@ -397,6 +398,34 @@ public final class EmailProcessor {
             return this;
         }
 
+        /**
+         * Caches the certificate path validation results of the signers, so repeated
+         * messages of the same signer only need a signature verification.
+         *
+         * @param timeToLive
+         *         Time until a validation result expires
+         * @param maxSize
+         *         Maximum number of cached validation results
+         * @see SignedMailBuilder#withValidationCache(Duration, int)
+         * @since 5.2.0
+         */
+        public Builder validationCache(Duration timeToLive, int maxSize) {
+            builder.withValidationCache(timeToLive, maxSize);
+            return this;
+        }
+
+        /**
+         * Only reads the message headers that are required for processing the
+         * challenge, and ignores all other headers.
+         *
+         * @see SignedMailBuilder#requiredHeadersOnly(boolean)
+         * @since 5.2.0
+         */
+        public Builder requiredHeadersOnly() {
+            builder.requiredHeadersOnly(true);
+            return this;
+        }
+
         /**
          * Uses the given mail {@link Session} for accessing the signed message body. A
          * simple default session is used otherwise, which is usually sufficient.
@@ -133,7 +133,22 @@ public class ResponseGenerator {
      * @return Generated {@link Message}.
      */
     public Message generateResponse(Session session) throws MessagingException {
-        var response = new MimeMessage(requireNonNull(session, "session"));
+        return generateResponse(requireNonNull(session, "session"), new StringBuilder());
+    }
+
+    /**
+     * Generates the response email, using the given buffer for assembling the response
+     * body. The buffer is cleared before use, so it can be reused for many responses.
+     *
+     * @param session
+     *         {@code jakarta.mail} {@link Session} to be used for this mail.
+     * @param buffer
+     *         {@link StringBuilder} to be used for assembling the response body
+     * @return Generated {@link Message}.
+     * @since 5.2.0
+     */
+    Message generateResponse(Session session, StringBuilder buffer) throws MessagingException {
+        var response = new MimeMessage(session);
 
         response.setSubject("Re: ACME: " + processor.getToken1());
         response.setFrom(processor.getRecipient());
@@ -150,20 +165,34 @@ public class ResponseGenerator {
             response.setHeader("In-Reply-To", processor.getMessageId().get());
         }
 
-        var wrappedAuth = processor.getAuthorization()
-                .replaceAll("(.{" + LINE_LENGTH + "})", "$1" + CRLF);
-        var responseBody = new StringBuilder();
-        responseBody.append("-----BEGIN ACME RESPONSE-----").append(CRLF);
-        responseBody.append(wrappedAuth);
-        if (!wrappedAuth.endsWith(CRLF)) {
-            responseBody.append(CRLF);
-        }
-        responseBody.append("-----END ACME RESPONSE-----").append(CRLF);
+        buffer.setLength(0);
+        appendResponseBody(buffer, processor.getAuthorization());
 
-        generator.setContent(response, responseBody.toString());
+        generator.setContent(response, buffer.toString());
         return response;
     }
 
+    /**
+     * Appends the armored response body to the buffer. The key authorization is wrapped
+     * into lines of {@value #LINE_LENGTH} characters.
+     *
+     * @param buffer
+     *         {@link StringBuilder} to append the response body to
+     * @param authorization
+     *         Key authorization
+     */
+    static void appendResponseBody(StringBuilder buffer, String authorization) {
+        buffer.append("-----BEGIN ACME RESPONSE-----").append(CRLF);
+        for (var ix = 0; ix < authorization.length(); ix += LINE_LENGTH) {
+            buffer.append(authorization, ix, Math.min(ix + LINE_LENGTH, authorization.length()))
+                    .append(CRLF);
+        }
+        if (authorization.isEmpty()) {
+            buffer.append(CRLF);
+        }
+        buffer.append("-----END ACME RESPONSE-----").append(CRLF);
+    }
+
     /**
      * The default body generator. It just sets the response body, optionally framed by
      * the given header and footer.
@@ -0,0 +1,67 @@
+/*
+ * acme4j - Java ACME client
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://acme4j.shredzone.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ */
+package org.shredzone.acme4j.smime.email;
+
+import java.util.List;
+import java.util.Map;
+
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+
+/**
+ * Sends a batch of response emails.
+ * <p>
+ * It is used by the {@link BatchResponder} for handing over the generated responses, so
+ * they can be sent over a single connection, or passed to a mail queue.
+ *
+ * @see BatchResponder
+ * @since 5.2.0
+ */
+@FunctionalInterface
+public interface ResponseSender {
+
+    /**
+     * Sends a batch of response emails.
+     * <p>
+     * Note that according to RFC-8823, the responses must have a valid DKIM or S/MIME
+     * signature. This is usually performed by the outbound MTA.
+     *
+     * @param responses
+     *         Response {@link Message}s to be sent
+     * @return Responses that could not be sent, and the reason. Empty if all responses
+     * have been sent. Responses that are not contained are regarded as sent.
+     * @throws MessagingException
+     *         if none of the responses could be sent, e.g. because the mail server was
+     *         not reachable. All responses of the batch are regarded as failed then.
+     */
+    Map<Message, Exception> send(List<Message> responses) throws MessagingException;
+
+    /**
+     * Returns a {@link ResponseSender} that sends all responses of a batch over a
+     * single connection, using the default transport of the given mail session.
+     * <p>
+     * If a response cannot be sent, the remaining responses are still tried. Only the
+     * responses that have not been sent are reported as failed. A failure to close the
+     * connection after all responses have been handed over is only logged.
+     *
+     * @param session
+     *         {@code jakarta.mail} {@link Session} that is configured for sending mails
+     * @return {@link ResponseSender} using the session's transport
+     */
+    static ResponseSender transport(Session session) {
+        return new TransportResponseSender(session);
+    }
+
+}
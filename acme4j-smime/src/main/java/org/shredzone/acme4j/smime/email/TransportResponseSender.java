@@ -0,0 +1,75 @@
+/*
+ * acme4j - Java ACME client
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://acme4j.shredzone.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ */
+package org.shredzone.acme4j.smime.email;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link ResponseSender} that sends all responses of a batch over a single
+ * connection, using the default transport of a mail session.
+ *
+ * @see ResponseSender#transport(Session)
+ */
+final class TransportResponseSender implements ResponseSender {
+    private static final Logger LOG = LoggerFactory.getLogger(TransportResponseSender.class);
+
+    private final Session session;
+
+    /**
+     * Creates a new {@link TransportResponseSender}.
+     *
+     * @param session
+     *         {@code jakarta.mail} {@link Session} that is configured for sending mails
+     */
+    TransportResponseSender(Session session) {
+        this.session = requireNonNull(session, "session");
+    }
+
+    @Override
+    public Map<Message, Exception> send(List<Message> responses) throws MessagingException {
+        var failures = new LinkedHashMap<Message, Exception>();
+        var transport = session.getTransport();
+        try {
+            transport.connect();
+            for (var response : responses) {
+                try {
+                    response.saveChanges();
+                    transport.sendMessage(response, response.getAllRecipients());
+                } catch (MessagingException ex) {
+                    failures.put(response, ex);
+                }
+            }
+        } finally {
+            // The responses have already been handed over at this point, so a failure
+            // to close the connection must not mark them as failed.
+            try {
+                transport.close();
+            } catch (MessagingException ex) {
+                LOG.warn("Could not close the mail transport", ex);
+            }
+        }
+        return failures;
+    }
+
+}
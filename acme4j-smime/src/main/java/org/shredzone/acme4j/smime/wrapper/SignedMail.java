@@ -17,8 +17,10 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Enumeration;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeSet;
@@ -56,13 +58,32 @@ public class SignedMail implements Mail {
     private static final Set<String> REQUIRED_HEADERS
             = Set.of("FROM", "TO", "SUBJECT");
 
-    private final List<MailHeader> headers = new ArrayList<>();
+    /**
+     * Headers that are evaluated by the challenge workflow.
+     */
+    static final Set<String> CHALLENGE_HEADERS
+            = Set.of("FROM", "TO", "SUBJECT", "MESSAGE-ID", "REPLY-TO", "AUTO-SUBMITTED");
+
+    private final Map<String, List<MailHeader>> headers = new LinkedHashMap<>();
+    private final boolean requiredHeadersOnly;
 
     /**
      * This class is to be constructed only by {@link SignedMailBuilder}.
      */
     SignedMail() {
-        // package protected constructor
+        this(false);
+    }
+
+    /**
+     * This class is to be constructed only by {@link SignedMailBuilder}.
+     *
+     * @param requiredHeadersOnly
+     *         {@code true}: only keep the headers that are evaluated by the challenge
+     *         workflow, and ignore all other headers
+     * @since 5.2.0
+     */
+    SignedMail(boolean requiredHeadersOnly) {
+        this.requiredHeadersOnly = requiredHeadersOnly;
     }
 
     /**
@@ -74,12 +95,13 @@ public class SignedMail implements Mail {
         headers.clear();
         while (en.hasMoreElements()) {
             var h = en.nextElement();
-            var name = h.getName();
-            if (IGNORE_HEADERS.contains(name.toUpperCase(Locale.ENGLISH))) {
+            var key = normalize(h.getName());
+            if (!isAccepted(key)) {
                 continue;
             }
 
-            headers.add(new MailHeader(name, h.getValue()));
+            headers.computeIfAbsent(key, k -> new ArrayList<>(1))
+                    .add(new MailHeader(h.getName(), h.getValue()));
         }
     }
 
@@ -96,12 +118,13 @@ public class SignedMail implements Mail {
         while (en.hasMoreElements()) {
             var h = en.nextElement();
             var name = h.getName();
-            if (IGNORE_HEADERS.contains(name.toUpperCase(Locale.ENGLISH))) {
+            var key = normalize(name);
+            if (!isAccepted(key)) {
                 continue;
             }
 
             var value = h.getValue();
-            var count = headers.stream()
+            var count = find(key).stream()
                     .filter(mh -> mh.nameEquals(name, false) && mh.valueEquals(value, false))
                     .peek(MailHeader::setTrusted)
                     .count();
@@ -123,12 +146,14 @@ public class SignedMail implements Mail {
         while (en.hasMoreElements()) {
             var h = en.nextElement();
             var name = h.getName();
-            if (IGNORE_HEADERS.contains(name.toUpperCase(Locale.ENGLISH))) {
+            var key = normalize(name);
+            if (!isAccepted(key)) {
                 continue;
             }
 
-            headers.removeIf(mh -> mh.nameEquals(name, true) && !mh.trusted);
-            headers.add(new MailHeader(name, h.getValue()).setTrusted());
+            var bucket = headers.computeIfAbsent(key, k -> new ArrayList<>(1));
+            bucket.removeIf(mh -> mh.nameEquals(name, true) && !mh.trusted);
+            bucket.add(new MailHeader(name, h.getValue()).setTrusted());
         }
     }
 
@@ -169,6 +194,9 @@ public class SignedMail implements Mail {
                     if (headerField.size() >= 3) {
                         fieldStatus = ((ASN1Integer) headerField.getObjectAt(2)).intValueExact();
                     }
+                    if (requiredHeadersOnly && !isAccepted(normalize(fieldName))) {
+                        continue;
+                    }
                     switch (fieldStatus) {
                         case 0:
                             checkDuplicatedField(fieldName, fieldValue, relaxed);
@@ -212,8 +240,7 @@ public class SignedMail implements Mail {
 
     @Override
     public Optional<String> getMessageId() {
-        return headers.stream()
-                .filter(mh -> "MESSAGE-ID".equalsIgnoreCase(mh.name))
+        return find("MESSAGE-ID").stream()
                 .map(mh -> mh.value)
                 .map(String::trim)
                 .findFirst();
@@ -221,8 +248,7 @@ public class SignedMail implements Mail {
 
     @Override
     public Collection<InternetAddress> getReplyTo() throws AcmeInvalidMessageException {
-        var replyToList = headers.stream()
-                .filter(mh -> "REPLY-TO".equalsIgnoreCase(mh.name))
+        var replyToList = find("REPLY-TO").stream()
                 .map(mh -> mh.value)
                 .map(String::trim)
                 .collect(Collectors.toList());
@@ -244,8 +270,7 @@ public class SignedMail implements Mail {
 
     @Override
     public boolean isAutoSubmitted() {
-        return headers.stream()
-                .filter(mh -> "AUTO-SUBMITTED".equalsIgnoreCase(mh.name))
+        return find("AUTO-SUBMITTED").stream()
                 .map(mh -> mh.value)
                 .map(String::trim)
                 .map(mh -> mh.toLowerCase(Locale.ENGLISH))
@@ -259,7 +284,8 @@ public class SignedMail implements Mail {
      */
     public Set<String> getMissingSecuredHeaders() {
         var missing = new TreeSet<>(REQUIRED_HEADERS);
-        headers.stream()
+        headers.values().stream()
+                .flatMap(List::stream)
                 .filter(mh -> mh.trusted)
                 .map(mh -> mh.name)
                 .map(mh -> mh.toUpperCase(Locale.ENGLISH))
@@ -281,7 +307,7 @@ public class SignedMail implements Mail {
      *         if a header with the same value was not found
      */
     protected void checkDuplicatedField(String header, String value, boolean relaxed) throws AcmeInvalidMessageException {
-        var count = headers.stream()
+        var count = find(normalize(header)).stream()
                 .filter(mh -> mh.nameEquals(header, relaxed) && mh.valueEquals(value, relaxed))
                 .peek(MailHeader::setTrusted)
                 .count();
@@ -306,7 +332,8 @@ public class SignedMail implements Mail {
      *         if a header with the same value was not found
      */
     protected void deleteField(String header, String value, boolean relaxed) throws AcmeInvalidMessageException {
-        if (!headers.removeIf(mh -> mh.nameEquals(header, relaxed) && mh.valueEquals(value, relaxed))) {
+        var bucket = headers.get(normalize(header));
+        if (bucket == null || !bucket.removeIf(mh -> mh.nameEquals(header, relaxed) && mh.valueEquals(value, relaxed))) {
             throw new AcmeInvalidMessageException("Secured header '" + header
                     + "' was not found in envelope header for deletion");
         }
@@ -326,11 +353,12 @@ public class SignedMail implements Mail {
      *         if the header was not found
      */
     protected void modifyField(String header, String value, boolean relaxed) throws AcmeInvalidMessageException {
-        if (!headers.removeIf(mh -> mh.nameEquals(header, relaxed))) {
+        var bucket = headers.get(normalize(header));
+        if (bucket == null || !bucket.removeIf(mh -> mh.nameEquals(header, relaxed))) {
             throw new AcmeInvalidMessageException("Secured header '" + header
                     + "' was not found in envelope header for modification");
         }
-        headers.add(new MailHeader(header, value).setTrusted());
+        bucket.add(new MailHeader(header, value).setTrusted());
     }
 
     /**
@@ -346,8 +374,7 @@ public class SignedMail implements Mail {
      *         trusted
      */
     private String fetchTrustedHeader(String name) throws AcmeInvalidMessageException {
-        var candidates = headers.stream()
-                .filter(mh -> name.equalsIgnoreCase(mh.name))
+        var candidates = find(name).stream()
                 .filter(mh -> mh.trusted)
                 .map(mh -> mh.value)
                 .map(String::trim)
@@ -366,11 +393,46 @@ public class SignedMail implements Mail {
         return candidates.get(0);
     }
 
+    /**
+     * Returns the headers of the given name.
+     *
+     * @param key
+     *         Normalized header name
+     * @return List of all headers with that name, may be empty. It must not be
+     * modified, use {@link #headers} for changing the headers.
+     */
+    private List<MailHeader> find(String key) {
+        return headers.getOrDefault(key, List.of());
+    }
+
+    /**
+     * Checks if a header is to be imported.
+     *
+     * @param key
+     *         Normalized header name
+     * @return {@code true} if the header is imported, {@code false} if it is ignored
+     */
+    private boolean isAccepted(String key) {
+        if (IGNORE_HEADERS.contains(key)) {
+            return false;
+        }
+        return !requiredHeadersOnly || CHALLENGE_HEADERS.contains(key);
+    }
+
+    /**
+     * Normalizes a header name, so it can be used as index key.
+     */
+    private static String normalize(String name) {
+        return name.toUpperCase(Locale.ENGLISH);
+    }
+
     @Override
     public String toString() {
         var sb = new StringBuilder();
-        for (var mh : headers) {
-            sb.append(mh.toString()).append('\n');
+        for (var bucket : headers.values()) {
+            for (var mh : bucket) {
+                sb.append(mh.toString()).append('\n');
+            }
         }
         return sb.toString();
     }
@@ -22,31 +22,50 @@ import java.security.InvalidAlgorithmParameterException;
 import java.security.KeyStore;
 import java.security.KeyStoreException;
 import java.security.NoSuchAlgorithmException;
+import java.security.cert.CertStoreException;
+import java.security.cert.CertificateEncodingException;
 import java.security.cert.CertificateException;
+import java.security.cert.CertificateExpiredException;
+import java.security.cert.CertificateNotYetValidException;
 import java.security.cert.PKIXParameters;
 import java.security.cert.X509Certificate;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Date;
+import java.util.Enumeration;
+import java.util.Locale;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
 
 import edu.umd.cs.findbugs.annotations.Nullable;
+import jakarta.mail.BodyPart;
+import jakarta.mail.Header;
 import jakarta.mail.Message;
 import jakarta.mail.MessagingException;
 import jakarta.mail.Session;
 import jakarta.mail.internet.AddressException;
 import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.InternetHeaders;
 import jakarta.mail.internet.MimeMessage;
 import jakarta.mail.internet.MimeMultipart;
 import org.bouncycastle.asn1.x509.Extension;
 import org.bouncycastle.asn1.x509.GeneralName;
 import org.bouncycastle.asn1.x509.GeneralNames;
 import org.bouncycastle.cert.X509CertificateHolder;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateConverter;
+import org.bouncycastle.cert.jcajce.JcaX509CertificateHolder;
 import org.bouncycastle.cms.CMSException;
+import org.bouncycastle.cms.CMSSignerDigestMismatchException;
 import org.bouncycastle.cms.SignerInformation;
+import org.bouncycastle.cms.jcajce.JcaX509CertSelectorConverter;
+import org.bouncycastle.cms.jcajce.JcaSimpleSignerInfoVerifierBuilder;
 import org.bouncycastle.mail.smime.SMIMESigned;
 import org.bouncycastle.mail.smime.validator.SignedMailValidator;
 import org.bouncycastle.mail.smime.validator.SignedMailValidatorException;
+import org.bouncycastle.operator.OperatorCreationException;
 import org.shredzone.acme4j.exception.AcmeProtocolException;
 import org.shredzone.acme4j.smime.exception.AcmeInvalidMessageException;
 
@@ -57,12 +76,18 @@ import org.shredzone.acme4j.smime.exception.AcmeInvalidMessageException;
  */
 public class SignedMailBuilder {
     private static final AtomicReference<KeyStore> CACERTS_TRUSTSTORE = new AtomicReference<>();
+    private static final String[] CHALLENGE_HEADER_NAMES =
+            SignedMail.CHALLENGE_HEADERS.toArray(new String[0]);
 
     private Session mailSession = Session.getDefaultInstance(new Properties());
     private volatile boolean relaxed = false;
+    private volatile boolean requiredHeadersOnly = false;
 
     @Nullable
-    private PKIXParameters pkixParameters = null;
+    private volatile PKIXParameters pkixParameters = null;
+
+    @Nullable
+    private volatile ValidationCache validationCache = null;
 
     /**
      * Uses the standard cacerts truststore. This is the default.
@@ -147,6 +172,60 @@ public class SignedMailBuilder {
         return this;
     }
 
+    /**
+     * Only reads the headers that are required for processing a challenge message,
+     * namely "From", "To", "Subject", "Message-ID", "Reply-To", and "Auto-Submitted".
+     * All other headers of the envelope, the signed message body, and the signature are
+     * ignored, and the signed message body is not parsed beyond its header.
+     * <p>
+     * This reduces the processing effort of high volumes of challenge messages. Note
+     * that secured headers that are not required are not checked against the envelope
+     * message then. By default, all headers are read and checked.
+     *
+     * @param requiredHeadersOnly
+     *         {@code true}: only read the required headers
+     * @return itself
+     * @since 5.2.0
+     */
+    public SignedMailBuilder requiredHeadersOnly(boolean requiredHeadersOnly) {
+        this.requiredHeadersOnly = requiredHeadersOnly;
+        return this;
+    }
+
+    /**
+     * Enables a cache for certificate path validation results.
+     * <p>
+     * Building and validating the certificate path of the signer is expensive. If many
+     * messages are signed by the same certificate, the path only needs to be validated
+     * once. For subsequent messages of the same signer, the certificate path validation
+     * is skipped until the validation result expires. The signature, the envelope sender
+     * and the signing time are still checked for each message. Results are only cached
+     * if the validation was successful.
+     * <p>
+     * Note that a revocation of the signer certificate will only be noticed after the
+     * validation result has expired. By default, no cache is used.
+     *
+     * @param timeToLive
+     *         Time until a validation result expires
+     * @param maxSize
+     *         Maximum number of cached validation results
+     * @return itself
+     * @since 5.2.0
+     */
+    public SignedMailBuilder withValidationCache(Duration timeToLive, int maxSize) {
+        requireNonNull(timeToLive, "timeToLive");
+        this.validationCache = new ValidationCache(timeToLive, maxSize, Clock.systemUTC());
+        return this;
+    }
+
+    /**
+     * Returns the validation cache, or {@code null} if it is disabled.
+     */
+    @Nullable
+    ValidationCache getValidationCache() {
+        return validationCache;
+    }
+
     /**
      * Validates the message signature and message headers. If validation passes, a
      * {@link SignedMail} instance is returned that gives access to the trusted mail
@@ -171,35 +250,43 @@ public class SignedMailBuilder {
                 throw new AcmeProtocolException("S/MIME signed message must contain MimeMultipart");
             }
 
-            if (pkixParameters == null) {
-                pkixParameters = new PKIXParameters(getCaCertsTrustStore());
-            }
-
-            // Get the signed message
-            SMIMESigned signed = new SMIMESigned(contentMultipart);
-
             // Validate the signature
-            SignerInformation si = validateSignature(mimeMessage, pkixParameters);
+            Signature signature = validateSignature(mimeMessage, contentMultipart, getPKIXParameters());
 
             // Collect the headers
-            SignedMail result = new SignedMail();
+            boolean headersOnly = requiredHeadersOnly;
+            SignedMail result = new SignedMail(headersOnly);
 
             // First import all untrusted headers from the envelope message
-            result.importUntrustedHeaders(mimeMessage.getAllHeaders());
+            result.importUntrustedHeaders(headersOnly
+                    ? mimeMessage.getMatchingHeaders(CHALLENGE_HEADER_NAMES)
+                    : mimeMessage.getAllHeaders());
+
+            // If there is an inner, signed message, import all signed headers. The first
+            // body part is the signed content, it is taken from the already parsed multipart.
+            BodyPart content = contentMultipart.getBodyPart(0);
+            if (content.isMimeType("message/rfc822")) {
+                Enumeration<Header> protectedHeaders;
+                if (headersOnly) {
+                    // Only the header block of the inner message is read
+                    try (var in = content.getInputStream()) {
+                        protectedHeaders = new InternetHeaders(in)
+                                .getMatchingHeaders(CHALLENGE_HEADER_NAMES);
+                    }
+                } else {
+                    protectedHeaders = new MimeMessage(mailSession, content.getInputStream())
+                            .getAllHeaders();
+                }
 
-            // If there is an inner, signed message, import all signed headers
-            MimeMessage content = signed.getContentAsMimeMessage(mailSession);
-            if (content != null && content.isMimeType("message/rfc822")) {
-                MimeMessage protectedBody = new MimeMessage(mailSession, content.getInputStream());
                 if (relaxed) {
-                    result.importTrustedHeadersRelaxed(protectedBody.getAllHeaders());
+                    result.importTrustedHeadersRelaxed(protectedHeaders);
                 } else {
-                    result.importTrustedHeaders(protectedBody.getAllHeaders());
+                    result.importTrustedHeaders(protectedHeaders);
                 }
             }
 
             // Import secured headers from the signature, if present
-            result.importSignatureHeaders(si);
+            result.importSignatureHeaders(signature.signer());
 
             // Check if all mandatory headers are trusted
             Set<String> missing = result.getMissingSecuredHeaders();
@@ -209,7 +296,7 @@ public class SignedMailBuilder {
             }
 
             // Check if the signer matches the mail sender
-            InternetAddress signerAddress = validateSigatureSender(signed, si);
+            InternetAddress signerAddress = validateSigatureSender(signature.certificate());
             if (!result.getFrom().equals(signerAddress)) {
                 throw new AcmeInvalidMessageException("Message is not signed by the expected sender");
             }
@@ -221,16 +308,148 @@ public class SignedMailBuilder {
         }
     }
 
+    /**
+     * Returns the {@link PKIXParameters} to be used for validation. If none were set,
+     * parameters using the cacerts truststore are created. Messages may be built
+     * concurrently, so the parameters are only created once.
+     */
+    private synchronized PKIXParameters getPKIXParameters()
+            throws KeyStoreException, InvalidAlgorithmParameterException {
+        if (pkixParameters == null) {
+            pkixParameters = new PKIXParameters(getCaCertsTrustStore());
+        }
+        return pkixParameters;
+    }
+
+    /**
+     * Validates the signature of the signed message. If the certificate path of the
+     * signer has been validated before, only the signature and the message specific
+     * checks are performed.
+     * <p>
+     * The message is only decoded once. Without validation cache, the signer and its
+     * certificate are taken from the {@link SignedMailValidator}. With validation cache,
+     * they are taken from the {@link SMIMESigned}, and the validator is only invoked if
+     * the certificate path of the signer is unknown.
+     *
+     * @return The {@link Signature} of the valid signature.
+     * @throws AcmeInvalidMessageException
+     *         if the signature is invalid, or if the message was signed with more than
+     *         one signature.
+     */
+    private Signature validateSignature(MimeMessage message, MimeMultipart multipart,
+            PKIXParameters pkixParameters)
+            throws AcmeInvalidMessageException, CMSException, MessagingException {
+        var cache = validationCache;
+        if (cache == null) {
+            return validateSignature(message, pkixParameters);
+        }
+
+        var signed = new SMIMESigned(multipart);
+        var signers = signed.getSignerInfos();
+        if (signers.size() != 1) {
+            throw new AcmeInvalidMessageException("Expected exactly one signer, but found " + signers.size());
+        }
+        var signer = signers.getSigners().iterator().next();
+        var signerCert = findSignerCertificate(signed, signer);
+        if (signerCert == null) {
+            // let the validator report the problem
+            return validateSignature(message, pkixParameters);
+        }
+
+        try {
+            var key = cache.key(signerCert.getEncoded(), pkixParameters);
+            if (cache.isValidated(key) && signerCert.isValidOn(new Date())) {
+                var verifier = new JcaSimpleSignerInfoVerifierBuilder().build(signerCert);
+                try {
+                    if (!signer.verify(verifier)) {
+                        throw new AcmeInvalidMessageException("Invalid signature");
+                    }
+                } catch (CMSSignerDigestMismatchException ex) {
+                    throw new AcmeInvalidMessageException("Invalid signature", ex);
+                }
+                validateMessageSigner(message, signer,
+                        new JcaX509CertificateConverter().getCertificate(signerCert));
+                return new Signature(signer, signerCert);
+            }
+
+            var result = validateSignature(message, pkixParameters);
+            cache.recordValidated(key);
+            return result;
+        } catch (IOException | OperatorCreationException | CertificateException ex) {
+            throw new AcmeInvalidMessageException("Could not validate message signature", ex);
+        }
+    }
+
+    /**
+     * Performs the checks of the {@link SignedMailValidator} that depend on the message
+     * itself, and not only on the signer certificate. They are required when the
+     * certificate path validation was skipped because of a cached result.
+     * <p>
+     * One of the envelope sender addresses must match an email address of the signer
+     * certificate, and the certificate must have been valid at the signing time.
+     *
+     * @throws AcmeInvalidMessageException
+     *         if one of the checks failed
+     */
+    private static void validateMessageSigner(MimeMessage message, SignerInformation signer,
+            X509Certificate signerCert)
+            throws AcmeInvalidMessageException, MessagingException, IOException,
+            CertificateEncodingException {
+        var senders = new ArrayList<String>();
+        var from = message.getFrom();
+        if (from != null) {
+            for (var address : from) {
+                senders.add(((InternetAddress) address).getAddress());
+            }
+        }
+        var sender = message.getHeader("Sender");
+        if (sender != null) {
+            try {
+                senders.add(new InternetAddress(sender[0]).getAddress());
+            } catch (AddressException ex) {
+                // ignored, like the SignedMailValidator does
+            }
+        }
+
+        var certEmails = SignedMailValidator.getEmailAddresses(signerCert);
+        if (senders.stream()
+                .map(address -> address.toLowerCase(Locale.ENGLISH))
+                .noneMatch(certEmails::contains)) {
+            throw new AcmeInvalidMessageException("Invalid signature");
+        }
+
+        var signingTime = SignedMailValidator.getSignatureTime(signer);
+        if (signingTime != null) {
+            try {
+                signerCert.checkValidity(signingTime);
+            } catch (CertificateExpiredException | CertificateNotYetValidException ex) {
+                throw new AcmeInvalidMessageException("Invalid signature", ex);
+            }
+        }
+    }
+
+    /**
+     * Finds the certificate of the signer.
+     *
+     * @return Signer certificate, or {@code null} if it is not contained in the message
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private static X509CertificateHolder findSignerCertificate(SMIMESigned signed, SignerInformation si) {
+        Collection<X509CertificateHolder> certCollection = signed.getCertificates().getMatches(si.getSID());
+        return certCollection.isEmpty() ? null : certCollection.iterator().next();
+    }
+
     /**
      * Validates the signature of the signed message.
      *
-     * @return The {@link SignerInformation} of the valid signature.
+     * @return The {@link Signature} of the valid signature.
      * @throws AcmeInvalidMessageException
      *         if the signature is invalid, or if the message was signed with more than
      *         one signature.
      */
     @SuppressWarnings("unchecked")
-    private SignerInformation validateSignature(MimeMessage message, PKIXParameters pkixParameters)
+    private Signature validateSignature(MimeMessage message, PKIXParameters pkixParameters)
             throws AcmeInvalidMessageException {
         try {
             var smv = new SignedMailValidator(message, pkixParameters);
@@ -245,9 +464,19 @@ public class SignedMailBuilder {
             if (!vr.isValidSignature()) {
                 throw new AcmeInvalidMessageException("Invalid signature", vr.getErrors());
             }
-            return si;
+
+            var certs = smv.getCertsAndCRLs().getCertificates(
+                    new JcaX509CertSelectorConverter().getCertSelector(si.getSID()));
+            if (certs.isEmpty()) {
+                throw new AcmeInvalidMessageException("Could not find certificate for signer ID "
+                        + si.getSID().toString());
+            }
+            var cert = new JcaX509CertificateHolder((X509Certificate) certs.iterator().next());
+            return new Signature(si, cert);
         } catch (SignedMailValidatorException ex) {
             throw new AcmeInvalidMessageException("Cannot validate signature", ex);
+        } catch (CertStoreException | CertificateEncodingException ex) {
+            throw new AcmeInvalidMessageException("Could not validate message signature", ex);
         }
     }
 
@@ -255,25 +484,15 @@ public class SignedMailBuilder {
      * Validates the signature of the sender. It MUST contain a subjectAltName extension
      * with a rfc822Name that matches the sender.
      *
-     * @param signed
-     *         {@link SMIMESigned} of the signed message
-     * @param si
-     *         {@link SignerInformation} of the message signer
+     * @param ch
+     *         {@link X509CertificateHolder} of the message signer
      * @return The {@link InternetAddress} of the rfc822Name found in the subjectAltName
      * @throws AcmeInvalidMessageException
      *         if no signature was found, or if the signature has no subjectAltName
      *         extension with rfc822Name.
      */
-    @SuppressWarnings("unchecked")
-    private InternetAddress validateSigatureSender(SMIMESigned signed, SignerInformation si)
+    private InternetAddress validateSigatureSender(X509CertificateHolder ch)
             throws AcmeInvalidMessageException {
-        Collection<X509CertificateHolder> certCollection = signed.getCertificates().getMatches(si.getSID());
-        if (certCollection.isEmpty()) {
-            throw new AcmeInvalidMessageException("Could not find certificate for signer ID "
-                    + si.getSID().toString());
-        }
-        var ch = certCollection.iterator().next();
-
         var gns = GeneralNames.fromExtensions(ch.getExtensions(), Extension.subjectAlternativeName);
         if (gns == null) {
             throw new AcmeInvalidMessageException("Certificate does not have a subjectAltName extension");
@@ -317,4 +536,10 @@ public class SignedMailBuilder {
         return caCerts;
     }
 
+    /**
+     * The signer of a validated message, and its certificate.
+     */
+    private record Signature(SignerInformation signer, X509CertificateHolder certificate) {
+    }
+
 }
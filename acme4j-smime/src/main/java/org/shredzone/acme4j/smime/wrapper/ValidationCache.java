@@ -0,0 +1,197 @@
+/*
+ * acme4j - Java ACME client
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://acme4j.shredzone.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ */
+package org.shredzone.acme4j.smime.wrapper;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.PKIXParameters;
+import java.security.cert.TrustAnchor;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * Remembers signer certificates whose certificate path has been validated successfully.
+ * <p>
+ * Entries are identified by the SHA-256 fingerprint of the signer certificate, and a
+ * fingerprint of the trust anchors that were used for validation. The number of entries
+ * is limited, and each entry expires after a time-to-live.
+ * <p>
+ * This class is thread-safe.
+ */
+final class ValidationCache {
+    private final Duration timeToLive;
+    private final int maxSize;
+    private final Clock clock;
+    private final Map<ByteBuffer, Instant> validated;
+    private @Nullable TrustAnchorDigest trustAnchorDigest = null;
+    private long hits = 0L;
+
+    /**
+     * Creates a new {@link ValidationCache}.
+     *
+     * @param timeToLive
+     *         Time until a validation result expires
+     * @param maxSize
+     *         Maximum number of cached validation results
+     * @param clock
+     *         {@link Clock} to be used
+     */
+    ValidationCache(Duration timeToLive, int maxSize, Clock clock) {
+        if (timeToLive.isNegative() || timeToLive.isZero()) {
+            throw new IllegalArgumentException("timeToLive must be positive");
+        }
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        this.timeToLive = timeToLive;
+        this.maxSize = maxSize;
+        this.clock = clock;
+        this.validated = new BoundedMap(maxSize);
+    }
+
+    /**
+     * Computes the cache key of a signer certificate.
+     *
+     * @param signerCertificate
+     *         DER encoded signer certificate
+     * @param params
+     *         {@link PKIXParameters} that contain the trust anchors
+     * @return Cache key
+     */
+    ByteBuffer key(byte[] signerCertificate, PKIXParameters params) {
+        var md = sha256();
+        md.update(signerCertificate);
+        md.update(getTrustAnchorDigest(params));
+        return ByteBuffer.wrap(md.digest());
+    }
+
+    /**
+     * Checks if the certificate path of the given key has been validated, and the result
+     * has not expired yet.
+     */
+    synchronized boolean isValidated(ByteBuffer key) {
+        var expires = validated.get(key);
+        if (expires == null) {
+            return false;
+        }
+        if (!clock.instant().isBefore(expires)) {
+            validated.remove(key);
+            return false;
+        }
+        hits++;
+        return true;
+    }
+
+    /**
+     * Records a successful certificate path validation.
+     */
+    synchronized void recordValidated(ByteBuffer key) {
+        validated.put(key, clock.instant().plus(timeToLive));
+    }
+
+    /**
+     * Returns the number of cache hits.
+     */
+    synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of cached validation results.
+     */
+    synchronized int size() {
+        return validated.size();
+    }
+
+    /**
+     * Returns the fingerprint of the trust anchors. It is only computed again if the
+     * trust anchors have changed. The {@link PKIXParameters} can be modified after
+     * use, so the digest is compared against a snapshot of the trust anchors.
+     */
+    private synchronized byte[] getTrustAnchorDigest(PKIXParameters params) {
+        var anchors = params.getTrustAnchors();
+        var current = trustAnchorDigest;
+        if (current != null && current.anchors().equals(anchors)) {
+            return current.digest();
+        }
+
+        var snapshot = Set.copyOf(anchors);
+        var encoded = new ArrayList<byte[]>();
+        for (var anchor : snapshot) {
+            var cert = anchor.getTrustedCert();
+            try {
+                if (cert != null) {
+                    encoded.add(cert.getEncoded());
+                } else {
+                    encoded.add(anchor.getCA().getEncoded());
+                    encoded.add(anchor.getCAPublicKey().getEncoded());
+                }
+            } catch (CertificateEncodingException ex) {
+                throw new IllegalArgumentException("Invalid trust anchor", ex);
+            }
+        }
+        // the order of the trust anchors is undefined
+        encoded.sort(Arrays::compare);
+
+        var md = sha256();
+        encoded.forEach(md::update);
+        var digest = md.digest();
+        trustAnchorDigest = new TrustAnchorDigest(snapshot, digest);
+        return digest;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * The fingerprint of a snapshot of trust anchors.
+     */
+    private record TrustAnchorDigest(Set<TrustAnchor> anchors, byte[] digest) {
+    }
+
+    /**
+     * LRU map that drops the eldest entry when the size limit is exceeded.
+     */
+    private static class BoundedMap extends LinkedHashMap<ByteBuffer, Instant> {
+        private static final long serialVersionUID = 1L;
+
+        private final int maxSize;
+
+        private BoundedMap(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<ByteBuffer, Instant> eldest) {
+            return size() > maxSize;
+        }
+    }
+
+}
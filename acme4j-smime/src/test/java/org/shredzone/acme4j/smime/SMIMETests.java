@@ -33,7 +33,9 @@ import jakarta.mail.internet.InternetAddress;
 import jakarta.mail.internet.MimeMessage;
 import org.shredzone.acme4j.Login;
 import org.shredzone.acme4j.smime.challenge.EmailReply00Challenge;
+import org.shredzone.acme4j.toolbox.AcmeUtils;
 import org.shredzone.acme4j.toolbox.JSON;
+import org.shredzone.acme4j.toolbox.JoseUtils;
 import org.shredzone.acme4j.util.KeyPairUtils;
 
 /**
@@ -96,7 +98,10 @@ public abstract class SMIMETests {
      */
     protected Login mockLogin() {
         var login = mock(Login.class);
-        when(login.getPublicKey()).thenReturn(mockAccountKey().getPublic());
+        var publicKey = mockAccountKey().getPublic();
+        when(login.getPublicKey()).thenReturn(publicKey);
+        when(login.getThumbprint()).thenReturn(
+                AcmeUtils.base64UrlEncode(JoseUtils.thumbprint(publicKey)));
         return login;
     }
 
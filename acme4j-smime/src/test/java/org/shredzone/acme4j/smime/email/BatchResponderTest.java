@@ -0,0 +1,222 @@
+/*
+ * acme4j - Java ACME client
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://acme4j.shredzone.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ */
+package org.shredzone.acme4j.smime.email;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.security.Security;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.shredzone.acme4j.smime.SMIMETests;
+
+/**
+ * Unit tests for {@link BatchResponder}.
+ */
+public class BatchResponderTest extends SMIMETests {
+
+    @BeforeAll
+    public static void setup() {
+        Security.addProvider(new BouncyCastleProvider());
+    }
+
+    /**
+     * Test that responses are generated and sent in batches.
+     */
+    @Test
+    public void testRespond() throws Exception {
+        var processors = new ArrayList<EmailProcessor>();
+        for (var ix = 0; ix < 4; ix++) {
+            processors.add(createProcessor());
+        }
+        var noChallenge = EmailProcessor.plainMessage(mockMessage("challenge"));
+        processors.add(2, noChallenge);
+
+        var batches = new ArrayList<List<Message>>();
+        var responder = new BatchResponder(collecting(batches))
+                .batchSize(3)
+                .mailSession(mailSession)
+                .withHeader("This is an introduction.")
+                .withFooter("This is a footer.");
+
+        var result = responder.respond(processors);
+
+        assertThat(result.getBatches()).isEqualTo(2);
+        assertThat(result.getSent()).hasSize(4).doesNotContain(noChallenge);
+        assertThat(result.getFailures()).containsOnlyKeys(noChallenge);
+        assertThat(result.getFailures().get(noChallenge)).isInstanceOf(IllegalStateException.class);
+        assertThat(result.toString()).isEqualTo("4 sent in 2 batches, 1 failures");
+
+        assertThat(batches).hasSize(2);
+        assertThat(batches.get(0)).hasSize(3);
+        assertThat(batches.get(1)).hasSize(1);
+        for (var batch : batches) {
+            for (var response : batch) {
+                assertThat(response.getSubject()).isEqualTo("Re: ACME: " + TOKEN_PART1);
+                assertThat(response.getContent().toString()).isEqualTo(
+                        "This is an introduction.\r\n" + RESPONSE_BODY + "This is a footer.");
+            }
+        }
+    }
+
+    /**
+     * Test that a custom body generator is used.
+     */
+    @Test
+    public void testRespondWithGenerator() throws Exception {
+        var batches = new ArrayList<List<Message>>();
+        var responder = new BatchResponder(collecting(batches))
+                .withGenerator((msg, body) -> msg.setContent("Head\r\n" + body + "Foot", "text/plain"));
+
+        var result = responder.respond(List.of(createProcessor(), createProcessor()));
+
+        assertThat(result.getSent()).hasSize(2);
+        assertThat(result.getBatches()).isEqualTo(1);
+        assertThat(batches.get(0).get(1).getContent().toString())
+                .isEqualTo("Head\r\n" + RESPONSE_BODY + "Foot");
+    }
+
+    /**
+     * Test that a failing batch does not affect the other batches.
+     */
+    @Test
+    public void testSendFailure() throws Exception {
+        var first = createProcessor();
+        var second = createProcessor();
+        var third = createProcessor();
+
+        var calls = new ArrayList<List<Message>>();
+        var failure = new MessagingException("Mail server not reachable");
+        ResponseSender sender = responses -> {
+            calls.add(responses);
+            if (calls.size() == 1) {
+                throw failure;
+            }
+            return Map.of();
+        };
+
+        var result = new BatchResponder(sender).batchSize(2)
+                .respond(List.of(first, second, third));
+
+        assertThat(calls).hasSize(2);
+        assertThat(result.getBatches()).isEqualTo(2);
+        assertThat(result.getSent()).containsExactly(third);
+        assertThat(result.getFailures()).containsOnlyKeys(first, second);
+        assertThat(result.getFailures().get(first)).isSameAs(failure);
+    }
+
+    /**
+     * Test that only the responses that have not been sent are reported as failures.
+     */
+    @Test
+    public void testPartialSendFailure() throws Exception {
+        var first = createProcessor();
+        var second = createProcessor();
+        var third = createProcessor();
+
+        var failure = new MessagingException("Mailbox unavailable");
+        ResponseSender sender = responses -> Map.of(responses.get(1), failure);
+
+        var result = new BatchResponder(sender).respond(List.of(first, second, third));
+
+        assertThat(result.getBatches()).isEqualTo(1);
+        assertThat(result.getSent()).containsExactly(first, third);
+        assertThat(result.getFailures()).containsOnlyKeys(second);
+        assertThat(result.getFailures().get(second)).isSameAs(failure);
+    }
+
+    /**
+     * Test that runtime exceptions of the generator and the sender do not abort the run.
+     */
+    @Test
+    public void testRuntimeExceptions() throws Exception {
+        var first = createProcessor();
+        var second = createProcessor();
+        var third = createProcessor();
+        var fourth = createProcessor();
+
+        var generated = new AtomicInteger();
+        var generatorFailure = new IllegalArgumentException("Bad template");
+        ResponseBodyGenerator generator = (msg, body) -> {
+            if (generated.incrementAndGet() == 1) {
+                throw generatorFailure;
+            }
+            msg.setContent(body, "text/plain");
+        };
+
+        var calls = new ArrayList<List<Message>>();
+        var senderFailure = new NullPointerException("Queue not initialized");
+        ResponseSender sender = responses -> {
+            calls.add(responses);
+            if (calls.size() == 1) {
+                throw senderFailure;
+            }
+            return Map.of();
+        };
+
+        var result = new BatchResponder(sender).batchSize(2).withGenerator(generator)
+                .respond(List.of(first, second, third, fourth));
+
+        assertThat(calls).hasSize(2);
+        assertThat(result.getSent()).containsExactly(fourth);
+        assertThat(result.getFailures()).containsOnlyKeys(first, second, third);
+        assertThat(result.getFailures().get(first)).isSameAs(generatorFailure);
+        assertThat(result.getFailures().get(second)).isSameAs(senderFailure);
+        assertThat(result.getFailures().get(third)).isSameAs(senderFailure);
+    }
+
+    /**
+     * Test that nothing is sent if there are no processors.
+     */
+    @Test
+    public void testEmpty() {
+        var calls = new ArrayList<List<Message>>();
+        var result = new BatchResponder(collecting(calls)).respond(List.of());
+        assertThat(calls).isEmpty();
+        assertThat(result.getSent()).isEmpty();
+        assertThat(result.getFailures()).isEmpty();
+        assertThat(result.getBatches()).isZero();
+    }
+
+    @Test
+    public void testInvalidBatchSize() {
+        var responder = new BatchResponder(responses -> Map.of());
+        assertThatIllegalArgumentException().isThrownBy(() -> responder.batchSize(0));
+    }
+
+    private EmailProcessor createProcessor() throws Exception {
+        return EmailProcessor.plainMessage(mockMessage("challenge"))
+                .withChallenge(mockChallenge("emailReplyChallenge"));
+    }
+
+    /**
+     * Returns a {@link ResponseSender} that collects the batches, and sends all
+     * responses successfully.
+     */
+    private static ResponseSender collecting(List<List<Message>> batches) {
+        return responses -> {
+            batches.add(responses);
+            return Map.of();
+        };
+    }
+
+}
@@ -0,0 +1,274 @@
+/*
+ * acme4j - Java ACME client
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://acme4j.shredzone.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ */
+package org.shredzone.acme4j.smime.email;
+
+import static jakarta.mail.Message.RecipientType.TO;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.spy;
+
+import java.security.Security;
+import java.util.HashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import jakarta.mail.Message;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.shredzone.acme4j.exception.AcmeProtocolException;
+import org.shredzone.acme4j.smime.EmailIdentifier;
+import org.shredzone.acme4j.smime.SMIMETests;
+import org.shredzone.acme4j.smime.challenge.EmailReply00Challenge;
+import org.shredzone.acme4j.smime.exception.AcmeInvalidMessageException;
+import org.shredzone.acme4j.toolbox.JSON;
+
+/**
+ * Unit tests for {@link EmailBatchProcessor}.
+ */
+public class EmailBatchProcessorTest extends SMIMETests {
+
+    @BeforeAll
+    public static void setup() {
+        Security.addProvider(new BouncyCastleProvider());
+    }
+
+    /**
+     * Test that a batch of messages is processed.
+     */
+    @Test
+    public void testProcess() throws Exception {
+        var identifier = EmailIdentifier.email("alexey@example.com");
+
+        var original = mockMessage("challenge");
+        var duplicate = mockMessage("challenge");
+        var resent = mockMessage("challenge");
+        resent.setHeader("Message-ID", "<B3300CC.EE6677@example.org>");
+        var unknownRecipient = mockMessage("challenge");
+        unknownRecipient.setHeader("Message-ID", "<C4411DD.DD5566@example.org>");
+        unknownRecipient.setRecipient(TO, email("bob@example.com"));
+        var notAutoSubmitted = mockMessage("challenge");
+        notAutoSubmitted.setHeader("Message-ID", "<D5522EE.CC4455@example.org>");
+        notAutoSubmitted.removeHeader("Auto-Submitted");
+
+        var processor = new EmailBatchProcessor(EmailProcessor.builder().skipVerification())
+                .parallelism(2)
+                .mailSession(mailSession)
+                .responseCustomizer(generator -> generator.withFooter("Footer"))
+                .addChallenge(identifier, mockChallenge("emailReplyChallenge"))
+                .addChallenge(identifier, mockChallenge("emailReplyChallenge"));
+
+        var result = processor.process(Stream.of(original, duplicate, resent,
+                unknownRecipient, notAutoSubmitted));
+
+        assertThat(result.getProcessed()).isEqualTo(5);
+        assertThat(result.getResponses())
+                .extracting(EmailBatchProcessor.Response::getMessage)
+                .containsExactly(original, resent);
+        assertThat(result.getDuplicates()).containsExactly(duplicate);
+        assertThat(result.getFailures()).containsOnlyKeys(unknownRecipient, notAutoSubmitted);
+        assertThat(result.getFailures().get(unknownRecipient))
+                .isInstanceOf(AcmeProtocolException.class);
+        assertThat(result.getFailures().get(notAutoSubmitted))
+                .isInstanceOf(AcmeInvalidMessageException.class);
+        assertThat(result.getMessagesPerSecond()).isPositive();
+
+        for (var response : result.getResponses()) {
+            assertThat(response.getProcessor().getAuthorization()).isEqualTo(KEY_AUTHORIZATION);
+            var message = response.getResponse();
+            assertThat(message.getSubject()).isEqualTo("Re: ACME: " + TOKEN_PART1);
+            assertThat(message.getRecipients(TO)).containsExactly(email("acme-validator@example.org"));
+            assertThat(message.getContent().toString()).isEqualTo(RESPONSE_BODY + "Footer");
+        }
+
+        // Answered messages are skipped in later batches, failed ones are processed again
+        var retry = processor
+                .addChallenge(EmailIdentifier.email("bob@example.com"), mockChallenge("emailReplyChallenge"))
+                .process(Stream.of(mockMessage("challenge"), unknownRecipient));
+        assertThat(retry.getDuplicates()).hasSize(1);
+        assertThat(retry.getResponses())
+                .extracting(EmailBatchProcessor.Response::getMessage)
+                .containsExactly(unknownRecipient);
+    }
+
+    /**
+     * Test that answered challenges are removed, so a later challenge for the same
+     * address is answered with its own token.
+     */
+    @Test
+    public void testConsecutiveChallenges() throws Exception {
+        var identifier = EmailIdentifier.email("alexey@example.com");
+        var processor = new EmailBatchProcessor(EmailProcessor.builder().skipVerification())
+                .mailSession(mailSession);
+
+        var first = mockChallenge("emailReplyChallenge");
+        processor.addChallenge(identifier, first);
+        var firstResult = processor.process(Stream.of(mockMessage("challenge")));
+        assertThat(firstResult.getResponses()).hasSize(1);
+        assertThat(firstResult.getResponses().get(0).getProcessor().getAuthorization())
+                .isEqualTo(first.getAuthorization(TOKEN_PART1));
+        assertThat(processor.removeChallenge(identifier, first)).isFalse();
+
+        var secondJson = new HashMap<>(getJSON("emailReplyChallenge").toMap());
+        secondJson.put("token", "Xh2vP0sE8rQyN4mT6kLd3w");
+        secondJson.put("url", "https://example.com/acme/chall/CDqsW_C8zFzB5g");
+        var second = new EmailReply00Challenge(mockLogin(), JSON.fromMap(secondJson));
+        processor.addChallenge(identifier, second);
+
+        var nextMessage = mockMessage("challenge");
+        nextMessage.setHeader("Message-ID", "<E6633FF.BB3344@example.org>");
+        var secondResult = processor.process(Stream.of(nextMessage));
+        assertThat(secondResult.getFailures()).isEmpty();
+        var authorization = secondResult.getResponses().get(0).getProcessor().getAuthorization();
+        assertThat(authorization)
+                .isEqualTo(second.getAuthorization(TOKEN_PART1))
+                .isNotEqualTo(first.getAuthorization(TOKEN_PART1));
+
+        // The challenge was answered, so a third message is rejected
+        var thirdMessage = mockMessage("challenge");
+        thirdMessage.setHeader("Message-ID", "<F7744AA.AA2233@example.org>");
+        var thirdResult = processor.process(Stream.of(thirdMessage));
+        assertThat(thirdResult.getFailures().get(thirdMessage))
+                .isInstanceOf(AcmeProtocolException.class);
+    }
+
+    /**
+     * Test that pending challenges can be removed.
+     */
+    @Test
+    public void testRemoveChallenge() throws Exception {
+        var identifier = EmailIdentifier.email("alexey@example.com");
+        var challenge = mockChallenge("emailReplyChallenge");
+        var processor = new EmailBatchProcessor(EmailProcessor.builder().skipVerification())
+                .addChallenge(identifier, challenge);
+
+        assertThat(processor.removeChallenge(identifier, challenge)).isTrue();
+        assertThat(processor.removeChallenge(identifier, challenge)).isFalse();
+
+        var message = mockMessage("challenge");
+        var result = processor.process(Stream.of(message));
+        assertThat(result.getFailures().get(message)).isInstanceOf(AcmeProtocolException.class);
+    }
+
+    /**
+     * Test that duplicates of a failed message are reported as failures.
+     */
+    @Test
+    public void testFailedDuplicate() throws Exception {
+        var original = mockMessage("challenge");
+        var duplicate = mockMessage("challenge");
+        var processor = new EmailBatchProcessor(EmailProcessor.builder().skipVerification());
+
+        var result = processor.process(Stream.of(original, duplicate));
+        assertThat(result.getDuplicates()).isEmpty();
+        assertThat(result.getFailures()).containsOnlyKeys(original, duplicate);
+        assertThat(result.getFailures().get(duplicate))
+                .isSameAs(result.getFailures().get(original));
+    }
+
+    /**
+     * Test that only the most recent Message-IDs are remembered.
+     */
+    @Test
+    public void testMessageIdLimit() throws Exception {
+        var identifier = EmailIdentifier.email("alexey@example.com");
+        var processor = new EmailBatchProcessor(EmailProcessor.builder().skipVerification())
+                .mailSession(mailSession)
+                .messageIdLimit(1)
+                .addChallenge(identifier, mockChallenge("emailReplyChallenge"))
+                .addChallenge(identifier, mockChallenge("emailReplyChallenge"))
+                .addChallenge(identifier, mockChallenge("emailReplyChallenge"));
+
+        var first = mockMessage("challenge");
+        var second = mockMessage("challenge");
+        second.setHeader("Message-ID", "<B3300CC.EE6677@example.org>");
+        assertThat(processor.process(Stream.of(first, second)).getResponses()).hasSize(2);
+
+        // the Message-ID of the first message has been forgotten
+        var result = processor.process(Stream.of(mockMessage("challenge")));
+        assertThat(result.getDuplicates()).isEmpty();
+        assertThat(result.getResponses()).hasSize(1);
+
+        assertThatIllegalArgumentException().isThrownBy(() -> processor.messageIdLimit(0));
+    }
+
+    /**
+     * Test that messages of an interrupted batch are not regarded as duplicates, and
+     * their challenges are still pending.
+     */
+    @Test
+    public void testInterrupted() throws Exception {
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var jobThread = new AtomicReference<Thread>();
+
+        var verifier = spy(EmailProcessor.builder().skipVerification());
+        doAnswer(invocation -> {
+            jobThread.compareAndSet(null, Thread.currentThread());
+            started.countDown();
+            var released = false;
+            while (!released) {
+                try {
+                    release.await();
+                    released = true;
+                } catch (InterruptedException ex) {
+                    // complete the job anyway, after the batch was aborted
+                }
+            }
+            return invocation.callRealMethod();
+        }).when(verifier).build(any(Message.class));
+
+        var processor = new EmailBatchProcessor(verifier)
+                .mailSession(mailSession)
+                .addChallenge(EmailIdentifier.email("alexey@example.com"),
+                        mockChallenge("emailReplyChallenge"));
+
+        var message = mockMessage("challenge");
+        var failure = new AtomicReference<Throwable>();
+        var batchThread = new Thread(() -> {
+            try {
+                processor.process(Stream.of(message));
+            } catch (Throwable ex) {
+                failure.set(ex);
+            }
+        });
+        batchThread.start();
+        started.await();
+        batchThread.interrupt();
+        batchThread.join();
+        assertThat(failure.get()).isInstanceOf(InterruptedException.class);
+
+        // let the abandoned job complete
+        release.countDown();
+        jobThread.get().join();
+
+        var result = processor.process(Stream.of(mockMessage("challenge")));
+        assertThat(result.getDuplicates()).isEmpty();
+        assertThat(result.getFailures()).isEmpty();
+        assertThat(result.getResponses()).hasSize(1);
+    }
+
+    /**
+     * Test that the parallelism must be positive.
+     */
+    @Test
+    public void testInvalidParallelism() {
+        var processor = new EmailBatchProcessor(EmailProcessor.builder());
+        assertThatIllegalArgumentException().isThrownBy(() -> processor.parallelism(0));
+    }
+
+}
@@ -0,0 +1,44 @@
+/*
+ * acme4j - Java ACME client
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://acme4j.shredzone.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ */
+package org.shredzone.acme4j.smime.email;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link ResponseGenerator}.
+ */
+public class ResponseGeneratorTest {
+
+    /**
+     * Test that the key authorization is wrapped into lines of 72 characters.
+     */
+    @Test
+    public void testAppendResponseBody() {
+        var buffer = new StringBuilder();
+        for (var length : new int[] {1, 71, 72, 73, 144, 200}) {
+            var authorization = "x".repeat(length);
+            var expected = "-----BEGIN ACME RESPONSE-----\r\n"
+                    + authorization.replaceAll("(.{72})", "$1\r\n")
+                    + (length % 72 != 0 ? "\r\n" : "")
+                    + "-----END ACME RESPONSE-----\r\n";
+
+            buffer.setLength(0);
+            ResponseGenerator.appendResponseBody(buffer, authorization);
+            assertThat(buffer.toString()).isEqualTo(expected);
+        }
+    }
+
+}
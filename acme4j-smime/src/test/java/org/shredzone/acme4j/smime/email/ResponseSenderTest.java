@@ -0,0 +1,127 @@
+/*
+ * acme4j - Java ACME client
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://acme4j.shredzone.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ */
+package org.shredzone.acme4j.smime.email;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import jakarta.mail.Address;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Provider;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.URLName;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link ResponseSender}.
+ */
+public class ResponseSenderTest {
+
+    private static final List<Message> SENT = new ArrayList<>();
+    private static boolean closeFails = false;
+
+    private Session session;
+
+    @BeforeEach
+    public void init() throws MessagingException {
+        SENT.clear();
+        closeFails = false;
+
+        var props = new Properties();
+        props.setProperty("mail.transport.protocol", "mock");
+        session = Session.getInstance(props);
+        session.setProvider(new Provider(Provider.Type.TRANSPORT, "mock",
+                MockTransport.class.getName(), "acme4j", "1.0"));
+    }
+
+    /**
+     * Test that all responses are sent, and failed responses are reported.
+     */
+    @Test
+    public void testTransport() throws Exception {
+        var first = createMessage("first@example.com");
+        var second = createMessage("fail@example.com");
+        var third = createMessage("third@example.com");
+
+        var failures = ResponseSender.transport(session).send(List.of(first, second, third));
+
+        assertThat(SENT).containsExactly(first, third);
+        assertThat(failures).containsOnlyKeys(second);
+        assertThat(failures.get(second)).isInstanceOf(SendFailedException.class);
+    }
+
+    /**
+     * Test that a failure to close the connection does not fail the sent responses.
+     */
+    @Test
+    public void testCloseFailure() throws Exception {
+        closeFails = true;
+        var first = createMessage("first@example.com");
+        var second = createMessage("second@example.com");
+
+        var failures = ResponseSender.transport(session).send(List.of(first, second));
+
+        assertThat(SENT).containsExactly(first, second);
+        assertThat(failures).isEmpty();
+    }
+
+    private Message createMessage(String recipient) throws MessagingException {
+        var message = new MimeMessage(session);
+        message.setFrom(new InternetAddress("acme-responder@example.org"));
+        message.setRecipient(Message.RecipientType.TO, new InternetAddress(recipient));
+        message.setSubject("Re: ACME: test");
+        message.setText("test");
+        return message;
+    }
+
+    /**
+     * A {@link Transport} that records the sent messages.
+     */
+    public static class MockTransport extends Transport {
+        public MockTransport(Session session, URLName urlname) {
+            super(session, urlname);
+        }
+
+        @Override
+        protected boolean protocolConnect(String host, int port, String user, String password) {
+            return true;
+        }
+
+        @Override
+        public void sendMessage(Message msg, Address[] addresses) throws MessagingException {
+            if (addresses[0].toString().startsWith("fail@")) {
+                throw new SendFailedException("Mailbox unavailable");
+            }
+            SENT.add(msg);
+        }
+
+        @Override
+        public synchronized void close() throws MessagingException {
+            super.close();
+            if (closeFails) {
+                throw new MessagingException("QUIT failed");
+            }
+        }
+    }
+
+}
@@ -14,15 +14,35 @@
 package org.shredzone.acme4j.smime.wrapper;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.security.KeyStoreException;
+import java.security.Security;
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.shredzone.acme4j.smime.SMIMETests;
+import org.shredzone.acme4j.smime.exception.AcmeInvalidMessageException;
 
 /**
  * Unit tests for {@link SignedMailBuilder}.
  */
-public class SignedMailBuilderTest {
+public class SignedMailBuilderTest extends SMIMETests {
+
+    @BeforeAll
+    public static void setup() {
+        Security.addProvider(new BouncyCastleProvider());
+    }
 
     @Test
     public void testDefaultTrustStoreIsCreated() throws KeyStoreException {
@@ -35,4 +55,117 @@ public class SignedMailBuilderTest {
         assertThat(keyStore2).isSameAs(keyStore);
     }
 
+    @Test
+    public void testValidationCache() throws Exception {
+        var builder = new SignedMailBuilder()
+                .withSignCert(readCertificate("valid-signer"))
+                .withValidationCache(Duration.ofHours(1L), 10);
+        var cache = builder.getValidationCache();
+        assertThat(cache).isNotNull();
+
+        // First message validates the certificate path
+        var first = builder.build(mockMessage("valid-mail"));
+        assertThat(first.getFrom()).isEqualTo(email("valid-ca@example.com"));
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.getHits()).isZero();
+
+        // Second message of the same signer only verifies the signature
+        var second = builder.build(mockMessage("valid-mail"));
+        assertThat(second.getFrom()).isEqualTo(email("valid-ca@example.com"));
+        assertThat(cache.getHits()).isEqualTo(1L);
+
+        // A tampered message of the same signer is still rejected
+        var tampered = readMessage("valid-mail", "ACME challenge.", "ACME challengX.");
+        assertThatExceptionOfType(AcmeInvalidMessageException.class)
+                .isThrownBy(() -> builder.build(tampered))
+                .withMessage("Invalid signature");
+        assertThat(cache.getHits()).isEqualTo(2L);
+
+        // Invalid certificate paths are not cached
+        assertThatExceptionOfType(AcmeInvalidMessageException.class)
+                .isThrownBy(() -> builder.build(mockMessage("invalid-signed-mail")));
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void testSameResultWithAndWithoutCache() throws Exception {
+        var cert = readCertificate("valid-signer");
+        var uncached = new SignedMailBuilder().withSignCert(cert)
+                .build(mockMessage("valid-mail"));
+        var cached = new SignedMailBuilder().withSignCert(cert)
+                .withValidationCache(Duration.ofHours(1L), 10)
+                .build(mockMessage("valid-mail"));
+
+        assertThat(cached.toString()).isEqualTo(uncached.toString());
+        assertThat(cached.getFrom()).isEqualTo(uncached.getFrom());
+        assertThat(cached.getTo()).isEqualTo(uncached.getTo());
+        assertThat(cached.getSubject()).isEqualTo(uncached.getSubject());
+        assertThat(cached.getMissingSecuredHeaders()).isEmpty();
+    }
+
+    @Test
+    public void testCachedMessageChecks() throws Exception {
+        var builder = new SignedMailBuilder()
+                .withSignCert(readCertificate("valid-signer"))
+                .relaxed(true);
+
+        // The envelope sender does not match the signer certificate
+        var forged = readMessage("valid-mail", "From: valid-ca@example.com",
+                "From: forged@example.com");
+
+        // Rejected without cached certificate path validation
+        assertThatExceptionOfType(AcmeInvalidMessageException.class)
+                .isThrownBy(() -> builder.build(forged))
+                .withMessage("Invalid signature");
+
+        // Also rejected with a cached certificate path validation
+        builder.withValidationCache(Duration.ofHours(1L), 10);
+        var cache = builder.getValidationCache();
+        assertThat(cache).isNotNull();
+        builder.build(mockMessage("valid-mail"));
+        assertThat(cache.size()).isEqualTo(1);
+
+        var forgedAgain = readMessage("valid-mail", "From: valid-ca@example.com",
+                "From: forged@example.com");
+        assertThatExceptionOfType(AcmeInvalidMessageException.class)
+                .isThrownBy(() -> builder.build(forgedAgain))
+                .withMessage("Invalid signature");
+        assertThat(cache.getHits()).isEqualTo(1L);
+    }
+
+    @Test
+    public void testRequiredHeadersOnly() throws Exception {
+        var cert = readCertificate("valid-signer");
+        var all = new SignedMailBuilder().withSignCert(cert)
+                .build(mockMessage("valid-mail"));
+        var required = new SignedMailBuilder().withSignCert(cert)
+                .requiredHeadersOnly(true)
+                .build(mockMessage("valid-mail"));
+
+        assertThat(required.getFrom()).isEqualTo(all.getFrom());
+        assertThat(required.getTo()).isEqualTo(all.getTo());
+        assertThat(required.getSubject()).isEqualTo(all.getSubject());
+        assertThat(required.getMessageId()).isEqualTo(all.getMessageId());
+        assertThat(required.getReplyTo()).isEqualTo(all.getReplyTo());
+        assertThat(required.isAutoSubmitted()).isEqualTo(all.isAutoSubmitted());
+        assertThat(required.getMissingSecuredHeaders()).isEmpty();
+        assertThat(required.toString()).isEqualTo(all.toString());
+    }
+
+    /**
+     * Reads a message from the test resources, and replaces the first occurrence of a
+     * part of its content.
+     */
+    private MimeMessage readMessage(String name, String search, String replacement)
+            throws IOException, MessagingException {
+        String content;
+        try (InputStream in = SMIMETests.class.getResourceAsStream("/email/" + name + ".eml")) {
+            content = new String(in.readAllBytes(), StandardCharsets.US_ASCII);
+        }
+        assertThat(content).contains(search);
+        var modified = content.replaceFirst(Pattern.quote(search), Matcher.quoteReplacement(replacement))
+                .getBytes(StandardCharsets.US_ASCII);
+        return new MimeMessage(mailSession, new ByteArrayInputStream(modified));
+    }
+
 }
\ No newline at end of file
@@ -445,6 +445,54 @@ public class SignedMailTest {
         assertThat(signedMail.getMissingSecuredHeaders()).contains("FROM", "TO", "SUBJECT");
     }
 
+    @Test
+    public void testRequiredHeadersOnly() throws Exception {
+        var signedMail = new SignedMail(true);
+        signedMail.importUntrustedHeaders(withHeaders(
+                "From", "foo@example.com",
+                "To", "bar@example.org",
+                "Subject", "ACME: abc123",
+                "Date", "Mon, 13 Mar 2023 10:00:00 +0100",
+                "X-Mailer", "Test"
+        ));
+        signedMail.importTrustedHeaders(withHeaders(
+                "From", "foo@example.com",
+                "To", "bar@example.org",
+                "Subject", "ACME: abc123",
+                "Date", "Tue, 14 Mar 2023 10:00:00 +0100"
+        ));
+
+        // Unneeded headers are not imported, so the mismatching Date is ignored
+        assertThat(signedMail.toString()).doesNotContain("Date", "X-Mailer");
+        assertThat(signedMail.getFrom()).isEqualTo(new InternetAddress("foo@example.com"));
+        assertThat(signedMail.getTo()).isEqualTo(new InternetAddress("bar@example.org"));
+        assertThat(signedMail.getSubject()).isEqualTo("ACME: abc123");
+        assertThat(signedMail.getMissingSecuredHeaders()).isEmpty();
+
+        // Signature headers of unneeded headers are ignored as well
+        signedMail.checkDuplicatedField("From", "foo@example.com", false);
+        assertThatExceptionOfType(AcmeInvalidMessageException.class).isThrownBy(() ->
+                signedMail.checkDuplicatedField("From", "other@example.com", false)
+        );
+    }
+
+    @Test
+    public void testAllHeaders() {
+        var signedMail = new SignedMail();
+        signedMail.importUntrustedHeaders(withHeaders(
+                "From", "foo@example.com",
+                "Date", "Mon, 13 Mar 2023 10:00:00 +0100"
+        ));
+
+        // All headers are imported and checked by default
+        assertThat(signedMail.toString()).contains("Date");
+        assertThatExceptionOfType(AcmeInvalidMessageException.class).isThrownBy(() ->
+                signedMail.importTrustedHeaders(withHeaders(
+                        "Date", "Tue, 14 Mar 2023 10:00:00 +0100"
+                ))
+        );
+    }
+
     private Enumeration<Header> withHeaders(String... kv) {
         var headers = new ArrayList<Header>();
         for (var ix = 0; ix < kv.length; ix += 2) {
@@ -0,0 +1,123 @@
+/*
+ * acme4j - Java ACME client
+ *
+ * Copyright (C) 2026 Richard "Shred" Körber
+ *   http://acme4j.shredzone.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+ */
+package org.shredzone.acme4j.smime.wrapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+import java.security.KeyStore;
+import java.security.cert.PKIXParameters;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.shredzone.acme4j.smime.SMIMETests;
+
+/**
+ * Unit tests for {@link ValidationCache}.
+ */
+public class ValidationCacheTest extends SMIMETests {
+
+    private final AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2026-01-01T00:00:00Z"));
+
+    private final Clock clock = new Clock() {
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now.get();
+        }
+    };
+
+    @Test
+    public void testExpiryAndEviction() throws Exception {
+        var params = pkixParameters("valid-signer");
+        var cache = new ValidationCache(Duration.ofMinutes(10L), 2, clock);
+
+        var key1 = cache.key(new byte[] {1}, params);
+        var key2 = cache.key(new byte[] {2}, params);
+        var key3 = cache.key(new byte[] {3}, params);
+        assertThat(key1).isNotEqualTo(key2);
+
+        assertThat(cache.isValidated(key1)).isFalse();
+        cache.recordValidated(key1);
+        assertThat(cache.isValidated(key1)).isTrue();
+
+        // the least recently used entry is evicted
+        cache.recordValidated(key2);
+        cache.recordValidated(key3);
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.isValidated(key1)).isFalse();
+
+        // entries expire
+        now.set(now.get().plus(Duration.ofMinutes(10L)));
+        assertThat(cache.isValidated(key2)).isFalse();
+        assertThat(cache.isValidated(key3)).isFalse();
+        assertThat(cache.size()).isZero();
+        assertThat(cache.getHits()).isEqualTo(1L);
+    }
+
+    @Test
+    public void testTrustAnchors() throws Exception {
+        var cache = new ValidationCache(Duration.ofMinutes(10L), 10, clock);
+        var cert = new byte[] {1, 2, 3};
+
+        var key = cache.key(cert, pkixParameters("valid-signer"));
+        assertThat(cache.key(cert, pkixParameters("valid-signer"))).isEqualTo(key);
+        assertThat(cache.key(cert, pkixParameters("invalid-signer"))).isNotEqualTo(key);
+    }
+
+    @Test
+    public void testModifiedTrustAnchors() throws Exception {
+        var cache = new ValidationCache(Duration.ofMinutes(10L), 10, clock);
+        var cert = new byte[] {1, 2, 3};
+
+        var params = pkixParameters("valid-signer");
+        var key = cache.key(cert, params);
+
+        // the same parameters instance is changed after use
+        params.setTrustAnchors(pkixParameters("invalid-signer").getTrustAnchors());
+        var modifiedKey = cache.key(cert, params);
+        assertThat(modifiedKey).isNotEqualTo(key);
+        assertThat(cache.key(cert, pkixParameters("invalid-signer"))).isEqualTo(modifiedKey);
+    }
+
+    @Test
+    public void testInvalid() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new ValidationCache(Duration.ZERO, 10, clock));
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new ValidationCache(Duration.ofMinutes(1L), 0, clock));
+    }
+
+    private PKIXParameters pkixParameters(String certificate) throws Exception {
+        var ks = KeyStore.getInstance("JKS");
+        ks.load(null, null);
+        ks.setCertificateEntry("cert", readCertificate(certificate));
+        return new PKIXParameters(ks);
+    }
+
+}